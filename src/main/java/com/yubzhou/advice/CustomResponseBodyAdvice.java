@@ -63,6 +63,11 @@ public class CustomResponseBodyAdvice implements ResponseBodyAdvice<Object> {
 			return body;
 		}
 
+		// 如果body的类型为byte[]，则直接返回（如：热点接口预先序列化的响应体，已是Result格式的JSON或其gzip压缩版本）
+		if (body instanceof byte[]) {
+			return body;
+		}
+
 		// 此时body的类型不是Result，因此需要构造Result对象，且根据HTTP状态码进行特殊处理（使Result对象里面的code字段与HTTP状态码一致）
 		// 基础结果对象构造
 		Result<Object> result = buildResultObject(body);
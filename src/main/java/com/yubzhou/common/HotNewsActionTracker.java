@@ -1,27 +1,183 @@
 package com.yubzhou.common;
 
+import com.yubzhou.common.UserActionEvent.ActionType;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.util.SlidingWindowCounter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
 
+/**
+ * 用户行为事件的统计（消费者处理事件时记录）
+ * 1. 每种行为类型在最近1秒、1分钟、5分钟内的事件速率（每秒一个时间桶的环形缓冲区，保留5分钟）
+ * 2. 端到端延迟（事件产生时间UserActionEvent.timestamp → 消费者处理该事件），最近1分钟的平均值和最大值
+ * 3. 消费者积压（Kafka分区的最新偏移量 − 消费者的当前位置，每批事件更新一次）
+ * 4. 最近一小时内每分钟的事件数（每分钟一个时间桶），用于判断热点缓存是否需要刷新
+ * 同时实现MeterBinder，开启actuator后以Micrometer指标输出
+ */
 @Component
-public class HotNewsActionTracker {
+public class HotNewsActionTracker implements MeterBinder {
+	private static final ActionType[] ACTION_TYPES = ActionType.values();
+	private static final int LATENCY_SUM = ACTION_TYPES.length; // 延迟之和的计数器下标
+	private static final int LATENCY_COUNT = ACTION_TYPES.length + 1; // 延迟样本数的计数器下标
+	private static final int LATENCY_MAX = ACTION_TYPES.length + 2; // 延迟最大值的计数器下标
+	static final int[] RATE_WINDOWS_SECONDS = {1, 60, 300};
+
+	private final HotNewsProperties.ActionRate config;
+	private final LongSupplier clock;
+	// 每秒一个时间桶（保留5分钟）：每种行为类型的事件数 + 延迟之和、样本数、最大值
+	private final SlidingWindowCounter seconds = new SlidingWindowCounter(301, 1000, ACTION_TYPES.length + 3);
+	// 每分钟一个时间桶（保留1小时）：事件总数
+	private final SlidingWindowCounter minutes = new SlidingWindowCounter(61, 60_000, 1);
+	// 每种行为类型的累计事件数
+	private final AtomicLongArray totals = new AtomicLongArray(ACTION_TYPES.length);
 	// 全局最后事件时间戳
 	private final AtomicLong lastEventTime = new AtomicLong(0);
+	// 消费者积压的事件数（-1表示未知，如使用本地事件总线传输时）
+	private final AtomicLong consumerLag = new AtomicLong(-1);
+
+	@Autowired
+	public HotNewsActionTracker(HotNewsProperties hotNewsProperties) {
+		this(hotNewsProperties, System::currentTimeMillis);
+	}
+
+	HotNewsActionTracker(HotNewsProperties hotNewsProperties, LongSupplier clock) {
+		this.config = hotNewsProperties.getActionRate();
+		this.clock = clock;
+	}
+
+	// 记录一批事件（消费者调用）
+	public void record(List<UserActionEvent> events) {
+		long now = clock.getAsLong();
+		for (UserActionEvent event : events) {
+			int lane = event.getAction().ordinal();
+			seconds.add(lane, 1, now);
+			totals.incrementAndGet(lane);
+			if (event.getTimestamp() != null && event.getTimestamp() > 0) {
+				long latency = Math.max(0, now - event.getTimestamp());
+				seconds.add(LATENCY_SUM, latency, now);
+				seconds.add(LATENCY_COUNT, 1, now);
+				seconds.updateMax(LATENCY_MAX, latency, now);
+			}
+		}
+		minutes.add(0, events.size(), now);
+		lastEventTime.set(now);
+	}
 
-	// 标记新事件（Kafka消费者调用）
-	public void markAction() {
-		lastEventTime.set(System.currentTimeMillis());
+	// 更新消费者积压的事件数（消费者每批事件调用）
+	public void recordConsumerLag(long lag) {
+		consumerLag.set(lag);
 	}
 
 	/**
 	 * 检查是否需要刷新（定时任务调用）
 	 *
-	 * @param timeWindowMillis 时间窗口（毫秒）
-	 * @return 如果距离上次事件时间戳的间隔不超过时间窗口（代表有新数据，需要刷新缓存），则返回true，否则返回false
+	 * @param timeWindowMillis 时间窗口（毫秒，按分钟向上取整，最长1小时）
+	 * @return 时间窗口内的事件数不少于 hot-news.action-rate.refresh-min-events（代表有足够的新数据，需要刷新缓存）时返回true
 	 */
 	public boolean shouldRefresh(boolean force, long timeWindowMillis) {
-		long current = System.currentTimeMillis();
-		return force || ((current - lastEventTime.get()) < timeWindowMillis);
+		if (force) return true;
+		long now = clock.getAsLong();
+		int windowMinutes = (int) Math.min(60, (timeWindowMillis + 59_999) / 60_000);
+		// 已结束的分钟 + 当前分钟
+		long events = minutes.sum(0, windowMinutes, now) + minutes.current(0, now);
+		return events >= config.getRefreshMinEvents();
+	}
+
+	/**
+	 * 事件速率（每秒事件数）
+	 *
+	 * @param action        行为类型，为null时统计所有行为类型
+	 * @param windowSeconds 时间窗口（秒，最长5分钟）
+	 */
+	public double rate(ActionType action, int windowSeconds) {
+		long now = clock.getAsLong();
+		long count = 0;
+		if (action != null) {
+			count = seconds.sum(action.ordinal(), windowSeconds, now);
+		} else {
+			for (ActionType type : ACTION_TYPES) count += seconds.sum(type.ordinal(), windowSeconds, now);
+		}
+		return (double) count / windowSeconds;
+	}
+
+	// 最近1分钟的平均端到端延迟（毫秒）
+	public double averageLatencyMillis() {
+		long now = clock.getAsLong();
+		long count = seconds.sum(LATENCY_COUNT, 60, now);
+		return count == 0 ? 0 : (double) seconds.sum(LATENCY_SUM, 60, now) / count;
+	}
+
+	// 最近1分钟的最大端到端延迟（毫秒）
+	public long maxLatencyMillis() {
+		return seconds.max(LATENCY_MAX, 60, clock.getAsLong());
+	}
+
+	public long getConsumerLag() {
+		return consumerLag.get();
+	}
+
+	// 获取统计信息
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		Map<String, Object> rates = new LinkedHashMap<>();
+		for (int window : RATE_WINDOWS_SECONDS) {
+			Map<String, Double> windowRates = new LinkedHashMap<>();
+			windowRates.put("total", rate(null, window));
+			for (ActionType type : ACTION_TYPES) windowRates.put(type.name().toLowerCase(), rate(type, window));
+			rates.put(windowName(window), windowRates);
+		}
+		stats.put("rates", rates);
+		Map<String, Long> eventTotals = new LinkedHashMap<>();
+		for (ActionType type : ACTION_TYPES) eventTotals.put(type.name().toLowerCase(), totals.get(type.ordinal()));
+		stats.put("totals", eventTotals);
+		stats.put("latencyAvgMillis1m", averageLatencyMillis());
+		stats.put("latencyMaxMillis1m", maxLatencyMillis());
+		stats.put("consumerLag", getConsumerLag());
+		stats.put("lastEventTime", lastEventTime.get());
+		return stats;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (ActionType type : ACTION_TYPES) {
+			String action = type.name().toLowerCase();
+			FunctionCounter.builder("hot_news.events", totals, t -> t.get(type.ordinal()))
+					.description("处理的用户行为事件数")
+					.tag("action", action)
+					.register(registry);
+			for (int window : RATE_WINDOWS_SECONDS) {
+				Gauge.builder("hot_news.events.rate", this, tracker -> tracker.rate(type, window))
+						.description("用户行为事件速率（每秒）")
+						.baseUnit("events")
+						.tags("action", action, "window", windowName(window))
+						.register(registry);
+			}
+		}
+		Gauge.builder("hot_news.events.latency.avg", this, HotNewsActionTracker::averageLatencyMillis)
+				.description("最近1分钟的平均端到端延迟")
+				.baseUnit("milliseconds")
+				.register(registry);
+		Gauge.builder("hot_news.events.latency.max", this, HotNewsActionTracker::maxLatencyMillis)
+				.description("最近1分钟的最大端到端延迟")
+				.baseUnit("milliseconds")
+				.register(registry);
+		Gauge.builder("hot_news.consumer.lag", consumerLag, AtomicLong::get)
+				.description("消费者积压的事件数")
+				.register(registry);
+	}
+
+	private static String windowName(int windowSeconds) {
+		return windowSeconds < 60 ? windowSeconds + "s" : windowSeconds / 60 + "m";
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.yubzhou.common;
+
+import com.yubzhou.model.vo.HotNews;
+
+import java.util.*;
+
+/**
+ * 热点新闻列表两次快照之间的差异（SSE推送给订阅者）
+ * 只在排名或成员变化时生成（仅热度变化时不推送）：
+ * moved为排名变化的新闻，entered为新进入列表的新闻（包含新闻详情），left为离开列表的新闻ID；
+ * 客户端按顺序应用差异，应用后列表的ETag为etag（与热点接口返回的ETag一致）
+ */
+public record HotNewsDiff(String window, String etag,
+						  List<Moved> moved, List<HotNews> entered, List<Long> left) {
+
+	// 排名变化：新闻ID、原排名、新排名（排名从1开始）
+	public record Moved(long newsId, int from, int to) {
+	}
+
+	/**
+	 * 计算两次快照之间的差异
+	 *
+	 * @return 排名和成员都没有变化时返回null
+	 */
+	public static HotNewsDiff between(String window, HotNewsSnapshot previous, HotNewsSnapshot current) {
+		Map<Long, Integer> previousRanks = ranks(previous.getHotNews());
+		Map<Long, Integer> currentRanks = ranks(current.getHotNews());
+
+		List<Moved> moved = new ArrayList<>();
+		List<HotNews> entered = new ArrayList<>();
+		List<HotNews> hotNewsList = current.getHotNews();
+		for (int i = 0; i < hotNewsList.size(); i++) {
+			HotNews hotNews = hotNewsList.get(i);
+			Integer from = previousRanks.get(hotNews.getNewsId());
+			if (from == null) {
+				entered.add(hotNews);
+			} else if (from != i + 1) {
+				moved.add(new Moved(hotNews.getNewsId(), from, i + 1));
+			}
+		}
+		List<Long> left = previous.getHotNews().stream()
+				.map(HotNews::getNewsId)
+				.filter(newsId -> !currentRanks.containsKey(newsId))
+				.toList();
+
+		if (moved.isEmpty() && entered.isEmpty() && left.isEmpty()) return null;
+		return new HotNewsDiff(window, current.getEtag(), List.copyOf(moved), List.copyOf(entered), left);
+	}
+
+	// 新闻ID → 排名（按列表顺序，从1开始）
+	private static Map<Long, Integer> ranks(List<HotNews> hotNewsList) {
+		Map<Long, Integer> ranks = new HashMap<>(hotNewsList.size() * 2);
+		for (int i = 0; i < hotNewsList.size(); i++) {
+			ranks.put(hotNewsList.get(i).getNewsId(), i + 1);
+		}
+		return ranks;
+	}
+}
@@ -0,0 +1,14 @@
+package com.yubzhou.common;
+
+import java.util.Map;
+
+/**
+ * 热点新闻热度消息（各节点执行热点新闻行为脚本后通过redis发布订阅广播，所有节点据此更新进程内的Top-K统计）
+ * 热度与脚本ZADD到小时桶中的热度相同
+ *
+ * @param source 发布节点的标识（接收方忽略自己发布的消息）
+ * @param hour   小时序号（与小时桶Key对应的小时一致）
+ * @param scores 新闻ID → 热度
+ */
+public record HotNewsScoreMessage(String source, long hour, Map<Long, Double> scores) {
+}
@@ -0,0 +1,68 @@
+package com.yubzhou.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yubzhou.model.vo.HotNews;
+import lombok.Getter;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 热点新闻列表的不可变快照（每次刷新缓存时构建，通过一次volatile赋值整体替换）
+ * 构建时预先序列化响应体（Result包装后的JSON）及其gzip压缩版本，并由热点列表的内容计算ETag，
+ * 热点接口直接输出预先序列化的字节，客户端携带相同的ETag（If-None-Match）时由Spring MVC返回304
+ * 两种响应体的字节不同，因此各有一个强ETag（gzip版本加上-gzip后缀），缓存不会用一种编码的响应体回应另一种编码的请求
+ */
+@Getter
+public final class HotNewsSnapshot {
+	private final List<HotNews> hotNews; // 不可变的热点新闻列表
+	private final byte[] json; // 响应体（Result.success(hotNews)序列化后的JSON）
+	private final byte[] gzip; // 响应体的gzip压缩版本
+	private final String etag; // 强ETag（热点列表内容的MD5，内容不变时ETag不变）
+	private final String gzipEtag; // gzip版本的强ETag（etag加上-gzip后缀）
+	private final long createdAt; // 构建时间（毫秒时间戳）
+
+	private HotNewsSnapshot(List<HotNews> hotNews, byte[] json, byte[] gzip, String etag, long createdAt) {
+		this.hotNews = hotNews;
+		this.json = json;
+		this.gzip = gzip;
+		this.etag = etag;
+		this.gzipEtag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+		this.createdAt = createdAt;
+	}
+
+	/**
+	 * 构建快照（热点列表的内容与previous相同时直接返回previous，保持ETag和响应体不变）
+	 *
+	 * @param hotNews      热点新闻列表（构建后不应再修改）
+	 * @param previous     当前的快照（可为null）
+	 * @param objectMapper 与Spring MVC相同的ObjectMapper
+	 */
+	public static HotNewsSnapshot of(List<HotNews> hotNews, HotNewsSnapshot previous, ObjectMapper objectMapper) {
+		try {
+			List<HotNews> list = List.copyOf(hotNews);
+			String etag = "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(list)) + "\"";
+			if (previous != null && etag.equals(previous.etag)) return previous;
+
+			byte[] json = objectMapper.writeValueAsBytes(Result.success(list));
+			return new HotNewsSnapshot(list, json, gzip(json), etag, System.currentTimeMillis());
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("热点新闻快照序列化失败", e);
+		}
+	}
+
+	private static byte[] gzip(byte[] data) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+}
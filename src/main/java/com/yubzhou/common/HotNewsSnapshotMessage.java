@@ -0,0 +1,40 @@
+package com.yubzhou.common;
+
+import com.yubzhou.model.vo.HotNews;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热点新闻快照消息（主节点刷新热点缓存后通过redis发布订阅广播，其他节点据此更新Java内存中的缓存，无需再合并ZSet）
+ * 只包含新闻ID、热度和排名，新闻详情由接收方从redis的新闻缓存中批量获取
+ *
+ * @param source     发布节点的标识（接收方忽略自己发布的消息）
+ * @param kind       快照类型
+ * @param name       窗口名称（WINDOW）或缓存类型（CATEGORY：HOUR、DAY、WEEK），其他类型为null
+ * @param entries    热点新闻（CATEGORY为null）
+ * @param categories 分类ID → 分类热点新闻（只有CATEGORY使用）
+ */
+public record HotNewsSnapshotMessage(String source, Kind kind, String name, List<Entry> entries,
+									 Map<Long, List<Entry>> categories) {
+
+	public enum Kind {
+		HOUR, // 1小时热点
+		DAY, // 24小时热点
+		WEEK, // 7天热点
+		WINDOW, // 其他配置的热点窗口
+		CATEGORY // 分类热点
+	}
+
+	public record Entry(long newsId, Double hotness, Integer rank) {
+	}
+
+	public static List<Entry> toEntries(List<HotNews> hotNewsList) {
+		return hotNewsList.stream().map(h -> new Entry(h.getNewsId(), h.getHotness(), h.getRank())).toList();
+	}
+
+	// 转为热点新闻（不包含新闻详情）
+	public static List<HotNews> toHotNews(List<Entry> entries) {
+		return entries.stream().map(e -> new HotNews(e.newsId(), e.rank(), e.hotness(), null)).toList();
+	}
+}
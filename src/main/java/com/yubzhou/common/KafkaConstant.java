@@ -17,4 +17,10 @@ public class KafkaConstant {
 	public static final String USER_ACTION_GROUP_ID = "user_actions_group";
 	public static final int USER_ACTION_PARTITIONS = 3;
 	public static final short USER_ACTION_REPLICATION_FACTOR = 1;
+	// user_actions 死信主题（重试后仍处理失败的事件，分区数与 user_actions 相同）
+	public static final String USER_ACTION_DLT_TOPIC = "user_actions-dlt";
+	// user_actions 监听器ID（用于从KafkaListenerEndpointRegistry中获取监听容器）
+	public static final String USER_ACTION_LISTENER_ID = "userActionListener";
+	// user_actions 批量监听容器工厂Bean名称
+	public static final String USER_ACTION_CONTAINER_FACTORY = "userActionBatchContainerFactory";
 }
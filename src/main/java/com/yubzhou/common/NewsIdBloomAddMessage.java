@@ -0,0 +1,12 @@
+package com.yubzhou.common;
+
+import java.util.List;
+
+/**
+ * 新闻ID布隆过滤器新增消息（任一节点新增新闻后通过redis发布订阅广播，各节点据此更新Java内存中的过滤器）
+ *
+ * @param source  发布节点的标识（发布节点已在本地添加，接收方忽略自己发布的消息）
+ * @param newsIds 新增的新闻ID
+ */
+public record NewsIdBloomAddMessage(String source, List<Long> newsIds) {
+}
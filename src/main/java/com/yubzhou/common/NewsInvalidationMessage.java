@@ -0,0 +1,13 @@
+package com.yubzhou.common;
+
+import java.util.List;
+
+/**
+ * 新闻缓存失效消息（任一节点写入新闻缓存或更新新闻指标后通过redis发布订阅广播，各节点据此失效进程内的近端缓存）
+ *
+ * @param source  发布节点的标识（发布节点已在本地失效，接收方忽略自己发布的消息）
+ * @param newsIds 需要失效的新闻ID（all为true时为null）
+ * @param all     是否失效全部新闻（如批量删除redis中的新闻缓存后）
+ */
+public record NewsInvalidationMessage(String source, List<Long> newsIds, boolean all) {
+}
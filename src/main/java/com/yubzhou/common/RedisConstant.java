@@ -50,6 +50,21 @@ public class RedisConstant {
 	// 新闻详情的前缀
 	public static final String NEWS_DETAIL_PREFIX = "news:detail:";
 
+	// 新闻指标的前缀（浏览量、支持数等计数器，与新闻详情分开存储，更新指标时不需要读写新闻详情）
+	public static final String NEWS_METRICS_PREFIX = "news:metrics:";
+
+	// 新闻内容的前缀（新闻内容较大，单独存储，只有需要内容时才读取）
+	public static final String NEWS_CONTENT_PREFIX = "news:content:";
+
+	// 二进制编码的新闻详情和内容的前缀（hot-news.news-cache.format=BINARY时代替新闻详情Hash和新闻内容）
+	public static final String NEWS_BLOB_PREFIX = "news:blob:";
+
+	// 指标已变化但尚未写回数据库的新闻ID集合（write-behind，定时批量写回MySQL）
+	public static final String NEWS_METRICS_DIRTY_SET = "news:metrics_dirty";
+
+	// 新闻ID布隆过滤器的位图前缀（后接位数组大小和哈希函数个数，配置变化后使用新的位图）
+	public static final String NEWS_ID_BLOOM_PREFIX = "news:bloom:";
+
 	// 新闻分类信息前缀
 	public static final String NEWS_CATEGORY_META = "news:category:meta";
 
@@ -75,6 +90,35 @@ public class RedisConstant {
 	public static final String HOT_NEWS_WEEK_PREFIX = HOT_NEWS_WEEK + ":";
 	public static final String HOT_NEWS_WEEK_CACHE_TOP10 = HOT_NEWS_WEEK_PREFIX + "cache_top10";
 
+	// 保存每周热点新闻（周一开始，由天级Key汇总）
+	public static final String HOT_NEWS_WEEK_BUCKET_PREFIX = "news:hot:1w:";
+
+	// 可配置的热点窗口（增量维护的已结束部分、与当前小时合并后的结果）
+	public static final String HOT_NEWS_WINDOW_PREFIX = "news:hot:window:";
+	public static final String HOT_NEWS_WINDOW_MERGED_PREFIX = HOT_NEWS_WINDOW_PREFIX + "merged:";
+	public static final String HOT_NEWS_WINDOW_META = "news:hot:window_meta";
+
+	// 分类热点的临时交集（刷新时生成，读取后立即删除）
+	public static final String HOT_NEWS_CATEGORY_TMP_PREFIX = "news:hot:category:tmp:";
+
+	// 热点缓存刷新主节点的租约（锁名称，RedisLockUtil会加上lock:前缀）
+	public static final String HOT_NEWS_REFRESH_LEADER = "news:hot:refresh_leader";
+	// 热点新闻快照的发布订阅频道（主节点刷新后广播，其他节点据此更新Java内存中的缓存）
+	public static final String HOT_NEWS_SNAPSHOT_CHANNEL = "news:hot:snapshot";
+	// 热点新闻热度的发布订阅频道（各节点写入小时桶后广播写入的热度，所有节点据此维护进程内的24小时、7天Top-K）
+	public static final String HOT_NEWS_SCORE_CHANNEL = "news:hot:scores";
+	// 所有节点每分钟处理的用户行为事件数（后接分钟序号，开启主节点选举时写入，主节点据此判断热点缓存是否需要刷新）
+	public static final String HOT_NEWS_EVENT_COUNT_PREFIX = "news:hot:events:";
+
+	// 新闻ID布隆过滤器新增频道（新增新闻后广播，各节点据此更新Java内存中的过滤器）
+	public static final String NEWS_ID_BLOOM_ADD_CHANNEL = "news:bloom:add";
+
+	// 新闻缓存失效频道（写入新闻缓存或更新新闻指标后广播，各节点据此失效进程内的近端缓存）
+	public static final String NEWS_INVALIDATE_CHANNEL = "news:detail:invalidate";
+
+	// 热点ZSet重建任务的锁（多实例部署时同一时间只有一个重建任务）
+	public static final String HOT_NEWS_REBUILD_LOCK = "news:hot:rebuild";
+
 	// 更新用户新闻行为记录（即用户对某一新闻是否进行了支持、反对、收藏等操作，以及取消支持、取消反对、取消收藏等操作）
 	public static final String USER_NEWS_ACTION_PREFIX = "news:user_action:";
 
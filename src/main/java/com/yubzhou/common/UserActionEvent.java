@@ -47,6 +47,11 @@ public class UserActionEvent {
 			return this.name().startsWith("UN");
 		}
 
+		// 获取取消操作对应的原操作（如UNSUPPORT对应SUPPORT），非取消操作返回自身
+		public ActionType toOriginalAction() {
+			return isCancelAction() ? ActionType.valueOf(this.name().substring(2)) : this;
+		}
+
 		// 是否为支持、反对、收藏动作
 		public boolean isSupportOrOpposeOrFavorite() {
 			return this == SUPPORT || this == OPPOSE || this == FAVORITE;
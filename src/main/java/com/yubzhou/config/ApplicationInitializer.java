@@ -1,6 +1,10 @@
 package com.yubzhou.config;
 
 import com.yubzhou.consumer.HotNewsCacheService;
+import com.yubzhou.consumer.HotNewsService;
+import com.yubzhou.consumer.HotNewsTopKTracker;
+import com.yubzhou.consumer.HotNewsWindowService;
+import com.yubzhou.consumer.NewsIdBloomFilter;
 import com.yubzhou.scheduler.FileCleanupScheduler;
 import com.yubzhou.service.NewsCategoryRelationService;
 import com.yubzhou.service.NewsCategoryService;
@@ -14,12 +18,18 @@ import org.springframework.stereotype.Component;
 public class ApplicationInitializer implements ApplicationRunner {
 
 	private final HotNewsCacheService hotNewsCacheService;
+	private final HotNewsService hotNewsService;
+	private final HotNewsWindowService hotNewsWindowService;
+	private final HotNewsTopKTracker hotNewsTopKTracker;
+	private final NewsIdBloomFilter newsIdBloomFilter;
 	private final NewsCategoryService newsCategoryService;
 	private final NewsCategoryRelationService newsCategoryRelationService;
 	private final FileCleanupScheduler fileCleanupScheduler;
 
 	@Override
 	public void run(ApplicationArguments args) throws Exception {
+		// 预加载Lua脚本
+		hotNewsService.loadScripts();
 		// 加载缓存
 		loadCache();
 		// 清空临时文件
@@ -30,12 +40,20 @@ public class ApplicationInitializer implements ApplicationRunner {
 	private void loadCache() {
 		// 加载新闻元数据（新闻最小ID和最大ID）
 		hotNewsCacheService.loadCacheNewsMeta();
+		// 由数据库中的全部新闻ID构建新闻ID布隆过滤器（在加载新闻缓存之前）
+		newsIdBloomFilter.rebuild();
+		// 补齐停机期间错过的热点窗口更新
+		hotNewsWindowService.tick();
+		// 从redis中的小时桶、天级桶预热进程内的热点新闻Top-K统计
+		hotNewsTopKTracker.seed();
 		// 加载热点新闻缓存到Java内存中
 		hotNewsCacheService.loadCacheTop10();
 		// 从数据库中加载新闻分类缓存到redis和Java内存中
 		newsCategoryService.loadCacheNewsCategories();
 		// 从数据库中加载新闻分类关系缓存到redis中
 		newsCategoryRelationService.cacheAllNewsCategoryRelationToRedis();
+		// 加载分类热点缓存（依赖新闻分类缓存和新闻-分类关系缓存）
+		hotNewsCacheService.loadCategoryCaches();
 	}
 
 	// 清空临时文件
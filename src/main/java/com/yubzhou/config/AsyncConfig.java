@@ -1,6 +1,7 @@
 package com.yubzhou.config;
 
 import com.yubzhou.properties.AsyncProperties;
+import com.yubzhou.util.OrderedLaneExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,6 +49,12 @@ public class AsyncConfig implements AsyncConfigurer {
 		return buildExecutor(asyncProperties.getGlobal());
 	}
 
+	// 用户行为事件的有序分道执行器（同一新闻的事件按顺序执行，不与全局线程池竞争）
+	@Bean(name = "hotNewsLaneExecutor", destroyMethod = "shutdown")
+	public OrderedLaneExecutor hotNewsLaneExecutor() {
+		return new OrderedLaneExecutor(asyncProperties.getHotNewsLane());
+	}
+
 	// 全局默认线程池：覆盖 AsyncConfigurer 接口方法，返回全局线程池
 	@Override
 	public Executor getAsyncExecutor() {
@@ -1,9 +1,22 @@
 package com.yubzhou.config;
 
 import com.yubzhou.common.KafkaConstant;
+import com.yubzhou.common.UserActionEvent;
+import com.yubzhou.producer.UserActionDeadLetterPublisher;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.serializer.UserActionEventDeserializer;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.Map;
 
 @Configuration
 public class KafkaConfig {
@@ -14,4 +27,36 @@ public class KafkaConfig {
 		return new NewTopic(KafkaConstant.USER_ACTION_TOPIC, KafkaConstant.USER_ACTION_PARTITIONS, KafkaConstant.USER_ACTION_REPLICATION_FACTOR);
 	}
 
+	@Bean
+	public NewTopic userActionsDeadLetterTopic() {
+		// user_actions 的死信主题，分区数与 user_actions 相同（写入原分区）
+		return new NewTopic(KafkaConstant.USER_ACTION_DLT_TOPIC, KafkaConstant.USER_ACTION_PARTITIONS, KafkaConstant.USER_ACTION_REPLICATION_FACTOR);
+	}
+
+	// user_actions 专用的批量监听容器工厂（其他监听器仍使用 spring.kafka.listener.type 配置的单条模式）
+	@Bean(KafkaConstant.USER_ACTION_CONTAINER_FACTORY)
+	public ConcurrentKafkaListenerContainerFactory<String, UserActionEvent> userActionBatchContainerFactory(
+			KafkaProperties kafkaProperties, HotNewsProperties hotNewsProperties,
+			UserActionDeadLetterPublisher userActionDeadLetterPublisher) {
+		HotNewsProperties.Consumer config = hotNewsProperties.getConsumer();
+
+		// 在全局消费者配置的基础上，单独指定每次poll的最大事件数
+		Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+		props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, config.getMaxPollRecords());
+		// 使用用户行为事件专用的反序列化器（二进制格式，兼容JSON格式）
+		props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, UserActionEventDeserializer.class);
+
+		ConcurrentKafkaListenerContainerFactory<String, UserActionEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+		factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+		factory.setBatchListener(true); // 批量监听：每次poll到的事件作为一个List交给监听方法
+		factory.setConcurrency(config.getConcurrency());
+		// 监听方法正常返回后才提交偏移量（浏览、评论在批内合并后直接写入redis，不经过定时写入的进程内聚合，
+		// 因此返回时整批事件已写入redis）
+		factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+		// 执行道处理失败由监听方法只重试失败的执行道，重试后仍失败的事件写入死信主题，监听方法正常返回；
+		// 监听方法本身抛出异常（如执行器已关闭、死信主题写入失败）时，按固定间隔重试整批，超过次数后整批写入死信主题
+		factory.setCommonErrorHandler(new DefaultErrorHandler(userActionDeadLetterPublisher.recoverer(),
+				new FixedBackOff(config.getRetryIntervalMillis(), config.getMaxRetries())));
+		return factory;
+	}
 }
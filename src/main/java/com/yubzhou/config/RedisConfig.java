@@ -8,6 +8,7 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -38,6 +39,14 @@ public class RedisConfig {
 		return template;
 	}
 
+	// 发布订阅监听容器（订阅者在初始化时自行注册频道）
+	@Bean
+	public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(factory);
+		return container;
+	}
+
 	// 配置Lua脚本
 	@Bean("zSetRandomScript")
 	public DefaultRedisScript<List> zSetRandomScript() {
@@ -55,4 +64,58 @@ public class RedisConfig {
 		script.setResultType(Long.class);
 		return script;
 	}
+
+	// 配置Lua脚本（单个用户行为事件对新闻的全部更新，由HotNewsService通过EVALSHA调用）
+	@Bean("hotNewsActionScript")
+	public DefaultRedisScript<String> hotNewsActionScript() {
+		DefaultRedisScript<String> script = new DefaultRedisScript<>();
+		script.setLocation(new ClassPathResource("scripts/hot_news_action.lua"));
+		script.setResultType(String.class);
+		return script;
+	}
+
+	// 配置Lua脚本（将旧格式的新闻缓存拆分为新闻详情、新闻指标、新闻内容）
+	@Bean("migrateNewsCacheScript")
+	public DefaultRedisScript<Long> migrateNewsCacheScript() {
+		DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+		script.setLocation(new ClassPathResource("scripts/migrate_news_cache.lua"));
+		script.setResultType(Long.class);
+		return script;
+	}
+
+	// 配置Lua脚本（用数据库中的评论数覆盖新闻指标中的comments字段）
+	@Bean("syncNewsCommentsScript")
+	public DefaultRedisScript<Long> syncNewsCommentsScript() {
+		DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+		script.setLocation(new ClassPathResource("scripts/sync_news_comments.lua"));
+		script.setResultType(Long.class);
+		return script;
+	}
+
+	// 配置Lua脚本（新闻ID布隆过滤器位图的原子合并）
+	@Bean("mergeBloomFilterScript")
+	public DefaultRedisScript<byte[]> mergeBloomFilterScript() {
+		DefaultRedisScript<byte[]> script = new DefaultRedisScript<>();
+		script.setLocation(new ClassPathResource("scripts/merge_bloom_filter.lua"));
+		script.setResultType(byte[].class);
+		return script;
+	}
+
+	// 配置Lua脚本（读取一批新闻在当前小时桶中的热度并广播，由HotNewsTopKTracker追加到热点新闻行为脚本的pipeline中）
+	@Bean("hotNewsScorePublishScript")
+	public DefaultRedisScript<Long> hotNewsScorePublishScript() {
+		DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+		script.setLocation(new ClassPathResource("scripts/hot_news_score_publish.lua"));
+		script.setResultType(Long.class);
+		return script;
+	}
+
+	// 配置Lua脚本（热点窗口、汇总桶的幂等增量更新）
+	@Bean("hotNewsWindowTickScript")
+	public DefaultRedisScript<String> hotNewsWindowTickScript() {
+		DefaultRedisScript<String> script = new DefaultRedisScript<>();
+		script.setLocation(new ClassPathResource("scripts/hot_news_window_tick.lua"));
+		script.setResultType(String.class);
+		return script;
+	}
 }
@@ -1,6 +1,10 @@
 package com.yubzhou.config;
 
 import com.yubzhou.consumer.HotNewsCacheService;
+import com.yubzhou.consumer.HotNewsService;
+import com.yubzhou.consumer.NewsMetricsFlushService;
+import com.yubzhou.producer.LocalActionEventBus;
+import com.yubzhou.util.OrderedLaneExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -13,6 +17,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
@@ -20,14 +25,26 @@ public class ShutdownEventListener {
 
 	private final ThreadPoolTaskExecutor globalTaskExecutor;
 	private final HotNewsCacheService hotNewsCacheService;
+	private final HotNewsService hotNewsService;
+	private final NewsMetricsFlushService newsMetricsFlushService;
+	private final OrderedLaneExecutor hotNewsLaneExecutor;
+	private final LocalActionEventBus localActionEventBus;
 	private final RedisConnectionFactory redisConnectionFactory;
 
 	@Autowired
 	public ShutdownEventListener(@Qualifier("globalTaskExecutor") ThreadPoolTaskExecutor globalTaskExecutor,
 								 HotNewsCacheService hotNewsCacheService,
+								 HotNewsService hotNewsService,
+								 NewsMetricsFlushService newsMetricsFlushService,
+								 @Qualifier("hotNewsLaneExecutor") OrderedLaneExecutor hotNewsLaneExecutor,
+								 LocalActionEventBus localActionEventBus,
 								 RedisConnectionFactory redisConnectionFactory) {
 		this.globalTaskExecutor = globalTaskExecutor;
 		this.hotNewsCacheService = hotNewsCacheService;
+		this.hotNewsService = hotNewsService;
+		this.newsMetricsFlushService = newsMetricsFlushService;
+		this.hotNewsLaneExecutor = hotNewsLaneExecutor;
+		this.localActionEventBus = localActionEventBus;
 		this.redisConnectionFactory = redisConnectionFactory;
 	}
 
@@ -39,6 +56,16 @@ public class ShutdownEventListener {
 			// 等待所有任务完成或超时
 			log.info("系统正在停机，处理剩余任务...");
 			refreshFuture.get();
+			// 等待本地事件总线中的用户行为事件处理完成
+			if (!localActionEventBus.awaitDrained(10, TimeUnit.SECONDS)) {
+				log.warn("等待本地事件总线处理完成超时");
+			}
+			// 等待执行道中已提交的用户行为事件处理完成
+			if (!hotNewsLaneExecutor.awaitIdle(10, TimeUnit.SECONDS)) {
+				log.warn("等待用户行为事件处理完成超时");
+			}
+			// 将尚未写回的新闻指标写回数据库
+			flushNewsMetrics();
 			// 触发同步RDB持久化
 			triggerRdbPersistence();
 		} catch (InterruptedException e) {
@@ -64,6 +91,17 @@ public class ShutdownEventListener {
 		}, globalTaskExecutor);
 	}
 
+	// 同步写回所有待写回的新闻指标（先将进程内聚合的增量写入redis，再将redis中的指标写回数据库）
+	private void flushNewsMetrics() {
+		log.info("写回待写回的新闻指标...");
+		try {
+			hotNewsService.flushAggregatedActions();
+			newsMetricsFlushService.flush();
+		} catch (Exception e) {
+			log.error("写回新闻指标失败", e);
+		}
+	}
+
 	// 手动触发 Redis RDB 持久化
 	private void triggerRdbPersistence() {
 		log.info("开始执行Redis RDB持久化...");
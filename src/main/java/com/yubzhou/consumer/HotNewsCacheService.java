@@ -1,26 +1,42 @@
 package com.yubzhou.consumer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yubzhou.common.HotNewsActionTracker;
+import com.yubzhou.common.HotNewsSnapshot;
+import com.yubzhou.common.HotNewsSnapshotMessage;
 import com.yubzhou.common.MinAndMaxId;
 import com.yubzhou.common.RedisConstant;
 import com.yubzhou.common.UserActionEvent;
 import com.yubzhou.model.po.News;
 import com.yubzhou.model.vo.HotNews;
 import com.yubzhou.model.vo.NewsVo;
+import com.yubzhou.model.vo.TrendingNews;
+import com.yubzhou.properties.HotNewsProperties;
 import com.yubzhou.service.NewsCategoryRelationService;
+import com.yubzhou.service.NewsCategoryService;
 import com.yubzhou.service.NewsService;
+import com.yubzhou.service.SseAsyncService;
 import com.yubzhou.util.HotNewsUtil;
 import com.yubzhou.util.RedisUtil;
 import com.yubzhou.util.RedisZSetUtil;
+import com.yubzhou.util.TopScoreTable;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -39,6 +55,15 @@ public class HotNewsCacheService {
 	private final HotNewsService hotNewsService;
 	private final HotNewsActionTracker hotNewsActionTracker;
 	private final NewsCategoryRelationService newsCategoryRelationService;
+	private final HotNewsProperties hotNewsProperties;
+	private final HotNewsTopKTracker hotNewsTopKTracker;
+	private final HotNewsTrendingTracker hotNewsTrendingTracker;
+	private final HotNewsWindowService hotNewsWindowService;
+	private final ObjectMapper objectMapper;
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final NewsCategoryService newsCategoryService;
+	private final SseAsyncService sseAsyncService;
+	private final NewsIdBloomFilter newsIdBloomFilter;
 
 	@Autowired
 	public HotNewsCacheService(RedisUtil redisUtil,
@@ -47,7 +72,16 @@ public class HotNewsCacheService {
 							   NewsService newsService,
 							   HotNewsService hotNewsService,
 							   HotNewsActionTracker hotNewsActionTracker,
-							   NewsCategoryRelationService newsCategoryRelationService) {
+							   NewsCategoryRelationService newsCategoryRelationService,
+							   HotNewsProperties hotNewsProperties,
+							   HotNewsTopKTracker hotNewsTopKTracker,
+							   HotNewsTrendingTracker hotNewsTrendingTracker,
+							   HotNewsWindowService hotNewsWindowService,
+							   ObjectMapper objectMapper,
+							   RedisTemplate<String, Object> redisTemplate,
+							   NewsCategoryService newsCategoryService,
+							   SseAsyncService sseAsyncService,
+							   NewsIdBloomFilter newsIdBloomFilter) {
 		this.redisUtil = redisUtil;
 		this.redisZSetUtil = redisZSetUtil;
 		this.globalTaskExecutor = globalTaskExecutor;
@@ -55,15 +89,58 @@ public class HotNewsCacheService {
 		this.hotNewsService = hotNewsService;
 		this.hotNewsActionTracker = hotNewsActionTracker;
 		this.newsCategoryRelationService = newsCategoryRelationService;
+		this.hotNewsProperties = hotNewsProperties;
+		this.hotNewsTopKTracker = hotNewsTopKTracker;
+		this.hotNewsTrendingTracker = hotNewsTrendingTracker;
+		this.hotNewsWindowService = hotNewsWindowService;
+		this.objectMapper = objectMapper;
+		this.redisTemplate = redisTemplate;
+		this.newsCategoryService = newsCategoryService;
+		this.sseAsyncService = sseAsyncService;
+		this.newsIdBloomFilter = newsIdBloomFilter;
+		HotNewsSnapshot empty = HotNewsSnapshot.of(List.of(), null, objectMapper);
+		this.hourSnapshot = empty;
+		this.daySnapshot = empty;
+		this.weekSnapshot = empty;
 	}
 
 	private static final Random RANDOM = new Random();
+	// 由上面的刷新方法维护的热点窗口
+	private static final Set<String> BUILTIN_WINDOWS = Set.of("1h", "24h", "7d");
+	// 当前节点的标识（发布热点新闻快照时携带，接收时忽略自己发布的快照）
+	private final String nodeId = UUID.randomUUID().toString();
 
 	// 使用并发集合
 	private final Map<String, Object> NEWS_META = new ConcurrentHashMap<>();
-	private final List<HotNews> HOT_NEWS_HOUR_CACHE_TOP10 = new CopyOnWriteArrayList<>();
-	private final List<HotNews> HOT_NEWS_24HOUR_CACHE_TOP10 = new CopyOnWriteArrayList<>();
-	private final List<HotNews> HOT_NEWS_WEEK_CACHE_TOP10 = new CopyOnWriteArrayList<>();
+	// 热点新闻快照（刷新时构建新的不可变快照后整体替换，读取方不会看到清空或部分更新的列表）
+	private volatile HotNewsSnapshot hourSnapshot;
+	private volatile HotNewsSnapshot daySnapshot;
+	private volatile HotNewsSnapshot weekSnapshot;
+	// 其他配置的热点窗口（hot-news.windows.definitions）：窗口名称 → 快照
+	private final Map<String, HotNewsSnapshot> WINDOW_SNAPSHOTS = new ConcurrentHashMap<>();
+	// 分类热点快照：缓存类型 → （分类ID → 快照）
+	private final Map<CacheType, Map<Long, HotNewsSnapshot>> CATEGORY_SNAPSHOTS = new ConcurrentHashMap<>();
+
+	// 飙升新闻列表（短时间缓存，避免每次请求都查询新闻详情）
+	private volatile TrendingCache trendingCache;
+
+	private record TrendingCache(long expireAt, List<TrendingNews> trendingNews) {
+	}
+
+	// 更新其他配置的热点窗口缓存（构建新快照后整体替换）
+	private void setWindowCacheTop10(String windowName, List<HotNews> top10) {
+		WINDOW_SNAPSHOTS.put(windowName, HotNewsSnapshot.of(top10, WINDOW_SNAPSHOTS.get(windowName), objectMapper));
+		publishToSubscribers(windowName);
+	}
+
+	// 将窗口当前的快照发布给SSE订阅者（排名或成员变化时推送差异）
+	private void publishToSubscribers(String windowName) {
+		try {
+			sseAsyncService.publishHotNews(windowName, getWindowSnapshot(windowName));
+		} catch (Exception e) {
+			log.error("推送热点列表差异失败（{}）", windowName, e);
+		}
+	}
 
 	// 同步新闻元数据
 	public void setMinAndMaxId(MinAndMaxId minAndMaxId) {
@@ -72,28 +149,22 @@ public class HotNewsCacheService {
 		}
 	}
 
-	// 同步更新1小时缓存
+	// 更新1小时缓存（构建新快照后整体替换）
 	private void setHourCacheTop10(List<HotNews> top10) {
-		synchronized (HOT_NEWS_HOUR_CACHE_TOP10) {
-			HOT_NEWS_HOUR_CACHE_TOP10.clear();
-			HOT_NEWS_HOUR_CACHE_TOP10.addAll(top10);
-		}
+		hourSnapshot = HotNewsSnapshot.of(top10, hourSnapshot, objectMapper);
+		publishToSubscribers("1h");
 	}
 
-	// 同步更新24小时缓存
+	// 更新24小时缓存（构建新快照后整体替换）
 	private void set24HourCacheTop10(List<HotNews> top10) {
-		synchronized (HOT_NEWS_24HOUR_CACHE_TOP10) {
-			HOT_NEWS_24HOUR_CACHE_TOP10.clear();
-			HOT_NEWS_24HOUR_CACHE_TOP10.addAll(top10);
-		}
+		daySnapshot = HotNewsSnapshot.of(top10, daySnapshot, objectMapper);
+		publishToSubscribers("24h");
 	}
 
-	// 同步更新7天缓存
+	// 更新7天缓存（构建新快照后整体替换）
 	private void setWeekCacheTop10(List<HotNews> top10) {
-		synchronized (HOT_NEWS_WEEK_CACHE_TOP10) {
-			HOT_NEWS_WEEK_CACHE_TOP10.clear();
-			HOT_NEWS_WEEK_CACHE_TOP10.addAll(top10);
-		}
+		weekSnapshot = HotNewsSnapshot.of(top10, weekSnapshot, objectMapper);
+		publishToSubscribers("7d");
 	}
 
 	// 获取新闻元数据
@@ -103,17 +174,93 @@ public class HotNewsCacheService {
 
 	// 获取1小时热点缓存
 	public List<HotNews> getHourCacheTop10() {
-		return HOT_NEWS_HOUR_CACHE_TOP10;
+		return getHourSnapshot().getHotNews();
 	}
 
 	// 获取24小时热点缓存
 	public List<HotNews> get24HourCacheTop10() {
-		return HOT_NEWS_24HOUR_CACHE_TOP10;
+		return get24HourSnapshot().getHotNews();
 	}
 
 	// 获取7天热点缓存
 	public List<HotNews> getWeekCacheTop10() {
-		return HOT_NEWS_WEEK_CACHE_TOP10;
+		return getWeekSnapshot().getHotNews();
+	}
+
+	// 获取1小时热点快照
+	public HotNewsSnapshot getHourSnapshot() {
+		return hourSnapshot;
+	}
+
+	// 获取24小时热点快照（主节点由进程内Top-K统计或redis窗口合并生成，其他节点为主节点广播的快照）
+	public HotNewsSnapshot get24HourSnapshot() {
+		return daySnapshot;
+	}
+
+	// 获取7天热点快照（主节点由进程内Top-K统计或redis窗口合并生成，其他节点为主节点广播的快照）
+	public HotNewsSnapshot getWeekSnapshot() {
+		return weekSnapshot;
+	}
+
+	/**
+	 * 由进程内Top-K统计刷新24小时、7天热点缓存（不读取、不合并热点ZSet），热点列表变化时广播给其他节点
+	 * Top-K统计未开启、未预热或统计的新闻数不足k条时不刷新，由refresh24hCache、refresh7dCache合并redis窗口
+	 */
+	public void refreshTopKCaches() {
+		refreshTopKCache(HotNewsTopKTracker.Window.DAY);
+		refreshTopKCache(HotNewsTopKTracker.Window.WEEK);
+	}
+
+	/**
+	 * 由进程内Top-K统计刷新一个窗口的热点缓存
+	 *
+	 * @return 未刷新（统计未开启、未预热或统计的新闻数不足k条）时返回false
+	 */
+	private boolean refreshTopKCache(HotNewsTopKTracker.Window window) {
+		if (!hotNewsTopKTracker.isReady()) return false;
+		int k = hotNewsProperties.getTopK().getK();
+		List<TopScoreTable.Entry> entries = hotNewsTopKTracker.topK(window, k);
+		if (entries.size() < k) return false;
+
+		List<HotNews> top10 = new ArrayList<>(entries.size());
+		List<News> newsList = hotNewsService.getNewsBatch(entries.stream().map(TopScoreTable.Entry::key).toList());
+		for (int i = 0; i < entries.size(); i++) {
+			HotNews hotNews = new HotNews(entries.get(i).key(), entries.get(i).score());
+			hotNews.setRank(i + 1);
+			hotNews.setNews(newsList.get(i));
+			top10.add(hotNews);
+		}
+		HotNewsSnapshot previous = window == HotNewsTopKTracker.Window.DAY ? daySnapshot : weekSnapshot;
+		if (window == HotNewsTopKTracker.Window.DAY) set24HourCacheTop10(top10);
+		else setWeekCacheTop10(top10);
+		// 热点列表（排名、热度）变化时才广播
+		HotNewsSnapshot current = window == HotNewsTopKTracker.Window.DAY ? daySnapshot : weekSnapshot;
+		if (current != previous) {
+			publishSnapshot(window == HotNewsTopKTracker.Window.DAY ? HotNewsSnapshotMessage.Kind.DAY : HotNewsSnapshotMessage.Kind.WEEK,
+					null, top10, null);
+		}
+		return true;
+	}
+
+	// 获取飙升新闻列表（未开启时返回空列表）
+	public List<TrendingNews> getTrendingNews() {
+		if (!hotNewsTrendingTracker.isEnabled()) return List.of();
+		long now = System.currentTimeMillis();
+		TrendingCache cached = trendingCache;
+		if (cached != null && cached.expireAt() > now) return cached.trendingNews();
+
+		List<HotNewsTrendingTracker.Trend> trends = hotNewsTrendingTracker.topK(hotNewsProperties.getTrending().getK());
+		List<News> newsList = hotNewsService.getNewsBatch(trends.stream().map(HotNewsTrendingTracker.Trend::newsId).toList());
+		List<TrendingNews> trendingNews = new ArrayList<>(trends.size());
+		for (int i = 0; i < trends.size(); i++) {
+			HotNewsTrendingTracker.Trend trend = trends.get(i);
+			if (newsList.get(i) == null) continue; // 新闻已不存在
+			trendingNews.add(new TrendingNews(trend.newsId(), trendingNews.size() + 1,
+					trend.zScore(), trend.velocity(), trend.acceleration(), newsList.get(i)));
+		}
+		List<TrendingNews> result = List.copyOf(trendingNews);
+		trendingCache = new TrendingCache(now + hotNewsProperties.getTrending().getRefreshMillis(), result);
+		return result;
 	}
 
 	// Yubzhou TODO 2025/4/17 12:35; 添加了新的新闻要手动触发更新元数据缓存（如果有添加新的新闻接口的话）
@@ -129,10 +276,20 @@ public class HotNewsCacheService {
 		log.info("刷新新闻元数据缓存完成");
 	}
 
+	/**
+	 * 检查热点缓存是否需要刷新（时间窗口内的事件数不少于 hot-news.action-rate.refresh-min-events）
+	 * 开启主节点选举时只有主节点刷新，而主节点只消费部分分区（甚至没有分区），因此按所有节点写入redis的事件数判断；
+	 * 关闭时每个节点都自己刷新，按本节点处理的事件数判断
+	 */
+	private boolean shouldRefresh(boolean force, long timeWindowMillis) {
+		if (!hotNewsProperties.getLeader().isEnabled()) return hotNewsActionTracker.shouldRefresh(force, timeWindowMillis);
+		return force || hotNewsService.countClusterEvents(timeWindowMillis) >= hotNewsProperties.getActionRate().getRefreshMinEvents();
+	}
+
 	// 刷新1小时热点缓存
 	public void refresh1hCache(boolean force) {
 		// 窗口时间=4.5分钟
-		if (!hotNewsActionTracker.shouldRefresh(force, 270_000)) {
+		if (!shouldRefresh(force, 270_000)) {
 			log.info("4.5分钟内无新事件，跳过1h缓存刷新");
 			return;
 		}
@@ -143,14 +300,17 @@ public class HotNewsCacheService {
 		List<String> hourKeys = getRecentHourKeys(1);
 		String mergedKey = RedisConstant.HOT_NEWS_HOUR_MERGED_PREFIX + HotNewsUtil.getCurrentHour();
 
-		// 合并前一个小时的数据和当前小时数据到临时Key
-		redisUtil.del(mergedKey); // 合并前先清空临时Key
-		redisUtil.zUnionAndStore(currentHourKey, hourKeys, mergedKey);
+		// 合并前一个小时的数据和当前小时数据到临时Key（优先使用增量维护的1h窗口）
+		if (!hotNewsWindowService.materialize("1h", mergedKey)) {
+			redisUtil.del(mergedKey); // 合并前先清空临时Key
+			redisUtil.zUnionAndStore(currentHourKey, hourKeys, mergedKey, getMergeAggregate());
+		}
 
 		// 添加随机新闻到缓存
 		addRandomNewsToCache(mergedKey);
 
-		cacheTop10(mergedKey, CacheType.HOUR);
+		cacheTop10(mergedKey, CacheType.HOUR, true);
+		refreshCategoryCaches(mergedKey, CacheType.HOUR, true);
 		redisUtil.expire(mergedKey, 1, TimeUnit.HOURS); // 保留1小时，设置过期时间防止内存泄漏
 
 		log.info("1小时热点新闻缓存刷新完成");
@@ -159,7 +319,7 @@ public class HotNewsCacheService {
 	// 刷新24小时热点缓存
 	public void refresh24hCache(boolean force) {
 		// 窗口时间=12.5分钟
-		if (!hotNewsActionTracker.shouldRefresh(force, 750_000)) {
+		if (!shouldRefresh(force, 750_000)) {
 			log.info("12.5分钟内无新事件，跳过24h缓存刷新");
 			return;
 		}
@@ -170,10 +330,21 @@ public class HotNewsCacheService {
 		List<String> hourKeys = getRecentHourKeys(24);
 		String mergedKey = RedisConstant.HOT_NEWS_24HOUR_MERGED_PREFIX + HotNewsUtil.getCurrentDay();
 
-		// 合并前一天的数据和当前小时数据到临时Key
-		redisUtil.del(mergedKey); // 合并前先清空临时Key
-		redisUtil.zUnionAndStore(currentHourKey, hourKeys, mergedKey);
-		cacheTop10(mergedKey, CacheType.DAY);
+		// 24小时热点列表优先由进程内Top-K统计生成，此时合并后的窗口只用于分类热点
+		boolean topKActive = refreshTopKCache(HotNewsTopKTracker.Window.DAY);
+		if (topKActive && !hotNewsProperties.getCategoryHot().isEnabled()) {
+			log.info("24小时热点由进程内Top-K统计生成，跳过窗口合并");
+			return;
+		}
+
+		// 合并前一天的数据和当前小时数据到临时Key（优先使用增量维护的24h窗口）
+		if (!hotNewsWindowService.materialize("24h", mergedKey)) {
+			if (topKActive) return; // 不再全量合并24个小时桶
+			redisUtil.del(mergedKey); // 合并前先清空临时Key
+			redisUtil.zUnionAndStore(currentHourKey, hourKeys, mergedKey, getMergeAggregate());
+		}
+		if (!topKActive) cacheTop10(mergedKey, CacheType.DAY, true);
+		refreshCategoryCaches(mergedKey, CacheType.DAY, true);
 		redisUtil.expire(mergedKey, 1, TimeUnit.DAYS); // 保留1天，设置过期时间防止内存泄漏
 
 		log.info("24小时热点新闻缓存刷新完成");
@@ -182,7 +353,7 @@ public class HotNewsCacheService {
 	// 刷新7天热点缓存
 	public void refresh7dCache(boolean force) {
 		// 窗口时间=35分钟
-		if (!hotNewsActionTracker.shouldRefresh(force, 2100_000)) {
+		if (!shouldRefresh(force, 2100_000)) {
 			log.info("35分钟内无新事件，跳过周缓存刷新");
 			return;
 		}
@@ -193,15 +364,260 @@ public class HotNewsCacheService {
 		List<String> dayKeys = getRecentDayKeys(7);
 		String mergedKey = RedisConstant.HOT_NEWS_WEEK;
 
-		// 合并前7天的数据和当前24小时数据到最近7天热点Key
-		redisUtil.del(mergedKey); // 合并前先清空临时Key
-		redisUtil.zUnionAndStore(current24hKey, dayKeys, mergedKey);
-		cacheTop10(mergedKey, CacheType.WEEK);
+		// 7天热点列表优先由进程内Top-K统计生成，此时合并后的窗口只用于分类热点和推荐新闻（从7天热点中随机推荐）
+		boolean topKActive = refreshTopKCache(HotNewsTopKTracker.Window.WEEK);
+
+		// 合并前7天的数据和当前24小时数据到最近7天热点Key（优先使用增量维护的7d窗口）
+		if (!hotNewsWindowService.materialize("7d", mergedKey)) {
+			if (topKActive) return; // 不再全量合并7个天级桶
+			redisUtil.del(mergedKey); // 合并前先清空临时Key
+			redisUtil.zUnionAndStore(current24hKey, dayKeys, mergedKey, getMergeAggregate());
+		}
+		if (!topKActive) cacheTop10(mergedKey, CacheType.WEEK, true);
+		refreshCategoryCaches(mergedKey, CacheType.WEEK, true);
 		redisUtil.expire(mergedKey, 8, TimeUnit.DAYS); // 保留8天，设置过期时间防止内存泄漏
 
 		log.info("7天热点新闻缓存刷新完成");
 	}
 
+	/**
+	 * 刷新配置的热点窗口缓存（1h、24h、7d使用上面的刷新方法）
+	 *
+	 * @return 窗口未配置时返回false
+	 */
+	public boolean refreshWindowCache(String windowName) {
+		if (BUILTIN_WINDOWS.contains(windowName)) {
+			switch (windowName) {
+				case "1h" -> refresh1hCache(true);
+				case "24h" -> refresh24hCache(true);
+				default -> refresh7dCache(true);
+			}
+			return true;
+		}
+		String mergedKey = RedisConstant.HOT_NEWS_WINDOW_MERGED_PREFIX + windowName;
+		if (!hotNewsWindowService.materialize(windowName, mergedKey)) return false;
+		List<HotNews> top10 = loadTop10(mergedKey);
+		setWindowCacheTop10(windowName, top10);
+		publishSnapshot(HotNewsSnapshotMessage.Kind.WINDOW, windowName, top10, null);
+		redisUtil.expire(mergedKey, 1, TimeUnit.HOURS); // 保留1小时，设置过期时间防止内存泄漏
+		return true;
+	}
+
+	// 刷新所有其他配置的热点窗口缓存
+	public void refreshWindowCaches() {
+		hotNewsWindowService.getWindows().stream()
+				.map(HotNewsProperties.HotWindow::getName)
+				.filter(name -> !BUILTIN_WINDOWS.contains(name))
+				.forEach(this::refreshWindowCache);
+		// 移除已不再配置的窗口
+		WINDOW_SNAPSHOTS.keySet().removeIf(name -> hotNewsWindowService.findWindow(name).isEmpty());
+	}
+
+	/**
+	 * 获取热点窗口快照（首次访问时同步加载）
+	 *
+	 * @return 窗口未配置时返回null
+	 */
+	public HotNewsSnapshot getWindowSnapshot(String windowName) {
+		switch (windowName) {
+			case "1h":
+				return getHourSnapshot();
+			case "24h":
+				return get24HourSnapshot();
+			case "7d":
+				return getWeekSnapshot();
+		}
+		HotNewsSnapshot cached = WINDOW_SNAPSHOTS.get(windowName);
+		if (cached != null) return cached;
+		return refreshWindowCache(windowName) ? WINDOW_SNAPSHOTS.get(windowName) : null;
+	}
+
+	/**
+	 * 获取分类热点快照
+	 *
+	 * @param windowName 窗口名称（1h、24h、7d）
+	 * @param categoryId 分类ID
+	 * @return 窗口或分类不存在时返回null；分类热点尚未刷新时返回空列表的快照
+	 */
+	public HotNewsSnapshot getCategorySnapshot(String windowName, long categoryId) {
+		CacheType cacheType = switch (windowName) {
+			case "1h" -> CacheType.HOUR;
+			case "24h" -> CacheType.DAY;
+			case "7d" -> CacheType.WEEK;
+			default -> null;
+		};
+		// 只查询Java内存中的分类缓存（避免不存在的分类ID穿透到redis或数据库）
+		if (cacheType == null || !newsCategoryService.getNewsCategoryCache().containsKey(categoryId)) return null;
+		HotNewsSnapshot snapshot = CATEGORY_SNAPSHOTS.getOrDefault(cacheType, Map.of()).get(categoryId);
+		return snapshot != null ? snapshot : HotNewsSnapshot.of(List.of(), null, objectMapper);
+	}
+
+	// 加载所有分类热点缓存（需在新闻分类缓存加载后调用）
+	public void loadCategoryCaches() {
+		refreshCategoryCaches(RedisConstant.HOT_NEWS_HOUR_MERGED_PREFIX + HotNewsUtil.getCurrentHour(), CacheType.HOUR, false);
+		refreshCategoryCaches(RedisConstant.HOT_NEWS_24HOUR_MERGED_PREFIX + HotNewsUtil.getCurrentDay(), CacheType.DAY, false);
+		refreshCategoryCaches(RedisConstant.HOT_NEWS_WEEK, CacheType.WEEK, false);
+	}
+
+	/**
+	 * 刷新分类热点缓存：合并后的窗口与每个分类的新闻集合求交集（ZINTERSTORE，权重1/0，即分数只取窗口中的热度）
+	 * 分类被均分到parallelism个任务中并行执行，每个任务一次pipeline完成其所有分类的求交集、读取top-N和删除临时Key；
+	 * 所有分类的新闻详情合并后一次批量获取。超过timeoutMillis仍未完成的任务被放弃，对应分类保留旧的缓存
+	 *
+	 * @param mergedKey 合并后的窗口Key
+	 * @param cacheType 缓存类型
+	 * @param publish   是否将刷新结果广播给其他节点
+	 */
+	private void refreshCategoryCaches(String mergedKey, CacheType cacheType, boolean publish) {
+		HotNewsProperties.CategoryHot config = hotNewsProperties.getCategoryHot();
+		if (!config.isEnabled()) return;
+		List<Long> categoryIds = new ArrayList<>(newsCategoryService.getNewsCategoryIdCache().values());
+		if (categoryIds.isEmpty()) return;
+
+		long start = System.currentTimeMillis();
+		int taskCount = Math.max(1, Math.min(config.getParallelism(), categoryIds.size()));
+		int chunkSize = (categoryIds.size() + taskCount - 1) / taskCount;
+		List<CompletableFuture<Map<Long, List<HotNews>>>> futures = new ArrayList<>(taskCount);
+		for (int from = 0; from < categoryIds.size(); from += chunkSize) {
+			List<Long> chunk = categoryIds.subList(from, Math.min(from + chunkSize, categoryIds.size()));
+			try {
+				futures.add(CompletableFuture.supplyAsync(
+						() -> intersectCategories(mergedKey, cacheType, chunk, config.getTopN()), globalTaskExecutor));
+			} catch (RejectedExecutionException e) {
+				// 线程池已满时在当前线程执行
+				futures.add(CompletableFuture.completedFuture(intersectCategories(mergedKey, cacheType, chunk, config.getTopN())));
+			}
+		}
+
+		// 等待所有任务完成（总时长不超过timeoutMillis）
+		Map<Long, List<HotNews>> results = new HashMap<>();
+		long deadline = start + config.getTimeoutMillis();
+		for (CompletableFuture<Map<Long, List<HotNews>>> future : futures) {
+			try {
+				results.putAll(future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+			} catch (TimeoutException e) {
+				future.cancel(true);
+				log.warn("分类热点缓存刷新超时（{}），部分分类保留旧的缓存", cacheType);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				log.error("分类热点缓存刷新失败（{}）", cacheType, e.getCause());
+			}
+		}
+
+		setCategorySnapshots(cacheType, results);
+		if (publish) publishSnapshot(HotNewsSnapshotMessage.Kind.CATEGORY, cacheType.name(), null, results);
+
+		log.info("分类热点缓存刷新完成（{}，{}/{}个分类，耗时{}毫秒）",
+				cacheType, results.size(), categoryIds.size(), System.currentTimeMillis() - start);
+	}
+
+	// 更新分类热点快照（一次批量获取所有分类的新闻详情）
+	private void setCategorySnapshots(CacheType cacheType, Map<Long, List<HotNews>> results) {
+		setNews(results.values().stream().flatMap(List::stream).toList());
+		Map<Long, HotNewsSnapshot> snapshots = CATEGORY_SNAPSHOTS.computeIfAbsent(cacheType, type -> new ConcurrentHashMap<>());
+		results.forEach((categoryId, hotNewsList) ->
+				snapshots.put(categoryId, HotNewsSnapshot.of(hotNewsList, snapshots.get(categoryId), objectMapper)));
+		// 移除已删除的分类
+		snapshots.keySet().retainAll(newsCategoryService.getNewsCategoryIdCache().values());
+	}
+
+	// 批量获取并设置热点新闻的新闻详情（同一新闻只获取一次）
+	private void setNews(List<HotNews> hotNewsList) {
+		List<Long> newsIds = hotNewsList.stream().map(HotNews::getNewsId).distinct().toList();
+		List<News> newsList = hotNewsService.getNewsBatch(newsIds);
+		Map<Long, News> newsMap = new HashMap<>(newsIds.size() * 2);
+		for (int i = 0; i < newsIds.size(); i++) {
+			if (newsList.get(i) != null) newsMap.put(newsIds.get(i), newsList.get(i));
+		}
+		hotNewsList.forEach(hotNews -> hotNews.setNews(newsMap.get(hotNews.getNewsId())));
+	}
+
+	// 广播热点新闻快照（只包含新闻ID、热度和排名），广播失败不影响本节点的缓存
+	private void publishSnapshot(HotNewsSnapshotMessage.Kind kind, String name, List<HotNews> hotNewsList,
+								 Map<Long, List<HotNews>> categories) {
+		try {
+			Map<Long, List<HotNewsSnapshotMessage.Entry>> categoryEntries = null;
+			if (categories != null) {
+				categoryEntries = new HashMap<>(categories.size() * 2);
+				for (Map.Entry<Long, List<HotNews>> entry : categories.entrySet()) {
+					categoryEntries.put(entry.getKey(), HotNewsSnapshotMessage.toEntries(entry.getValue()));
+				}
+			}
+			HotNewsSnapshotMessage message = new HotNewsSnapshotMessage(nodeId, kind, name,
+					hotNewsList == null ? null : HotNewsSnapshotMessage.toEntries(hotNewsList), categoryEntries);
+			byte[] channel = RedisConstant.HOT_NEWS_SNAPSHOT_CHANNEL.getBytes(StandardCharsets.UTF_8);
+			byte[] body = objectMapper.writeValueAsBytes(message);
+			redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, body));
+		} catch (Exception e) {
+			log.error("广播热点新闻快照失败（{}）", kind, e);
+		}
+	}
+
+	/**
+	 * 用其他节点（主节点）广播的快照更新Java内存中的缓存（只读取新闻详情缓存，不读取、不合并热点ZSet）
+	 */
+	public void applyRemoteSnapshot(HotNewsSnapshotMessage message) {
+		if (nodeId.equals(message.source())) return;
+		switch (message.kind()) {
+			case HOUR, DAY, WEEK -> {
+				List<HotNews> top10 = HotNewsSnapshotMessage.toHotNews(message.entries());
+				setNews(top10);
+				switch (message.kind()) {
+					case HOUR -> setHourCacheTop10(top10);
+					case DAY -> set24HourCacheTop10(top10);
+					default -> setWeekCacheTop10(top10);
+				}
+			}
+			case WINDOW -> {
+				List<HotNews> top10 = HotNewsSnapshotMessage.toHotNews(message.entries());
+				setNews(top10);
+				setWindowCacheTop10(message.name(), top10);
+			}
+			case CATEGORY -> {
+				Map<Long, List<HotNews>> results = new HashMap<>(message.categories().size() * 2);
+				message.categories().forEach((categoryId, entries) -> results.put(categoryId, HotNewsSnapshotMessage.toHotNews(entries)));
+				setCategorySnapshots(CacheType.valueOf(message.name()), results);
+			}
+		}
+		log.debug("已应用其他节点广播的热点新闻快照（{}，{}）", message.kind(), message.name());
+	}
+
+	// 在一次pipeline中完成多个分类的求交集、读取top-N（不包括新闻详情）和删除临时Key
+	@SuppressWarnings("unchecked")
+	private Map<Long, List<HotNews>> intersectCategories(String mergedKey, CacheType cacheType, List<Long> categoryIds, int topN) {
+		List<Object> pipelineResults = redisTemplate.executePipelined(new SessionCallback<>() {
+			@Override
+			public Object execute(RedisOperations operations) throws DataAccessException {
+				ZSetOperations<String, Object> zSetOps = operations.opsForZSet();
+				for (Long categoryId : categoryIds) {
+					String tmpKey = RedisConstant.HOT_NEWS_CATEGORY_TMP_PREFIX + cacheType.name().toLowerCase() + ":" + categoryId;
+					zSetOps.intersectAndStore(mergedKey, List.of(RedisConstant.NEWS_CATEGORY_SET_PREFIX + categoryId),
+							tmpKey, Aggregate.SUM, Weights.of(1, 0));
+					zSetOps.reverseRangeWithScores(tmpKey, 0, topN - 1);
+					operations.delete(tmpKey);
+				}
+				return null;
+			}
+		});
+
+		Map<Long, List<HotNews>> results = new HashMap<>(categoryIds.size() * 2);
+		for (int i = 0; i < categoryIds.size(); i++) {
+			Set<ZSetOperations.TypedTuple<Object>> tuples = (Set<ZSetOperations.TypedTuple<Object>>) pipelineResults.get(3 * i + 1);
+			List<HotNews> hotNewsList = new ArrayList<>(tuples == null ? 0 : tuples.size());
+			if (tuples != null) {
+				for (ZSetOperations.TypedTuple<Object> tuple : tuples) {
+					HotNews hotNews = new HotNews(Long.parseLong(tuple.getValue().toString()), tuple.getScore());
+					hotNews.setRank(hotNewsList.size() + 1);
+					hotNewsList.add(hotNews);
+				}
+			}
+			results.put(categoryIds.get(i), hotNewsList);
+		}
+		return results;
+	}
+
 	// 如果合并后的1小时热点新闻数为n个（小于10），则随机将10-n个新闻加入到缓存中（增加其浏览量）
 	// 防止1小时新闻热点数据为空
 	private void addRandomNewsToCache(String mergedKey) {
@@ -213,9 +629,10 @@ public class HotNewsCacheService {
 		MinAndMaxId minAndMaxId = getMinAndMaxId();
 		int needSize = 10 - (int) size;
 		Set<Long> candidateIds = new HashSet<>(15); // 最大needSize为10，设置初始容量为15 防止扩容
-		while (candidateIds.size() <= needSize) {
+		// 跳过布隆过滤器判断不存在的ID（ID不连续时限制尝试次数）
+		for (int attempts = 0; candidateIds.size() <= needSize && attempts < 20 * (needSize + 1); attempts++) {
 			Long newsId = RANDOM.nextLong(minAndMaxId.getMinId(), minAndMaxId.getMaxId() + 1);
-			candidateIds.add(newsId);
+			if (newsIdBloomFilter.mightContain(newsId)) candidateIds.add(newsId);
 		}
 		candidateIds.forEach(newsId -> hotNewsService.asyncUpdateMetricsAndHotness(new UserActionEvent(newsId, 0L, UserActionEvent.ActionType.VIEW, System.currentTimeMillis())));
 		log.info("随机加入{}个新闻到1小时热点新闻缓存", needSize);
@@ -233,7 +650,7 @@ public class HotNewsCacheService {
 		// 收集所有异步任务的 CompletableFuture
 		List<CompletableFuture<Void>> futures = new ArrayList<>();
 		for (int i = 0; i < types.length; i++) {
-			CompletableFuture<Void> future = cacheTop10(keys[i], types[i]);
+			CompletableFuture<Void> future = cacheTop10(keys[i], types[i], false);
 			futures.add(future);
 		}
 
@@ -254,22 +671,9 @@ public class HotNewsCacheService {
 
 
 	// 异步执行
-	private CompletableFuture<Void> cacheTop10(String sourceKey, CacheType cacheType) {
+	private CompletableFuture<Void> cacheTop10(String sourceKey, CacheType cacheType, boolean publish) {
 		return CompletableFuture.runAsync(() -> {
-			// 从redis中获取前10个新闻
-			Set<ZSetOperations.TypedTuple<Object>> tuples = redisUtil.zReverseRangeWithScores(sourceKey, 0, 9);
-			List<HotNews> top10 = tuples.stream()
-					.map(t -> new HotNews(Long.parseLong(t.getValue().toString()), t.getScore()))
-					.toList();
-			int rank = 1;
-			for (HotNews hotNews : top10) {
-				hotNews.setRank(rank); // 设置排名
-				News news = hotNewsService.getNews(hotNews.getNewsId()); // 从redis中获取新闻详情
-				if (news != null) {
-					hotNews.setNews(news);
-				}
-				rank++;
-			}
+			List<HotNews> top10 = loadTop10(sourceKey);
 			// 根据缓存类型更新对应缓存
 			switch (cacheType) {
 				case HOUR:
@@ -282,15 +686,32 @@ public class HotNewsCacheService {
 					setWeekCacheTop10(top10);
 					break;
 			}
+			// 广播给其他节点
+			if (publish) publishSnapshot(HotNewsSnapshotMessage.Kind.valueOf(cacheType.name()), null, top10, null);
 		}, globalTaskExecutor); // 使用自定义线程池执行异步任务
 	}
 
-	// 获取到前一整天的小时Key
-	public List<String> getYesterdayHourKeys() {
-		return IntStream.range(0, 24) // 其值范围为[0, 24)
-				.mapToObj(i -> RedisConstant.HOT_NEWS_HOUR_PREFIX + HotNewsUtil.getHour
-						(LocalDate.now().minusDays(1).atStartOfDay().plusHours(i)))
+	// 从redis中获取前10个新闻（包含新闻详情）
+	private List<HotNews> loadTop10(String sourceKey) {
+		Set<ZSetOperations.TypedTuple<Object>> tuples = redisUtil.zReverseRangeWithScores(sourceKey, 0, 9);
+		List<HotNews> top10 = tuples.stream()
+				.map(t -> new HotNews(Long.parseLong(t.getValue().toString()), t.getScore()))
 				.toList();
+		// 批量获取新闻详情
+		List<News> newsList = hotNewsService.getNewsBatch(top10.stream().map(HotNews::getNewsId).toList());
+		for (int i = 0; i < top10.size(); i++) {
+			HotNews hotNews = top10.get(i);
+			hotNews.setRank(i + 1); // 设置排名
+			if (newsList.get(i) != null) {
+				hotNews.setNews(newsList.get(i));
+			}
+		}
+		return top10;
+	}
+
+	// 合并多个时间窗口时的分数聚合方式（由热度计算模式决定）
+	public Aggregate getMergeAggregate() {
+		return hotNewsProperties.getScoring().getMode().getMergeAggregate();
 	}
 
 	// 获取最近n小时的Key，不包括当前小时（即获取前n小时的Key）
@@ -341,8 +762,7 @@ public class HotNewsCacheService {
 	}
 
 	private List<News> buildFromCache(List<Long> newsIds) {
-		return newsIds.stream()
-				.map(hotNewsService::getNews)
+		return hotNewsService.getNewsBatch(newsIds).stream()
 				.filter(Objects::nonNull)
 				.toList();
 	}
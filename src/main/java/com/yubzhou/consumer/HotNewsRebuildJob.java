@@ -0,0 +1,279 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.common.MinAndMaxId;
+import com.yubzhou.common.RedisConstant;
+import com.yubzhou.mapper.NewsMapper;
+import com.yubzhou.model.po.News;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.util.HotNewsUtil;
+import com.yubzhou.util.RedisLockUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 热点ZSet重建任务（redis数据丢失或小时桶过期后，由MySQL中的新闻指标重建小时、天、周桶）
+ * MySQL中只有新闻的累计指标，因此每条新闻按最近一次指标更新的时间（updated_at）归入对应的小时桶、天级桶和周级桶，
+ * 热度按该时间计算（与实时计算时一致）；超出各级桶保留时长的新闻不写入。
+ * 按ID范围分段流式读取（MyBatis Cursor），每批新闻由ForkJoinPool并行计算热度，再按桶分组后pipeline批量ZADD；
+ * 写入完成后清除窗口元数据，全量重建汇总桶和所有热点窗口，并刷新热点缓存。
+ * 注意：同一条新闻在桶中已有的热度会被覆盖
+ */
+@Service
+@Slf4j
+public class HotNewsRebuildJob {
+	private final NewsMapper newsMapper;
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final RedisLockUtil redisLockUtil;
+	private final HotNewsWindowService hotNewsWindowService;
+	private final HotNewsCacheService hotNewsCacheService;
+	private final HotNewsProperties hotNewsProperties;
+	private final ThreadPoolTaskExecutor globalTaskExecutor;
+	private final TransactionTemplate readOnlyTransaction;
+
+	// 任务状态（同一时间只运行一个任务）
+	private final AtomicBoolean running = new AtomicBoolean();
+	private volatile String state = "IDLE"; // IDLE、RUNNING、COMPLETED、FAILED
+	private volatile String error;
+	private volatile long startedAt;
+	private volatile long finishedAt;
+	private volatile long minId;
+	private volatile long maxId;
+	private volatile long scannedToId; // 已读取到的ID
+	private final LongAdder scanned = new LongAdder(); // 已读取的新闻数
+	private final LongAdder written = new LongAdder(); // 已写入redis的成员数（一条新闻可能写入多个桶）
+
+	public HotNewsRebuildJob(NewsMapper newsMapper,
+							 RedisTemplate<String, Object> redisTemplate,
+							 RedisLockUtil redisLockUtil,
+							 HotNewsWindowService hotNewsWindowService,
+							 HotNewsCacheService hotNewsCacheService,
+							 HotNewsProperties hotNewsProperties,
+							 @Qualifier("globalTaskExecutor") ThreadPoolTaskExecutor globalTaskExecutor,
+							 PlatformTransactionManager transactionManager) {
+		this.newsMapper = newsMapper;
+		this.redisTemplate = redisTemplate;
+		this.redisLockUtil = redisLockUtil;
+		this.hotNewsWindowService = hotNewsWindowService;
+		this.hotNewsCacheService = hotNewsCacheService;
+		this.hotNewsProperties = hotNewsProperties;
+		this.globalTaskExecutor = globalTaskExecutor;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+	}
+
+	// 写入redis的一个成员：桶Key、新闻ID、热度
+	record BucketEntry(String key, long newsId, double hotness) {
+	}
+
+	/**
+	 * 异步启动重建任务
+	 *
+	 * @return 已有任务在运行时返回false
+	 */
+	public boolean start() {
+		if (!running.compareAndSet(false, true)) return false;
+		state = "RUNNING";
+		error = null;
+		startedAt = System.currentTimeMillis();
+		finishedAt = 0;
+		scanned.reset();
+		written.reset();
+		try {
+			globalTaskExecutor.execute(this::run);
+		} catch (RuntimeException e) {
+			finish("FAILED", e.getMessage());
+			throw e;
+		}
+		return true;
+	}
+
+	private void run() {
+		// 多实例部署时只允许一个重建任务（租约足够长，任务结束后主动释放）
+		String lockValue = redisLockUtil.tryLock(RedisConstant.HOT_NEWS_REBUILD_LOCK, TimeUnit.HOURS.toMillis(2));
+		if (lockValue == null) {
+			finish("FAILED", "其他实例正在重建热点ZSet");
+			return;
+		}
+		ForkJoinPool pool = new ForkJoinPool(hotNewsProperties.getRebuild().getParallelism());
+		try {
+			MinAndMaxId range = newsMapper.getMinAndMaxId();
+			if (range != null && range.getMinId() != null) {
+				minId = range.getMinId();
+				maxId = range.getMaxId();
+				scannedToId = minId - 1;
+				long chunkSize = hotNewsProperties.getRebuild().getChunkSize();
+				for (long from = minId - 1; from < maxId; from += chunkSize) {
+					long to = Math.min(from + chunkSize, maxId);
+					streamChunk(from, to, pool);
+					scannedToId = to;
+				}
+			}
+			log.info("热点ZSet重建完成：读取{}条新闻，写入{}个成员，耗时{}ms",
+					scanned.sum(), written.sum(), System.currentTimeMillis() - startedAt);
+			// 全量重建汇总桶和热点窗口，再刷新热点缓存
+			hotNewsWindowService.rebuildAll();
+			hotNewsCacheService.refresh1hCache(true);
+			hotNewsCacheService.refresh24hCache(true);
+			hotNewsCacheService.refresh7dCache(true);
+			hotNewsCacheService.refreshWindowCaches();
+			finish("COMPLETED", null);
+		} catch (Exception e) {
+			log.error("热点ZSet重建失败", e);
+			finish("FAILED", e.getMessage());
+		} finally {
+			pool.shutdown();
+			redisLockUtil.unlock(RedisConstant.HOT_NEWS_REBUILD_LOCK, lockValue);
+		}
+	}
+
+	// 流式读取ID范围 (from, to] 内的新闻，每batchSize条计算一次热度并写入redis
+	private void streamChunk(long from, long to, ForkJoinPool pool) {
+		int batchSize = hotNewsProperties.getRebuild().getBatchSize();
+		readOnlyTransaction.executeWithoutResult(status -> {
+			try (Cursor<News> cursor = newsMapper.streamMetrics(from, to)) {
+				List<News> batch = new ArrayList<>(batchSize);
+				for (News news : cursor) {
+					batch.add(news);
+					if (batch.size() >= batchSize) {
+						writeBatch(batch, pool);
+						batch = new ArrayList<>(batchSize);
+					}
+				}
+				if (!batch.isEmpty()) writeBatch(batch, pool);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	private void writeBatch(List<News> batch, ForkJoinPool pool) {
+		long currentHour = HotNewsWindowService.currentHourIndex();
+		long hourTtl = hotNewsWindowService.getHourBucketTtlSeconds();
+		long dayTtl = hotNewsWindowService.dayBucketTtlSeconds();
+		long weekTtl = hotNewsWindowService.weekBucketTtlSeconds();
+		HotNewsUtil.ScoreMode mode = hotNewsProperties.getScoring().getMode();
+		long tauSeconds = TimeUnit.HOURS.toSeconds(hotNewsProperties.getScoring().getLogTimeTauHours());
+
+		List<BucketEntry> entries;
+		try {
+			entries = pool.submit(() -> batch.parallelStream()
+					.flatMap(news -> bucketEntries(news, mode, tauSeconds, currentHour, hourTtl, dayTtl, weekTtl).stream())
+					.toList()).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("热点ZSet重建被中断", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("计算热度失败", e.getCause());
+		}
+
+		// 按桶分组后pipeline批量写入
+		Map<String, Set<ZSetOperations.TypedTuple<Object>>> buckets = new HashMap<>();
+		for (BucketEntry entry : entries) {
+			buckets.computeIfAbsent(entry.key(), key -> new HashSet<>())
+					.add(new DefaultTypedTuple<Object>(entry.newsId(), entry.hotness()));
+		}
+		if (!buckets.isEmpty()) {
+			redisTemplate.executePipelined(new SessionCallback<>() {
+				@Override
+				@SuppressWarnings("unchecked")
+				public Object execute(RedisOperations operations) throws DataAccessException {
+					buckets.forEach((key, tuples) -> {
+						operations.opsForZSet().add(key, tuples);
+						operations.expire(key, ttlOf(key, hourTtl, dayTtl, weekTtl), TimeUnit.SECONDS);
+					});
+					return null;
+				}
+			});
+		}
+		scanned.add(batch.size());
+		written.add(entries.size());
+		scannedToId = batch.get(batch.size() - 1).getId();
+	}
+
+	/**
+	 * 计算一条新闻要写入的桶（按最近一次指标更新的时间归入小时桶、天级桶、周级桶，超出保留时长的桶不写入）
+	 */
+	static List<BucketEntry> bucketEntries(News news, HotNewsUtil.ScoreMode mode, long tauSeconds,
+										   long currentHour, long hourTtl, long dayTtl, long weekTtl) {
+		LocalDateTime updatedAt = news.getUpdatedAt() != null ? news.getUpdatedAt() : news.getCreatedAt();
+		if (updatedAt == null || news.getCreatedAt() == null) return List.of();
+		long hour = Math.min(HotNewsWindowService.hourOf(updatedAt), currentHour);
+		long ageSeconds = (currentHour - hour) * 3600;
+		if (ageSeconds >= weekTtl) return List.of();
+
+		double hotness = HotNewsUtil.calculateHotness(mode, HotNewsUtil.calculateBaseHotness(metricsOf(news)),
+				news.getCreatedAt(), tauSeconds, updatedAt);
+		long day = HotNewsWindowService.dayOf(hour);
+		List<BucketEntry> entries = new ArrayList<>(3);
+		if (ageSeconds < hourTtl) entries.add(new BucketEntry(HotNewsWindowService.hourKey(hour), news.getId(), hotness));
+		if (ageSeconds < dayTtl) entries.add(new BucketEntry(HotNewsWindowService.dayKey(day), news.getId(), hotness));
+		entries.add(new BucketEntry(HotNewsWindowService.weekKey(HotNewsWindowService.weekOf(day)), news.getId(), hotness));
+		return entries;
+	}
+
+	// 新闻指标（与redis中 news:metrics:{id} 的字段一致，忽略为null的指标）
+	private static Map<Object, Object> metricsOf(News news) {
+		Map<Object, Object> metrics = new HashMap<>();
+		news.toRedisMetricsMap().forEach((field, value) -> {
+			if (value != null) metrics.put(field, value);
+		});
+		return metrics;
+	}
+
+	private static long ttlOf(String key, long hourTtl, long dayTtl, long weekTtl) {
+		if (key.startsWith(RedisConstant.HOT_NEWS_HOUR_PREFIX)) return hourTtl;
+		if (key.startsWith(RedisConstant.HOT_NEWS_DAY_PREFIX)) return dayTtl;
+		return weekTtl;
+	}
+
+	private void finish(String finalState, String message) {
+		error = message;
+		finishedAt = System.currentTimeMillis();
+		state = finalState;
+		running.set(false);
+	}
+
+	// 获取任务状态（进度按已读取的ID范围计算，预计剩余时间按当前的读取速度估算）
+	public Map<String, Object> getStatus() {
+		Map<String, Object> status = new LinkedHashMap<>();
+		status.put("state", state);
+		status.put("minId", minId);
+		status.put("maxId", maxId);
+		status.put("scannedToId", scannedToId);
+		status.put("scanned", scanned.sum());
+		status.put("written", written.sum());
+		if (startedAt > 0) {
+			long elapsedMillis = (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+			double progress = maxId >= minId && maxId > 0
+					? Math.min(1.0, (double) (scannedToId - minId + 1) / (maxId - minId + 1)) : 0.0;
+			status.put("progress", Math.round(progress * 10_000) / 100.0); // 百分比
+			status.put("elapsedMillis", elapsedMillis);
+			status.put("throughputPerSecond", elapsedMillis > 0 ? scanned.sum() * 1000 / elapsedMillis : 0);
+			status.put("etaSeconds", "RUNNING".equals(state) && progress > 0
+					? Math.round(elapsedMillis * (1 - progress) / progress / 1000) : null);
+		}
+		status.put("error", error);
+		return status;
+	}
+}
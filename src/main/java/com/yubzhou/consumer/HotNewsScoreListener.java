@@ -0,0 +1,47 @@
+package com.yubzhou.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yubzhou.common.HotNewsScoreMessage;
+import com.yubzhou.common.RedisConstant;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 订阅热点新闻热度频道，将其他节点写入小时桶的热度同样写入进程内的Top-K统计（每个节点都持有所有分区的热度）
+ */
+@Component
+@Slf4j
+public class HotNewsScoreListener implements MessageListener {
+	private final RedisMessageListenerContainer redisMessageListenerContainer;
+	private final HotNewsTopKTracker hotNewsTopKTracker;
+	private final ObjectMapper objectMapper;
+
+	public HotNewsScoreListener(RedisMessageListenerContainer redisMessageListenerContainer,
+								HotNewsTopKTracker hotNewsTopKTracker,
+								ObjectMapper objectMapper) {
+		this.redisMessageListenerContainer = redisMessageListenerContainer;
+		this.hotNewsTopKTracker = hotNewsTopKTracker;
+		this.objectMapper = objectMapper;
+	}
+
+	@PostConstruct
+	public void subscribe() {
+		if (!hotNewsTopKTracker.isBroadcasting()) return; // 未开启主节点选举时不广播，无需订阅
+		redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.HOT_NEWS_SCORE_CHANNEL));
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		try {
+			HotNewsScoreMessage scores = objectMapper.readValue(message.getBody(), HotNewsScoreMessage.class);
+			hotNewsTopKTracker.applyRemoteScores(scores);
+		} catch (Exception e) {
+			log.error("处理热点新闻热度消息失败", e);
+		}
+	}
+}
@@ -6,35 +6,65 @@ import com.yubzhou.common.RedisConstant;
 import com.yubzhou.common.UserActionEvent;
 import com.yubzhou.common.UserActionEvent.ActionType;
 import com.yubzhou.model.po.News;
+import com.yubzhou.producer.UserActionDeadLetterPublisher;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.serializer.NewsBinaryCodec;
+import com.yubzhou.serializer.NewsContentCompressor;
 import com.yubzhou.service.NewsCategoryRelationService;
 import com.yubzhou.service.NewsService;
 import com.yubzhou.util.*;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.DataAccessException;
-import org.springframework.data.redis.core.HashOperations;
-import org.springframework.data.redis.core.RedisOperations;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.*;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class HotNewsService {
+	private static final long EVENT_COUNT_TTL_SECONDS = 7200; // 每分钟事件数的保留时长（秒，大于最长的1小时窗口）
+
 	private final RedisTemplate<String, Object> redisTemplate;
 	private final RedisUtil redisUtil;
 	private final RedisLockUtil redisLockUtil;
 	private final NewsService newsService;
 	private final NewsCategoryRelationService newsCategoryRelationService;
 	private final HotNewsActionTracker hotNewsActionTracker;
+	private final NewsMetricsFlushService newsMetricsFlushService;
+	private final NewsActionAggregator newsActionAggregator;
+	private final UserActionBackpressure userActionBackpressure;
+	private final UserActionDeadLetterPublisher userActionDeadLetterPublisher;
+	private final HotNewsTopKTracker hotNewsTopKTracker;
+	private final HotNewsTrendingTracker hotNewsTrendingTracker;
+	private final HotNewsWindowService hotNewsWindowService;
+	private final NewsNearCache newsNearCache;
+	private final NewsIdBloomFilter newsIdBloomFilter;
+	private final NewsContentCompressor newsContentCompressor;
+	private final HotNewsProperties hotNewsProperties;
 	private final ThreadPoolTaskExecutor globalTaskExecutor;
+	private final OrderedLaneExecutor hotNewsLaneExecutor;
+	private final DefaultRedisScript<String> hotNewsActionScript;
+	private final DefaultRedisScript<Long> migrateNewsCacheScript;
+	// 同一新闻的并发缓存未命中共享一次加载
+	private final SingleFlight<Long, News> newsLoads = new SingleFlight<>();
 
 	public HotNewsService(RedisTemplate<String, Object> redisTemplate,
 						  RedisUtil redisUtil,
@@ -42,37 +72,204 @@ public class HotNewsService {
 						  NewsService newsService,
 						  NewsCategoryRelationService newsCategoryRelationService,
 						  HotNewsActionTracker hotNewsActionTracker,
-						  @Qualifier("globalTaskExecutor") ThreadPoolTaskExecutor globalTaskExecutor) {
+						  NewsMetricsFlushService newsMetricsFlushService,
+						  NewsActionAggregator newsActionAggregator,
+						  UserActionBackpressure userActionBackpressure,
+						  UserActionDeadLetterPublisher userActionDeadLetterPublisher,
+						  HotNewsTopKTracker hotNewsTopKTracker,
+						  HotNewsTrendingTracker hotNewsTrendingTracker,
+						  HotNewsWindowService hotNewsWindowService,
+						  NewsNearCache newsNearCache,
+						  NewsIdBloomFilter newsIdBloomFilter,
+						  NewsContentCompressor newsContentCompressor,
+						  HotNewsProperties hotNewsProperties,
+						  @Qualifier("globalTaskExecutor") ThreadPoolTaskExecutor globalTaskExecutor,
+						  @Qualifier("hotNewsLaneExecutor") OrderedLaneExecutor hotNewsLaneExecutor,
+						  @Qualifier("hotNewsActionScript") DefaultRedisScript<String> hotNewsActionScript,
+						  @Qualifier("migrateNewsCacheScript") DefaultRedisScript<Long> migrateNewsCacheScript) {
 		this.redisTemplate = redisTemplate;
 		this.redisUtil = redisUtil;
 		this.redisLockUtil = redisLockUtil;
 		this.newsService = newsService;
 		this.newsCategoryRelationService = newsCategoryRelationService;
 		this.hotNewsActionTracker = hotNewsActionTracker;
+		this.newsMetricsFlushService = newsMetricsFlushService;
+		this.newsActionAggregator = newsActionAggregator;
+		this.userActionBackpressure = userActionBackpressure;
+		this.userActionDeadLetterPublisher = userActionDeadLetterPublisher;
+		this.hotNewsTopKTracker = hotNewsTopKTracker;
+		this.hotNewsTrendingTracker = hotNewsTrendingTracker;
+		this.hotNewsWindowService = hotNewsWindowService;
+		this.newsNearCache = newsNearCache;
+		this.newsIdBloomFilter = newsIdBloomFilter;
+		this.newsContentCompressor = newsContentCompressor;
+		this.hotNewsProperties = hotNewsProperties;
 		this.globalTaskExecutor = globalTaskExecutor;
+		this.hotNewsLaneExecutor = hotNewsLaneExecutor;
+		this.hotNewsActionScript = hotNewsActionScript;
+		this.migrateNewsCacheScript = migrateNewsCacheScript;
 	}
 
 	public static final Random random = new Random();
 
-	// 监听用户行为事件
-	@KafkaListener(topics = KafkaConstant.USER_ACTION_TOPIC, groupId = KafkaConstant.USER_ACTION_GROUP_ID)
-	public void processEvent(UserActionEvent event) {
-		// log.info("Received user action event: {}", event);
-		// 更新新闻指标和热度
-		asyncUpdateMetricsAndHotness(event);
+	// 批量监听用户行为事件（每次poll最多拉取hot-news.consumer.max-poll-records个事件）
+	// 整批事件按新闻ID分组到有序分道执行器中并行处理（同一新闻的事件保持分区内的顺序），
+	// 消费者线程等待所有执行道处理完成后才返回，正常返回后才提交偏移量（AckMode.BATCH）
+	// 执行道处理失败时只重试该执行道的事件（热点新闻行为脚本的增量不是幂等的，已成功的执行道不能重复执行），
+	// 重试次数用尽后写入死信主题
+	@KafkaListener(id = KafkaConstant.USER_ACTION_LISTENER_ID,
+			topics = KafkaConstant.USER_ACTION_TOPIC,
+			groupId = KafkaConstant.USER_ACTION_GROUP_ID,
+			containerFactory = KafkaConstant.USER_ACTION_CONTAINER_FACTORY,
+			// 使用本地事件总线传输时不启动监听器
+			autoStartup = "#{'${hot-news.transport.mode:KAFKA}' == 'KAFKA'}")
+	public void processEvents(List<UserActionEvent> events, Consumer<?, ?> consumer) {
+		// log.info("Received {} user action events", events.size());
+		// 记录消费者积压的事件数（在消费者线程中调用，只读取消费者本地的偏移量信息）
+		hotNewsActionTracker.recordConsumerLag(consumerLag(consumer));
+		// 执行道积压时暂停拉取后续事件（本批事件仍会阻塞提交，不会被丢弃）
+		userActionBackpressure.check();
+		// 按新闻ID分道批量更新新闻指标和热度
+		// 浏览、评论在本组内合并后直接写入redis，不经过进程内聚合，保证返回（提交偏移量）前整批事件已写入redis
+		HotNewsProperties.Consumer config = hotNewsProperties.getConsumer();
+		List<UserActionEvent> remaining = events.stream().filter(Objects::nonNull).toList();
+		boolean interrupted = false;
+		for (long attempt = 0; ; attempt++) {
+			remaining = applyGrouped(remaining);
+			if (remaining.isEmpty()) return;
+			if (attempt >= config.getMaxRetries()) break;
+			log.warn("{}个用户行为事件处理失败，{}毫秒后重试（第{}次）", remaining.size(), config.getRetryIntervalMillis(), attempt + 1);
+			try {
+				TimeUnit.MILLISECONDS.sleep(config.getRetryIntervalMillis());
+			} catch (InterruptedException e) {
+				// 停机时不再重试，剩余事件直接写入死信主题
+				interrupted = true;
+				break;
+			}
+		}
+		// 重试后仍失败的事件写入死信主题（写入失败则抛出异常，由容器的错误处理器重试整批事件）
+		try {
+			userActionDeadLetterPublisher.publish(remaining);
+		} finally {
+			if (interrupted) Thread.currentThread().interrupt();
+		}
 	}
 
-	// 获取新闻详情，返回News
+	/**
+	 * 按新闻ID分道处理一批事件，等待所有执行道处理完成
+	 *
+	 * @param events 用户行为事件
+	 * @return 处理失败的执行道中的事件（同一新闻的事件保持原有顺序）
+	 */
+	private List<UserActionEvent> applyGrouped(List<UserActionEvent> events) {
+		Queue<UserActionEvent> failed = new ConcurrentLinkedQueue<>();
+		hotNewsLaneExecutor.executeGrouped(events, UserActionEvent::getNewsId, group -> {
+			try {
+				applyEventsDurably(group);
+			} catch (RuntimeException e) {
+				log.warn("执行道处理{}个用户行为事件失败：{}", group.size(), e.getMessage());
+				failed.addAll(group);
+			}
+		}).join();
+		return new ArrayList<>(failed);
+	}
+
+	// 已分配分区的积压事件数之和（分区的最新偏移量尚未获取时不计入）
+	private static long consumerLag(Consumer<?, ?> consumer) {
+		long lag = 0;
+		for (TopicPartition partition : consumer.assignment()) {
+			OptionalLong partitionLag = consumer.currentLag(partition);
+			if (partitionLag.isPresent()) lag += partitionLag.getAsLong();
+		}
+		return lag;
+	}
+
+	// 获取新闻详情，返回News（先查询进程内的近端缓存并从redis读取最新指标，未命中时查询redis或数据库后回填）
+	// 同一JVM内对同一新闻的并发未命中共享一次加载，只有领头线程获取分布式锁、查询数据库，其他线程等待其结果
 	public News getNews(Long newsId) {
+		News news = getNearCachedNews(newsId);
+		if (news != null) return news;
+		// 布隆过滤器判断不存在的新闻直接返回（不查询redis和数据库，也不缓存空值）
+		if (!newsIdBloomFilter.mightContain(newsId)) return null;
+		return newsLoads.execute(newsId, () -> {
+			long stamp = newsNearCache.stamp(newsId);
+			News loaded = loadNews(newsId);
+			newsNearCache.put(newsId, loaded, stamp);
+			return loaded;
+		});
+	}
+
+	// 从近端缓存获取新闻详情和内容，并用redis中的新闻指标覆盖（未命中或指标已过期返回null）
+	@SuppressWarnings("unchecked")
+	private News getNearCachedNews(Long newsId) {
+		News cached = newsNearCache.get(newsId);
+		if (cached == null) return null;
+		Map<byte[], byte[]> rawMetrics = redisTemplate.execute((RedisCallback<Map<byte[], byte[]>>) connection ->
+				connection.hashCommands().hGetAll(toBytes(RedisConstant.NEWS_METRICS_PREFIX + newsId)));
+		// 指标已过期（缓存不完整），按未命中处理，重新加载时会回填指标
+		if (CollectionUtils.isEmpty(rawMetrics)) return null;
+		RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+		News news = cached.copyWithoutMetrics();
+		news.applyRedisMetrics(deserializeHash(rawMetrics, valueSerializer));
+		return news;
+	}
+
+	/**
+	 * 批量从近端缓存获取新闻详情和内容，并用一次pipeline读取新闻指标覆盖
+	 *
+	 * @param newsIds 新闻ID列表（不重复）
+	 * @param found   命中的新闻（新闻ID → 新闻）
+	 * @return 近端缓存未命中（或指标已过期）的新闻ID
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Long> getNearCachedNews(List<Long> newsIds, Map<Long, News> found) {
+		Map<Long, News> cachedNews = new LinkedHashMap<>();
+		List<Long> misses = new ArrayList<>();
+		for (Long newsId : newsIds) {
+			News cached = newsNearCache.get(newsId);
+			if (cached != null) cachedNews.put(newsId, cached);
+			else misses.add(newsId);
+		}
+		if (cachedNews.isEmpty()) return misses;
+		List<Object> results = redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+			connection.openPipeline();
+			for (Long newsId : cachedNews.keySet()) {
+				connection.hashCommands().hGetAll(toBytes(RedisConstant.NEWS_METRICS_PREFIX + newsId));
+			}
+			return connection.closePipeline();
+		});
+		RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+		int i = 0;
+		for (Map.Entry<Long, News> entry : cachedNews.entrySet()) {
+			Map<byte[], byte[]> rawMetrics = (Map<byte[], byte[]>) results.get(i++);
+			if (CollectionUtils.isEmpty(rawMetrics)) {
+				misses.add(entry.getKey());
+				continue;
+			}
+			News news = entry.getValue().copyWithoutMetrics();
+			news.applyRedisMetrics(deserializeHash(rawMetrics, valueSerializer));
+			found.put(entry.getKey(), news);
+		}
+		return misses;
+	}
+
+	// 获取新闻单飞加载的统计信息（领头加载次数、共享结果次数）
+	public Map<String, Object> getNewsLoadStats() {
+		return newsLoads.getStats();
+	}
+
+	// 从redis或数据库获取新闻详情（由单飞加载的领头线程调用）
+	private News loadNews(Long newsId) {
 		String newsKey = RedisConstant.NEWS_DETAIL_PREFIX + newsId;
 		int maxRetries = 2; // 最大重试次数
 		int retryCount = 0; // 当前重试次数
 
 		while (retryCount < maxRetries) {
 			// 第一次检查缓存
-			Map<Object, Object> cachedNews = redisUtil.hmget(newsKey);
-			if (!CollectionUtils.isEmpty(cachedNews)) {
-				return !"NULL".equals(cachedNews.get("title")) ? News.fromRedisMap(cachedNews) : null;
+			Optional<News> cachedNews = getNewsFromRedis(newsId);
+			if (retryCount == 0) newsNearCache.recordRedisLookups(cachedNews != null ? 1 : 0, cachedNews != null ? 0 : 1);
+			if (cachedNews != null) {
+				return cachedNews.orElse(null);
 			}
 
 			String lockKey = RedisConstant.NEWS_LOCK_PREFIX + newsId;
@@ -82,9 +279,9 @@ public class HotNewsService {
 				lockValue = redisLockUtil.tryLock(lockKey, 50, 10_000);
 				if (lockValue != null) {
 					// 二次检查缓存
-					cachedNews = redisUtil.hmget(newsKey);
-					if (!CollectionUtils.isEmpty(cachedNews)) {
-						return !"NULL".equals(cachedNews.get("title")) ? News.fromRedisMap(cachedNews) : null;
+					cachedNews = getNewsFromRedis(newsId);
+					if (cachedNews != null) {
+						return cachedNews.orElse(null);
 					}
 
 					// 查询数据库
@@ -118,8 +315,228 @@ public class HotNewsService {
 				}
 			}
 		}
-		// 达到最大重试次数后降级
-		return null;
+		// 达到最大重试次数后降级：其他节点仍在加载，直接查询数据库（由持有锁的节点回填缓存），不把存在的新闻当作不存在
+		return loadOneFromMySQL(newsId);
+	}
+
+	/**
+	 * 批量获取新闻详情（与逐个调用getNews的结果相同，但整批只需要少量往返）
+	 * 0. 先查询进程内的近端缓存（命中的新闻一次pipeline读取最新指标），未命中的新闻查询redis或数据库后回填（布隆过滤器判断不存在的新闻直接忽略）
+	 * 1. 一次pipeline读取所有新闻的详情、指标和内容
+	 * 2. 未命中的新闻一次pipeline批量加锁（防止缓存击穿），二次检查缓存后用一次listByIds查询数据库
+	 * 3. 查到的新闻在一次pipeline中异步回填redis，数据库中不存在的新闻缓存空值（防止缓存穿透）
+	 * 未获取到锁的新闻（其他线程正在加载）逐个调用getNews等待加载完成
+	 *
+	 * @param newsIds 新闻ID列表
+	 * @return 与newsIds一一对应的新闻列表（新闻不存在时对应位置为null）
+	 */
+	public List<News> getNewsBatch(List<Long> newsIds) {
+		if (CollectionUtils.isEmpty(newsIds)) return Collections.emptyList();
+		List<Long> distinctIds = newsIds.stream().filter(Objects::nonNull).distinct().toList();
+		Map<Long, News> found = new HashMap<>(distinctIds.size() * 2);
+		// 近端缓存未命中的新闻及其版本号
+		Map<Long, Long> stamps = new LinkedHashMap<>();
+		for (Long newsId : getNearCachedNews(distinctIds, found)) {
+			if (newsIdBloomFilter.mightContain(newsId)) stamps.put(newsId, newsNearCache.stamp(newsId));
+		}
+		List<Long> nearMisses = new ArrayList<>(stamps.keySet());
+		List<Long> misses = nearMisses.isEmpty() ? nearMisses : getNewsFromRedis(nearMisses, found);
+		newsNearCache.recordRedisLookups(nearMisses.size() - misses.size(), misses.size());
+
+		if (!misses.isEmpty()) {
+			Map<String, String> locks = redisLockUtil.tryLockAll(
+					misses.stream().map(newsId -> RedisConstant.NEWS_LOCK_PREFIX + newsId).toList(), 10_000);
+			try {
+				List<Long> locked = misses.stream()
+						.filter(newsId -> locks.containsKey(RedisConstant.NEWS_LOCK_PREFIX + newsId))
+						.toList();
+				// 二次检查缓存，仍未命中的新闻查询数据库
+				if (!locked.isEmpty()) loadManyFromMySQL(getNewsFromRedis(locked, found), found);
+			} finally {
+				redisLockUtil.unlockAll(locks);
+			}
+			// 降级策略：其他线程正在加载的新闻逐个等待
+			for (Long newsId : misses) {
+				if (locks.containsKey(RedisConstant.NEWS_LOCK_PREFIX + newsId)) continue;
+				News news = getNews(newsId);
+				if (news != null) found.put(newsId, news);
+			}
+		}
+		stamps.forEach((newsId, stamp) -> newsNearCache.put(newsId, found.get(newsId), stamp));
+		return newsIds.stream().map(newsId -> newsId == null ? null : found.get(newsId)).toList();
+	}
+
+	// 用一次查询从数据库中加载新闻：查到的新闻异步回填redis，不存在的新闻缓存空值
+	private void loadManyFromMySQL(List<Long> newsIds, Map<Long, News> found) {
+		if (newsIds.isEmpty()) return;
+		List<News> newsList = newsService.listByIds(newsIds);
+		newsList.forEach(news -> found.put(news.getId(), news));
+		if (!newsList.isEmpty()) {
+			List<Long> loadedIds = newsList.stream().map(News::getId).toList();
+			// 异步缓存到Redis中（新闻详情、新闻-分类关系）
+			globalTaskExecutor.execute(() -> {
+				batchCacheNewsToRedis(newsList, true);
+				newsCategoryRelationService.cacheNewsCategoryRelationsToRedis(loadedIds);
+			});
+		}
+
+		// 缓存空值防止缓存穿透
+		List<Long> absentIds = newsIds.stream().filter(newsId -> !found.containsKey(newsId)).toList();
+		if (absentIds.isEmpty()) return;
+		redisTemplate.executePipelined(new SessionCallback<>() {
+			@Override
+			public Object execute(RedisOperations operations) throws DataAccessException {
+				for (Long newsId : absentIds) {
+					String newsKey = RedisConstant.NEWS_DETAIL_PREFIX + newsId;
+					operations.opsForHash().put(newsKey, "title", "NULL");
+					operations.expire(newsKey, 5, TimeUnit.MINUTES);
+				}
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * 从redis中获取新闻（一次pipeline读取新闻详情、新闻指标和新闻内容）
+	 * 旧格式的缓存（详情、指标、内容都在新闻详情Hash中）会先迁移为新格式再读取
+	 *
+	 * @param newsId 新闻ID
+	 * @return 缓存未命中（或缓存不完整）返回null；缓存了空值返回Optional.empty()；否则返回新闻
+	 */
+	private Optional<News> getNewsFromRedis(Long newsId) {
+		List<Long> newsIds = List.of(newsId);
+		return (isBinaryFormat() ? getNewsBlobsFromRedis(newsIds) : getNewsHashesFromRedis(newsIds)).get(0);
+	}
+
+	/**
+	 * 批量从redis中获取新闻（一次pipeline读取所有新闻的详情、指标和内容）
+	 *
+	 * @param newsIds 新闻ID列表（不重复）
+	 * @param found   命中的新闻（新闻ID → 新闻）
+	 * @return 缓存未命中（或缓存不完整）的新闻ID（缓存了空值的新闻既不在found中，也不在返回值中）
+	 */
+	private List<Long> getNewsFromRedis(List<Long> newsIds, Map<Long, News> found) {
+		List<Optional<News>> newsList = isBinaryFormat() ? getNewsBlobsFromRedis(newsIds) : getNewsHashesFromRedis(newsIds);
+		List<Long> misses = new ArrayList<>();
+		for (int i = 0; i < newsIds.size(); i++) {
+			Long newsId = newsIds.get(i);
+			Optional<News> news = newsList.get(i);
+			if (news == null) misses.add(newsId);
+			else news.ifPresent(n -> found.put(newsId, n));
+		}
+		return misses;
+	}
+
+	/**
+	 * 批量从redis中获取新闻详情Hash、新闻指标Hash和新闻内容
+	 * 读取原始字节（新闻内容可能是压缩的，不能经过RedisTemplate的JSON反序列化），再按RedisTemplate的序列化方式解码
+	 *
+	 * @return 与newsIds一一对应（元素的含义同getNewsFromRedis的返回值）
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Optional<News>> getNewsHashesFromRedis(List<Long> newsIds) {
+		List<Object> results = redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+			connection.openPipeline();
+			for (Long newsId : newsIds) {
+				connection.hashCommands().hGetAll(toBytes(RedisConstant.NEWS_DETAIL_PREFIX + newsId));
+				connection.hashCommands().hGetAll(toBytes(RedisConstant.NEWS_METRICS_PREFIX + newsId));
+				connection.stringCommands().get(toBytes(RedisConstant.NEWS_CONTENT_PREFIX + newsId));
+			}
+			return connection.closePipeline();
+		});
+		RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+		List<Optional<News>> newsList = new ArrayList<>(newsIds.size());
+		for (int i = 0; i < newsIds.size(); i++) {
+			Long newsId = newsIds.get(i);
+			Map<Object, Object> detail = deserializeHash((Map<byte[], byte[]>) results.get(3 * i), valueSerializer);
+			Map<Object, Object> metrics = deserializeHash((Map<byte[], byte[]>) results.get(3 * i + 1), valueSerializer);
+			String content;
+			try {
+				content = newsContentCompressor.fromRedisValue((byte[]) results.get(3 * i + 2), valueSerializer);
+			} catch (IllegalArgumentException e) {
+				// 无法解压，视为未命中，重新从数据库加载并覆盖
+				log.warn("新闻内容解压失败，视为未命中: newsId={}, {}", newsId, e.getMessage());
+				newsList.add(null);
+				continue;
+			}
+			newsList.add(parseNewsFromRedis(newsId, detail, metrics, content));
+		}
+		return newsList;
+	}
+
+	// 由新闻详情、新闻指标和新闻内容组装新闻（返回值同getNewsFromRedis）
+	private Optional<News> parseNewsFromRedis(Long newsId, Map<Object, Object> detail, Map<Object, Object> metrics, String content) {
+		if (CollectionUtils.isEmpty(detail)) return null;
+		// 缓存了空值（即数据库中不存在的新闻）
+		if ("NULL".equals(detail.get("title"))) return Optional.empty();
+		// 旧格式的缓存，迁移后重新读取
+		if (detail.containsKey("views")) {
+			return migrateNewsCache(newsId) ? getNewsFromRedis(newsId) : null;
+		}
+		// 指标或内容已过期（缓存不完整），视为未命中
+		if (CollectionUtils.isEmpty(metrics) || content == null) return null;
+		return Optional.of(News.fromRedisMap(detail, metrics, content));
+	}
+
+	// 按RedisTemplate的序列化方式解码Hash（字段名为String，字段值为JSON）
+	private static Map<Object, Object> deserializeHash(Map<byte[], byte[]> raw, RedisSerializer<Object> valueSerializer) {
+		if (CollectionUtils.isEmpty(raw)) return Collections.emptyMap();
+		Map<Object, Object> hash = new HashMap<>(raw.size() * 2);
+		raw.forEach((field, value) -> hash.put(new String(field, StandardCharsets.UTF_8), valueSerializer.deserialize(value)));
+		return hash;
+	}
+
+	/**
+	 * 批量从redis中获取二进制编码的新闻（一次pipeline读取新闻blob、新闻指标和空值标记）
+	 * 新闻blob读取原始字节（不经过RedisTemplate的JSON反序列化），新闻指标和空值标记按RedisTemplate的序列化方式解码
+	 * 新闻内容达到压缩阈值时在blob中压缩（见NewsBinaryCodec版本2）
+	 *
+	 * @return 与newsIds一一对应（元素的含义同getNewsFromRedis的返回值）
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Optional<News>> getNewsBlobsFromRedis(List<Long> newsIds) {
+		byte[] titleField = toBytes("title");
+		List<Object> results = redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+			connection.openPipeline();
+			for (Long newsId : newsIds) {
+				connection.stringCommands().get(toBytes(RedisConstant.NEWS_BLOB_PREFIX + newsId));
+				connection.hashCommands().hGetAll(toBytes(RedisConstant.NEWS_METRICS_PREFIX + newsId));
+				connection.hashCommands().hGet(toBytes(RedisConstant.NEWS_DETAIL_PREFIX + newsId), titleField);
+			}
+			return connection.closePipeline();
+		});
+		RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+		List<Optional<News>> newsList = new ArrayList<>(newsIds.size());
+		for (int i = 0; i < newsIds.size(); i++) {
+			byte[] blob = (byte[]) results.get(3 * i);
+			Map<byte[], byte[]> rawMetrics = (Map<byte[], byte[]>) results.get(3 * i + 1);
+			byte[] title = (byte[]) results.get(3 * i + 2);
+			// 缓存了空值（即数据库中不存在的新闻）
+			if (blob == null && title != null && "NULL".equals(valueSerializer.deserialize(title))) {
+				newsList.add(Optional.empty());
+				continue;
+			}
+			// 新闻blob或指标已过期（缓存不完整），视为未命中
+			if (blob == null || CollectionUtils.isEmpty(rawMetrics)) {
+				newsList.add(null);
+				continue;
+			}
+			try {
+				News news = NewsBinaryCodec.decode(blob, newsContentCompressor);
+				news.applyRedisMetrics(deserializeHash(rawMetrics, valueSerializer));
+				newsList.add(Optional.of(news));
+			} catch (IllegalArgumentException e) {
+				// 无法解码（如更高版本写入的格式），视为未命中，重新从数据库加载并覆盖
+				log.warn("新闻缓存解码失败，视为未命中: newsId={}, {}", newsIds.get(i), e.getMessage());
+				newsList.add(null);
+			}
+		}
+		return newsList;
+	}
+
+	// 新闻缓存是否为二进制格式（hot-news.news-cache.format=BINARY）
+	private boolean isBinaryFormat() {
+		return hotNewsProperties.getNewsCache().getFormat() == HotNewsProperties.NewsCacheFormat.BINARY;
 	}
 
 	// 获取用户对某些新闻列表的操作（比如格式为新闻ID：true）
@@ -154,59 +571,249 @@ public class HotNewsService {
 	// 将从MySQL中获取的新闻缓存到Redis中
 	public void cacheNewsToRedis(News news) {
 		if (news == null) return;
-		String newsKey = RedisConstant.NEWS_DETAIL_PREFIX + news.getId();
-		redisUtil.hmset(newsKey, news.toRedisMap());
 		// 防止缓存雪崩（大量缓存Key同时过期，或Redis服务宕机，导致所有请求直接访问数据库）
 		// 随机设置缓存过期时间（2-5小时）
-		redisUtil.expire(newsKey, random.nextInt(120, 300), TimeUnit.MINUTES);
+		batchCacheNewsToRedis(List.of(news), true);
 	}
 
-	// 批量将从MySQL中获取的新闻缓存到Redis中
+	// 批量将从MySQL中获取的新闻缓存到Redis中（新闻详情或内容可能已变化，失效所有节点的近端缓存）
 	public void batchCacheNewsToRedis(List<News> newsList) {
+		batchCacheNewsToRedis(newsList, false);
+		newsNearCache.invalidate(newsList.stream().filter(Objects::nonNull).map(News::getId).toList());
+	}
+
+	/**
+	 * 批量将从MySQL中获取的新闻缓存到Redis中（新闻详情、新闻指标、新闻内容分别存储）
+	 * 新闻指标只在字段不存在时写入（HSETNX），避免用数据库中尚未写回的旧指标覆盖redis中的最新指标
+	 * 不失效近端缓存：回填的详情和内容就是刚从数据库读取的数据（否则数据库加载后回填的近端缓存会被自己的异步写入失效）
+	 *
+	 * @param newsList     新闻列表
+	 * @param randomExpire 是否为每个新闻随机设置2-5小时的过期时间（防止缓存雪崩），false表示不设置过期时间
+	 */
+	private void batchCacheNewsToRedis(List<News> newsList, boolean randomExpire) {
 		if (CollectionUtils.isEmpty(newsList)) return;
-		redisTemplate.executePipelined(new SessionCallback<>() {
-			@Override
-			public Object execute(RedisOperations operations) throws DataAccessException {
-				HashOperations<String, String, Object> hashOps = operations.opsForHash();
-				for (News news : newsList) {
-					if (news == null || news.getId() == null) continue;
-					hashOps.putAll(RedisConstant.NEWS_DETAIL_PREFIX + news.getId(), news.toRedisMap());
+		if (isBinaryFormat()) batchCacheNewsBlobsToRedis(newsList, randomExpire);
+		else batchCacheNewsHashesToRedis(newsList, randomExpire);
+	}
+
+	// 新闻详情Hash + 新闻指标Hash + 新闻内容字符串（新闻内容达到压缩阈值时压缩，见NewsContentCompressor）
+	@SuppressWarnings("unchecked")
+	private void batchCacheNewsHashesToRedis(List<News> newsList, boolean randomExpire) {
+		RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+		redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			for (News news : newsList) {
+				if (news == null || news.getId() == null) continue;
+				byte[] newsKey = toBytes(RedisConstant.NEWS_DETAIL_PREFIX + news.getId());
+				byte[] metricsKey = toBytes(RedisConstant.NEWS_METRICS_PREFIX + news.getId());
+				byte[] contentKey = toBytes(RedisConstant.NEWS_CONTENT_PREFIX + news.getId());
+				Map<byte[], byte[]> detail = new HashMap<>();
+				news.toRedisMap().forEach((field, value) -> detail.put(toBytes(field), valueSerializer.serialize(value)));
+				connection.hashCommands().hMSet(newsKey, detail);
+				news.toRedisMetricsMap().forEach((field, value) ->
+						connection.hashCommands().hSetNX(metricsKey, toBytes(field), valueSerializer.serialize(value)));
+				String content = news.getContent() != null ? news.getContent() : "";
+				connection.stringCommands().set(contentKey, newsContentCompressor.toRedisValue(content, valueSerializer));
+				if (randomExpire) {
+					long expireSeconds = TimeUnit.MINUTES.toSeconds(random.nextInt(120, 300));
+					connection.keyCommands().expire(newsKey, expireSeconds);
+					connection.keyCommands().expire(metricsKey, expireSeconds);
+					connection.keyCommands().expire(contentKey, expireSeconds);
 				}
-				return null; // 返回null表示不需要返回结果
 			}
+			return null; // 返回null表示不需要返回结果
 		});
 	}
 
+	/**
+	 * 二进制编码的新闻blob + 新闻指标Hash（新闻指标同样只在字段不存在时写入）
+	 * 同时删除该新闻的新闻详情Hash和新闻内容（切换格式前写入的缓存，以及空值标记）
+	 */
+	@SuppressWarnings("unchecked")
+	private void batchCacheNewsBlobsToRedis(List<News> newsList, boolean randomExpire) {
+		RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+		redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			for (News news : newsList) {
+				if (news == null || news.getId() == null) continue;
+				byte[] blobKey = toBytes(RedisConstant.NEWS_BLOB_PREFIX + news.getId());
+				byte[] metricsKey = toBytes(RedisConstant.NEWS_METRICS_PREFIX + news.getId());
+				connection.keyCommands().del(toBytes(RedisConstant.NEWS_DETAIL_PREFIX + news.getId()),
+						toBytes(RedisConstant.NEWS_CONTENT_PREFIX + news.getId()));
+				connection.stringCommands().set(blobKey, NewsBinaryCodec.encode(news, newsContentCompressor));
+				news.toRedisMetricsMap().forEach((field, value) ->
+						connection.hashCommands().hSetNX(metricsKey, toBytes(field), valueSerializer.serialize(value)));
+				if (randomExpire) {
+					long expireSeconds = TimeUnit.MINUTES.toSeconds(random.nextInt(120, 300));
+					connection.keyCommands().expire(blobKey, expireSeconds);
+					connection.keyCommands().expire(metricsKey, expireSeconds);
+				}
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * 将旧格式的新闻缓存（详情、指标、内容都在新闻详情Hash中）原子地拆分为新格式
+	 *
+	 * @param newsId 新闻ID
+	 * @return 是否进行了迁移（不是旧格式时返回false）
+	 */
+	public boolean migrateNewsCache(Long newsId) {
+		Long migrated = redisTemplate.execute(migrateNewsCacheScript, List.of(
+				RedisConstant.NEWS_DETAIL_PREFIX + newsId,
+				RedisConstant.NEWS_METRICS_PREFIX + newsId,
+				RedisConstant.NEWS_CONTENT_PREFIX + newsId));
+		if (migrated != null && migrated == 1L) {
+			log.info("旧格式的新闻缓存已迁移（newsId={}）", newsId);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 迁移redis中所有旧格式的新闻缓存（SCAN遍历新闻详情键，由管理员接口调用）
+	 *
+	 * @return 迁移的新闻数
+	 */
+	public long migrateAllNewsCache() {
+		long migrated = 0;
+		ScanOptions options = ScanOptions.scanOptions().match(RedisConstant.NEWS_DETAIL_PREFIX + "*").count(500).build();
+		try (Cursor<String> cursor = redisTemplate.scan(options)) {
+			while (cursor.hasNext()) {
+				String newsId = cursor.next().substring(RedisConstant.NEWS_DETAIL_PREFIX.length());
+				if (newsId.chars().allMatch(Character::isDigit) && migrateNewsCache(Long.parseLong(newsId))) {
+					migrated++;
+				}
+			}
+		}
+		log.info("旧格式的新闻缓存迁移完成，共迁移{}条", migrated);
+		return migrated;
+	}
+
 	private News loadOneFromMySQL(Long newsId) {
 		return newsService.findNewsById(newsId);
 	}
 
-	// 异步更新新闻指标并刷新1小时热度
+	// 异步更新新闻指标并刷新1小时热度（提交到新闻ID所在的执行道，与Kafka事件保持同一新闻内的顺序）
 	public void asyncUpdateMetricsAndHotness(UserActionEvent event) {
-		// 标记最近一次用户行为事件
-		hotNewsActionTracker.markAction();
-
-		globalTaskExecutor.execute(() -> {
-			// 强制触发缓存加载（防止redis中缓存失效）
-			News news = getNews(event.getNewsId());
-			if (news == null) {
-				log.error("redis和数据库中新闻数据都不存在，忽略该事件: {}", event);
-				return;
+		try {
+			hotNewsLaneExecutor.execute(event.getNewsId(), () -> applyEvents(List.of(event)));
+		} catch (RejectedExecutionException e) {
+			log.warn("用户行为事件被拒绝执行：{}，原因：{}", event, e.getMessage());
+		}
+	}
+
+	/**
+	 * 批量更新新闻指标和热度（整批只需要少量的pipeline往返）
+	 * 0. 浏览、评论等可聚合的事件交给进程内聚合，由定时任务合并后写入redis
+	 * 1. 批量检查新闻缓存（缓存不存在则从数据库加载并写入redis）
+	 * 2. 按事件顺序执行热点新闻行为脚本（互斥处理、用户行为记录、指标、热度在一次脚本调用中原子完成）
+	 * 3. 标记新闻指标待写回数据库（不再逐条事件更新数据库）
+	 * 4. 处理成功后记录事件速率和飙升统计（Top-K统计在脚本执行成功后记录脚本写入的热度）
+	 */
+	public void applyEvents(List<UserActionEvent> events) {
+		applyEvents(events, true);
+	}
+
+	/**
+	 * 批量更新新闻指标和热度，返回前所有事件都已写入redis（由Kafka消费者调用，返回后才提交偏移量）
+	 * 浏览、评论等可聚合的事件不交给进程内聚合，而是在本组事件内合并后与其他事件在同一个pipeline中写入
+	 */
+	public void applyEventsDurably(List<UserActionEvent> events) {
+		applyEvents(events, false);
+	}
+
+	private void applyEvents(List<UserActionEvent> events, boolean aggregateInProcess) {
+		if (CollectionUtils.isEmpty(events)) return;
+
+		// 过滤非法事件
+		List<UserActionEvent> validEvents = events.stream()
+				.filter(e -> e != null && e.getNewsId() != null && e.getUserId() != null && e.getAction() != null)
+				.toList();
+		if (validEvents.isEmpty()) return;
+
+		// 浏览、评论等事件交给进程内聚合（定时批量写入redis）或在本组内合并，其余事件直接处理
+		List<ActionCommand> commands = aggregateInProcess
+				? validEvents.stream().filter(e -> !newsActionAggregator.offer(e)).map(e -> new ActionCommand(e, 1)).toList()
+				: mergeAggregatableEvents(validEvents);
+		if (!commands.isEmpty()) {
+			// 强制触发缓存加载（防止redis中缓存失效），并过滤掉redis和数据库中都不存在的新闻
+			Set<Long> existingNewsIds = ensureNewsCached(commands.stream()
+					.map(command -> command.event().getNewsId())
+					.collect(Collectors.toCollection(LinkedHashSet::new)));
+			commands = commands.stream()
+					.filter(command -> existingNewsIds.contains(command.event().getNewsId()))
+					.toList();
+		}
+		if (!commands.isEmpty()) {
+			// 每个事件执行一次热点新闻行为脚本（整批事件只需一次往返）
+			Map<Long, Double> scores = executeActionScripts(commands);
+			// 标记指标已变化，由NewsMetricsFlushService定时批量写回数据库（write-behind）
+			// 近端缓存不包含指标，不需要失效
+			newsMetricsFlushService.markDirty(scores.keySet());
+		}
+
+		// 处理成功后才记录统计（处理失败被重试时不会重复累加）
+		recordApplied(validEvents);
+	}
+
+	// 可聚合的事件按（新闻ID，行为类型）在本组内合并为一次脚本调用（取消操作以负数增量累加），其余事件保持顺序
+	private List<ActionCommand> mergeAggregatableEvents(List<UserActionEvent> events) {
+		if (!hotNewsProperties.getAggregation().isEnabled()) {
+			return events.stream().map(e -> new ActionCommand(e, 1)).toList();
+		}
+		List<ActionCommand> commands = new ArrayList<>();
+		Map<Long, Map<ActionType, Long>> deltas = new LinkedHashMap<>();
+		for (UserActionEvent event : events) {
+			if (NewsActionAggregator.isAggregatable(event.getAction())) {
+				deltas.computeIfAbsent(event.getNewsId(), k -> new EnumMap<>(ActionType.class))
+						.merge(event.getAction().toOriginalAction(), event.getAction().isCancelAction() ? -1L : 1L, Long::sum);
+			} else {
+				commands.add(new ActionCommand(event, 1));
 			}
+		}
+		// 聚合的行为不需要记录用户行为，因此不需要用户ID
+		deltas.forEach((newsId, actionDeltas) -> actionDeltas.forEach((action, delta) -> {
+			if (delta != 0) commands.add(new ActionCommand(new UserActionEvent(newsId, null, action, null), delta));
+		}));
+		return commands;
+	}
 
-			// 获取新闻指标Key
-			String newsKey = RedisConstant.NEWS_DETAIL_PREFIX + event.getNewsId();
-			// 确保互斥操作（即假如同一用户对同一新闻之前进行了反对操作，现在要进行支持操作，则需要先取消之前的反对操作）
-			ensureMutualExclusiveAction(newsKey, event);
-			// 更新Hash中的新闻指标（浏览量、评论数、收藏数等）
-			updateMetrics(newsKey, event);
-			// 更新用户新闻行为记录
-			updateUserNewsAction(event);
-			// 更新热度
-			updateHotness(newsKey, event);
-			// 更新数据库
-			updateMetricsToMySQL(newsKey, event);
-		});
+	// 记录事件速率和端到端延迟，并累加到进程内的飙升新闻检测
+	private void recordApplied(List<UserActionEvent> events) {
+		hotNewsActionTracker.record(events);
+		events.forEach(e -> hotNewsTrendingTracker.record(e.getNewsId(), e.getAction(), 1));
+	}
+
+	/**
+	 * 将进程内聚合的增量写入redis（由定时任务和停机监听器调用）
+	 * 每个（新闻ID，行为类型）只执行一次热点新闻行为脚本，所有脚本调用在同一个pipeline中执行
+	 * 检查新闻缓存或执行脚本失败（如redis不可用、超时）时，将取出的增量放回聚合器，由下次取出时重新写入
+	 */
+	public void flushAggregatedActions() {
+		Map<Long, Map<ActionType, Long>> deltas = newsActionAggregator.drain();
+		if (deltas.isEmpty()) return;
+
+		Map<Long, Double> scores;
+		try {
+			Set<Long> existingNewsIds = ensureNewsCached(deltas.keySet());
+			List<ActionCommand> commands = new ArrayList<>();
+			deltas.forEach((newsId, actionDeltas) -> {
+				if (!existingNewsIds.contains(newsId)) return;
+				// 聚合的行为不需要记录用户行为，因此不需要用户ID
+				actionDeltas.forEach((action, delta) ->
+						commands.add(new ActionCommand(new UserActionEvent(newsId, null, action, null), delta)));
+			});
+			if (commands.isEmpty()) return;
+			scores = executeActionScripts(commands);
+		} catch (RuntimeException e) {
+			newsActionAggregator.restore(deltas);
+			throw e;
+		}
+		newsMetricsFlushService.markDirty(scores.keySet());
+	}
+
+	// 一次热点新闻行为脚本调用（count为增量，只对不需要记录用户行为的操作生效）
+	private record ActionCommand(UserActionEvent event, long count) {
 	}
 
 	// 从redis中获取用户收藏的新闻
@@ -214,118 +821,194 @@ public class HotNewsService {
 		String actionKey = RedisConstant.USER_NEWS_ACTION_PREFIX + userId + ":" + ActionType.FAVORITE.getField();
 		Set<Long> favoriteNewsIds = TypeConverter.convert(redisUtil.sGet(actionKey), Long.class, HashSet::new);
 		if (CollectionUtils.isEmpty(favoriteNewsIds)) return Collections.emptyList();
-		return favoriteNewsIds.stream().map(this::getNews).toList();
+		return getNewsBatch(new ArrayList<>(favoriteNewsIds));
 	}
 
-	// 异步执行数据库更新
-	private void updateMetricsToMySQL(String newsKey, UserActionEvent event) {
-		try {
-			// 从redis中获取指定新闻的指标
-			Map<Object, Object> newsMap = redisUtil.hmget(newsKey);
-			// 转换为News对象
-			News news = News.fromRedisMapForMetrics(newsMap);
-
-			// 使用CAS乐观锁更新
-			boolean success = newsService.updateMetricsWithVersion(news);
-			// 如果数据库更新成功，则更新redis中的版本号
-			if (success) {
-				int currentVersion = news.getVersion();
-				redisUtil.hset(newsKey, "version", currentVersion + 1);
-				log.info("异步更新数据库新闻指标成功（newsId={}），最新版本号: {}", news.getId(), currentVersion + 1);
-			} else { // 如果失败，说明版本号有冲突，需要重新同步
-				News dbNews = newsService.findNewsById(event.getNewsId());
-				if (dbNews != null) {
-					// 将数据库最新数据写回 Redis，并更新版本号
-					redisUtil.hmset(newsKey, dbNews.toRedisMap());
-					redisUtil.expire(newsKey, random.nextInt(120, 300), TimeUnit.MINUTES);
-					log.warn("异步更新数据库新闻指标失败（newsId={}），已将数据库中最新数据同步到redis，最新版本号: {}", dbNews.getId(), dbNews.getVersion());
-					return;
+	/**
+	 * 批量检查新闻缓存是否存在（一次pipeline），缓存不存在的新闻从数据库加载并写入redis
+	 *
+	 * @param newsIds 新闻ID集合
+	 * @return redis或数据库中存在的新闻ID集合
+	 */
+	private Set<Long> ensureNewsCached(Set<Long> newsIds) {
+		// 布隆过滤器判断不存在的新闻直接忽略（不从数据库加载，也不缓存空值）
+		List<Long> ids = newsIds.stream().filter(newsIdBloomFilter::mightContain).toList();
+		if (ids.isEmpty()) return Collections.emptySet();
+		// 只读取新闻标题（判断空值缓存）和新闻指标是否存在，不读取新闻内容
+		List<Object> results = redisTemplate.executePipelined(new SessionCallback<>() {
+			@Override
+			public Object execute(RedisOperations operations) throws DataAccessException {
+				HashOperations<String, String, Object> hashOps = operations.opsForHash();
+				for (Long newsId : ids) {
+					hashOps.get(RedisConstant.NEWS_DETAIL_PREFIX + newsId, "title");
+					hashOps.hasKey(RedisConstant.NEWS_METRICS_PREFIX + newsId, "createdAt");
 				}
-				// 如果dbNews为null，则说明数据库中不存在该新闻，但是redis中存在，则直接删除redis中的数据
-				redisUtil.del(newsKey);
-				log.warn("异步更新数据库新闻指标失败（newsId={}），数据库中不存在该新闻，已删除redis中的数据", event.getNewsId());
+				return null;
+			}
+		});
+
+		Set<Long> existing = new HashSet<>(ids.size());
+		for (int i = 0; i < ids.size(); i++) {
+			Long newsId = ids.get(i);
+			Object title = results.get(2 * i);
+			boolean hasMetrics = Boolean.TRUE.equals(results.get(2 * i + 1));
+			// 缓存了空值的新闻（即数据库中不存在的新闻）直接忽略
+			if ("NULL".equals(title)) {
+				log.error("redis和数据库中新闻数据都不存在，忽略该新闻的事件: newsId={}", newsId);
+				continue;
+			}
+			// 新闻指标存在，或者是旧格式的缓存（迁移后新闻指标存在）
+			if (hasMetrics || (title != null && migrateNewsCache(newsId))) {
+				existing.add(newsId);
+				continue;
+			}
+			// 缓存不存在，从数据库中加载（需同步写入redis，保证后续指标更新在完整的新闻缓存上进行）
+			News news = loadOneFromMySQL(newsId);
+			if (news != null) {
+				cacheNewsToRedis(news);
+				globalTaskExecutor.execute(() -> newsCategoryRelationService.cacheNewsCategoryRelationToRedis(newsId));
+				existing.add(newsId);
+			} else {
+				String newsKey = RedisConstant.NEWS_DETAIL_PREFIX + newsId;
+				redisUtil.hmset(newsKey, Collections.singletonMap("title", "NULL"));
+				redisUtil.expire(newsKey, 5, TimeUnit.MINUTES);
+				log.error("redis和数据库中新闻数据都不存在，忽略该新闻的事件: newsId={}", newsId);
 			}
-		} catch (Exception e) {
-			log.error("异步更新数据库新闻指标失败（newsId={}）", event.getNewsId(), e);
 		}
+		return existing;
 	}
 
-	// 如果是支持或反对操作，则需要先检查是否存在互斥操作（即假如同一用户对同一新闻之前进行了反对操作，现在要进行支持操作，则需要先取消之前的反对操作）
-	private void ensureMutualExclusiveAction(String newsKey, UserActionEvent event) {
-		final ActionType action = event.getAction();
-		long remove;
-		// 如果是支持或反对操作，则需要先检查是否存在互斥操作（即假如同一用户对同一新闻之前进行了反对操作，现在要进行支持操作，则需要先取消之前的反对操作）
-		switch (action) {
-			case SUPPORT:
-				// 移除相反操作
-				remove = redisUtil.sRemove(RedisConstant.USER_NEWS_ACTION_PREFIX + event.getUserId() + ":" + ActionType.OPPOSE.getField(), event.getNewsId());
-				if (remove > 0) {
-					// 如果存在相反操作，则将其数量减少
-					redisUtil.hincr(newsKey, ActionType.OPPOSE.getField(), -1);
-				}
-				break;
-			case OPPOSE:
-				remove = redisUtil.sRemove(RedisConstant.USER_NEWS_ACTION_PREFIX + event.getUserId() + ":" + ActionType.SUPPORT.getField(), event.getNewsId());
-				if (remove > 0) {
-					redisUtil.hincr(newsKey, ActionType.SUPPORT.getField(), -1);
-				}
-				break;
-		}
+	/**
+	 * 预加载热点新闻行为脚本（SCRIPT LOAD），之后通过EVALSHA调用只需传输脚本的SHA1
+	 */
+	public void loadScripts() {
+		redisTemplate.execute((RedisCallback<String>) connection ->
+				connection.scriptingCommands().scriptLoad(hotNewsActionScript.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+		log.info("热点新闻行为脚本预加载完成，sha1: {}", hotNewsActionScript.getSha1());
 	}
 
-	// 更新新闻指标（浏览量、评论数、收藏数等）
-	private void updateMetrics(String newsKey, UserActionEvent event) {
-		int delta = event.getAction().isCancelAction() ? -1 : 1;
-		redisUtil.hincr(newsKey, event.getAction().getField(), delta);
+	/**
+	 * 对每个事件执行一次热点新闻行为脚本（所有事件的EVALSHA放在同一个pipeline中，按事件顺序执行）
+	 * 脚本在服务端原子地完成：支持与反对互斥处理、更新用户行为记录、HINCRBY指标、计算衰减热度并ZADD到当前小时窗口
+	 * 如果redis中没有该脚本（如redis重启），则重新加载脚本后重试一次
+	 * 开启主节点选举时在同一个pipeline的末尾累加所有节点共享的每分钟事件数，开启Top-K广播时再追加一次热度广播；执行成功后将脚本写入小时桶的热度记录到进程内的Top-K统计（与redis中的小时桶相同）
+	 *
+	 * @param commands 脚本调用（用户行为事件及增量）
+	 * @return 指标有变化的新闻ID → 写入小时桶的热度（同一新闻取最后一次写入的热度；脚本执行时新闻缓存已失效的事件被忽略）
+	 */
+	private Map<Long, Double> executeActionScripts(List<ActionCommand> commands) {
+		LocalDateTime now = LocalDateTime.now();
+		List<Object> results;
+		try {
+			results = pipelineActionScripts(commands, now);
+		} catch (RuntimeException e) {
+			if (!isNoScriptError(e)) throw e;
+			log.warn("redis中不存在热点新闻行为脚本，重新加载后重试");
+			loadScripts();
+			results = pipelineActionScripts(commands, now);
+		}
+
+		Map<Long, Double> scores = new LinkedHashMap<>();
+		for (int i = 0; i < commands.size(); i++) {
+			Long newsId = commands.get(i).event().getNewsId();
+			if (results.get(i) != null) scores.put(newsId, Double.parseDouble(results.get(i).toString()));
+			else log.warn("新闻缓存已失效，忽略该事件（newsId={}）", newsId);
+		}
+		hotNewsTopKTracker.record(scores, now);
+		return scores;
 	}
 
-	private void updateHotness(String newsKey, UserActionEvent event) {
-		// 计算当前热度分
-		Map<Object, Object> newsMap = redisUtil.hmget(newsKey);
-		double score = calculateHotness(newsMap);
+	private List<Object> pipelineActionScripts(List<ActionCommand> commands, LocalDateTime time) {
+		byte[] sha1 = hotNewsActionScript.getSha1().getBytes(StandardCharsets.UTF_8);
+		// 所有事件共用的参数
+		byte[] hourKey = toBytes(RedisConstant.HOT_NEWS_HOUR_PREFIX + HotNewsUtil.getHour(time));
+		// 小时桶需保留到汇总、窗口重建不再读取为止
+		byte[] hourExpireSeconds = toBytes(hotNewsWindowService.getHourBucketTtlSeconds());
+		byte[] now = toBytes(time.withNano(0).format(DateTimeUtil.LOCAL_DATE_TIME_NO_MILLIS_FORMATTER));
+		byte[] viewWeight = toBytes(ActionType.VIEW.getWeight());
+		byte[] supportWeight = toBytes(ActionType.SUPPORT.getWeight());
+		byte[] commentWeight = toBytes(ActionType.COMMENT.getWeight());
+		byte[] favoriteWeight = toBytes(ActionType.FAVORITE.getWeight());
+		byte[] minRate = toBytes(HotNewsUtil.MIN_RATE);
+		HotNewsProperties.Scoring scoring = hotNewsProperties.getScoring();
+		byte[] scoreMode = toBytes(scoring.getMode().name());
+		byte[] tauSeconds = toBytes(TimeUnit.HOURS.toSeconds(scoring.getLogTimeTauHours()));
+		byte[] logTimeEpoch = toBytes(HotNewsUtil.LOG_TIME_EPOCH.format(DateTimeUtil.LOCAL_DATE_TIME_NO_MILLIS_FORMATTER));
+		byte[] empty = new byte[0];
+
+		return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			for (ActionCommand command : commands) {
+				UserActionEvent event = command.event();
+				String userKeyPrefix = RedisConstant.USER_NEWS_ACTION_PREFIX + event.getUserId() + ":";
+				ActionType originalAction = event.getAction().toOriginalAction();
+				ActionType exclusiveAction = getMutualExclusiveAction(event.getAction());
+				// 只有支持、反对、收藏等操作（及其取消操作）需要记录用户行为
+				byte[] actionKey = originalAction.isSupportOrOpposeOrFavorite() ? toBytes(userKeyPrefix + originalAction.getField()) : empty;
+				byte[] exclusiveKey = exclusiveAction != null ? toBytes(userKeyPrefix + exclusiveAction.getField()) : empty;
+				byte[] exclusiveField = exclusiveAction != null ? toBytes(exclusiveAction.getField()) : empty;
+
+				connection.scriptingCommands().evalSha(sha1, ReturnType.VALUE, 4,
+						toBytes(RedisConstant.NEWS_METRICS_PREFIX + event.getNewsId()), hourKey, actionKey, exclusiveKey,
+						toBytes(event.getNewsId()), toBytes(originalAction.getField()), exclusiveField,
+						toBytes(event.getAction().isCancelAction() ? 1 : 0), hourExpireSeconds, now,
+						viewWeight, supportWeight, commentWeight, favoriteWeight, minRate, toBytes(command.count()),
+						scoreMode, tauSeconds, logTimeEpoch);
+			}
+			// 以下命令的结果位于所有行为脚本之后，不影响按事件下标解析
+			appendClusterEventCount(connection, commands);
+			// 广播本批写入的热度
+			hotNewsTopKTracker.appendBroadcast(connection, hourKey, time,
+					commands.stream().map(c -> c.event().getNewsId()).collect(Collectors.toCollection(LinkedHashSet::new)));
+			return null;
+		}, StringRedisSerializer.UTF_8);
+	}
 
-		// 更新1小时窗口Sorted Set（过期时间25小时）
-		String hourKey = getCurrentHourKey();
-		redisUtil.zAdd(hourKey, event.getNewsId(), score);
-		redisUtil.expire(hourKey, 25, TimeUnit.HOURS);
+	// 累加所有节点共享的当前分钟事件数（主节点只消费部分分区，需要按整个集群的事件数判断是否刷新热点缓存）
+	private void appendClusterEventCount(RedisConnection connection, List<ActionCommand> commands) {
+		if (!hotNewsProperties.getLeader().isEnabled()) return;
+		long events = commands.stream().mapToLong(c -> Math.abs(c.count())).sum(); // 聚合后的增量按其事件数计
+		byte[] key = toBytes(RedisConstant.HOT_NEWS_EVENT_COUNT_PREFIX + System.currentTimeMillis() / 60_000);
+		connection.stringCommands().incrBy(key, events);
+		connection.keyCommands().expire(key, EVENT_COUNT_TTL_SECONDS);
 	}
 
 	/**
-	 * 更新用户新闻行为记录（即用户对某一新闻是否进行了支持、反对、收藏等操作，以及取消支持、取消反对、取消收藏等操作）
-	 * 记录格式：user_news_action:userId:action newsId，如user_news_action:1:supports 1表示用户1对新闻1进行了支持
-	 * 存储类型为 Redis Set，以便快速查询某个用户是否对某一新闻进行过某种操作
-	 * 用来判断某个用户是否对某一新闻进行过某种操作（如是否对某一新闻进行了支持、反对、收藏等操作）
+	 * 所有节点在时间窗口内处理的事件数（开启主节点选举时，主节点据此判断热点缓存是否需要刷新）
+	 *
+	 * @param timeWindowMillis 时间窗口（毫秒，按分钟向上取整，最长1小时；与HotNewsActionTracker.shouldRefresh相同）
 	 */
-	private void updateUserNewsAction(UserActionEvent event) {
-		final ActionType action = event.getAction();
-		boolean isCancel = action.isCancelAction();
-
-		// 1. 确定实际需要处理的操作类型
-		ActionType processedAction = isCancel ?
-				ActionType.from(action.name().substring(2)) : // 转换取消操作到原操作
-				action;
-
-		// 2. 如果不为支持、反对、收藏等操作，则直接返回（因为其他动作无需记录）
-		if (!processedAction.isSupportOrOpposeOrFavorite()) return;
-
-		// 3. 构建Redis Key
-		String actionKey = RedisConstant.USER_NEWS_ACTION_PREFIX + event.getUserId() + ":" + processedAction.getField();
+	public long countClusterEvents(long timeWindowMillis) {
+		long currentMinute = System.currentTimeMillis() / 60_000;
+		int windowMinutes = (int) Math.min(60, (timeWindowMillis + 59_999) / 60_000);
+		// 已结束的分钟 + 当前分钟
+		byte[][] keys = new byte[windowMinutes + 1][];
+		for (int i = 0; i <= windowMinutes; i++) {
+			keys[i] = toBytes(RedisConstant.HOT_NEWS_EVENT_COUNT_PREFIX + (currentMinute - i));
+		}
+		List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(keys));
+		if (values == null) return 0;
+		return values.stream().filter(Objects::nonNull).mapToLong(v -> Long.parseLong(new String(v, StandardCharsets.UTF_8))).sum();
+	}
 
-		// 4. 根据是否为取消操作，进行对应操作
-		if (isCancel) redisUtil.sRemove(actionKey, event.getNewsId());
-		else redisUtil.sSet(actionKey, event.getNewsId());
+	// 转换为脚本参数（与RedisTemplate的序列化结果一致：数字和String均为其字符串形式的UTF-8字节）
+	private static byte[] toBytes(Object value) {
+		return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
 	}
 
-	private String getCurrentHourKey() {
-		return RedisConstant.HOT_NEWS_HOUR_PREFIX + HotNewsUtil.getCurrentHour();
+	// 判断是否为脚本不存在错误（NOSCRIPT）
+	private static boolean isNoScriptError(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) return true;
+		}
+		return false;
 	}
 
-	// 计算热度分
-	private double calculateHotness(Map<Object, Object> newsMap) {
-		// 计算基础热度
-		double base = HotNewsUtil.calculateBaseHotness(newsMap);
-		LocalDateTime createdAt = DateTimeUtil.parseLocalDateTimeNoMillis(newsMap.get("createdAt").toString());
-		// 计算衰减热度
-		return HotNewsUtil.calculateDecayedHotness(base, createdAt);
+	// 获取与支持或反对互斥的操作（即支持与反对互斥），其他操作返回null
+	private static ActionType getMutualExclusiveAction(ActionType action) {
+		return switch (action) {
+			case SUPPORT -> ActionType.OPPOSE;
+			case OPPOSE -> ActionType.SUPPORT;
+			default -> null;
+		};
 	}
-}
\ No newline at end of file
+}
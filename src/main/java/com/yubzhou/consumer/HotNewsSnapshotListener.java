@@ -0,0 +1,46 @@
+package com.yubzhou.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yubzhou.common.HotNewsSnapshotMessage;
+import com.yubzhou.common.RedisConstant;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 订阅热点新闻快照频道，用主节点广播的快照更新Java内存中的热点缓存（不读取、不合并热点ZSet）
+ */
+@Component
+@Slf4j
+public class HotNewsSnapshotListener implements MessageListener {
+	private final RedisMessageListenerContainer redisMessageListenerContainer;
+	private final HotNewsCacheService hotNewsCacheService;
+	private final ObjectMapper objectMapper;
+
+	public HotNewsSnapshotListener(RedisMessageListenerContainer redisMessageListenerContainer,
+								   HotNewsCacheService hotNewsCacheService,
+								   ObjectMapper objectMapper) {
+		this.redisMessageListenerContainer = redisMessageListenerContainer;
+		this.hotNewsCacheService = hotNewsCacheService;
+		this.objectMapper = objectMapper;
+	}
+
+	@PostConstruct
+	public void subscribe() {
+		redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.HOT_NEWS_SNAPSHOT_CHANNEL));
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		try {
+			HotNewsSnapshotMessage snapshot = objectMapper.readValue(message.getBody(), HotNewsSnapshotMessage.class);
+			hotNewsCacheService.applyRemoteSnapshot(snapshot);
+		} catch (Exception e) {
+			log.error("处理热点新闻快照消息失败", e);
+		}
+	}
+}
@@ -0,0 +1,294 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.common.HotNewsScoreMessage;
+import com.yubzhou.common.RedisConstant;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.util.TopScoreTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内的24小时、7天热点新闻近似Top-K（不读取、不合并redis中的热点ZSet）
+ * 热点新闻行为脚本执行成功后，将脚本ZADD到当前小时桶的热度同样写入进程内的小时桶，因此热度与redis中的热点ZSet相同：
+ * 24小时 = 前24个小时桶 + 当前小时桶；7天 = 前7天的天级桶 + 当天的小时桶，
+ * 天级桶在当天结束后由其小时桶汇总（与redis中的汇总方式相同，由热度计算模式决定SUM或MAX）
+ * 开启主节点选举（多实例部署）时，每个节点在写入小时桶的同一个pipeline中广播写入的热度，所有节点都持有所有分区的热度
+ * （主节点切换后可直接使用）；关闭时不广播，只统计本节点处理的事件（单实例部署）。启动时从redis中的小时桶和天级桶预热。
+ * 每个时间桶最多保留capacity条新闻，内存上界为 （25 + 7）× capacity
+ */
+@Component
+@Slf4j
+public class HotNewsTopKTracker {
+	private static final int HOUR_SLOTS = 25; // 前24个小时 + 当前小时
+	private static final int DAY_SLOTS = 7; // 前7天
+
+	private final HotNewsProperties hotNewsProperties;
+	private final HotNewsProperties.TopK config;
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final byte[] scorePublishScript; // 广播热度的脚本（EVAL发送脚本内容，不会因redis中没有脚本而失败）
+	private final AtomicReferenceArray<Bucket> hourBuckets = new AtomicReferenceArray<>(HOUR_SLOTS);
+	private final AtomicReferenceArray<Bucket> dayBuckets = new AtomicReferenceArray<>(DAY_SLOTS);
+	// 当前节点的标识（广播热度时携带，接收时忽略自己广播的热度）
+	private final String nodeId = UUID.randomUUID().toString();
+	private volatile boolean seeded = false; // 是否已从redis预热
+	private final LongAdder published = new LongAdder(); // 广播的热度消息数（随行为脚本成功写入的批次）
+	private final LongAdder received = new LongAdder(); // 收到的其他节点的热度消息数
+
+	public HotNewsTopKTracker(HotNewsProperties hotNewsProperties,
+							  RedisTemplate<String, Object> redisTemplate,
+							  @Qualifier("hotNewsScorePublishScript") DefaultRedisScript<Long> hotNewsScorePublishScript) {
+		this.hotNewsProperties = hotNewsProperties;
+		this.config = hotNewsProperties.getTopK();
+		this.redisTemplate = redisTemplate;
+		this.scorePublishScript = hotNewsScorePublishScript.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	// 统计窗口
+	public enum Window {
+		DAY, // 24小时：前24个小时桶 + 当前小时桶
+		WEEK // 7天：前7天的天级桶 + 当天的小时桶
+	}
+
+	// 时间桶：序号（小时序号或天序号）+ 热度表
+	private record Bucket(long period, TopScoreTable table) {
+	}
+
+	public boolean isEnabled() {
+		return config.isEnabled();
+	}
+
+	// 是否可以代替redis窗口合并（已开启且已从redis预热）
+	public boolean isReady() {
+		return config.isEnabled() && seeded;
+	}
+
+	// 是否在节点间广播热度（只有开启主节点选举，即多实例部署时才需要）
+	public boolean isBroadcasting() {
+		return config.isEnabled() && hotNewsProperties.getLeader().isEnabled();
+	}
+
+	/**
+	 * 记录热点新闻行为脚本写入小时桶的热度（脚本执行成功后调用）
+	 *
+	 * @param scores 新闻ID → 热度（同一新闻只保留最后一次写入的热度）
+	 * @param time   脚本使用的当前时间（决定小时桶）
+	 */
+	public void record(Map<Long, Double> scores, LocalDateTime time) {
+		if (!config.isEnabled() || scores.isEmpty()) return;
+		record(HotNewsWindowService.hourOf(time), scores);
+		if (isBroadcasting()) published.increment();
+	}
+
+	/**
+	 * 在热点新闻行为脚本的pipeline中追加一次广播（位于所有行为脚本之后，不额外往返；未开启广播时不追加）
+	 * 脚本在服务端读取这些新闻在小时桶中的热度后PUBLISH，广播的热度与ZSet中的相同
+	 *
+	 * @param connection pipeline中的连接
+	 * @param hourKey    行为脚本写入的小时桶
+	 * @param time       行为脚本使用的当前时间
+	 * @param newsIds    本批写入的新闻ID
+	 */
+	public void appendBroadcast(RedisConnection connection, byte[] hourKey, LocalDateTime time, Collection<Long> newsIds) {
+		if (!isBroadcasting() || newsIds.isEmpty()) return;
+		byte[][] keysAndArgs = new byte[4 + newsIds.size()][];
+		keysAndArgs[0] = hourKey;
+		keysAndArgs[1] = RedisConstant.HOT_NEWS_SCORE_CHANNEL.getBytes(StandardCharsets.UTF_8);
+		keysAndArgs[2] = nodeId.getBytes(StandardCharsets.UTF_8);
+		keysAndArgs[3] = String.valueOf(HotNewsWindowService.hourOf(time)).getBytes(StandardCharsets.UTF_8);
+		int i = 4;
+		for (Long newsId : newsIds) keysAndArgs[i++] = String.valueOf(newsId).getBytes(StandardCharsets.UTF_8);
+		connection.scriptingCommands().eval(scorePublishScript, ReturnType.INTEGER, 1, keysAndArgs);
+	}
+
+	// 写入其他节点广播的热度
+	public void applyRemoteScores(HotNewsScoreMessage message) {
+		if (!config.isEnabled() || nodeId.equals(message.source())) return;
+		record(message.hour(), message.scores());
+		received.increment();
+	}
+
+	void record(long hour, Map<Long, Double> scores) {
+		Bucket bucket = hourBucket(hour);
+		if (bucket == null) return; // 小时桶已过期
+		Aggregate aggregate = mergeAggregate();
+		// 所在的天已汇总（如在小时结束后才收到其他节点广播的热度）时同步更新天级桶
+		Bucket day = findBucket(dayBuckets, HotNewsWindowService.dayOf(hour));
+		scores.forEach((newsId, score) -> {
+			Double previous = bucket.table().put(newsId, score);
+			if (day == null) return;
+			day.table().merge(newsId, aggregate == Aggregate.SUM && previous != null ? score - previous : score, aggregate);
+		});
+	}
+
+	/**
+	 * 获取窗口内热度最大的k条新闻（与合并redis中的热点ZSet后ZREVRANGE 0 k-1的结果一致）
+	 *
+	 * @return 按热度降序排列的新闻ID及热度
+	 */
+	public List<TopScoreTable.Entry> topK(Window window, int k) {
+		return topK(window, k, LocalDateTime.now());
+	}
+
+	List<TopScoreTable.Entry> topK(Window window, int k, LocalDateTime now) {
+		long hour = HotNewsWindowService.hourOf(now);
+		List<TopScoreTable> tables = new ArrayList<>();
+		if (window == Window.DAY) {
+			tables.addAll(tablesIn(hourBuckets, hour - 24, hour));
+		} else {
+			long today = HotNewsWindowService.dayOf(hour);
+			rollupDay(today - 1, hour); // 前一天结束后首次查询时汇总
+			tables.addAll(tablesIn(dayBuckets, today - 7, today - 1));
+			tables.addAll(tablesIn(hourBuckets, today * 24, hour));
+		}
+		return TopScoreTable.mergeTopK(tables, mergeAggregate(), k);
+	}
+
+	/**
+	 * 从redis中的小时桶（前24个小时和当前小时）和天级桶（前7天）预热，每个时间桶只读取热度最大的capacity条新闻
+	 * 已写入的热度（启动后处理的事件）不被覆盖；天级桶尚未汇总（如刚过0点）时由进程内的小时桶汇总
+	 */
+	@SuppressWarnings("unchecked")
+	public void seed() {
+		if (!config.isEnabled()) return;
+		long hour = HotNewsWindowService.currentHourIndex();
+		long today = HotNewsWindowService.dayOf(hour);
+		List<String> keys = new ArrayList<>(HOUR_SLOTS + DAY_SLOTS);
+		for (long h = hour - 24; h <= hour; h++) keys.add(HotNewsWindowService.hourKey(h));
+		for (long d = today - 7; d < today; d++) keys.add(HotNewsWindowService.dayKey(d));
+		int capacity = config.getCapacity();
+		List<Object> results = redisTemplate.executePipelined(new SessionCallback<>() {
+			@Override
+			public Object execute(RedisOperations operations) throws DataAccessException {
+				ZSetOperations<String, Object> zSetOps = operations.opsForZSet();
+				keys.forEach(key -> zSetOps.reverseRangeWithScores(key, 0, capacity - 1));
+				return null;
+			}
+		});
+
+		for (int i = 0; i < HOUR_SLOTS; i++) {
+			Bucket bucket = hourBucket(hour - 24 + i);
+			if (bucket == null) continue;
+			forEachTuple(results.get(i), (newsId, score) -> bucket.table().putIfAbsent(newsId, score));
+		}
+		for (int i = 0; i < DAY_SLOTS; i++) {
+			Set<ZSetOperations.TypedTuple<Object>> tuples = (Set<ZSetOperations.TypedTuple<Object>>) results.get(HOUR_SLOTS + i);
+			if (tuples == null || tuples.isEmpty()) continue;
+			long day = today - 7 + i;
+			TopScoreTable table = new TopScoreTable(capacity);
+			forEachTuple(tuples, table::put);
+			dayBuckets.set(slotOf(day, DAY_SLOTS), new Bucket(day, table));
+		}
+		seeded = true;
+		log.info("热点新闻Top-K统计预热完成");
+	}
+
+	// 获取统计信息
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", config.isEnabled());
+		stats.put("broadcasting", isBroadcasting());
+		stats.put("seeded", seeded);
+		stats.put("k", config.getK());
+		stats.put("capacity", config.getCapacity());
+		stats.put("hourEntries", countEntries(hourBuckets));
+		stats.put("dayEntries", countEntries(dayBuckets));
+		stats.put("published", published.sum());
+		stats.put("received", received.sum());
+		return stats;
+	}
+
+	/**
+	 * 获取小时序号对应的小时桶（槽位中是更早的小时桶时，先汇总其所在的天，再替换为新的小时桶）
+	 *
+	 * @return 槽位中已是更晚的小时桶（即该小时已超出窗口）时返回null
+	 */
+	private Bucket hourBucket(long hour) {
+		int slot = slotOf(hour, HOUR_SLOTS);
+		while (true) {
+			Bucket bucket = hourBuckets.get(slot);
+			if (bucket != null && bucket.period() == hour) return bucket;
+			if (bucket != null && bucket.period() > hour) return null;
+			if (bucket != null) rollupDay(HotNewsWindowService.dayOf(bucket.period()), hour);
+			Bucket created = new Bucket(hour, new TopScoreTable(config.getCapacity()));
+			if (hourBuckets.compareAndSet(slot, bucket, created)) return created;
+		}
+	}
+
+	// 汇总已结束的一天的小时桶为天级桶（已汇总或不在7天窗口内时跳过）
+	private void rollupDay(long day, long currentHour) {
+		long today = HotNewsWindowService.dayOf(currentHour);
+		if (day >= today || day < today - DAY_SLOTS) return;
+		synchronized (dayBuckets) {
+			Bucket existing = dayBuckets.get(slotOf(day, DAY_SLOTS));
+			if (existing != null && existing.period() >= day) return;
+			TopScoreTable table = new TopScoreTable(config.getCapacity());
+			Aggregate aggregate = mergeAggregate();
+			for (TopScoreTable hourTable : tablesIn(hourBuckets, day * 24, day * 24 + 23)) {
+				hourTable.entries().forEach(e -> table.merge(e.key(), e.score(), aggregate));
+			}
+			dayBuckets.set(slotOf(day, DAY_SLOTS), new Bucket(day, table));
+		}
+	}
+
+	// 序号在[from, to]内的时间桶的热度表
+	private static List<TopScoreTable> tablesIn(AtomicReferenceArray<Bucket> buckets, long from, long to) {
+		List<TopScoreTable> tables = new ArrayList<>();
+		for (int i = 0; i < buckets.length(); i++) {
+			Bucket bucket = buckets.get(i);
+			if (bucket != null && bucket.period() >= from && bucket.period() <= to) tables.add(bucket.table());
+		}
+		return tables;
+	}
+
+	private static Bucket findBucket(AtomicReferenceArray<Bucket> buckets, long period) {
+		Bucket bucket = buckets.get(slotOf(period, buckets.length()));
+		return bucket != null && bucket.period() == period ? bucket : null;
+	}
+
+	private static int countEntries(AtomicReferenceArray<Bucket> buckets) {
+		int entries = 0;
+		for (int i = 0; i < buckets.length(); i++) {
+			Bucket bucket = buckets.get(i);
+			if (bucket != null) entries += bucket.table().size();
+		}
+		return entries;
+	}
+
+	private static int slotOf(long period, int slots) {
+		return (int) Math.floorMod(period, (long) slots);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void forEachTuple(Object result, ScoreConsumer consumer) {
+		if (result == null) return;
+		for (ZSetOperations.TypedTuple<Object> tuple : (Set<ZSetOperations.TypedTuple<Object>>) result) {
+			if (tuple.getValue() == null || tuple.getScore() == null) continue;
+			consumer.accept(Long.parseLong(tuple.getValue().toString()), tuple.getScore());
+		}
+	}
+
+	@FunctionalInterface
+	private interface ScoreConsumer {
+		void accept(long newsId, double score);
+	}
+
+	private Aggregate mergeAggregate() {
+		return hotNewsProperties.getScoring().getMode().getMergeAggregate();
+	}
+}
@@ -0,0 +1,307 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.common.UserActionEvent.ActionType;
+import com.yubzhou.properties.HotNewsProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 进程内的飙升新闻检测（与累计热度互补：热度只反映累计的加权指标，无法发现正在加速的新闻）
+ * 每条新闻维护一个按分钟划分的环形缓冲区（2 × window-minutes 个槽位），记录每分钟的加权事件数：
+ * 速度 = 最近window-minutes分钟（含当前分钟）的每分钟加权事件数，加速度 = 速度 − 前一个窗口的速度；
+ * 离开近期窗口的分钟计入该新闻自身的基线（EWMA均值、方差），z分数 = (速度 − 基线均值) / √(基线方差 + 1)。
+ * 每个事件只更新一条新闻的状态（时间推进的步数有上界），z分数超过候选榜最低分时才进入候选榜（容量为 2 × k），
+ * 查询时按当前时间重新计算候选榜中新闻的z分数并排序。
+ * 内存上界：最多跟踪 max-tracked 条新闻，已满时从跟踪的新闻中抽样 eviction-samples 条（不在候选榜中的），
+ * 淘汰其中近期加权事件数最少（相同时最久没有事件）的一条，为新的新闻让出位置；超过 idle-minutes 没有事件的新闻定时淘汰。
+ * 注意：每个实例只统计自己处理的事件（多实例部署时只包含分配给本实例的分区）
+ */
+@Component
+@Slf4j
+public class HotNewsTrendingTracker {
+	private final HotNewsProperties.Trending config;
+	private final LongSupplier clock;
+	private final Map<Long, NewsTrend> trends = new ConcurrentHashMap<>();
+	// 候选榜（z分数最高的若干条新闻），由board的锁保护
+	private final NewsTrend[] board;
+	private final double[] boardScores;
+	private int boardSize;
+	private volatile double boardFloor = Double.NEGATIVE_INFINITY; // 候选榜已满时的最低z分数
+	private final LongAdder evicted = new LongAdder(); // 因空闲淘汰的新闻数
+	private final LongAdder coldEvicted = new LongAdder(); // 跟踪的新闻数已满时，为新的新闻淘汰的冷门新闻数
+	// 抽样游标（循环遍历跟踪的新闻，每次从上次停下的位置继续抽样），由自身的锁保护
+	private final Object evictionLock = new Object();
+	private Iterator<NewsTrend> evictionCursor = Collections.emptyIterator();
+
+	@Autowired
+	public HotNewsTrendingTracker(HotNewsProperties hotNewsProperties) {
+		this(hotNewsProperties, System::currentTimeMillis);
+	}
+
+	HotNewsTrendingTracker(HotNewsProperties hotNewsProperties, LongSupplier clock) {
+		this.config = hotNewsProperties.getTrending();
+		this.clock = clock;
+		this.board = new NewsTrend[config.getK() * 2];
+		this.boardScores = new double[board.length];
+	}
+
+	// 飙升新闻：新闻ID、z分数、速度（每分钟加权事件数）、加速度
+	public record Trend(long newsId, double zScore, double velocity, double acceleration) {
+	}
+
+	public boolean isEnabled() {
+		return config.isEnabled();
+	}
+
+	// 记录一个用户行为（取消操作的权重为负数，会被忽略）
+	public void record(long newsId, ActionType action, long count) {
+		if (!config.isEnabled() || action.isCancelAction() || count <= 0) return;
+		record(newsId, action.getWeight() * count);
+	}
+
+	void record(long newsId, double weight) {
+		long minute = clock.getAsLong() / 60_000;
+		NewsTrend trend = trends.get(newsId);
+		if (trend == null) {
+			if (trends.size() >= config.getMaxTracked()) evictColdest(minute);
+			trend = trends.computeIfAbsent(newsId, id -> new NewsTrend(id, config.getWindowMinutes(), config.getBaselineMinutes(), minute));
+		}
+		double score;
+		synchronized (trend) {
+			trend.advance(minute);
+			trend.add(weight);
+			score = trend.score(config.getMinRecentWeight());
+		}
+		if (score > boardFloor || trend.onBoard) offer(trend, score);
+	}
+
+	/**
+	 * 获取当前z分数最高的k条飙升新闻
+	 *
+	 * @return 按z分数降序排列（近期加权事件数不足 min-recent-weight 的新闻不参与排名）
+	 */
+	public List<Trend> topK(int k) {
+		long minute = clock.getAsLong() / 60_000;
+		NewsTrend[] candidates;
+		synchronized (board) {
+			candidates = Arrays.copyOf(board, boardSize);
+		}
+		List<Trend> result = new ArrayList<>(candidates.length);
+		double[] scores = new double[candidates.length];
+		for (int i = 0; i < candidates.length; i++) {
+			NewsTrend trend = candidates[i];
+			synchronized (trend) {
+				trend.advance(minute);
+				scores[i] = trend.score(config.getMinRecentWeight());
+				if (scores[i] != Double.NEGATIVE_INFINITY) {
+					result.add(new Trend(trend.newsId, scores[i], trend.velocity(), trend.acceleration()));
+				}
+			}
+		}
+		// 用当前的z分数更新候选榜（已冷却的新闻让出位置）
+		for (int i = 0; i < candidates.length; i++) offer(candidates[i], scores[i]);
+		result.sort(Comparator.comparingDouble(Trend::zScore).reversed());
+		return result.size() > k ? List.copyOf(result.subList(0, k)) : result;
+	}
+
+	// 淘汰超过 idle-minutes 没有事件的新闻（每分钟执行一次）
+	@Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+	public void evictIdle() {
+		long idleBefore = clock.getAsLong() / 60_000 - config.getIdleMinutes();
+		trends.values().removeIf(trend -> {
+			synchronized (trend) {
+				if (trend.lastEventMinute >= idleBefore) return false;
+			}
+			removeFromBoard(trend);
+			evicted.increment();
+			return true;
+		});
+	}
+
+	// 获取统计信息
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", config.isEnabled());
+		stats.put("tracked", trends.size());
+		stats.put("maxTracked", config.getMaxTracked());
+		synchronized (board) {
+			stats.put("candidates", boardSize);
+		}
+		stats.put("evicted", evicted.sum());
+		stats.put("coldEvicted", coldEvicted.sum());
+		return stats;
+	}
+
+	// 抽样淘汰一条冷门新闻：近期加权事件数最少，相同时最久没有事件（候选榜中的新闻不参与抽样）
+	private void evictColdest(long minute) {
+		synchronized (evictionLock) {
+			NewsTrend coldest = null;
+			double coldestRecent = 0;
+			long coldestLastEvent = 0;
+			// 最多遍历一轮，避免所有新闻都在候选榜中时无限循环
+			for (int visited = 0, sampled = 0; sampled < config.getEvictionSamples() && visited < trends.size(); visited++) {
+				if (!evictionCursor.hasNext()) {
+					evictionCursor = trends.values().iterator();
+					if (!evictionCursor.hasNext()) return;
+				}
+				NewsTrend trend = evictionCursor.next();
+				if (trend.onBoard) continue;
+				sampled++;
+				double recent;
+				long lastEvent;
+				synchronized (trend) {
+					trend.advance(minute);
+					recent = trend.recent;
+					lastEvent = trend.lastEventMinute;
+				}
+				if (coldest == null || recent < coldestRecent || (recent == coldestRecent && lastEvent < coldestLastEvent)) {
+					coldest = trend;
+					coldestRecent = recent;
+					coldestLastEvent = lastEvent;
+				}
+			}
+			if (coldest != null && trends.remove(coldest.newsId, coldest)) {
+				removeFromBoard(coldest);
+				coldEvicted.increment();
+			}
+		}
+	}
+
+	// 更新候选榜中新闻的z分数，或在z分数高于最低分时替换最低分的新闻（候选榜容量为常数）
+	private void offer(NewsTrend trend, double score) {
+		synchronized (board) {
+			int index = indexOf(trend);
+			if (index < 0 && score == Double.NEGATIVE_INFINITY) return;
+			if (index >= 0) {
+				boardScores[index] = score;
+			} else if (boardSize < board.length) {
+				board[boardSize] = trend;
+				boardScores[boardSize++] = score;
+				trend.onBoard = true;
+			} else {
+				int min = minIndex();
+				if (score <= boardScores[min]) return;
+				board[min].onBoard = false;
+				board[min] = trend;
+				boardScores[min] = score;
+				trend.onBoard = true;
+			}
+			boardFloor = boardSize < board.length ? Double.NEGATIVE_INFINITY : boardScores[minIndex()];
+		}
+	}
+
+	private void removeFromBoard(NewsTrend trend) {
+		if (!trend.onBoard) return;
+		synchronized (board) {
+			int index = indexOf(trend);
+			if (index < 0) return;
+			board[index] = board[--boardSize];
+			boardScores[index] = boardScores[boardSize];
+			board[boardSize] = null;
+			trend.onBoard = false;
+			boardFloor = Double.NEGATIVE_INFINITY;
+		}
+	}
+
+	private int indexOf(NewsTrend trend) {
+		if (!trend.onBoard) return -1;
+		for (int i = 0; i < boardSize; i++) {
+			if (board[i] == trend) return i;
+		}
+		return -1;
+	}
+
+	private int minIndex() {
+		int min = 0;
+		for (int i = 1; i < boardSize; i++) {
+			if (boardScores[i] < boardScores[min]) min = i;
+		}
+		return min;
+	}
+
+	/**
+	 * 一条新闻的近期计数和基线（由对象锁保护）
+	 * counts按分钟循环复用，保存最近 2 × window 分钟的加权事件数（近期窗口和前一个窗口）
+	 */
+	static final class NewsTrend {
+		private final long newsId;
+		private final int window;
+		private final double alpha; // 基线EWMA的平滑系数
+		private final int maxBaselineSteps; // 长时间无事件后推进时间时，最多逐分钟更新基线的次数
+		private final double[] counts;
+		private long minute; // 当前分钟
+		private long lastEventMinute; // 最近一次事件所在的分钟
+		private double recent; // 近期窗口（含当前分钟）的加权事件数之和
+		private double mean; // 基线均值（每分钟加权事件数）
+		private double variance; // 基线方差
+		private volatile boolean onBoard; // 是否在候选榜中
+
+		NewsTrend(long newsId, int window, int baselineMinutes, long minute) {
+			this.newsId = newsId;
+			this.window = window;
+			this.alpha = 2.0 / (baselineMinutes + 1);
+			this.maxBaselineSteps = baselineMinutes * 3;
+			this.counts = new double[window * 2];
+			this.minute = minute;
+			this.lastEventMinute = minute;
+		}
+
+		// 推进到指定分钟：离开近期窗口的分钟计入基线，复用的槽位清零（步数有上界）
+		void advance(long now) {
+			if (now <= minute) return;
+			long gap = now - minute;
+			long steps = Math.min(gap, counts.length);
+			for (long m = minute + 1; m <= minute + steps; m++) {
+				int leaving = slot(m - window);
+				recent -= counts[leaving];
+				updateBaseline(counts[leaving]);
+				counts[slot(m)] = 0;
+			}
+			// 超过缓冲区长度的空闲分钟：以0更新基线
+			for (long i = Math.min(gap - steps, maxBaselineSteps); i > 0; i--) updateBaseline(0);
+			if (gap > counts.length) recent = 0; // 消除浮点累计误差
+			minute = now;
+		}
+
+		void add(double weight) {
+			counts[slot(minute)] += weight;
+			recent += weight;
+			lastEventMinute = minute;
+		}
+
+		double velocity() {
+			return Math.max(0, recent) / window;
+		}
+
+		double acceleration() {
+			double previous = 0;
+			for (long m = minute - 2L * window + 1; m <= minute - window; m++) previous += counts[slot(m)];
+			return (Math.max(0, recent) - previous) / window;
+		}
+
+		// z分数（近期加权事件数不足minRecentWeight时返回负无穷，不参与排名）
+		double score(double minRecentWeight) {
+			if (recent < minRecentWeight) return Double.NEGATIVE_INFINITY;
+			return (velocity() - mean) / Math.sqrt(variance + 1);
+		}
+
+		// EWMA均值、方差的增量更新
+		private void updateBaseline(double x) {
+			double diff = x - mean;
+			double increment = alpha * diff;
+			mean += increment;
+			variance = (1 - alpha) * (variance + diff * increment);
+		}
+
+		private int slot(long m) {
+			return (int) Math.floorMod(m, (long) counts.length);
+		}
+	}
+}
@@ -0,0 +1,333 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.common.RedisConstant;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.properties.HotNewsProperties.HotWindow;
+import com.yubzhou.util.HotNewsUtil;
+import com.yubzhou.util.RedisLockUtil;
+import com.yubzhou.util.RedisUtil;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * 热点窗口引擎（窗口在 hot-news.windows.definitions 中配置）
+ * 1. 汇总：每个小时结束后，将该小时桶累加到当天的天级桶；每天结束后，将该天级桶累加到本周的周级桶（小时→天→周）
+ * 2. 窗口：每个窗口的已结束部分按小时增量维护：加上刚结束的小时桶，减去过期的桶（小时、天或周桶，由窗口长度决定），
+ * 刷新时只需将已结束部分与当前小时桶合并（只读取两个Key）
+ * 每次增量更新由Lua脚本原子执行，并记录已执行的时间刻度（多实例、重复调度时幂等）；
+ * 停机时间过长或首次启动时直接全量重建
+ * 注意：对数时间热度（LOG_TIME）按MAX合并，无法减去过期的桶，此时窗口每小时全量重建一次
+ */
+@Service
+@Slf4j
+public class HotNewsWindowService {
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final RedisUtil redisUtil;
+	private final RedisLockUtil redisLockUtil;
+	private final HotNewsProperties hotNewsProperties;
+	private final DefaultRedisScript<String> hotNewsWindowTickScript;
+
+	public HotNewsWindowService(RedisTemplate<String, Object> redisTemplate,
+								RedisUtil redisUtil,
+								RedisLockUtil redisLockUtil,
+								HotNewsProperties hotNewsProperties,
+								@Qualifier("hotNewsWindowTickScript") DefaultRedisScript<String> hotNewsWindowTickScript) {
+		this.redisTemplate = redisTemplate;
+		this.redisUtil = redisUtil;
+		this.redisLockUtil = redisLockUtil;
+		this.hotNewsProperties = hotNewsProperties;
+		this.hotNewsWindowTickScript = hotNewsWindowTickScript;
+	}
+
+	private static final String TICK_LOCK_KEY = "news:hot:window:tick";
+	private static final String DAY_ROLLUP_FIELD = "rollup:day";
+	private static final String WEEK_ROLLUP_FIELD = "rollup:week";
+
+	// 窗口的过期单位（窗口长度为24的整数倍且不小于48小时时按天过期，为168的整数倍且不小于336小时时按周过期）
+	@Getter
+	@RequiredArgsConstructor
+	enum BucketUnit {
+		HOUR(1),
+		DAY(24),
+		WEEK(168);
+
+		private final int hours;
+
+		static BucketUnit of(int windowHours) {
+			if (windowHours >= 2 * WEEK.hours && windowHours % WEEK.hours == 0) return WEEK;
+			if (windowHours >= 2 * DAY.hours && windowHours % DAY.hours == 0) return DAY;
+			return HOUR;
+		}
+	}
+
+	// 获取配置的窗口
+	public List<HotWindow> getWindows() {
+		return hotNewsProperties.getWindows().getDefinitions();
+	}
+
+	public Optional<HotWindow> findWindow(String name) {
+		return getWindows().stream().filter(w -> w.getName().equals(name)).findFirst();
+	}
+
+	/**
+	 * 将窗口的已结束部分与当前小时桶合并到destKey（只读取两个Key）
+	 *
+	 * @return 窗口未配置时返回false（不做任何修改）
+	 */
+	public boolean materialize(String windowName, String destKey) {
+		Optional<HotWindow> window = findWindow(windowName);
+		if (window.isEmpty()) return false;
+		String currentHourKey = hourKey(currentHourIndex());
+		redisUtil.zUnionAndStore(windowKey(window.get()), List.of(currentHourKey), destKey, mergeAggregate());
+		return true;
+	}
+
+	// 小时桶的过期时间（秒）：至少保留到前一天的小时桶全部可用于重建天级桶，且覆盖最长的按小时过期的窗口
+	public long getHourBucketTtlSeconds() {
+		int maxHours = getWindows().stream()
+				.filter(w -> BucketUnit.of(w.getHours()) == BucketUnit.HOUR)
+				.mapToInt(HotWindow::getHours).max().orElse(0);
+		return TimeUnit.HOURS.toSeconds(Math.max(49, maxHours + 2));
+	}
+
+	// 清除窗口元数据后立即更新（汇总桶和所有窗口都全量重建，用于重建小时桶之后）
+	public void rebuildAll() {
+		redisUtil.del(RedisConstant.HOT_NEWS_WINDOW_META);
+		tick();
+	}
+
+	// 每个小时结束后执行（补齐停机期间错过的小时）
+	public void tick() {
+		tick(currentHourIndex());
+	}
+
+	synchronized void tick(long currentHour) {
+		String lockValue = redisLockUtil.tryLock(TICK_LOCK_KEY, 5_000, 120_000);
+		if (lockValue == null) {
+			log.info("其他实例正在更新热点窗口，跳过本次更新");
+			return;
+		}
+		try {
+			long lastClosed = currentHour - 1;
+			int catchUpHours = hotNewsProperties.getWindows().getCatchUpHours();
+			Map<Object, Object> meta = redisUtil.hmget(RedisConstant.HOT_NEWS_WINDOW_META);
+			Aggregate aggregate = mergeAggregate();
+
+			// 1. 汇总（小时→天→周）
+			Long lastRollup = toLong(meta.get(DAY_ROLLUP_FIELD));
+			if (lastRollup == null || lastClosed - lastRollup > catchUpHours) {
+				rebuildRollups(currentHour, aggregate);
+			} else {
+				for (long h = lastRollup + 1; h <= lastClosed; h++) applyRollups(h, aggregate);
+			}
+
+			// 2. 窗口
+			for (HotWindow window : getWindows()) {
+				String field = metaField(window, aggregate);
+				Long last = toLong(meta.get(field));
+				if (last != null && last >= lastClosed) continue;
+				if (aggregate != Aggregate.SUM || last == null || lastClosed - last > catchUpHours) {
+					rebuildWindow(window, currentHour, field, aggregate);
+				} else {
+					for (long h = last + 1; h <= lastClosed; h++) applyWindowTick(window, h, field);
+				}
+			}
+			log.info("热点窗口更新完成（已结束的小时：{}）", HotNewsUtil.getHour(hourStart(lastClosed)));
+		} finally {
+			redisLockUtil.unlock(TICK_LOCK_KEY, lockValue);
+		}
+	}
+
+	// 小时h结束：累加到天级桶；若为当天最后一个小时，再将天级桶累加到周级桶
+	private void applyRollups(long h, Aggregate aggregate) {
+		long day = dayOf(h);
+		executeTick(dayKey(day), hourKey(h), null, DAY_ROLLUP_FIELD, h, aggregate, dayBucketTtlSeconds());
+		if (isLastHourOfDay(h)) {
+			executeTick(weekKey(weekOf(day)), dayKey(day), null, WEEK_ROLLUP_FIELD, h, aggregate, weekBucketTtlSeconds());
+		}
+	}
+
+	// 小时h结束：窗口加上该小时桶，并减去过期的桶
+	private void applyWindowTick(HotWindow window, long h, String field) {
+		executeTick(windowKey(window), hourKey(h), expiringKey(window, h), field, h, Aggregate.SUM, windowTtlSeconds(window));
+	}
+
+	/**
+	 * 小时h结束时窗口中过期的桶（没有时返回null）
+	 * 按小时过期：h − 窗口小时数；按天过期：当天结束时过期 （当天 − 窗口天数）；按周过期：本周结束时过期 （本周 − 窗口周数）
+	 */
+	static String expiringKey(HotWindow window, long h) {
+		return switch (BucketUnit.of(window.getHours())) {
+			case HOUR -> hourKey(h - window.getHours());
+			case DAY -> isLastHourOfDay(h) ? dayKey(dayOf(h) - window.getHours() / 24) : null;
+			case WEEK -> isLastHourOfWeek(h) ? weekKey(weekOf(dayOf(h)) - window.getHours() / 168) : null;
+		};
+	}
+
+	/**
+	 * 当前小时为currentHour时，窗口已结束部分包含的桶
+	 * 按小时过期：前N个小时桶；按天过期：前N天的天级桶 + 当天的天级桶（只包含已结束的小时）；
+	 * 按周过期：前N周的周级桶 + 本周的周级桶（只包含已结束的天）+ 当天的天级桶
+	 */
+	static List<String> closedBucketKeys(HotWindow window, long currentHour) {
+		long today = dayOf(currentHour);
+		List<String> keys = new ArrayList<>();
+		switch (BucketUnit.of(window.getHours())) {
+			case HOUR -> LongStream.rangeClosed(1, window.getHours()).forEach(i -> keys.add(hourKey(currentHour - i)));
+			case DAY -> {
+				LongStream.rangeClosed(1, window.getHours() / 24).forEach(i -> keys.add(dayKey(today - i)));
+				keys.add(dayKey(today));
+			}
+			case WEEK -> {
+				long week = weekOf(today);
+				LongStream.rangeClosed(1, window.getHours() / 168).forEach(i -> keys.add(weekKey(week - i)));
+				keys.add(weekKey(week));
+				keys.add(dayKey(today));
+			}
+		}
+		return keys;
+	}
+
+	// 全量重建窗口的已结束部分
+	private void rebuildWindow(HotWindow window, long currentHour, String field, Aggregate aggregate) {
+		String key = windowKey(window);
+		unionStore(key, closedBucketKeys(window, currentHour), aggregate, windowTtlSeconds(window));
+		redisUtil.hset(RedisConstant.HOT_NEWS_WINDOW_META, field, currentHour - 1);
+		log.info("热点窗口{}全量重建完成", window.getName());
+	}
+
+	// 全量重建汇总桶：前一天和当天的天级桶（由小时桶合并），上周和本周的周级桶（由天级桶合并）
+	private void rebuildRollups(long currentHour, Aggregate aggregate) {
+		long today = dayOf(currentHour);
+		long todayStart = today * 24;
+		unionStore(dayKey(today - 1),
+				LongStream.range(todayStart - 24, todayStart).mapToObj(HotNewsWindowService::hourKey).toList(),
+				aggregate, dayBucketTtlSeconds());
+		unionStore(dayKey(today),
+				LongStream.range(todayStart, currentHour).mapToObj(HotNewsWindowService::hourKey).toList(),
+				aggregate, dayBucketTtlSeconds());
+
+		long week = weekOf(today);
+		long weekStart = week * 7 - 3; // 本周一
+		unionStore(weekKey(week - 1),
+				LongStream.range(weekStart - 7, weekStart).mapToObj(HotNewsWindowService::dayKey).toList(),
+				aggregate, weekBucketTtlSeconds());
+		unionStore(weekKey(week),
+				LongStream.range(weekStart, today).mapToObj(HotNewsWindowService::dayKey).toList(),
+				aggregate, weekBucketTtlSeconds());
+
+		redisUtil.hmset(RedisConstant.HOT_NEWS_WINDOW_META,
+				Map.of(DAY_ROLLUP_FIELD, currentHour - 1, WEEK_ROLLUP_FIELD, currentHour - 1));
+		log.info("热点汇总桶全量重建完成");
+	}
+
+	private void unionStore(String destKey, List<String> keys, Aggregate aggregate, long ttlSeconds) {
+		if (keys.isEmpty()) {
+			redisUtil.del(destKey);
+			return;
+		}
+		redisUtil.zUnionAndStore(keys.get(0), keys.subList(1, keys.size()), destKey, aggregate);
+		redisUtil.expire(destKey, ttlSeconds);
+	}
+
+	// 执行一次幂等的增量更新（参数按字符串传递，不经过JSON序列化）
+	private void executeTick(String targetKey, String addKey, String expiringKey, String field, long tick,
+							 Aggregate aggregate, long ttlSeconds) {
+		redisTemplate.execute(hotNewsWindowTickScript, StringRedisSerializer.UTF_8, StringRedisSerializer.UTF_8,
+				List.of(targetKey, RedisConstant.HOT_NEWS_WINDOW_META, addKey, expiringKey == null ? "" : expiringKey),
+				field, String.valueOf(tick), aggregate.name(), String.valueOf(ttlSeconds));
+	}
+
+	private Aggregate mergeAggregate() {
+		return hotNewsProperties.getScoring().getMode().getMergeAggregate();
+	}
+
+	// 元数据字段名包括窗口长度和聚合方式（修改窗口长度或切换热度计算模式后自动全量重建）
+	private static String metaField(HotWindow window, Aggregate aggregate) {
+		return "window:" + window.getName() + ":" + window.getHours() + ":" + aggregate.name();
+	}
+
+	long dayBucketTtlSeconds() {
+		int maxDays = getWindows().stream()
+				.filter(w -> BucketUnit.of(w.getHours()) == BucketUnit.DAY)
+				.mapToInt(w -> w.getHours() / 24).max().orElse(0);
+		// 至少保留两周，用于重建上周的周级桶
+		return TimeUnit.DAYS.toSeconds(Math.max(15, maxDays + 2));
+	}
+
+	long weekBucketTtlSeconds() {
+		int maxWeeks = getWindows().stream()
+				.filter(w -> BucketUnit.of(w.getHours()) == BucketUnit.WEEK)
+				.mapToInt(w -> w.getHours() / 168).max().orElse(0);
+		return TimeUnit.DAYS.toSeconds(7L * Math.max(3, maxWeeks + 2));
+	}
+
+	private static long windowTtlSeconds(HotWindow window) {
+		return TimeUnit.HOURS.toSeconds(window.getHours() + 48L);
+	}
+
+	private static String windowKey(HotWindow window) {
+		return RedisConstant.HOT_NEWS_WINDOW_PREFIX + window.getName();
+	}
+
+	// ============================= 时间刻度（按本地时间对齐，与小时Key、天级Key一致） =============================
+
+	static long currentHourIndex() {
+		return hourOf(LocalDateTime.now());
+	}
+
+	static long hourOf(LocalDateTime time) {
+		return time.toEpochSecond(ZoneOffset.UTC) / 3600;
+	}
+
+	static LocalDateTime hourStart(long h) {
+		return LocalDateTime.ofEpochSecond(h * 3600, 0, ZoneOffset.UTC);
+	}
+
+	static long dayOf(long h) {
+		return Math.floorDiv(h, 24);
+	}
+
+	// 周序号（周一开始；1970-01-01为周四）
+	static long weekOf(long day) {
+		return Math.floorDiv(day + 3, 7);
+	}
+
+	static boolean isLastHourOfDay(long h) {
+		return Math.floorMod(h + 1, 24) == 0;
+	}
+
+	static boolean isLastHourOfWeek(long h) {
+		return isLastHourOfDay(h) && Math.floorMod(dayOf(h + 1) + 3, 7) == 0;
+	}
+
+	static String hourKey(long h) {
+		return RedisConstant.HOT_NEWS_HOUR_PREFIX + HotNewsUtil.getHour(hourStart(h));
+	}
+
+	static String dayKey(long day) {
+		return RedisConstant.HOT_NEWS_DAY_PREFIX + HotNewsUtil.getDay(LocalDate.ofEpochDay(day));
+	}
+
+	static String weekKey(long week) {
+		return RedisConstant.HOT_NEWS_WEEK_BUCKET_PREFIX + HotNewsUtil.getDay(LocalDate.ofEpochDay(week * 7 - 3));
+	}
+
+	private static Long toLong(Object value) {
+		return value == null ? null : Long.parseLong(value.toString());
+	}
+}
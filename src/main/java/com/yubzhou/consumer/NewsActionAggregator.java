@@ -0,0 +1,198 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.common.UserActionEvent;
+import com.yubzhou.common.UserActionEvent.ActionType;
+import com.yubzhou.properties.HotNewsProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户行为事件的进程内聚合（只聚合浏览、评论及取消评论等不需要记录用户行为的事件）
+ * 事件按（新闻ID，行为类型）累加到分段计数单元中（无锁），由定时任务按固定间隔取出累计增量，
+ * 再由HotNewsService通过一次pipeline批量写入redis，从而将大量浏览事件合并为少量的脚本调用
+ * 只用于本地事件总线和接口直接提交的事件：Kafka消费的事件在批内合并后直接写入redis（偏移量提交前必须已写入）
+ */
+@Component
+@Slf4j
+public class NewsActionAggregator {
+	private final HotNewsProperties.Aggregation config;
+
+	// 计数单元（新闻ID，行为类型）：分段计数器
+	private final ConcurrentHashMap<CellKey, StripedCell> cells = new ConcurrentHashMap<>();
+
+	// 统计信息
+	private final LongAdder absorbedEvents = new LongAdder(); // 被聚合的事件总数
+	private final LongAdder rejectedEvents = new LongAdder(); // 计数单元数达到上限而未被聚合的事件总数
+	private final LongAdder flushCount = new LongAdder(); // 取出增量的次数（只统计有增量的取出）
+	private final LongAdder flushedDeltas = new LongAdder(); // 取出的增量总数（即写入redis的脚本调用数）
+	private final LongAdder restoredDeltas = new LongAdder(); // 写入redis失败后放回的增量总数
+	private final AtomicLong pendingEvents = new AtomicLong(); // 尚未取出的被聚合事件数
+	private volatile long lastFlushEvents; // 最近一次取出时合并的事件数
+	private volatile long lastFlushDeltas; // 最近一次取出时的增量数
+
+	public NewsActionAggregator(HotNewsProperties hotNewsProperties) {
+		this.config = hotNewsProperties.getAggregation();
+	}
+
+	// 计数单元的键（行为类型为原操作，取消操作以负数增量累加）
+	private record CellKey(Long newsId, ActionType action) {
+	}
+
+	/**
+	 * 尝试聚合一个用户行为事件
+	 *
+	 * @param event 用户行为事件
+	 * @return 是否被聚合（未被聚合的事件需要由调用方直接处理）
+	 */
+	public boolean offer(UserActionEvent event) {
+		if (!config.isEnabled() || !isAggregatable(event.getAction())) return false;
+
+		CellKey key = new CellKey(event.getNewsId(), event.getAction().toOriginalAction());
+		long delta = event.getAction().isCancelAction() ? -1 : 1;
+		while (true) {
+			StripedCell cell = cells.get(key);
+			if (cell == null) {
+				// 限制计数单元数，防止内存无限增长（超过上限的事件由调用方直接处理）
+				if (cells.size() >= config.getMaxKeys()) {
+					rejectedEvents.increment();
+					return false;
+				}
+				cell = cells.computeIfAbsent(key, k -> new StripedCell(config.getStripes()));
+			}
+			if (cell.add(delta)) {
+				absorbedEvents.increment();
+				pendingEvents.incrementAndGet();
+				return true;
+			}
+			// 计数单元已被回收但尚未从Map中移除，等待移除后重试
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * 取出所有累计的增量（由定时任务和停机监听器调用，同一时间只有一个线程取出）
+	 * 本次没有增量的计数单元会被回收，以释放长时间没有事件的新闻所占的内存
+	 *
+	 * @return 新闻ID：{行为类型：增量}（增量为0的不返回）
+	 */
+	public synchronized Map<Long, Map<ActionType, Long>> drain() {
+		Map<Long, Map<ActionType, Long>> deltas = new LinkedHashMap<>();
+		long deltaCount = 0;
+		for (Map.Entry<CellKey, StripedCell> entry : cells.entrySet()) {
+			CellKey key = entry.getKey();
+			StripedCell cell = entry.getValue();
+			long delta = cell.drain();
+			if (delta != 0) {
+				deltas.computeIfAbsent(key.newsId(), k -> new HashMap<>()).put(key.action(), delta);
+				deltaCount++;
+			} else if (cell.tryRetire()) {
+				cells.remove(key, cell);
+			}
+		}
+
+		long events = pendingEvents.getAndSet(0);
+		if (events > 0) {
+			flushCount.increment();
+			flushedDeltas.add(deltaCount);
+			lastFlushEvents = events;
+			lastFlushDeltas = deltaCount;
+			log.debug("聚合事件取出完成，本次合并{}个事件为{}个增量", events, deltaCount);
+		}
+		return deltas;
+	}
+
+	/**
+	 * 放回取出的增量（写入redis失败时调用，由下次取出时重新写入，不受计数单元数上限的限制）
+	 *
+	 * @param deltas drain返回的增量
+	 */
+	public void restore(Map<Long, Map<ActionType, Long>> deltas) {
+		deltas.forEach((newsId, actionDeltas) -> actionDeltas.forEach((action, delta) -> {
+			CellKey key = new CellKey(newsId, action);
+			// 计数单元已被回收但尚未从Map中移除时，等待移除后重试
+			while (!cells.computeIfAbsent(key, k -> new StripedCell(config.getStripes())).add(delta)) {
+				Thread.onSpinWait();
+			}
+			restoredDeltas.increment();
+		}));
+	}
+
+	// 获取聚合统计信息
+	public Map<String, Object> getStats() {
+		long flushedEvents = absorbedEvents.sum() - pendingEvents.get();
+		long deltas = flushedDeltas.sum();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", config.isEnabled());
+		stats.put("activeCells", cells.size());
+		stats.put("maxKeys", config.getMaxKeys());
+		stats.put("absorbedEvents", absorbedEvents.sum());
+		stats.put("rejectedEvents", rejectedEvents.sum());
+		stats.put("pendingEvents", pendingEvents.get());
+		stats.put("flushCount", flushCount.sum());
+		stats.put("flushedDeltas", deltas);
+		stats.put("restoredDeltas", restoredDeltas.sum());
+		stats.put("collapseRatio", deltas == 0 ? 0.0 : (double) flushedEvents / deltas); // 平均每个增量合并的事件数
+		stats.put("lastFlushEvents", lastFlushEvents);
+		stats.put("lastFlushDeltas", lastFlushDeltas);
+		return stats;
+	}
+
+	// 是否为可聚合的行为（浏览、评论、取消评论只改变计数，不需要记录用户行为，且与顺序无关）
+	public static boolean isAggregatable(ActionType action) {
+		return action == ActionType.VIEW || action == ActionType.COMMENT || action == ActionType.UNCOMMENT;
+	}
+
+	/**
+	 * 分段计数器：不同线程按线程ID累加到不同的分段中，减少同一热点新闻上的CAS竞争
+	 * 取出时逐段getAndSet(0)，不会丢失并发的累加；回收时将全部分段置为RETIRED，之后的累加会失败并重试
+	 */
+	private static final class StripedCell {
+		private static final long RETIRED = Long.MIN_VALUE;
+		private final AtomicLongArray stripes;
+		private final int mask;
+
+		StripedCell(int stripes) {
+			// 分段数取不小于配置值的2的幂
+			int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+			this.stripes = new AtomicLongArray(size);
+			this.mask = size - 1;
+		}
+
+		boolean add(long delta) {
+			int index = (int) Thread.currentThread().getId() & mask;
+			while (true) {
+				long value = stripes.get(index);
+				if (value == RETIRED) return false;
+				if (stripes.compareAndSet(index, value, value + delta)) return true;
+			}
+		}
+
+		// 取出全部分段的累计值（只由drain调用，此时计数单元不可能处于回收状态）
+		long drain() {
+			long sum = 0;
+			for (int i = 0; i < stripes.length(); i++) {
+				sum += stripes.getAndSet(i, 0);
+			}
+			return sum;
+		}
+
+		// 尝试回收（所有分段都为0时才能回收，有并发累加则放弃回收）
+		boolean tryRetire() {
+			for (int i = 0; i < stripes.length(); i++) {
+				if (!stripes.compareAndSet(i, 0, RETIRED)) {
+					for (int j = 0; j < i; j++) stripes.set(j, 0);
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
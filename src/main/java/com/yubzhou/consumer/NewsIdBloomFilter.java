@@ -0,0 +1,212 @@
+package com.yubzhou.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yubzhou.common.NewsIdBloomAddMessage;
+import com.yubzhou.common.RedisConstant;
+import com.yubzhou.mapper.NewsMapper;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 新闻ID布隆过滤器（防止不存在的新闻ID穿透到redis和数据库：过滤器判断不存在的ID直接视为不存在，不再缓存空值）
+ * 1. 启动时流式读取全部新闻ID构建Java内存中的过滤器，再与redis位图按位或合并（Lua脚本原子地BITOP OR，多节点同时启动、并发新增也不会丢失位）
+ * 2. 判断只使用Java内存中的过滤器，不访问redis（不存在的ID不产生任何redis请求）
+ * 3. 新增新闻时设置Java内存和redis位图中的位，并通过redis发布订阅广播新闻ID，其他节点收到后添加到本地过滤器；
+ * 各节点定时合并redis位图，作为广播消息丢失（如订阅连接断开）时的兜底
+ * 4. 构建完成前视为可能存在（只影响防护效果，不影响正确性）
+ * 注意：其他节点新增的新闻在广播到达前（通常为毫秒级，消息丢失时最长为一个同步间隔）会被本节点判断为不存在
+ */
+@Component
+@Slf4j
+public class NewsIdBloomFilter implements MessageListener {
+	private final NewsMapper newsMapper;
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final RedisMessageListenerContainer redisMessageListenerContainer;
+	private final ObjectMapper objectMapper;
+	private final DefaultRedisScript<byte[]> mergeBloomFilterScript;
+	private final HotNewsProperties.BloomFilter config;
+	private final TransactionTemplate readOnlyTransaction;
+	private final BloomFilter filter; // 未开启时为null
+	private final byte[] redisKey;
+	private final String nodeId = UUID.randomUUID().toString();
+	private volatile boolean ready = false; // 是否已完成构建
+
+	private final LongAdder rejected = new LongAdder(); // 判断为不存在的次数
+	private final LongAdder remoteAdds = new LongAdder(); // 其他节点广播的新增新闻数
+	private final LongAdder redisErrors = new LongAdder(); // 访问redis位图失败的次数
+	private volatile long loadedIds; // 构建时读取的新闻ID数
+	private volatile long builtAt;
+
+	public NewsIdBloomFilter(NewsMapper newsMapper,
+							 RedisTemplate<String, Object> redisTemplate,
+							 RedisMessageListenerContainer redisMessageListenerContainer,
+							 ObjectMapper objectMapper,
+							 @Qualifier("mergeBloomFilterScript") DefaultRedisScript<byte[]> mergeBloomFilterScript,
+							 HotNewsProperties hotNewsProperties,
+							 PlatformTransactionManager transactionManager) {
+		this.newsMapper = newsMapper;
+		this.redisTemplate = redisTemplate;
+		this.redisMessageListenerContainer = redisMessageListenerContainer;
+		this.objectMapper = objectMapper;
+		this.mergeBloomFilterScript = mergeBloomFilterScript;
+		this.config = hotNewsProperties.getBloomFilter();
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.filter = config.isEnabled() ? new BloomFilter(config.getExpectedInsertions(), config.getFalsePositiveRate()) : null;
+		this.redisKey = filter == null ? null : (RedisConstant.NEWS_ID_BLOOM_PREFIX + filter.getBitSize() + ":" + filter.getHashCount())
+				.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@PostConstruct
+	public void subscribe() {
+		if (filter == null) return;
+		redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.NEWS_ID_BLOOM_ADD_CHANNEL));
+	}
+
+	// 由数据库中的全部新闻ID构建过滤器（系统启动时调用）
+	public void rebuild() {
+		if (filter == null) return;
+		long start = System.currentTimeMillis();
+		long count = readOnlyTransaction.execute(status -> {
+			long loaded = 0;
+			try (Cursor<Long> cursor = newsMapper.streamIds()) {
+				for (Long newsId : cursor) {
+					filter.put(newsId);
+					loaded++;
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return loaded;
+		});
+		loadedIds = count;
+		try {
+			uploadToRedis();
+		} catch (Exception e) {
+			redisErrors.increment();
+			log.warn("新闻ID布隆过滤器写入redis失败（只使用Java内存中的过滤器）：{}", e.getMessage());
+		}
+		builtAt = System.currentTimeMillis();
+		ready = true;
+		if (count > config.getExpectedInsertions()) {
+			log.warn("新闻数（{}）超过布隆过滤器的预期新闻数（{}），误判率将升高", count, config.getExpectedInsertions());
+		}
+		log.info("新闻ID布隆过滤器构建完成，新闻数：{}，位数：{}，哈希函数个数：{}，耗时：{}ms",
+				count, filter.getBitSize(), filter.getHashCount(), builtAt - start);
+	}
+
+	/**
+	 * 判断新闻是否可能存在（只使用Java内存中的过滤器）
+	 *
+	 * @return false表示新闻一定不存在（未开启、尚未构建完成时总是返回true）
+	 */
+	public boolean mightContain(Long newsId) {
+		if (filter == null || !ready || newsId == null) return true;
+		if (filter.mightContain(newsId)) return true;
+		rejected.increment();
+		return false;
+	}
+
+	// 添加新增的新闻ID（新闻写入数据库后调用），并广播给其他节点
+	public void add(Collection<Long> newsIds) {
+		if (filter == null || newsIds == null || newsIds.isEmpty()) return;
+		List<Long> ids = newsIds.stream().filter(Objects::nonNull).distinct().toList();
+		if (ids.isEmpty()) return;
+		List<long[]> indexes = new ArrayList<>(ids.size());
+		for (Long newsId : ids) {
+			filter.put(newsId);
+			indexes.add(filter.indexes(newsId));
+		}
+		try {
+			byte[] channel = RedisConstant.NEWS_ID_BLOOM_ADD_CHANNEL.getBytes(StandardCharsets.UTF_8);
+			byte[] body = objectMapper.writeValueAsBytes(new NewsIdBloomAddMessage(nodeId, ids));
+			redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+				for (long[] newsIndexes : indexes) {
+					for (long index : newsIndexes) connection.stringCommands().setBit(redisKey, index, true);
+				}
+				connection.publish(channel, body);
+				return null;
+			});
+		} catch (Exception e) {
+			redisErrors.increment();
+			log.warn("更新新闻ID布隆过滤器的redis位图失败（下次同步时再写入redis）：{}", e.getMessage());
+		}
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		try {
+			NewsIdBloomAddMessage added = objectMapper.readValue(message.getBody(), NewsIdBloomAddMessage.class);
+			if (filter == null || nodeId.equals(added.source()) || added.newsIds() == null) return;
+			for (Long newsId : added.newsIds()) {
+				if (newsId != null) filter.put(newsId);
+			}
+			remoteAdds.add(added.newsIds().size());
+		} catch (Exception e) {
+			log.error("处理新闻ID布隆过滤器新增消息失败", e);
+		}
+	}
+
+	// 与redis位图双向合并：合并其他节点新增的新闻（广播消息丢失时），写入本节点写redis失败的位（redis位图丢失时重新写入）
+	@Scheduled(fixedDelayString = "${hot-news.bloom-filter.sync-millis:60000}", initialDelay = 60_000)
+	public void sync() {
+		if (filter == null || !ready) return;
+		try {
+			uploadToRedis();
+		} catch (Exception e) {
+			redisErrors.increment();
+			log.warn("同步新闻ID布隆过滤器失败：{}", e.getMessage());
+		}
+	}
+
+	// 获取统计信息
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", filter != null);
+		stats.put("ready", ready);
+		if (filter == null) return stats;
+		stats.put("redisKey", new String(redisKey, StandardCharsets.UTF_8));
+		stats.put("bitSize", filter.getBitSize());
+		stats.put("memoryBytes", filter.getBitSize() / 8);
+		stats.put("hashCount", filter.getHashCount());
+		stats.put("expectedInsertions", config.getExpectedInsertions());
+		stats.put("falsePositiveRate", config.getFalsePositiveRate());
+		stats.put("estimatedFalsePositiveRate", filter.expectedFalsePositiveRate());
+		stats.put("loadedIds", loadedIds);
+		stats.put("builtAt", builtAt);
+		stats.put("rejected", rejected.sum());
+		stats.put("remoteAdds", remoteAdds.sum());
+		stats.put("redisErrors", redisErrors.sum());
+		return stats;
+	}
+
+	// 将Java内存中的位图与redis位图按位或合并（Lua脚本原子执行），再合并回Java内存
+	private void uploadToRedis() {
+		String tmpKey = RedisConstant.NEWS_ID_BLOOM_PREFIX + "tmp:" + UUID.randomUUID();
+		byte[] merged = redisTemplate.execute(mergeBloomFilterScript, RedisSerializer.byteArray(), RedisSerializer.byteArray(),
+				List.of(new String(redisKey, StandardCharsets.UTF_8), tmpKey), (Object) filter.toRedisBitmap());
+		filter.mergeRedisBitmap(merged);
+	}
+}
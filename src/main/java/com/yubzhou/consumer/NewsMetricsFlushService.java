@@ -0,0 +1,157 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.common.RedisConstant;
+import com.yubzhou.model.po.News;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.service.NewsService;
+import com.yubzhou.util.RedisUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 新闻指标写回数据库（write-behind）
+ * 用户行为事件只更新redis中的指标，并将新闻ID标记为脏数据（redis Set，多实例共享、重启后不丢失）；
+ * 定时任务按批次取出脏新闻ID，读取redis中的最新指标，用一条批量UPDATE语句写回MySQL
+ */
+@Service
+@Slf4j
+public class NewsMetricsFlushService {
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final RedisUtil redisUtil;
+	private final NewsService newsService;
+	private final HotNewsProperties hotNewsProperties;
+	private final DefaultRedisScript<Long> syncNewsCommentsScript;
+
+	public NewsMetricsFlushService(RedisTemplate<String, Object> redisTemplate,
+								   RedisUtil redisUtil,
+								   NewsService newsService,
+								   HotNewsProperties hotNewsProperties,
+								   @Qualifier("syncNewsCommentsScript") DefaultRedisScript<Long> syncNewsCommentsScript) {
+		this.redisTemplate = redisTemplate;
+		this.redisUtil = redisUtil;
+		this.newsService = newsService;
+		this.hotNewsProperties = hotNewsProperties;
+		this.syncNewsCommentsScript = syncNewsCommentsScript;
+	}
+
+	// 需要写回数据库的指标字段
+	private static final List<String> METRIC_FIELDS = List.of("views", "supports", "opposes", "comments", "favorites");
+
+	// 标记新闻指标已变化（等待下一次批量写回数据库）
+	public void markDirty(Collection<Long> newsIds) {
+		if (CollectionUtils.isEmpty(newsIds)) return;
+		redisUtil.sSet(RedisConstant.NEWS_METRICS_DIRTY_SET, newsIds.toArray());
+	}
+
+	/**
+	 * 将所有脏新闻的最新指标批量写回数据库（由定时任务和停机监听器调用）
+	 * 使用SPOP按批次取出新闻ID，多实例同时执行时不会重复写回同一批新闻
+	 *
+	 * @return 本次写回数据库的新闻数
+	 */
+	public synchronized int flush() {
+		int batchSize = hotNewsProperties.getMetricsFlush().getBatchSize();
+		int total = 0;
+		while (true) {
+			List<Object> popped = redisTemplate.opsForSet().pop(RedisConstant.NEWS_METRICS_DIRTY_SET, batchSize);
+			if (CollectionUtils.isEmpty(popped)) break;
+
+			List<Long> newsIds = popped.stream().map(id -> ((Number) id).longValue()).toList();
+			try {
+				total += flushBatch(newsIds);
+			} catch (Exception e) {
+				// 写回失败，将本批新闻重新标记为脏数据，等待下一次写回
+				markDirty(newsIds);
+				log.error("批量写回新闻指标失败，已重新标记为待写回（共{}条）", newsIds.size(), e);
+				break;
+			}
+			if (popped.size() < batchSize) break;
+		}
+		if (total > 0) log.info("批量写回新闻指标到数据库完成，共{}条", total);
+		return total;
+	}
+
+	// 读取一批新闻在redis中的最新指标（一次pipeline），并用一条UPDATE语句写回数据库
+	private int flushBatch(List<Long> newsIds) {
+		List<Object> results = redisTemplate.executePipelined(new SessionCallback<>() {
+			@Override
+			public Object execute(RedisOperations operations) throws DataAccessException {
+				HashOperations<String, String, Object> hashOps = operations.opsForHash();
+				for (Long newsId : newsIds) {
+					hashOps.multiGet(RedisConstant.NEWS_METRICS_PREFIX + newsId, METRIC_FIELDS);
+				}
+				return null;
+			}
+		});
+
+		List<News> newsList = new ArrayList<>(newsIds.size());
+		for (int i = 0; i < newsIds.size(); i++) {
+			List<?> values = (List<?>) results.get(i);
+			// 指标缓存已过期，redis中已没有最新指标，跳过
+			if (values == null || values.contains(null)) continue;
+			News news = new News(newsIds.get(i));
+			news.setViews(((Number) values.get(0)).intValue());
+			news.setSupports(((Number) values.get(1)).intValue());
+			news.setOpposes(((Number) values.get(2)).intValue());
+			news.setComments(((Number) values.get(3)).intValue());
+			news.setFavorites(((Number) values.get(4)).intValue());
+			newsList.add(news);
+		}
+		if (newsList.isEmpty()) return 0;
+		newsService.batchUpdateMetrics(newsList);
+		return newsList.size();
+	}
+
+	/**
+	 * 用数据库中的评论数覆盖redis中已缓存新闻的comments字段（评论数全量同步到新闻表之后调用）
+	 * 只写comments字段，不删除整个指标Hash，其他指标中尚未写回数据库的增量不会丢失
+	 *
+	 * @return 更新的新闻数
+	 */
+	public long syncCommentsFromDatabase() {
+		int batchSize = hotNewsProperties.getMetricsFlush().getBatchSize();
+		long total = 0;
+		List<Long> batch = new ArrayList<>(batchSize);
+		ScanOptions options = ScanOptions.scanOptions().match(RedisConstant.NEWS_METRICS_PREFIX + "*").count(500).build();
+		try (Cursor<String> cursor = redisTemplate.scan(options)) {
+			while (cursor.hasNext()) {
+				String newsId = cursor.next().substring(RedisConstant.NEWS_METRICS_PREFIX.length());
+				if (!newsId.chars().allMatch(Character::isDigit)) continue;
+				batch.add(Long.parseLong(newsId));
+				if (batch.size() >= batchSize) {
+					total += syncCommentsBatch(batch);
+					batch.clear();
+				}
+			}
+		}
+		if (!batch.isEmpty()) total += syncCommentsBatch(batch);
+		log.info("redis中的新闻评论数已与数据库同步，共{}条", total);
+		return total;
+	}
+
+	private long syncCommentsBatch(List<Long> newsIds) {
+		List<News> newsList = newsService.lambdaQuery()
+				.select(News::getId, News::getComments)
+				.in(News::getId, newsIds)
+				.list();
+		if (newsList.isEmpty()) return 0;
+		List<String> keys = newsList.stream().map(news -> RedisConstant.NEWS_METRICS_PREFIX + news.getId()).toList();
+		Object[] comments = newsList.stream().map(News::getComments).toArray();
+		Long updated = redisTemplate.execute(syncNewsCommentsScript, keys, comments);
+		return updated == null ? 0 : updated;
+	}
+}
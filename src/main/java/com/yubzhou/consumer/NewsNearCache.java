@@ -0,0 +1,239 @@
+package com.yubzhou.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.yubzhou.common.NewsInvalidationMessage;
+import com.yubzhou.common.RedisConstant;
+import com.yubzhou.model.po.News;
+import com.yubzhou.properties.HotNewsProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 新闻详情的进程内近端缓存（一级缓存，位于redis新闻缓存之前，只缓存存在的新闻）
+ * 1. Caffeine缓存：W-TinyLFU准入（新条目的访问频率不高于被淘汰的条目时不会挤掉热门新闻），按新闻的估算大小淘汰
+ * 2. 只缓存新闻详情和内容，不缓存指标：指标随每个用户行为变化，由调用方命中后从redis读取新闻指标Hash覆盖，
+ * 因此更新指标不需要失效近端缓存（否则热门新闻几乎无法命中）
+ * 3. 失效：写入（可能已变化的）新闻详情或内容的节点先失效本地缓存，再通过redis发布订阅广播新闻ID，其他节点收到后失效；
+ * 写入后 expire-after-write-millis 过期，作为失效消息丢失（如订阅连接断开）时的兜底
+ * 4. 防止回填旧数据：读取redis前记录新闻所在分段的版本号，失效时版本号加一，
+ * 回填时版本号已变化（读取期间发生了失效）则放弃回填
+ */
+@Component
+@Slf4j
+public class NewsNearCache implements MessageListener, MeterBinder {
+	private static final int STRIPES = 1024; // 版本号的分段数（2的幂）
+
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final RedisMessageListenerContainer redisMessageListenerContainer;
+	private final ObjectMapper objectMapper;
+	private final HotNewsProperties.NearCache config;
+	private final Cache<Long, News> cache;
+	private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+	private final String nodeId = UUID.randomUUID().toString();
+
+	// 二级缓存（redis）的命中、未命中次数
+	private final LongAdder redisHits = new LongAdder();
+	private final LongAdder redisMisses = new LongAdder();
+	private final LongAdder staleDropped = new LongAdder(); // 因读取期间发生失效而放弃的回填次数
+	private final LongAdder localInvalidations = new LongAdder(); // 本节点写入引起的失效（新闻数）
+	private final LongAdder remoteInvalidations = new LongAdder(); // 其他节点广播的失效（新闻数）
+	private final LongAdder publishFailures = new LongAdder(); // 广播失效消息失败的次数
+
+	public NewsNearCache(RedisTemplate<String, Object> redisTemplate,
+						 RedisMessageListenerContainer redisMessageListenerContainer,
+						 ObjectMapper objectMapper,
+						 HotNewsProperties hotNewsProperties) {
+		this.redisTemplate = redisTemplate;
+		this.redisMessageListenerContainer = redisMessageListenerContainer;
+		this.objectMapper = objectMapper;
+		this.config = hotNewsProperties.getNearCache();
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(config.getMaxWeightBytes())
+				.weigher((Long newsId, News news) -> weigh(news))
+				.expireAfterWrite(Duration.ofMillis(config.getExpireAfterWriteMillis()))
+				.recordStats()
+				.build();
+	}
+
+	@PostConstruct
+	public void subscribe() {
+		redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.NEWS_INVALIDATE_CHANNEL));
+	}
+
+	// 从近端缓存获取新闻（未命中返回null，返回的新闻不包含指标，调用方不能修改）
+	public News get(Long newsId) {
+		if (!config.isEnabled() || newsId == null) return null;
+		return cache.getIfPresent(newsId);
+	}
+
+	// 读取redis（或数据库）前获取新闻的版本号，回填时传给put
+	public long stamp(Long newsId) {
+		return stamps.get(stripe(newsId));
+	}
+
+	/**
+	 * 回填近端缓存
+	 *
+	 * @param newsId 新闻ID
+	 * @param news   从redis或数据库读取的新闻（为null时不缓存，只缓存不包括指标的副本）
+	 * @param stamp  读取前获取的版本号（读取期间发生了失效则放弃回填）
+	 */
+	public void put(Long newsId, News news, long stamp) {
+		if (!config.isEnabled() || newsId == null || news == null) return;
+		int stripe = stripe(newsId);
+		if (stamps.get(stripe) != stamp) {
+			staleDropped.increment();
+			return;
+		}
+		cache.put(newsId, news.copyWithoutMetrics());
+		// 检查与写入之间发生了失效：移除刚写入的新闻
+		if (stamps.get(stripe) != stamp) {
+			cache.invalidate(newsId);
+			staleDropped.increment();
+		}
+	}
+
+	// 记录二级缓存（redis）的命中、未命中次数
+	public void recordRedisLookups(long hits, long misses) {
+		if (hits > 0) redisHits.add(hits);
+		if (misses > 0) redisMisses.add(misses);
+	}
+
+	// 失效本地缓存并广播给其他节点（写入可能已变化的新闻详情或内容后调用）
+	public void invalidate(Collection<Long> newsIds) {
+		if (newsIds == null || newsIds.isEmpty()) return;
+		List<Long> ids = newsIds.stream().filter(Objects::nonNull).distinct().toList();
+		if (ids.isEmpty()) return;
+		invalidateLocal(ids);
+		localInvalidations.add(ids.size());
+		publish(new NewsInvalidationMessage(nodeId, ids, false));
+	}
+
+	// 失效全部新闻并广播给其他节点（批量删除redis中的新闻缓存后调用）
+	public void invalidateAll() {
+		invalidateAllLocal();
+		publish(new NewsInvalidationMessage(nodeId, null, true));
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		try {
+			NewsInvalidationMessage invalidation = objectMapper.readValue(message.getBody(), NewsInvalidationMessage.class);
+			if (nodeId.equals(invalidation.source())) return;
+			if (invalidation.all()) {
+				invalidateAllLocal();
+			} else if (invalidation.newsIds() != null) {
+				invalidateLocal(invalidation.newsIds());
+				remoteInvalidations.add(invalidation.newsIds().size());
+			}
+		} catch (Exception e) {
+			log.error("处理新闻缓存失效消息失败", e);
+		}
+	}
+
+	// 获取统计信息（一级缓存：近端缓存，二级缓存：redis）
+	public Map<String, Object> getStats() {
+		CacheStats cacheStats = cache.stats();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", config.isEnabled());
+		Map<String, Object> near = new LinkedHashMap<>();
+		near.put("hits", cacheStats.hitCount());
+		near.put("misses", cacheStats.missCount());
+		near.put("hitRate", cacheStats.hitRate());
+		near.put("evictions", cacheStats.evictionCount());
+		near.put("size", cache.estimatedSize());
+		near.put("weightBytes", cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+		near.put("maxWeightBytes", config.getMaxWeightBytes());
+		stats.put("near", near);
+		Map<String, Object> redis = new LinkedHashMap<>();
+		long hits = redisHits.sum();
+		long misses = redisMisses.sum();
+		redis.put("hits", hits);
+		redis.put("misses", misses);
+		redis.put("hitRate", hits + misses == 0 ? 1.0 : (double) hits / (hits + misses));
+		stats.put("redis", redis);
+		Map<String, Object> invalidations = new LinkedHashMap<>();
+		invalidations.put("local", localInvalidations.sum());
+		invalidations.put("remote", remoteInvalidations.sum());
+		invalidations.put("publishFailures", publishFailures.sum());
+		invalidations.put("staleDropped", staleDropped.sum());
+		stats.put("invalidations", invalidations);
+		return stats;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("news.cache.gets", cache, c -> c.stats().hitCount())
+				.description("新闻缓存的查询次数").tags("tier", "near", "result", "hit").register(registry);
+		FunctionCounter.builder("news.cache.gets", cache, c -> c.stats().missCount())
+				.description("新闻缓存的查询次数").tags("tier", "near", "result", "miss").register(registry);
+		FunctionCounter.builder("news.cache.gets", redisHits, LongAdder::sum)
+				.description("新闻缓存的查询次数").tags("tier", "redis", "result", "hit").register(registry);
+		FunctionCounter.builder("news.cache.gets", redisMisses, LongAdder::sum)
+				.description("新闻缓存的查询次数").tags("tier", "redis", "result", "miss").register(registry);
+		FunctionCounter.builder("news.cache.evictions", cache, c -> c.stats().evictionCount())
+				.description("近端缓存淘汰的新闻数").tag("tier", "near").register(registry);
+		Gauge.builder("news.cache.size", cache, Cache::estimatedSize)
+				.description("近端缓存的新闻数").tag("tier", "near").register(registry);
+	}
+
+	// 先增加版本号再移除（保证读取期间发生失效时回填会被放弃）
+	private void invalidateLocal(List<Long> newsIds) {
+		for (Long newsId : newsIds) {
+			if (newsId == null) continue;
+			stamps.incrementAndGet(stripe(newsId));
+			cache.invalidate(newsId);
+		}
+	}
+
+	private void invalidateAllLocal() {
+		for (int i = 0; i < STRIPES; i++) stamps.incrementAndGet(i);
+		cache.invalidateAll();
+	}
+
+	// 广播失效消息（广播失败只影响其他节点，其他节点的缓存最迟在 expire-after-write-millis 后过期）
+	private void publish(NewsInvalidationMessage message) {
+		try {
+			byte[] channel = RedisConstant.NEWS_INVALIDATE_CHANNEL.getBytes(StandardCharsets.UTF_8);
+			byte[] body = objectMapper.writeValueAsBytes(message);
+			redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, body));
+		} catch (Exception e) {
+			publishFailures.increment();
+			log.warn("广播新闻缓存失效消息失败：{}", e.getMessage());
+		}
+	}
+
+	// 新闻的估算大小（字节）：固定开销 + 字符串字段按UTF-16计算
+	static int weigh(News news) {
+		long chars = length(news.getTitle()) + length(news.getContent()) + length(news.getCoverUrl());
+		return (int) Math.min(Integer.MAX_VALUE, 256 + chars * 2);
+	}
+
+	private static int length(String value) {
+		return value == null ? 0 : value.length();
+	}
+
+	private static int stripe(Long newsId) {
+		return Long.hashCode(newsId) & (STRIPES - 1);
+	}
+}
@@ -0,0 +1,92 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.common.KafkaConstant;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.util.OrderedLaneExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户行为事件消费者背压
+ * 任一执行道的队列使用率达到高水位时暂停user_actions监听容器（暂停拉取，已分配的分区不会被回收），
+ * 所有执行道的队列使用率降到低水位以下时恢复拉取；突发流量只会降低消费速度，事件留在Kafka中而不会被丢弃
+ * 使用率按已提交但尚未处理完成的事件数计算（监听方法每批只向每个执行道提交一个分组任务，按任务数计算永远达不到高水位）
+ */
+@Component
+@Slf4j
+public class UserActionBackpressure {
+	private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+	private final OrderedLaneExecutor hotNewsLaneExecutor;
+	private final HotNewsProperties.Backpressure config;
+
+	// 统计信息
+	private final LongAdder pauseCount = new LongAdder(); // 暂停次数
+	private final LongAdder totalPausedNanos = new LongAdder(); // 累计暂停时长（不包括当前这次暂停）
+	private volatile long pausedSinceNanos = 0; // 当前这次暂停的开始时间（0表示未暂停）
+	private volatile double lastUtilization = 0; // 最近一次检查时最繁忙执行道的队列使用率
+
+	public UserActionBackpressure(KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry,
+								  @Qualifier("hotNewsLaneExecutor") OrderedLaneExecutor hotNewsLaneExecutor,
+								  HotNewsProperties hotNewsProperties) {
+		this.kafkaListenerEndpointRegistry = kafkaListenerEndpointRegistry;
+		this.hotNewsLaneExecutor = hotNewsLaneExecutor;
+		this.config = hotNewsProperties.getBackpressure();
+	}
+
+	// 按队列使用率暂停或恢复监听容器（间隔由 hot-news.backpressure.check-interval-millis 配置，默认100毫秒）
+	// 监听方法提交每批事件前也会调用，使积压时尽快暂停
+	@Scheduled(fixedDelayString = "${hot-news.backpressure.check-interval-millis:100}")
+	public synchronized void check() {
+		MessageListenerContainer container = kafkaListenerEndpointRegistry.getListenerContainer(KafkaConstant.USER_ACTION_LISTENER_ID);
+		if (container == null || !container.isRunning()) return;
+
+		double utilization = hotNewsLaneExecutor.getMaxUtilization();
+		lastUtilization = utilization;
+		boolean paused = pausedSinceNanos != 0;
+
+		if (!paused && config.isEnabled() && utilization >= config.getHighWaterMark()) {
+			container.pause();
+			pausedSinceNanos = System.nanoTime();
+			pauseCount.increment();
+			log.warn("执行道队列使用率达到{}，暂停拉取用户行为事件", String.format("%.2f", utilization));
+		} else if (paused && (!config.isEnabled() || utilization <= config.getLowWaterMark())) {
+			container.resume();
+			long pausedNanos = System.nanoTime() - pausedSinceNanos;
+			totalPausedNanos.add(pausedNanos);
+			pausedSinceNanos = 0;
+			log.info("执行道队列使用率降到{}，恢复拉取用户行为事件（本次暂停{}毫秒）",
+					String.format("%.2f", utilization), TimeUnit.NANOSECONDS.toMillis(pausedNanos));
+		}
+	}
+
+	// 获取背压统计信息
+	public Map<String, Object> getStats() {
+		long pausedSince = pausedSinceNanos;
+		long currentPausedNanos = pausedSince == 0 ? 0 : System.nanoTime() - pausedSince;
+		Map<String, Object> laneStats = hotNewsLaneExecutor.getStats();
+
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", config.isEnabled());
+		stats.put("paused", pausedSince != 0);
+		stats.put("highWaterMark", config.getHighWaterMark());
+		stats.put("lowWaterMark", config.getLowWaterMark());
+		stats.put("utilization", lastUtilization);
+		stats.put("queueDepth", laneStats.get("totalDepth"));
+		stats.put("pendingEvents", laneStats.get("totalPendingItems"));
+		stats.put("maxLaneDepth", laneStats.get("maxDepth"));
+		stats.put("rejected", laneStats.get("rejected"));
+		stats.put("pauseCount", pauseCount.sum());
+		stats.put("currentPausedMillis", TimeUnit.NANOSECONDS.toMillis(currentPausedNanos));
+		stats.put("totalPausedMillis", TimeUnit.NANOSECONDS.toMillis(totalPausedNanos.sum() + currentPausedNanos));
+		return stats;
+	}
+}
@@ -1,12 +1,26 @@
 package com.yubzhou.controller;
 
+import com.yubzhou.common.HotNewsActionTracker;
 import com.yubzhou.common.Result;
 import com.yubzhou.common.UserActionEvent;
 import com.yubzhou.common.UserToken;
 import com.yubzhou.consumer.HotNewsCacheService;
+import com.yubzhou.consumer.HotNewsRebuildJob;
 import com.yubzhou.consumer.HotNewsService;
+import com.yubzhou.consumer.HotNewsTopKTracker;
+import com.yubzhou.consumer.HotNewsTrendingTracker;
+import com.yubzhou.consumer.NewsActionAggregator;
+import com.yubzhou.consumer.NewsIdBloomFilter;
+import com.yubzhou.consumer.NewsNearCache;
+import com.yubzhou.consumer.UserActionBackpressure;
+import com.yubzhou.producer.NewsActionProducer;
+import com.yubzhou.producer.UserActionDeadLetterPublisher;
+import com.yubzhou.scheduler.HotNewsRefreshLeader;
+import com.yubzhou.serializer.NewsContentCompressor;
 import com.yubzhou.service.CommentService;
+import com.yubzhou.service.SseAsyncService;
 import com.yubzhou.service.UserProfileService;
+import com.yubzhou.util.OrderedLaneExecutor;
 import com.yubzhou.util.WebContextUtil;
 import jakarta.validation.constraints.Min;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +31,7 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -27,22 +42,58 @@ public class AdminController {
 
 	private final HotNewsService hotNewsService;
 	private final HotNewsCacheService hotNewsCacheService;
+	private final NewsActionAggregator newsActionAggregator;
+	private final UserActionBackpressure userActionBackpressure;
+	private final NewsActionProducer newsActionProducer;
+	private final UserActionDeadLetterPublisher userActionDeadLetterPublisher;
+	private final HotNewsTopKTracker hotNewsTopKTracker;
+	private final HotNewsTrendingTracker hotNewsTrendingTracker;
+	private final NewsNearCache newsNearCache;
+	private final NewsIdBloomFilter newsIdBloomFilter;
+	private final NewsContentCompressor newsContentCompressor;
+	private final HotNewsRefreshLeader hotNewsRefreshLeader;
+	private final SseAsyncService sseAsyncService;
+	private final HotNewsRebuildJob hotNewsRebuildJob;
+	private final HotNewsActionTracker hotNewsActionTracker;
 	private final CommentService commentService;
 	private final UserProfileService userProfileService;
 	private final ThreadPoolTaskExecutor globalTaskExecutor;
+	private final OrderedLaneExecutor hotNewsLaneExecutor;
 	private final RedisConnectionFactory redisConnectionFactory;
 
 
 	@Autowired
 	public AdminController(HotNewsService hotNewsService, HotNewsCacheService hotNewsCacheService,
+						   NewsActionAggregator newsActionAggregator, UserActionBackpressure userActionBackpressure,
+						   NewsActionProducer newsActionProducer, UserActionDeadLetterPublisher userActionDeadLetterPublisher,
+						   HotNewsTopKTracker hotNewsTopKTracker,
+						   HotNewsTrendingTracker hotNewsTrendingTracker, NewsNearCache newsNearCache,
+						   NewsIdBloomFilter newsIdBloomFilter, NewsContentCompressor newsContentCompressor,
+						   HotNewsRefreshLeader hotNewsRefreshLeader, SseAsyncService sseAsyncService,
+						   HotNewsRebuildJob hotNewsRebuildJob, HotNewsActionTracker hotNewsActionTracker,
 						   CommentService commentService, UserProfileService userProfileService,
 						   @Qualifier("globalTaskExecutor") ThreadPoolTaskExecutor globalTaskExecutor,
+						   @Qualifier("hotNewsLaneExecutor") OrderedLaneExecutor hotNewsLaneExecutor,
 						   RedisConnectionFactory redisConnectionFactory) {
 		this.hotNewsService = hotNewsService;
 		this.hotNewsCacheService = hotNewsCacheService;
+		this.newsActionAggregator = newsActionAggregator;
+		this.userActionBackpressure = userActionBackpressure;
+		this.newsActionProducer = newsActionProducer;
+		this.userActionDeadLetterPublisher = userActionDeadLetterPublisher;
+		this.hotNewsTopKTracker = hotNewsTopKTracker;
+		this.hotNewsTrendingTracker = hotNewsTrendingTracker;
+		this.newsNearCache = newsNearCache;
+		this.newsIdBloomFilter = newsIdBloomFilter;
+		this.newsContentCompressor = newsContentCompressor;
+		this.hotNewsRefreshLeader = hotNewsRefreshLeader;
+		this.sseAsyncService = sseAsyncService;
+		this.hotNewsRebuildJob = hotNewsRebuildJob;
+		this.hotNewsActionTracker = hotNewsActionTracker;
 		this.commentService = commentService;
 		this.userProfileService = userProfileService;
 		this.globalTaskExecutor = globalTaskExecutor;
+		this.hotNewsLaneExecutor = hotNewsLaneExecutor;
 		this.redisConnectionFactory = redisConnectionFactory;
 	}
 
@@ -66,6 +117,108 @@ public class AdminController {
 		}, globalTaskExecutor);
 	}
 
+	// 启动热点ZSet重建任务（由MySQL中的新闻指标重建小时、天、周桶，完成后全量重建热点窗口并刷新缓存）
+	@PostMapping("/hot/rebuild") // 使用post方法防止浏览器直接访问接口
+	public Result<?> rebuildHotNews() {
+		if (!hotNewsRebuildJob.start()) {
+			return Result.fail("热点ZSet重建任务正在运行");
+		}
+		log.info("已启动热点ZSet重建任务");
+		return Result.success("热点ZSet重建任务已启动", hotNewsRebuildJob.getStatus());
+	}
+
+	// 查看热点ZSet重建任务的状态（进度、读取速度、预计剩余时间）
+	@GetMapping("/hot/rebuild")
+	public Result<Map<String, Object>> getHotNewsRebuildStatus() {
+		return Result.success(hotNewsRebuildJob.getStatus());
+	}
+
+	// 异步迁移旧格式的新闻缓存（将新闻详情Hash拆分为新闻详情、新闻指标、新闻内容）
+	@PostMapping("/cache/migrate") // 使用post方法防止浏览器直接访问接口
+	public CompletableFuture<Result<?>> migrateNewsCache() {
+		log.info("开始迁移旧格式的新闻缓存...");
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				long migrated = hotNewsService.migrateAllNewsCache();
+				return Result.success("旧格式的新闻缓存迁移完成", Map.of("migrated", migrated));
+			} catch (Exception e) {
+				log.error("新闻缓存迁移失败", e);
+				return Result.fail("新闻缓存迁移失败: " + e.getMessage());
+			}
+		}, globalTaskExecutor);
+	}
+
+	// 获取用户行为事件进程内聚合的统计信息（聚合事件数、取出次数、平均每个增量合并的事件数等）
+	@GetMapping("/metrics/aggregation")
+	public Result<Map<String, Object>> getAggregationStats() {
+		return Result.success(newsActionAggregator.getStats());
+	}
+
+	// 查看用户行为事件有序分道执行器的统计信息（包括每个执行道的队列深度）
+	@GetMapping("/metrics/lanes")
+	public Result<Map<String, Object>> getLaneStats() {
+		return Result.success(hotNewsLaneExecutor.getStats());
+	}
+
+	// 查看用户行为事件消费者的背压统计信息（队列深度、暂停时长、拒绝数）
+	@GetMapping("/metrics/backpressure")
+	public Result<Map<String, Object>> getBackpressureStats() {
+		return Result.success(userActionBackpressure.getStats());
+	}
+
+	// 查看用户行为事件传输统计信息（Kafka发送、自动降级、本地事件总线、写入死信主题的事件数）
+	@GetMapping("/metrics/transport")
+	public Result<Map<String, Object>> getTransportStats() {
+		Map<String, Object> stats = new LinkedHashMap<>(newsActionProducer.getStats());
+		stats.put("deadLettered", userActionDeadLetterPublisher.getPublished());
+		return Result.success(stats);
+	}
+
+	// 查看用户行为事件统计（各行为类型1秒、1分钟、5分钟的事件速率，端到端延迟，消费者积压）
+	@GetMapping("/metrics/events")
+	public Result<Map<String, Object>> getEventStats() {
+		return Result.success(hotNewsActionTracker.getStats());
+	}
+
+	// 查看进程内热点新闻Top-K统计信息（是否已预热、各时间桶的新闻数、广播和收到的热度消息数）
+	@GetMapping("/metrics/top-k")
+	public Result<Map<String, Object>> getTopKStats() {
+		return Result.success(hotNewsTopKTracker.getStats());
+	}
+
+	// 查看飙升新闻检测统计信息（跟踪的新闻数、候选榜大小、淘汰的新闻数等）
+	@GetMapping("/metrics/trending")
+	public Result<Map<String, Object>> getTrendingStats() {
+		return Result.success(hotNewsTrendingTracker.getStats());
+	}
+
+	// 查看新闻详情缓存统计信息（近端缓存、redis两级缓存的命中、未命中、淘汰次数，失效次数，单飞加载次数，以及新闻内容压缩）
+	@GetMapping("/metrics/news-cache")
+	public Result<Map<String, Object>> getNewsCacheStats() {
+		Map<String, Object> stats = new LinkedHashMap<>(newsNearCache.getStats());
+		stats.put("singleFlight", hotNewsService.getNewsLoadStats());
+		stats.put("contentCompression", newsContentCompressor.getStats());
+		return Result.success(stats);
+	}
+
+	// 查看新闻ID布隆过滤器统计信息（位数、内存占用、估算误判率、拦截次数等）
+	@GetMapping("/metrics/bloom-filter")
+	public Result<Map<String, Object>> getBloomFilterStats() {
+		return Result.success(newsIdBloomFilter.getStats());
+	}
+
+	// 查看热点缓存刷新主节点信息（当前节点是否为主节点、租约时长等）
+	@GetMapping("/metrics/leader")
+	public Result<Map<String, Object>> getLeaderStats() {
+		return Result.success(hotNewsRefreshLeader.getStats());
+	}
+
+	// 查看热点列表SSE推送信息（各窗口的订阅数、推送的事件数、因积压断开的连接数等）
+	@GetMapping("/metrics/hot-stream")
+	public Result<Map<String, Object>> getHotNewsStreamStats() {
+		return Result.success(sseAsyncService.getHotNewsStreamStats());
+	}
+
 	// 手动触发 Redis RDB 持久化
 	@PostMapping("/rdb") // 使用post方法防止浏览器直接访问接口
 	public Result<?> triggerRdbPersistence() {
@@ -1,18 +1,25 @@
 package com.yubzhou.controller;
 
+import com.yubzhou.common.HotNewsSnapshot;
 import com.yubzhou.common.Result;
+import com.yubzhou.common.ReturnCode;
 import com.yubzhou.consumer.HotNewsCacheService;
-import com.yubzhou.model.vo.HotNews;
+import com.yubzhou.exception.BusinessException;
+import com.yubzhou.model.vo.TrendingNews;
 import com.yubzhou.service.NewsCategoryService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
+// 热点接口直接输出快照中预先序列化的响应体（已是Result格式），
+// 响应携带ETag，客户端携带相同的If-None-Match时由Spring MVC直接返回304（不输出响应体）
 @RestController
 @RequestMapping("/api/news")
 @Validated
@@ -27,22 +34,62 @@ public class HotNewsController {
 
 	// 查询1小时缓存热点top10
 	@GetMapping("/hot/1h/top10")
-	public Result<List<HotNews>> get1hHot() {
-		List<HotNews> cacheTop10 = hotNewsCacheService.getHourCacheTop10();
-		return Result.success(cacheTop10);
+	public ResponseEntity<byte[]> get1hHot(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		return render(hotNewsCacheService.getHourSnapshot(), acceptEncoding);
 	}
 
 	// 查询24小时缓存热点top10
 	@GetMapping("/hot/24h/top10")
-	public Result<List<HotNews>> get24hHot() {
-		List<HotNews> cacheTop10 = hotNewsCacheService.get24HourCacheTop10();
-		return Result.success(cacheTop10);
+	public ResponseEntity<byte[]> get24hHot(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		return render(hotNewsCacheService.get24HourSnapshot(), acceptEncoding);
 	}
 
 	// 查询7天缓存热点top10
 	@GetMapping("/hot/7d/top10")
-	public Result<List<HotNews>> get7dHot() {
-		List<HotNews> cacheTop10 = hotNewsCacheService.getWeekCacheTop10();
-		return Result.success(cacheTop10);
+	public ResponseEntity<byte[]> get7dHot(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		return render(hotNewsCacheService.getWeekSnapshot(), acceptEncoding);
 	}
-}
\ No newline at end of file
+
+	// 查询配置的热点窗口缓存top10（窗口在 hot-news.windows.definitions 中配置，如 6h、3d、30d）
+	@GetMapping("/hot/{window}")
+	public ResponseEntity<byte[]> getWindowHot(@PathVariable("window") String window,
+											   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		HotNewsSnapshot snapshot = hotNewsCacheService.getWindowSnapshot(window);
+		if (snapshot == null) {
+			throw new BusinessException(ReturnCode.RC404.getCode(), "热点窗口{0}不存在", window);
+		}
+		return render(snapshot, acceptEncoding);
+	}
+
+	// 查询分类热点top-N（window为1h、24h、7d）
+	@GetMapping("/hot/{window}/category/{categoryId}")
+	public ResponseEntity<byte[]> getCategoryHot(@PathVariable("window") String window,
+												 @PathVariable("categoryId") Long categoryId,
+												 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		HotNewsSnapshot snapshot = hotNewsCacheService.getCategorySnapshot(window, categoryId);
+		if (snapshot == null) {
+			throw new BusinessException(ReturnCode.RC404.getCode(), "热点窗口{0}或新闻分类{1}不存在", window, String.valueOf(categoryId));
+		}
+		return render(snapshot, acceptEncoding);
+	}
+
+	// 查询飙升新闻（近期事件速度相对自身基线的z分数最高的新闻，与累计热度互补）
+	@GetMapping("/trending")
+	public Result<List<TrendingNews>> getTrending() {
+		return Result.success(hotNewsCacheService.getTrendingNews());
+	}
+
+	// 输出快照的响应体（客户端支持gzip时输出预先压缩的版本，并使用gzip版本的ETag）
+	private ResponseEntity<byte[]> render(HotNewsSnapshot snapshot, String acceptEncoding) {
+		boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+		byte[] body = gzip ? snapshot.getGzip() : snapshot.getJson();
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+				.eTag(gzip ? snapshot.getGzipEtag() : snapshot.getEtag())
+				.cacheControl(CacheControl.noCache()) // 客户端每次都需要携带ETag验证
+				.varyBy(HttpHeaders.ACCEPT_ENCODING)
+				.contentType(MediaType.APPLICATION_JSON)
+				.contentLength(body.length);
+		if (gzip) builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		return builder.body(body);
+	}
+}
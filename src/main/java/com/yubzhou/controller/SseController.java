@@ -1,10 +1,16 @@
 package com.yubzhou.controller;
 
+import com.yubzhou.common.HotNewsSnapshot;
+import com.yubzhou.common.ReturnCode;
+import com.yubzhou.consumer.HotNewsCacheService;
+import com.yubzhou.exception.BusinessException;
+import com.yubzhou.properties.HotNewsProperties;
 import com.yubzhou.service.SseAsyncService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -19,10 +25,16 @@ import java.util.UUID;
 public class SseController {
 
 	private final SseAsyncService sseAsyncServiceImpl;
+	private final HotNewsCacheService hotNewsCacheService;
+	private final HotNewsProperties hotNewsProperties;
 
 	@Autowired
-	public SseController(SseAsyncService sseAsyncServiceImpl) {
+	public SseController(SseAsyncService sseAsyncServiceImpl,
+						 HotNewsCacheService hotNewsCacheService,
+						 HotNewsProperties hotNewsProperties) {
 		this.sseAsyncServiceImpl = sseAsyncServiceImpl;
+		this.hotNewsCacheService = hotNewsCacheService;
+		this.hotNewsProperties = hotNewsProperties;
 	}
 
 	// 客户端订阅SSE
@@ -39,4 +51,17 @@ public class SseController {
 		log.info("Client subscribed, requestId: {}", requestId);
 		return emitter;
 	}
-}
\ No newline at end of file
+
+	// 订阅热点列表（window为1h、24h、7d或配置的热点窗口）：
+	// 先推送snapshot事件（与 /api/news/hot/{window} 的响应体相同），之后只在排名或成员变化时推送diff事件
+	@GetMapping(value = "/hot/{window}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter subscribeHotNews(@PathVariable("window") String window) {
+		HotNewsSnapshot snapshot = hotNewsCacheService.getWindowSnapshot(window);
+		if (snapshot == null) {
+			throw new BusinessException(ReturnCode.RC404.getCode(), "热点窗口{0}不存在", window);
+		}
+		SseEmitter emitter = new SseEmitter(hotNewsProperties.getStream().getTimeoutMillis());
+		sseAsyncServiceImpl.subscribeHotNews(window, emitter, snapshot);
+		return emitter;
+	}
+}
@@ -3,8 +3,11 @@ package com.yubzhou.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.yubzhou.model.po.News;
 import com.yubzhou.common.MinAndMaxId;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 import java.util.List;
 
@@ -13,6 +16,24 @@ public interface NewsMapper extends BaseMapper<News> {
 	@Select("SELECT MIN(id) AS minId, MAX(id) AS maxId FROM news")
 	MinAndMaxId getMinAndMaxId();
 
+	// 批量更新新闻指标（浏览量、支持数、反对数、评论数、收藏数），SQL见NewsMapper.xml
+	int batchUpdateMetrics(@Param("list") List<News> newsList);
+
+	// 流式读取ID范围 (fromId, toId] 内新闻的指标（fetchSize为Integer.MIN_VALUE时MySQL驱动逐行返回结果，需在事务内遍历）
+	@Select("""
+			SELECT id, views, supports, opposes, comments, favorites, created_at, updated_at
+			FROM news
+			WHERE id > #{fromId} AND id <= #{toId}
+			ORDER BY id
+			""")
+	@Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+	Cursor<News> streamMetrics(@Param("fromId") long fromId, @Param("toId") long toId);
+
+	// 流式读取全部新闻ID（构建新闻ID布隆过滤器，需在事务内遍历）
+	@Select("SELECT id FROM news")
+	@Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+	Cursor<Long> streamIds();
+
 	// 全文搜索
 	@Select("SELECT * FROM news WHERE MATCH(title) AGAINST(#{keyword}) LIMIT #{limit}")
 	List<News> fulltextSearch(@Param("keyword") String keyword, @Param("limit") int limit);
@@ -55,13 +55,20 @@ public class News {
 		this.id = userId;
 	}
 
-	// 将新闻对象转换为Map（redis存储所需）
+	// 将新闻对象转换为Map（redis存储所需，即news:detail:{id}，不包括指标和内容）
 	public Map<String, Object> toRedisMap() {
 		Map<String, Object> map = new HashMap<>();
 		map.put("id", this.getId());
 		map.put("title", this.getTitle());
-		map.put("content", this.getContent());
 		map.put("coverUrl", this.getCoverUrl());
+		map.put("createdAt", this.getCreatedAt());
+		// map.put("updatedAt", this.getUpdatedAt());
+		return map;
+	}
+
+	// 将新闻指标转换为Map（redis存储所需，即news:metrics:{id}，包括计算热度所需的createdAt）
+	public Map<String, Object> toRedisMetricsMap() {
+		Map<String, Object> map = new HashMap<>();
 		map.put("views", this.getViews());
 		map.put("supports", this.getSupports());
 		map.put("opposes", this.getOpposes());
@@ -69,40 +76,42 @@ public class News {
 		map.put("favorites", this.getFavorites());
 		map.put("version", this.getVersion()); // 乐观锁，版本号
 		map.put("createdAt", this.getCreatedAt());
-		// map.put("updatedAt", this.getUpdatedAt());
 		return map;
 	}
 
-	// 将Map转换为新闻对象（从redis中获取的）
-	public static News fromRedisMap(Map<Object, Object> map) {
+	// 将新闻详情、新闻指标和新闻内容转换为新闻对象（从redis中获取的）
+	public static News fromRedisMap(Map<Object, Object> map, Map<Object, Object> metricsMap, String content) {
 		// 从Map中创建新闻对象
 		News news = new News();
 		news.setId(Long.parseLong(map.get("id").toString()));
 		news.setTitle((String) map.get("title"));
-		news.setContent((String) map.get("content"));
+		news.setContent(content);
 		news.setCoverUrl((String) map.get("coverUrl"));
-		news.setViews((Integer) map.get("views"));
-		news.setSupports((Integer) map.get("supports"));
-		news.setOpposes((Integer) map.get("opposes"));
-		news.setComments((Integer) map.get("comments"));
-		news.setFavorites((Integer) map.get("favorites"));
-		news.setVersion((Integer) map.get("version"));
+		news.applyRedisMetrics(metricsMap);
 		news.setCreatedAt(DateTimeUtil.parseLocalDateTimeNoMillis(map.get("createdAt").toString()));
 		// news.setUpdatedAt(DateTimeUtil.parseLocalDateTimeNoMillis(map.get("updatedAt").toString()));
 		return news;
 	}
 
-	// 将Map转换为新闻对象，只要指标字段（从redis中获取的）
-	public static News fromRedisMapForMetrics(Map<Object, Object> map) {
-		// 从Map中创建新闻对象
+	// 复制新闻详情和内容（不包括指标，近端缓存只缓存不随用户行为变化的部分）
+	public News copyWithoutMetrics() {
 		News news = new News();
-		news.setId(Long.parseLong(map.get("id").toString()));
-		news.setViews((Integer) map.get("views"));
-		news.setSupports((Integer) map.get("supports"));
-		news.setOpposes((Integer) map.get("opposes"));
-		news.setComments((Integer) map.get("comments"));
-		news.setFavorites((Integer) map.get("favorites"));
-		news.setVersion((Integer) map.get("version"));
+		news.setId(this.getId());
+		news.setTitle(this.getTitle());
+		news.setContent(this.getContent());
+		news.setCoverUrl(this.getCoverUrl());
+		news.setCreatedAt(this.getCreatedAt());
+		news.setUpdatedAt(this.getUpdatedAt());
 		return news;
 	}
+
+	// 用新闻指标（从redis中获取的news:metrics:{id}）设置指标字段
+	public void applyRedisMetrics(Map<Object, Object> metricsMap) {
+		this.setViews((Integer) metricsMap.get("views"));
+		this.setSupports((Integer) metricsMap.get("supports"));
+		this.setOpposes((Integer) metricsMap.get("opposes"));
+		this.setComments((Integer) metricsMap.get("comments"));
+		this.setFavorites((Integer) metricsMap.get("favorites"));
+		this.setVersion((Integer) metricsMap.get("version"));
+	}
 }
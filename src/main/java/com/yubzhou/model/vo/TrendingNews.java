@@ -0,0 +1,18 @@
+package com.yubzhou.model.vo;
+
+import com.yubzhou.model.po.News;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingNews {
+	private Long newsId;
+	private Integer rank;
+	private Double score; // 相对自身基线的z分数
+	private Double velocity; // 近期每分钟加权事件数
+	private Double acceleration; // 速度相对前一个窗口的变化
+	private News news;
+}
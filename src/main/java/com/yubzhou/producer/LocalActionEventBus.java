@@ -0,0 +1,198 @@
+package com.yubzhou.producer;
+
+import com.yubzhou.common.UserActionEvent;
+import com.yubzhou.consumer.HotNewsService;
+import com.yubzhou.properties.HotNewsProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内的用户行为事件总线（代替 NewsActionProducer → Kafka → HotNewsService.processEvents）
+ * 事件按新闻ID分配到固定的通道，每个通道是一个有界环形队列和一个消费线程，
+ * 消费线程每次取出最多batchSize个事件批量交给HotNewsService处理（同一新闻的事件保持发布顺序）
+ * 用于单机部署、本地压测（无需Kafka、无序列化开销），以及Kafka持续发送失败时的自动降级
+ * 消费线程在通道首次发布事件时才启动（使用Kafka且未降级时不创建线程），均为守护线程，停机时由shutdown处理完剩余事件
+ */
+@Component
+@Slf4j
+public class LocalActionEventBus {
+	private final HotNewsService hotNewsService;
+	private final HotNewsProperties.Transport config;
+	private final Channel[] channels;
+	private volatile boolean shutdown = false;
+
+	// 统计信息
+	private final LongAdder published = new LongAdder(); // 发布成功的事件数
+	private final LongAdder dropped = new LongAdder(); // 队列已满或已关闭而被丢弃的事件数
+	private final LongAdder consumed = new LongAdder(); // 已处理的事件数
+	private final LongAdder batches = new LongAdder(); // 已处理的批次数
+	private final LongAdder failed = new LongAdder(); // 处理失败的事件数
+
+	public LocalActionEventBus(HotNewsService hotNewsService, HotNewsProperties hotNewsProperties) {
+		this.hotNewsService = hotNewsService;
+		this.config = hotNewsProperties.getTransport();
+		int channelCount = Math.max(1, config.getLocalChannels());
+		this.channels = new Channel[channelCount];
+		for (int i = 0; i < channelCount; i++) {
+			channels[i] = new Channel("local-action-bus-" + i, config.getLocalBufferSize());
+		}
+	}
+
+	/**
+	 * 发布用户行为事件（通道已满时最多等待publishTimeoutMillis毫秒）
+	 *
+	 * @return 是否发布成功（失败的事件已被丢弃并计入统计）
+	 */
+	public boolean publish(UserActionEvent event) {
+		return publish(event, config.getLocalPublishTimeoutMillis());
+	}
+
+	/**
+	 * 发布用户行为事件（不等待，通道已满时直接丢弃），用于不能阻塞的线程（如Kafka生产者的网络线程）
+	 *
+	 * @return 是否发布成功（失败的事件已被丢弃并计入统计）
+	 */
+	public boolean tryPublish(UserActionEvent event) {
+		return publish(event, 0);
+	}
+
+	private boolean publish(UserActionEvent event, long timeoutMillis) {
+		if (shutdown) {
+			dropped.increment();
+			return false;
+		}
+		int h = event.getNewsId() == null ? 0 : event.getNewsId().hashCode();
+		Channel channel = channels[Math.floorMod(h ^ (h >>> 16), channels.length)];
+		channel.start();
+		try {
+			if (channel.buffer.offer(event, timeoutMillis, TimeUnit.MILLISECONDS)) {
+				published.increment();
+				return true;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		dropped.increment();
+		log.warn("本地事件总线通道{}已满，丢弃用户行为事件：{}", channel.thread.getName(), event);
+		return false;
+	}
+
+	/**
+	 * 等待所有通道中的事件处理完成（不拒绝新事件，用于停机前处理剩余事件）
+	 *
+	 * @return 是否在超时前全部处理完成
+	 */
+	public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (System.nanoTime() < deadline) {
+			if (published.sum() == consumed.sum() + failed.sum()) return true;
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+		return false;
+	}
+
+	// 关闭事件总线：拒绝新事件，等待通道中剩余的事件处理完成
+	@PreDestroy
+	public void shutdown() {
+		shutdown = true;
+		for (Channel channel : channels) {
+			try {
+				channel.thread.join(TimeUnit.SECONDS.toMillis(10));
+				if (channel.thread.isAlive()) {
+					log.warn("本地事件总线通道{}未能在超时前处理完剩余事件，剩余{}个", channel.thread.getName(), channel.buffer.size());
+					channel.thread.interrupt();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	// 获取事件总线统计信息
+	public Map<String, Object> getStats() {
+		List<Integer> depths = new ArrayList<>(channels.length);
+		int totalDepth = 0;
+		int startedChannels = 0;
+		for (Channel channel : channels) {
+			int depth = channel.buffer.size();
+			depths.add(depth);
+			totalDepth += depth;
+			if (channel.started.get()) startedChannels++;
+		}
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("channels", channels.length);
+		stats.put("startedChannels", startedChannels); // 已启动消费线程的通道数
+		stats.put("bufferSize", config.getLocalBufferSize());
+		stats.put("depth", totalDepth);
+		stats.put("channelDepths", depths);
+		stats.put("published", published.sum());
+		stats.put("dropped", dropped.sum());
+		stats.put("consumed", consumed.sum());
+		stats.put("failed", failed.sum());
+		stats.put("batches", batches.sum());
+		return stats;
+	}
+
+	// 通道：一个有界环形队列（ArrayBlockingQueue）+ 一个消费线程（首次发布事件时启动）
+	private final class Channel implements Runnable {
+		private final BlockingQueue<UserActionEvent> buffer;
+		private final Thread thread;
+		private final AtomicBoolean started = new AtomicBoolean(false);
+
+		Channel(String threadName, int bufferSize) {
+			this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+			this.thread = new Thread(this, threadName);
+			this.thread.setDaemon(true);
+		}
+
+		void start() {
+			if (!started.get() && started.compareAndSet(false, true)) thread.start();
+		}
+
+		@Override
+		public void run() {
+			int batchSize = Math.max(1, config.getLocalBatchSize());
+			List<UserActionEvent> batch = new ArrayList<>(batchSize);
+			while (true) {
+				UserActionEvent first;
+				try {
+					first = buffer.poll(100, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				if (first == null) {
+					// 已关闭且通道已清空，退出消费线程
+					if (shutdown && buffer.isEmpty()) return;
+					continue;
+				}
+
+				// 取出当前积压的事件组成一批
+				batch.add(first);
+				buffer.drainTo(batch, batchSize - 1);
+				try {
+					hotNewsService.applyEvents(batch);
+					consumed.add(batch.size());
+					batches.increment();
+				} catch (Exception e) {
+					failed.add(batch.size());
+					log.error("本地事件总线处理用户行为事件失败（共{}个）", batch.size(), e);
+				} finally {
+					batch.clear();
+				}
+			}
+		}
+	}
+}
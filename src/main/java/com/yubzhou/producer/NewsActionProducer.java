@@ -2,18 +2,65 @@ package com.yubzhou.producer;
 
 import com.yubzhou.common.KafkaConstant;
 import com.yubzhou.common.UserActionEvent;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.serializer.UserActionEventSerializer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
 @Service
+@Slf4j
 public class NewsActionProducer {
 
 	private final KafkaTemplate<String, Object> kafkaTemplate;
+	private final LocalActionEventBus localActionEventBus;
+	private final HotNewsProperties.Transport transportConfig;
+
+	// Kafka连续发送失败次数（发送成功后清零）
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+	// 降级为本地事件总线的截止时间（毫秒时间戳）
+	private volatile long fallbackUntilMillis = 0;
 
+	// 统计信息
+	private final LongAdder kafkaSent = new LongAdder(); // Kafka发送成功的事件数
+	private final LongAdder kafkaFailed = new LongAdder(); // Kafka发送失败的事件数
+	private final LongAdder localRouted = new LongAdder(); // 交给本地事件总线的事件数
+	private final LongAdder fallbackCount = new LongAdder(); // 降级次数
+
+	// 用户行为事件专用的KafkaTemplate：在全局生产者配置的基础上覆盖序列化器、批量发送和压缩配置
+	// （不注册为Bean，否则会覆盖Spring Boot自动配置的全局KafkaTemplate）
 	@Autowired
-	public NewsActionProducer(KafkaTemplate<String, Object> kafkaTemplate) {
-		this.kafkaTemplate = kafkaTemplate;
+	public NewsActionProducer(ProducerFactory<String, Object> producerFactory,
+							  LocalActionEventBus localActionEventBus,
+							  HotNewsProperties hotNewsProperties) {
+		HotNewsProperties.Producer config = hotNewsProperties.getProducer();
+		Map<String, Object> overrides = new HashMap<>();
+		if (config.isBinaryFormat()) {
+			overrides.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, UserActionEventSerializer.class);
+		}
+		overrides.put(ProducerConfig.LINGER_MS_CONFIG, config.getLingerMs());
+		overrides.put(ProducerConfig.BATCH_SIZE_CONFIG, config.getBatchSize());
+		overrides.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, config.getCompressionType());
+		overrides.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, config.getMaxBlockMillis());
+		this.kafkaTemplate = new KafkaTemplate<>(producerFactory, overrides);
+		this.localActionEventBus = localActionEventBus;
+		this.transportConfig = hotNewsProperties.getTransport();
+	}
+
+	// 关闭专用KafkaTemplate创建的生产者（发送缓冲区中的事件）
+	@PreDestroy
+	public void destroy() {
+		kafkaTemplate.destroy();
 	}
 
 	// 处理用户行为事件（比如浏览、收藏、评论新闻等）
@@ -25,13 +72,74 @@ public class NewsActionProducer {
 				System.currentTimeMillis()
 		);
 
+		// 配置为本地传输或处于降级期间，直接交给本地事件总线
+		if (useLocalBus()) {
+			localRouted.increment();
+			localActionEventBus.publish(event);
+			return;
+		}
+
 		// Kafka分区策略：按新闻ID分区保证顺序
 		int partition = newsId.hashCode() % KafkaConstant.USER_ACTION_PARTITIONS;
-		kafkaTemplate.send(
-				KafkaConstant.USER_ACTION_TOPIC, // 主题
-				partition, // 分区
-				String.valueOf(newsId), // key
-				event // value
-		);
+		try {
+			kafkaTemplate.send(
+					KafkaConstant.USER_ACTION_TOPIC, // 主题
+					partition, // 分区
+					String.valueOf(newsId), // key
+					event // value
+			).whenComplete((result, e) -> {
+				if (e == null) onSendSuccess();
+				else onSendFailure(event, e);
+			});
+		} catch (Exception e) {
+			onSendFailure(event, e);
+		}
+	}
+
+	// 获取传输统计信息
+	public Map<String, Object> getStats() {
+		long fallbackUntil = fallbackUntilMillis;
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("mode", transportConfig.getMode());
+		stats.put("fallbackActive", System.currentTimeMillis() < fallbackUntil);
+		stats.put("fallbackUntil", fallbackUntil);
+		stats.put("consecutiveFailures", consecutiveFailures.get());
+		stats.put("fallbackCount", fallbackCount.sum());
+		stats.put("kafkaSent", kafkaSent.sum());
+		stats.put("kafkaFailed", kafkaFailed.sum());
+		stats.put("localRouted", localRouted.sum());
+		stats.put("localBus", localActionEventBus.getStats());
+		return stats;
+	}
+
+	private boolean useLocalBus() {
+		return transportConfig.getMode() == HotNewsProperties.TransportMode.LOCAL
+				|| System.currentTimeMillis() < fallbackUntilMillis;
+	}
+
+	private void onSendSuccess() {
+		kafkaSent.increment();
+		consecutiveFailures.set(0);
+	}
+
+	// 发送失败：开启自动降级时将事件交给本地事件总线（发送超时的事件可能已写入Kafka，此时会重复处理一次），
+	// 连续失败次数达到阈值后，在降级持续时间内所有事件都直接交给本地事件总线
+	private void onSendFailure(UserActionEvent event, Throwable e) {
+		kafkaFailed.increment();
+		int failures = consecutiveFailures.incrementAndGet();
+		if (!transportConfig.isAutoFallback()) {
+			log.error("用户行为事件发送到Kafka失败：{}", event, e);
+			return;
+		}
+
+		localRouted.increment();
+		// 可能在Kafka生产者的网络线程中执行（whenComplete回调），不能等待通道腾出空间，已满时直接丢弃并计入统计
+		localActionEventBus.tryPublish(event);
+		long now = System.currentTimeMillis();
+		if (failures >= transportConfig.getFailureThreshold() && now >= fallbackUntilMillis) {
+			fallbackUntilMillis = now + transportConfig.getFallbackMillis();
+			fallbackCount.increment();
+			log.warn("Kafka连续{}次发送失败，{}毫秒内用户行为事件改由本地事件总线处理", failures, transportConfig.getFallbackMillis(), e);
+		}
 	}
 }
@@ -0,0 +1,85 @@
+package com.yubzhou.producer;
+
+import com.yubzhou.common.KafkaConstant;
+import com.yubzhou.common.UserActionEvent;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.serializer.UserActionEventSerializer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户行为事件的死信发布（user_actions-dlt 主题，分区数与 user_actions 相同）
+ * 重试后仍处理失败的事件写入死信主题，不再被跳过，由人工排查后重新投递
+ */
+@Component
+@Slf4j
+public class UserActionDeadLetterPublisher {
+
+	private final KafkaTemplate<Object, Object> kafkaTemplate;
+	private final long timeoutMillis;
+	private final LongAdder published = new LongAdder(); // 写入死信主题的事件数
+
+	// 死信专用的KafkaTemplate：与user_actions相同的二进制序列化器
+	// （不注册为Bean，否则会覆盖Spring Boot自动配置的全局KafkaTemplate）
+	@Autowired
+	@SuppressWarnings("unchecked")
+	public UserActionDeadLetterPublisher(ProducerFactory<String, Object> producerFactory,
+										 HotNewsProperties hotNewsProperties) {
+		Map<String, Object> overrides = Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, UserActionEventSerializer.class);
+		this.kafkaTemplate = new KafkaTemplate<>((ProducerFactory<Object, Object>) (ProducerFactory<?, ?>) producerFactory, overrides);
+		this.timeoutMillis = hotNewsProperties.getConsumer().getDeadLetterTimeoutMillis();
+	}
+
+	@PreDestroy
+	public void destroy() {
+		kafkaTemplate.destroy();
+	}
+
+	/**
+	 * 将事件写入死信主题，等待全部写入成功后返回
+	 *
+	 * @param events 重试后仍处理失败的事件
+	 * @throws IllegalStateException 写入失败或超时
+	 */
+	public void publish(List<UserActionEvent> events) {
+		List<CompletableFuture<?>> futures = new ArrayList<>(events.size());
+		for (UserActionEvent event : events) {
+			int partition = event.getNewsId().hashCode() % KafkaConstant.USER_ACTION_PARTITIONS;
+			futures.add(kafkaTemplate.send(KafkaConstant.USER_ACTION_DLT_TOPIC, partition, String.valueOf(event.getNewsId()), event));
+		}
+		try {
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("用户行为事件写入死信主题被中断", e);
+		} catch (Exception e) {
+			throw new IllegalStateException("用户行为事件写入死信主题失败", e);
+		}
+		published.add(events.size());
+		log.error("{}个用户行为事件重试后仍处理失败，已写入死信主题{}", events.size(), KafkaConstant.USER_ACTION_DLT_TOPIC);
+	}
+
+	// 监听容器错误处理器的恢复器（监听方法整体失败且重试次数用尽后，将整批事件写入死信主题的原分区）
+	public DeadLetterPublishingRecoverer recoverer() {
+		return new DeadLetterPublishingRecoverer(kafkaTemplate,
+				(record, e) -> new TopicPartition(KafkaConstant.USER_ACTION_DLT_TOPIC, record.partition()));
+	}
+
+	public long getPublished() {
+		return published.sum();
+	}
+}
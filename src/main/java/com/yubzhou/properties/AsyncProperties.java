@@ -14,6 +14,7 @@ public class AsyncProperties {
 	private PoolConfig sse;      // 对应 async.sse.*
 	private PoolConfig upload;   // 对应 async.upload.*
 	private PoolConfig global;  // 对应 async.global.*
+	private LaneConfig hotNewsLane = new LaneConfig(); // 对应 async.hot-news-lane.*
 
 	@Getter
 	@Setter
@@ -30,4 +31,16 @@ public class AsyncProperties {
 		private boolean waitForTasksToCompleteOnShutdown = true; // 是否等待任务完成再关闭
 		private int awaitTerminationSeconds = 60; // 等待任务完成的超时时间（秒），超时后强制关闭线程池
 	}
-}
\ No newline at end of file
+
+	// 按键有序的分道执行器配置（用户行为事件按新闻ID分道执行）
+	@Getter
+	@Setter
+	@ToString
+	public static class LaneConfig {
+		private int laneCount = SystemInfo.AVAILABLE_PROCESSORS; // 执行道数（每个执行道一个线程）
+		private int queueCapacity = 1000; // 每个执行道的队列容量
+		private long offerTimeoutMillis = 1000; // 队列已满时提交任务的最长等待时间（毫秒），超时后拒绝任务
+		private String threadNamePrefix = "hot-news-lane-"; // 线程名前缀
+		private int awaitTerminationSeconds = 30; // 关闭时等待剩余任务完成的超时时间（秒）
+	}
+}
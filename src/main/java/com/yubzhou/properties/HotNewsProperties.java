@@ -0,0 +1,260 @@
+package com.yubzhou.properties;
+
+import com.yubzhou.common.KafkaConstant;
+import com.yubzhou.common.SystemInfo;
+import com.yubzhou.util.HotNewsUtil;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@ConfigurationProperties(prefix = "hot-news")  // 绑定 application.yml 中 hot-news 开头的配置
+public class HotNewsProperties {
+	private Transport transport = new Transport(); // 对应 hot-news.transport.*
+	private Producer producer = new Producer(); // 对应 hot-news.producer.*
+	private Consumer consumer = new Consumer(); // 对应 hot-news.consumer.*
+	private MetricsFlush metricsFlush = new MetricsFlush(); // 对应 hot-news.metrics-flush.*
+	private Aggregation aggregation = new Aggregation(); // 对应 hot-news.aggregation.*
+	private Scoring scoring = new Scoring(); // 对应 hot-news.scoring.*
+	private Backpressure backpressure = new Backpressure(); // 对应 hot-news.backpressure.*
+	private TopK topK = new TopK(); // 对应 hot-news.top-k.*
+	private Windows windows = new Windows(); // 对应 hot-news.windows.*
+	private CategoryHot categoryHot = new CategoryHot(); // 对应 hot-news.category-hot.*
+	private Leader leader = new Leader(); // 对应 hot-news.leader.*
+	private Stream stream = new Stream(); // 对应 hot-news.stream.*
+	private Rebuild rebuild = new Rebuild(); // 对应 hot-news.rebuild.*
+	private ActionRate actionRate = new ActionRate(); // 对应 hot-news.action-rate.*
+	private Trending trending = new Trending(); // 对应 hot-news.trending.*
+	private NearCache nearCache = new NearCache(); // 对应 hot-news.near-cache.*
+	private BloomFilter bloomFilter = new BloomFilter(); // 对应 hot-news.bloom-filter.*
+	private NewsCache newsCache = new NewsCache(); // 对应 hot-news.news-cache.*
+
+	// 用户行为事件传输方式配置
+	@Getter
+	@Setter
+	@ToString
+	public static class Transport {
+		private TransportMode mode = TransportMode.KAFKA; // 传输方式
+		private boolean autoFallback = true; // Kafka连续发送失败时是否自动降级为本地事件总线
+		private int failureThreshold = 5; // 触发降级的连续发送失败次数
+		private long fallbackMillis = 30_000; // 降级持续时间（毫秒），之后重新尝试Kafka
+		private int localChannels = SystemInfo.AVAILABLE_PROCESSORS; // 本地事件总线的通道数（每个通道一个消费线程）
+		private int localBufferSize = 8192; // 每个通道的环形队列容量
+		private int localBatchSize = 500; // 每批最多处理的事件数
+		private long localPublishTimeoutMillis = 100; // 通道已满时发布事件的最长等待时间（毫秒），超时后丢弃事件
+	}
+
+	public enum TransportMode {
+		KAFKA, // 通过Kafka传输（user_actions主题）
+		LOCAL // 通过进程内的本地事件总线传输（单机部署、本地压测）
+	}
+
+	// 用户行为事件（user_actions）生产者配置（在全局生产者配置的基础上覆盖）
+	@Getter
+	@Setter
+	@ToString
+	public static class Producer {
+		private boolean binaryFormat = true; // 是否使用二进制格式（false则使用JSON格式，消费者两种格式都支持）
+		private int lingerMs = 10; // 发送前等待更多事件组成一批的最长时间（毫秒）
+		private int batchSize = 64 * 1024; // 每个分区一批事件的最大字节数
+		private String compressionType = "lz4"; // 压缩算法（none、gzip、snappy、lz4、zstd）
+		private long maxBlockMillis = 1000; // 获取元数据或缓冲区已满时send方法的最长阻塞时间（毫秒），避免Kafka不可用时长时间阻塞请求线程
+	}
+
+	// 用户行为事件（user_actions）消费者配置
+	@Getter
+	@Setter
+	@ToString
+	public static class Consumer {
+		private int maxPollRecords = 500; // 每次poll最多拉取的事件数（即每批最多处理的事件数）
+		private int concurrency = KafkaConstant.USER_ACTION_PARTITIONS; // 消费者线程数（不超过分区数）
+		private long retryIntervalMillis = 1000; // 处理失败后的重试间隔（毫秒）
+		private long maxRetries = 2; // 处理失败后的最大重试次数（超过后写入死信主题）
+		private long deadLetterTimeoutMillis = 5000; // 写入死信主题的超时时间（毫秒）
+	}
+
+	// 新闻指标写回数据库（write-behind）配置
+	@Getter
+	@Setter
+	@ToString
+	public static class MetricsFlush {
+		private long intervalMillis = 5000; // 批量写回数据库的间隔（毫秒）
+		private int batchSize = 500; // 每条批量UPDATE语句最多更新的新闻数
+	}
+
+	// 用户行为事件进程内聚合配置（浏览、评论等事件先在内存中合并，再定时批量写入redis）
+	@Getter
+	@Setter
+	@ToString
+	public static class Aggregation {
+		private boolean enabled = true; // 是否开启聚合
+		private long flushIntervalMillis = 300; // 将累计增量写入redis的间隔（毫秒）
+		private int maxKeys = 10_000; // 最多同时存在的计数单元数（新闻ID×行为类型），超过后事件不再聚合
+		private int stripes = 8; // 每个计数单元的分段数（取不小于该值的2的幂）
+	}
+
+	// 热度计算配置
+	@Getter
+	@Setter
+	@ToString
+	public static class Scoring {
+		private HotNewsUtil.ScoreMode mode = HotNewsUtil.ScoreMode.DECAY; // 热度计算模式（DECAY：衰减热度，LOG_TIME：对数时间热度）
+		private long logTimeTauHours = 24; // 对数时间热度的时间常数τ（小时）
+	}
+
+	// 用户行为事件消费者背压配置（按执行道队列的使用率暂停、恢复user_actions监听容器）
+	@Getter
+	@Setter
+	@ToString
+	public static class Backpressure {
+		private boolean enabled = true; // 是否开启背压
+		private double highWaterMark = 0.8; // 高水位：任一执行道队列使用率达到该值时暂停拉取事件
+		private double lowWaterMark = 0.3; // 低水位：所有执行道队列使用率都降到该值以下时恢复拉取事件
+		private long checkIntervalMillis = 100; // 检查队列使用率的间隔（毫秒）
+	}
+
+	// 进程内热点新闻近似Top-K统计配置（24小时、7天热点直接由用户行为事件驱动，不依赖redis的窗口合并）
+	@Getter
+	@Setter
+	@ToString
+	public static class TopK {
+		private boolean enabled = true; // 是否开启（统计的新闻数不足k条时仍使用redis窗口合并的结果）
+		private int k = 10; // 热点新闻数
+		private int capacity = 1000; // 每个时间桶最多保留的新闻数（内存上界）
+		private long refreshMillis = 5000; // 主节点由统计刷新24小时、7天热点缓存的间隔（毫秒）
+	}
+
+	// 热点窗口配置（每个窗口由已结束部分和当前小时组成，已结束部分按小时增量维护）
+	@Getter
+	@Setter
+	@ToString
+	public static class Windows {
+		// 窗口列表（1h、24h、7d为内置热点接口使用的窗口，不配置时内置接口回退为全量合并）
+		private List<HotWindow> definitions = new ArrayList<>(List.of(
+				new HotWindow("1h", 1), new HotWindow("24h", 24), new HotWindow("7d", 168)));
+		private long refreshIntervalMillis = 300_000; // 自定义窗口top10缓存的刷新间隔（毫秒）
+		private int catchUpHours = 48; // 停机后最多逐小时补齐的小时数，超过后直接全量重建窗口
+	}
+
+	// 热点窗口：名称（即接口路径中的窗口名）、窗口长度（小时）
+	@Getter
+	@Setter
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class HotWindow {
+		private String name;
+		private int hours;
+	}
+
+	// 分类热点配置（刷新1h、24h、7d热点时，将合并后的窗口与每个分类的新闻集合求交集）
+	@Getter
+	@Setter
+	@ToString
+	public static class CategoryHot {
+		private boolean enabled = true; // 是否开启
+		private int topN = 10; // 每个分类的热点新闻数
+		private int parallelism = 4; // 并行刷新的任务数（分类被均分到各任务，每个任务一次pipeline）
+		private long timeoutMillis = 3000; // 一次刷新的最长等待时间（毫秒），超时未完成的分类保留旧的缓存
+	}
+
+	// 热点缓存刷新主节点配置（多实例部署时只有持有租约的节点执行合并，其他节点通过发布订阅接收快照）
+	@Getter
+	@Setter
+	@ToString
+	public static class Leader {
+		private boolean enabled = true; // 是否开启（关闭时每个节点都自己合并、刷新）
+		private long leaseMillis = 30_000; // 租约时长（毫秒），主节点宕机后最迟经过该时长由其他节点接管
+		private long heartbeatMillis = 10_000; // 续约、竞选的间隔（毫秒），应明显小于租约时长
+	}
+
+	// 热点列表SSE推送配置（/sse/hot/{window}）
+	@Getter
+	@Setter
+	@ToString
+	public static class Stream {
+		private int bufferSize = 8; // 每个连接最多积压的待推送事件数，超过后断开该连接（慢消费者）
+		private long timeoutMillis = 1_800_000; // 连接超时时间（毫秒），超时后由客户端重新订阅
+		private int writerThreads = 4; // 写出线程数（同一连接同时只有一个写出任务）
+		private long writeTimeoutMillis = 5_000; // 单次写出的超时时间（毫秒），超时未完成的连接被断开（慢消费者）
+	}
+
+	// 热点ZSet重建任务配置（/private/hot/rebuild）
+	@Getter
+	@Setter
+	@ToString
+	public static class Rebuild {
+		private long chunkSize = 100_000; // 每次流式查询的ID范围大小
+		private int batchSize = 2_000; // 每批计算热度、写入redis的新闻数
+		private int parallelism = SystemInfo.AVAILABLE_PROCESSORS; // 计算热度的并行度
+	}
+
+	// 用户行为事件统计配置（/private/metrics/events）
+	@Getter
+	@Setter
+	@ToString
+	public static class ActionRate {
+		private long refreshMinEvents = 1; // 刷新热点缓存所需的最少事件数（时间窗口内的事件数少于该值时跳过刷新）
+	}
+
+	// 飙升新闻检测配置（/api/news/trending）
+	@Getter
+	@Setter
+	@ToString
+	public static class Trending {
+		private boolean enabled = true; // 是否开启
+		private int k = 10; // 飙升新闻数
+		private int windowMinutes = 5; // 近期窗口（分钟），速度为该窗口内的每分钟加权事件数
+		private int baselineMinutes = 60; // 基线EWMA的跨度（分钟）
+		private double minRecentWeight = 5; // 参与排名所需的近期窗口最少加权事件数（过滤偶发的零星事件）
+		private int maxTracked = 20_000; // 最多跟踪的新闻数（内存上界）
+		private int evictionSamples = 5; // 跟踪的新闻数已满时，为新的新闻抽样淘汰冷门新闻的抽样数
+		private int idleMinutes = 60; // 超过该时长没有事件的新闻被淘汰（分钟）
+		private long refreshMillis = 1000; // 飙升新闻列表（包括新闻详情）的缓存时间（毫秒）
+	}
+
+	// 新闻详情的进程内近端缓存配置（位于redis新闻缓存之前）
+	@Getter
+	@Setter
+	@ToString
+	public static class NearCache {
+		private boolean enabled = true; // 是否开启
+		private long maxWeightBytes = 64L * 1024 * 1024; // 缓存新闻的估算总大小上限（字节），超过后按W-TinyLFU淘汰
+		private long expireAfterWriteMillis = 30_000; // 写入后的过期时间（毫秒），作为失效消息丢失时的兜底
+	}
+
+	// 新闻ID布隆过滤器配置（防止不存在的新闻ID穿透到redis和数据库）
+	@Getter
+	@Setter
+	@ToString
+	public static class BloomFilter {
+		private boolean enabled = true; // 是否开启
+		private long expectedInsertions = 1_000_000; // 预期的新闻数（超过后误判率升高）
+		private double falsePositiveRate = 0.01; // 误判率（预期新闻数为100万、误判率为1%时约占用1.2MB内存）
+		private long syncMillis = 60_000; // 与redis位图双向合并的间隔（毫秒），作为新增新闻广播消息丢失时的兜底
+	}
+
+	// redis新闻缓存的存储格式配置
+	@Getter
+	@Setter
+	@ToString
+	public static class NewsCache {
+		private NewsCacheFormat format = NewsCacheFormat.HASH; // 新闻详情和内容的存储格式
+		private boolean compressionEnabled = false; // 是否压缩较大的新闻内容（Deflate，所有节点升级完成后再开启）
+		private int compressThresholdBytes = 2048; // 压缩阈值（新闻内容的UTF-8字节数不小于该值时压缩）
+		private int compressLevel = 1; // 压缩级别（1-9，1最快）
+	}
+
+	public enum NewsCacheFormat {
+		HASH, // 新闻详情Hash（每个字段单独JSON编码）+ 新闻内容字符串
+		BINARY // 二进制编码的单个字符串（news:blob:{id}，见NewsBinaryCodec）
+	}
+}
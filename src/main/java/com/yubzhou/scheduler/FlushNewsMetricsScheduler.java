@@ -0,0 +1,43 @@
+package com.yubzhou.scheduler;
+
+import com.yubzhou.consumer.HotNewsService;
+import com.yubzhou.consumer.NewsMetricsFlushService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// 新闻指标批量写入定时任务（进程内聚合的增量写入redis、redis中的指标写回数据库）
+@Component
+@Slf4j
+public class FlushNewsMetricsScheduler {
+
+	private final HotNewsService hotNewsService;
+	private final NewsMetricsFlushService newsMetricsFlushService;
+
+	@Autowired
+	public FlushNewsMetricsScheduler(HotNewsService hotNewsService, NewsMetricsFlushService newsMetricsFlushService) {
+		this.hotNewsService = hotNewsService;
+		this.newsMetricsFlushService = newsMetricsFlushService;
+	}
+
+	// 将进程内聚合的浏览、评论等增量写入redis（间隔由 hot-news.aggregation.flush-interval-millis 配置，默认300毫秒）
+	@Scheduled(fixedDelayString = "${hot-news.aggregation.flush-interval-millis:300}")
+	public void flushAggregatedActions() {
+		try {
+			hotNewsService.flushAggregatedActions();
+		} catch (Exception e) {
+			log.error("定时写入聚合的用户行为增量失败", e);
+		}
+	}
+
+	// 批量写回脏新闻指标（间隔由 hot-news.metrics-flush.interval-millis 配置，默认5秒）
+	@Scheduled(fixedDelayString = "${hot-news.metrics-flush.interval-millis:5000}", initialDelay = 10_000)
+	public void flushNewsMetrics() {
+		try {
+			newsMetricsFlushService.flush();
+		} catch (Exception e) {
+			log.error("定时写回新闻指标失败", e);
+		}
+	}
+}
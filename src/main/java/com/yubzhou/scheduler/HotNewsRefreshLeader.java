@@ -0,0 +1,97 @@
+package com.yubzhou.scheduler;
+
+import com.yubzhou.common.RedisConstant;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.util.RedisLockUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 热点缓存刷新主节点选举（基于redis租约）
+ * 每个节点定时竞选：未持有租约时尝试获取（SET NX PX），持有租约时续约（只有租约标识一致才续约）；
+ * 只有主节点执行热点ZSet的合并和缓存刷新，并通过发布订阅广播快照，其他节点只接收快照。
+ * 主节点宕机或与redis断开后不再续约，租约过期后由其他节点接管；
+ * 主节点自身超过租约时长未续约成功时也视为失去主节点身份（避免网络分区时出现两个主节点同时刷新）
+ */
+@Component
+@Slf4j
+public class HotNewsRefreshLeader {
+	private final RedisLockUtil redisLockUtil;
+	private final HotNewsProperties.Leader config;
+
+	private volatile String leaseValue; // 持有的租约标识（null表示不是主节点）
+	private volatile long leaseRenewedAt; // 最近一次获取或续约成功的时间（毫秒时间戳）
+	private final LongAdder elected = new LongAdder(); // 成为主节点的次数
+	private final LongAdder lost = new LongAdder(); // 失去主节点身份的次数
+
+	public HotNewsRefreshLeader(RedisLockUtil redisLockUtil, HotNewsProperties hotNewsProperties) {
+		this.redisLockUtil = redisLockUtil;
+		this.config = hotNewsProperties.getLeader();
+	}
+
+	// 当前节点是否为主节点（未开启主节点选举时每个节点都是主节点）
+	public boolean isLeader() {
+		if (!config.isEnabled()) return true;
+		return leaseValue != null && System.currentTimeMillis() - leaseRenewedAt < config.getLeaseMillis();
+	}
+
+	// 续约或竞选（间隔由 hot-news.leader.heartbeat-millis 配置，默认10秒）
+	@Scheduled(fixedDelayString = "${hot-news.leader.heartbeat-millis:10000}")
+	public synchronized void heartbeat() {
+		if (!config.isEnabled()) return;
+		try {
+			String current = leaseValue;
+			if (current != null) {
+				if (redisLockUtil.renewLease(RedisConstant.HOT_NEWS_REFRESH_LEADER, current, config.getLeaseMillis())) {
+					leaseRenewedAt = System.currentTimeMillis();
+					return;
+				}
+				leaseValue = null;
+				lost.increment();
+				log.warn("热点缓存刷新主节点租约已失效，重新竞选");
+			}
+			String acquired = redisLockUtil.tryLock(RedisConstant.HOT_NEWS_REFRESH_LEADER, config.getLeaseMillis());
+			if (acquired != null) {
+				leaseRenewedAt = System.currentTimeMillis();
+				leaseValue = acquired;
+				elected.increment();
+				log.info("当前节点成为热点缓存刷新主节点");
+			}
+		} catch (Exception e) {
+			// 无法访问redis时保留租约标识，超过租约时长后isLeader()自动返回false
+			log.error("热点缓存刷新主节点续约或竞选失败", e);
+		}
+	}
+
+	// 停机时主动释放租约，其他节点在下一次竞选时即可接管
+	@PreDestroy
+	public synchronized void release() {
+		String current = leaseValue;
+		if (current == null) return;
+		leaseValue = null;
+		try {
+			redisLockUtil.unlock(RedisConstant.HOT_NEWS_REFRESH_LEADER, current);
+			log.info("已释放热点缓存刷新主节点租约");
+		} catch (Exception e) {
+			log.warn("释放热点缓存刷新主节点租约失败，等待租约过期", e);
+		}
+	}
+
+	// 获取主节点选举统计信息
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", config.isEnabled());
+		stats.put("leader", isLeader());
+		stats.put("leaseMillis", config.getLeaseMillis());
+		stats.put("leaseAgeMillis", leaseValue == null ? null : System.currentTimeMillis() - leaseRenewedAt);
+		stats.put("elected", elected.sum());
+		stats.put("lost", lost.sum());
+		return stats;
+	}
+}
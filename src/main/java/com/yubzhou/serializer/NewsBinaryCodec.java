@@ -0,0 +1,183 @@
+package com.yubzhou.serializer;
+
+import com.yubzhou.model.po.News;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 新闻缓存的二进制编解码（hot-news.news-cache.format=BINARY时，新闻详情和内容保存为一个redis字符串 news:blob:{id}）
+ * 变长二进制格式（版本1），不包含字段名：
+ * <pre>
+ * 魔数(1) | 版本号(1) | 空值标记(1) | 新闻ID(8) | 创建时间(8) | 标题 | 封面URL | 内容
+ * </pre>
+ * 创建时间为epoch毫秒（LocalDateTime按UTC换算，与服务器时区无关），字符串为 长度(varint) + UTF-8字节，
+ * 空值标记的每一位表示对应字段是否为null（为null时不写入该字段）。
+ * 版本2：内容可以压缩（空值标记的CONTENT_DEFLATED位），压缩的内容为 原始长度(varint) + Deflate数据长度(varint) + Deflate数据，
+ * 只有内容被压缩时才写入版本2，未压缩的新闻仍写入版本1（旧版本的节点可以读取）。
+ * 新闻指标不在其中：指标由Lua脚本原子地HINCRBY，仍保存在 news:metrics:{id} Hash中
+ */
+public final class NewsBinaryCodec {
+	// 魔数（区别于JSON编码的值，JSON总是以'"'、'{'、'['、数字等可打印字符开头）
+	public static final byte MAGIC = (byte) 0xB7;
+	// 当前格式版本号（不兼容的格式变化时递增，decode需同时支持旧版本）
+	public static final byte VERSION_1 = 1;
+	public static final byte VERSION_2 = 2;
+	// 版本1的固定长度部分（字节）
+	static final int VERSION_1_HEADER_LENGTH = 1 + 1 + 1 + Long.BYTES + Long.BYTES;
+
+	// 空值标记位
+	static final int NULL_ID = 1;
+	static final int NULL_CREATED_AT = 1 << 1;
+	static final int NULL_TITLE = 1 << 2;
+	static final int NULL_COVER_URL = 1 << 3;
+	static final int NULL_CONTENT = 1 << 4;
+	static final int CONTENT_DEFLATED = 1 << 5; // 内容已压缩（版本2）
+
+	private NewsBinaryCodec() {
+	}
+
+	// 编码新闻详情和内容（不包括指标，不压缩内容）
+	public static byte[] encode(News news) {
+		return encode(news, null);
+	}
+
+	/**
+	 * 编码新闻详情和内容（不包括指标）
+	 *
+	 * @param compressor 新闻内容压缩（为null时不压缩）
+	 */
+	public static byte[] encode(News news, NewsContentCompressor compressor) {
+		byte[] title = utf8(news.getTitle());
+		byte[] coverUrl = utf8(news.getCoverUrl());
+		byte[] content = utf8(news.getContent());
+		byte[] deflated = content == null || compressor == null ? null : compressor.compress(content);
+
+		int nullFlags = 0;
+		if (news.getId() == null) nullFlags |= NULL_ID;
+		if (news.getCreatedAt() == null) nullFlags |= NULL_CREATED_AT;
+		if (title == null) nullFlags |= NULL_TITLE;
+		if (coverUrl == null) nullFlags |= NULL_COVER_URL;
+		if (content == null) nullFlags |= NULL_CONTENT;
+		if (deflated != null) nullFlags |= CONTENT_DEFLATED;
+
+		int contentSize = deflated == null ? sizeOf(content) : sizeOfVarint(content.length) + sizeOf(deflated);
+		ByteBuffer buffer = ByteBuffer.allocate(VERSION_1_HEADER_LENGTH + sizeOf(title) + sizeOf(coverUrl) + contentSize)
+				.put(MAGIC)
+				.put(deflated == null ? VERSION_1 : VERSION_2)
+				.put((byte) nullFlags)
+				.putLong(news.getId() == null ? 0 : news.getId())
+				.putLong(news.getCreatedAt() == null ? 0 : news.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+		putString(buffer, title);
+		putString(buffer, coverUrl);
+		if (deflated == null) {
+			putString(buffer, content);
+		} else {
+			putVarint(buffer, content.length);
+			putString(buffer, deflated);
+		}
+		return buffer.array();
+	}
+
+	// 解码新闻详情和内容（压缩的内容直接解压，不记录解压统计）
+	public static News decode(byte[] data) {
+		return decode(data, null);
+	}
+
+	/**
+	 * 解码新闻详情和内容（指标字段为null，由调用方从新闻指标Hash中设置）
+	 *
+	 * @param compressor 新闻内容压缩（用于解压并记录解压统计，为null时直接解压）
+	 * @throws IllegalArgumentException 魔数或版本号不支持、数据被截断或损坏时抛出
+	 */
+	public static News decode(byte[] data, NewsContentCompressor compressor) {
+		if (!isBinary(data)) throw new IllegalArgumentException("不是二进制编码的新闻");
+		if (data[1] != VERSION_1 && data[1] != VERSION_2) throw new IllegalArgumentException("不支持的新闻编码版本: " + data[1]);
+		if (data.length < VERSION_1_HEADER_LENGTH) throw new IllegalArgumentException("新闻编码长度错误: " + data.length);
+
+		ByteBuffer buffer = ByteBuffer.wrap(data, 2, data.length - 2);
+		int nullFlags = buffer.get();
+		long id = buffer.getLong();
+		long createdAt = buffer.getLong();
+		News news = new News();
+		news.setId((nullFlags & NULL_ID) != 0 ? null : id);
+		news.setCreatedAt((nullFlags & NULL_CREATED_AT) != 0 ? null
+				: LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAt), ZoneOffset.UTC));
+		try {
+			news.setTitle((nullFlags & NULL_TITLE) != 0 ? null : getString(buffer));
+			news.setCoverUrl((nullFlags & NULL_COVER_URL) != 0 ? null : getString(buffer));
+			if ((nullFlags & NULL_CONTENT) != 0) {
+				news.setContent(null);
+			} else if ((nullFlags & CONTENT_DEFLATED) != 0) {
+				int originalLength = getVarint(buffer);
+				int length = getVarint(buffer);
+				if (length > buffer.remaining()) throw new IllegalArgumentException("字符串长度错误: " + length);
+				int offset = buffer.arrayOffset() + buffer.position();
+				byte[] content = compressor != null ? compressor.decompress(buffer.array(), offset, length, originalLength)
+						: NewsContentCompressor.inflate(buffer.array(), offset, length, originalLength);
+				news.setContent(new String(content, StandardCharsets.UTF_8));
+			} else {
+				news.setContent(getString(buffer));
+			}
+		} catch (IllegalArgumentException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("新闻编码数据被截断", e);
+		}
+		return news;
+	}
+
+	// 判断是否为二进制编码（以魔数开头）
+	public static boolean isBinary(byte[] data) {
+		return data != null && data.length >= 2 && data[0] == MAGIC;
+	}
+
+	private static byte[] utf8(String value) {
+		return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static int sizeOf(byte[] value) {
+		return value == null ? 0 : sizeOfVarint(value.length) + value.length;
+	}
+
+	private static int sizeOfVarint(int value) {
+		int varintBytes = 1;
+		for (; (value & ~0x7F) != 0; value >>>= 7) varintBytes++;
+		return varintBytes;
+	}
+
+	private static void putString(ByteBuffer buffer, byte[] value) {
+		if (value == null) return;
+		putVarint(buffer, value.length);
+		buffer.put(value);
+	}
+
+	private static void putVarint(ByteBuffer buffer, int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	private static String getString(ByteBuffer buffer) {
+		int length = getVarint(buffer);
+		if (length < 0 || length > buffer.remaining()) throw new IllegalArgumentException("字符串长度错误: " + length);
+		String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return value;
+	}
+
+	private static int getVarint(ByteBuffer buffer) {
+		int value = 0;
+		for (int shift = 0; ; shift += 7) {
+			if (shift > 28) throw new IllegalArgumentException("字符串长度错误");
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) return value;
+		}
+	}
+}
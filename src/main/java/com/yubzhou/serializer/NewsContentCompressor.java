@@ -0,0 +1,217 @@
+package com.yubzhou.serializer;
+
+import com.yubzhou.properties.HotNewsProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 新闻内容压缩（Deflate，JDK自带，无需额外依赖）
+ * 只压缩UTF-8字节数不小于 hot-news.news-cache.compress-threshold-bytes 且压缩后更小的内容，
+ * 压缩后的新闻内容（news:content:{id}）格式为：
+ * <pre>
+ * 标记(1) | 原始长度(varint) | Deflate数据（无zlib头）
+ * </pre>
+ * 未压缩的新闻内容仍为JSON字符串（以'"'开头），读取时按首字节区分，因此压缩和未压缩的缓存可以同时存在
+ * （注意：旧版本的节点无法读取压缩的内容，滚动升级完成前应关闭压缩）
+ */
+@Component
+public class NewsContentCompressor implements MeterBinder {
+	// 压缩内容的标记（不是JSON的合法首字节，也区别于NewsBinaryCodec的魔数）
+	public static final byte MARKER = (byte) 0xC5;
+	// 解压后的最大长度（防止错误数据导致分配过大的内存）
+	static final int MAX_ORIGINAL_LENGTH = 64 * 1024 * 1024;
+
+	private final HotNewsProperties.NewsCache config;
+
+	private final LongAdder compressed = new LongAdder(); // 压缩的内容数
+	private final LongAdder skipped = new LongAdder(); // 低于阈值或压缩后不更小而未压缩的内容数
+	private final LongAdder originalBytes = new LongAdder(); // 压缩前的字节数
+	private final LongAdder storedBytes = new LongAdder(); // 压缩后的字节数
+	private final LongAdder compressNanos = new LongAdder();
+	private final LongAdder decompressed = new LongAdder();
+	private final LongAdder decompressNanos = new LongAdder();
+
+	public NewsContentCompressor(HotNewsProperties hotNewsProperties) {
+		this.config = hotNewsProperties.getNewsCache();
+	}
+
+	/**
+	 * 压缩新闻内容
+	 *
+	 * @param content 新闻内容的UTF-8字节
+	 * @return Deflate数据；未开启、低于阈值或压缩后不更小时返回null（调用方保存原始内容）
+	 */
+	public byte[] compress(byte[] content) {
+		if (!config.isCompressionEnabled() || content == null || content.length < config.getCompressThresholdBytes()) {
+			skipped.increment();
+			return null;
+		}
+		long start = System.nanoTime();
+		byte[] deflated = deflate(content, config.getCompressLevel());
+		compressNanos.add(System.nanoTime() - start);
+		if (deflated.length >= content.length) {
+			skipped.increment();
+			return null;
+		}
+		compressed.increment();
+		originalBytes.add(content.length);
+		storedBytes.add(deflated.length);
+		return deflated;
+	}
+
+	/**
+	 * 解压新闻内容
+	 *
+	 * @throws IllegalArgumentException 数据损坏或解压后的长度与原始长度不一致时抛出
+	 */
+	public byte[] decompress(byte[] data, int offset, int length, int originalLength) {
+		long start = System.nanoTime();
+		byte[] content = inflate(data, offset, length, originalLength);
+		decompressNanos.add(System.nanoTime() - start);
+		decompressed.increment();
+		return content;
+	}
+
+	/**
+	 * 转换为新闻内容键（news:content:{id}）的值：达到阈值时压缩，否则按RedisTemplate的序列化方式编码
+	 */
+	public byte[] toRedisValue(String content, RedisSerializer<Object> valueSerializer) {
+		byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+		byte[] deflated = compress(utf8);
+		if (deflated == null) return valueSerializer.serialize(content);
+		ByteArrayOutputStream out = new ByteArrayOutputStream(deflated.length + 6);
+		out.write(MARKER);
+		writeVarint(out, utf8.length);
+		out.write(deflated, 0, deflated.length);
+		return out.toByteArray();
+	}
+
+	/**
+	 * 读取新闻内容键的值（压缩的内容解压，未压缩的内容按RedisTemplate的序列化方式解码）
+	 *
+	 * @throws IllegalArgumentException 压缩的内容无法解压时抛出
+	 */
+	public String fromRedisValue(byte[] value, RedisSerializer<Object> valueSerializer) {
+		if (value == null) return null;
+		if (value.length == 0 || value[0] != MARKER) return (String) valueSerializer.deserialize(value);
+		int originalLength = 0;
+		int position = 1;
+		for (int shift = 0; ; shift += 7) {
+			if (shift > 28 || position >= value.length) throw new IllegalArgumentException("压缩的新闻内容长度错误");
+			byte b = value[position++];
+			originalLength |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) break;
+		}
+		return new String(decompress(value, position, value.length - position, originalLength), StandardCharsets.UTF_8);
+	}
+
+	// 获取统计信息（savedBytes为写入redis时累计节省的字节数）
+	public Map<String, Object> getStats() {
+		long original = originalBytes.sum();
+		long stored = storedBytes.sum();
+		long compressedCount = compressed.sum();
+		long decompressedCount = decompressed.sum();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", config.isCompressionEnabled());
+		stats.put("thresholdBytes", config.getCompressThresholdBytes());
+		stats.put("level", config.getCompressLevel());
+		stats.put("compressed", compressedCount);
+		stats.put("skipped", skipped.sum());
+		stats.put("originalBytes", original);
+		stats.put("storedBytes", stored);
+		stats.put("savedBytes", original - stored);
+		stats.put("ratio", original == 0 ? 1.0 : (double) stored / original);
+		stats.put("compressMillis", TimeUnit.NANOSECONDS.toMillis(compressNanos.sum()));
+		stats.put("decompressed", decompressedCount);
+		stats.put("decompressMillis", TimeUnit.NANOSECONDS.toMillis(decompressNanos.sum()));
+		stats.put("avgDecompressMicros", decompressedCount == 0 ? 0 : decompressNanos.sum() / 1000.0 / decompressedCount);
+		return stats;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("news.cache.content.bytes", originalBytes, LongAdder::sum)
+				.description("压缩的新闻内容的字节数").tag("stage", "original").baseUnit("bytes").register(registry);
+		FunctionCounter.builder("news.cache.content.bytes", storedBytes, LongAdder::sum)
+				.description("压缩的新闻内容的字节数").tag("stage", "stored").baseUnit("bytes").register(registry);
+		FunctionCounter.builder("news.cache.content.skipped", skipped, LongAdder::sum)
+				.description("未压缩的新闻内容数").register(registry);
+		FunctionTimer.builder("news.cache.content.compress", this, c -> c.compressed.sum() + c.skipped.sum(),
+						c -> c.compressNanos.sum(), TimeUnit.NANOSECONDS)
+				.description("压缩新闻内容的耗时").register(registry);
+		FunctionTimer.builder("news.cache.content.decompress", this, c -> c.decompressed.sum(),
+						c -> c.decompressNanos.sum(), TimeUnit.NANOSECONDS)
+				.description("解压新闻内容的耗时").register(registry);
+	}
+
+	// Deflate压缩（无zlib头和校验和）
+	static byte[] deflate(byte[] content, int level) {
+		Deflater deflater = new Deflater(level, true);
+		try {
+			deflater.setInput(content);
+			deflater.finish();
+			byte[] buffer = new byte[Math.max(64, content.length / 2)];
+			int length = 0;
+			while (!deflater.finished()) {
+				if (length == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+				length += deflater.deflate(buffer, length, buffer.length - length);
+			}
+			return Arrays.copyOf(buffer, length);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	// Deflate解压（解压后的长度必须等于原始长度）
+	static byte[] inflate(byte[] data, int offset, int length, int originalLength) {
+		if (originalLength < 0 || originalLength > MAX_ORIGINAL_LENGTH) {
+			throw new IllegalArgumentException("压缩的新闻内容长度错误: " + originalLength);
+		}
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(data, offset, length);
+			byte[] content = new byte[originalLength];
+			int inflated = 0;
+			while (inflated < originalLength) {
+				int n = inflater.inflate(content, inflated, originalLength - inflated);
+				if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) break;
+				inflated += n;
+			}
+			// 原始长度之后不能还有数据
+			if (inflated == originalLength && !inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+				throw new IllegalArgumentException("压缩的新闻内容长度不一致");
+			}
+			if (inflated != originalLength || !inflater.finished()) {
+				throw new IllegalArgumentException("压缩的新闻内容被截断或长度不一致");
+			}
+			return content;
+		} catch (DataFormatException e) {
+			throw new IllegalArgumentException("压缩的新闻内容已损坏", e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private static void writeVarint(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+}
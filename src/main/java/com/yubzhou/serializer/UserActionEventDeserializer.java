@@ -0,0 +1,65 @@
+package com.yubzhou.serializer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yubzhou.common.UserActionEvent;
+import com.yubzhou.common.UserActionEvent.ActionType;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static com.yubzhou.serializer.UserActionEventSerializer.*;
+
+/**
+ * 用户行为事件的反序列化器（Kafka value-deserializer）
+ * 支持UserActionEventSerializer的二进制格式，同时兼容JsonSerializer产生的JSON消息
+ * （以'{'开头，用于切换格式前已写入主题的消息，以及回退到JSON格式的生产者）
+ */
+public class UserActionEventDeserializer implements Deserializer<UserActionEvent> {
+	private static final ActionType[] ACTION_TYPES = ActionType.values();
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+	@Override
+	public UserActionEvent deserialize(String topic, byte[] data) {
+		if (data == null || data.length == 0) return null;
+
+		byte version = data[0];
+		if (version == '{') return fromJson(data);
+		if (version == VERSION_1) return fromVersion1(data);
+		throw new SerializationException("不支持的用户行为事件格式版本: " + version);
+	}
+
+	private static UserActionEvent fromVersion1(byte[] data) {
+		if (data.length != VERSION_1_LENGTH) {
+			throw new SerializationException("用户行为事件长度错误: " + data.length + "，应为" + VERSION_1_LENGTH);
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(data, 1, data.length - 1);
+		int nullFlags = buffer.get();
+		long newsId = buffer.getLong();
+		long userId = buffer.getLong();
+		int ordinal = buffer.get() & 0xFF;
+		long timestamp = buffer.getLong();
+		if ((nullFlags & NULL_ACTION) == 0 && ordinal >= ACTION_TYPES.length) {
+			throw new SerializationException("未知的行为类型序号: " + ordinal);
+		}
+
+		return new UserActionEvent(
+				(nullFlags & NULL_NEWS_ID) != 0 ? null : newsId,
+				(nullFlags & NULL_USER_ID) != 0 ? null : userId,
+				(nullFlags & NULL_ACTION) != 0 ? null : ACTION_TYPES[ordinal],
+				(nullFlags & NULL_TIMESTAMP) != 0 ? null : timestamp
+		);
+	}
+
+	private UserActionEvent fromJson(byte[] data) {
+		try {
+			return objectMapper.readValue(data, UserActionEvent.class);
+		} catch (IOException e) {
+			throw new SerializationException("用户行为事件JSON反序列化失败", e);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.yubzhou.serializer;
+
+import com.yubzhou.common.UserActionEvent;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 用户行为事件的二进制序列化器（Kafka value-serializer）
+ * 定长二进制格式（版本1，共27字节），不包含类型头和字段名：
+ * <pre>
+ * 版本号(1) | 空值标记(1) | 新闻ID(8) | 用户ID(8) | 行为类型序号(1) | 时间戳(8)
+ * </pre>
+ * 空值标记的每一位表示对应字段是否为null（为null时该字段写入0）
+ * 注意：行为类型按枚举序号编码，ActionType只能在末尾追加新的枚举值
+ */
+public class UserActionEventSerializer implements Serializer<UserActionEvent> {
+	// 当前格式版本号（不兼容的格式变化时递增，反序列化器需同时支持旧版本）
+	public static final byte VERSION_1 = 1;
+	// 版本1的消息长度（字节）
+	public static final int VERSION_1_LENGTH = 1 + 1 + Long.BYTES + Long.BYTES + 1 + Long.BYTES;
+
+	// 空值标记位
+	static final int NULL_NEWS_ID = 1;
+	static final int NULL_USER_ID = 1 << 1;
+	static final int NULL_ACTION = 1 << 2;
+	static final int NULL_TIMESTAMP = 1 << 3;
+
+	@Override
+	public byte[] serialize(String topic, UserActionEvent event) {
+		if (event == null) return null;
+
+		int nullFlags = 0;
+		if (event.getNewsId() == null) nullFlags |= NULL_NEWS_ID;
+		if (event.getUserId() == null) nullFlags |= NULL_USER_ID;
+		if (event.getAction() == null) nullFlags |= NULL_ACTION;
+		if (event.getTimestamp() == null) nullFlags |= NULL_TIMESTAMP;
+
+		return ByteBuffer.allocate(VERSION_1_LENGTH)
+				.put(VERSION_1)
+				.put((byte) nullFlags)
+				.putLong(event.getNewsId() == null ? 0 : event.getNewsId())
+				.putLong(event.getUserId() == null ? 0 : event.getUserId())
+				.put((byte) (event.getAction() == null ? 0 : event.getAction().ordinal()))
+				.putLong(event.getTimestamp() == null ? 0 : event.getTimestamp())
+				.array();
+	}
+}
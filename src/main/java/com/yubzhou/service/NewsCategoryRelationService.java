@@ -11,6 +11,8 @@ public interface NewsCategoryRelationService extends IService<NewsCategoryRelati
 
 	void cacheNewsCategoryRelationToRedis(Long newsId);
 
+	void cacheNewsCategoryRelationsToRedis(List<Long> newsIds);
+
 	void cacheAllNewsCategoryRelationToRedis();
 
 	Map<Long, List<String>> getNewsCategoryRelationMap(List<Long> newsIds);
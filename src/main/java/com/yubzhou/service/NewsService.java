@@ -17,6 +17,8 @@ public interface NewsService extends IService<News> {
 
 	boolean updateMetricsWithVersion(News news);
 
+	int batchUpdateMetrics(List<News> newsList);
+
 	List<News> getRecommends(int size, long userId, long categoryId);
 
 	CompletableFuture<List<News>> getRecommendsAsync(int size, Long userId, long categoryId);
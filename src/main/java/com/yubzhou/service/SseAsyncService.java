@@ -1,7 +1,10 @@
 package com.yubzhou.service;
 
+import com.yubzhou.common.HotNewsSnapshot;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Map;
+
 public interface SseAsyncService {
 
 	// 订阅 SSE 事件
@@ -9,4 +12,13 @@ public interface SseAsyncService {
 
 	// 向指定客户端推送结果
 	void pushResult(String requestId, Object result);
+
+	// 订阅热点列表（先推送当前的完整列表，之后只推送差异）
+	void subscribeHotNews(String window, SseEmitter emitter, HotNewsSnapshot snapshot);
+
+	// 热点列表刷新后调用：排名或成员变化时向该窗口的订阅者推送差异
+	void publishHotNews(String window, HotNewsSnapshot snapshot);
+
+	// 获取热点列表推送统计信息
+	Map<String, Object> getHotNewsStreamStats();
 }
@@ -8,6 +8,9 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.yubzhou.common.RedisConstant;
 import com.yubzhou.common.UserRole;
 import com.yubzhou.common.UserToken;
+import com.yubzhou.consumer.HotNewsService;
+import com.yubzhou.consumer.NewsMetricsFlushService;
+import com.yubzhou.consumer.NewsNearCache;
 import com.yubzhou.mapper.CommentMapper;
 import com.yubzhou.model.dto.CreateCommentDto;
 import com.yubzhou.model.dto.QueryCommentDto;
@@ -38,12 +41,19 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
 	private final UserProfileService userProfileService;
 	private final RedisUtil redisUtil;
 	private final ThreadPoolTaskExecutor globalTaskExecutor;
+	private final NewsNearCache newsNearCache;
+	private final HotNewsService hotNewsService;
+	private final NewsMetricsFlushService newsMetricsFlushService;
 
 	@Autowired
-	public CommentServiceImpl(UserProfileService userProfileService, RedisUtil redisUtil,
+	public CommentServiceImpl(UserProfileService userProfileService, RedisUtil redisUtil, NewsNearCache newsNearCache,
+							  HotNewsService hotNewsService, NewsMetricsFlushService newsMetricsFlushService,
 							  @Qualifier("globalTaskExecutor") ThreadPoolTaskExecutor globalTaskExecutor) {
 		this.userProfileService = userProfileService;
 		this.redisUtil = redisUtil;
+		this.newsNearCache = newsNearCache;
+		this.hotNewsService = hotNewsService;
+		this.newsMetricsFlushService = newsMetricsFlushService;
 		this.globalTaskExecutor = globalTaskExecutor;
 	}
 
@@ -130,12 +140,19 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
 	// 一次性将评论表的某一新闻的评论数同步到新闻表中
 	@Override
 	public void syncCommentCount() {
+		// 先将进程内聚合的增量写入redis，再将redis中的指标写回数据库，避免未写回的增量覆盖同步结果
+		hotNewsService.flushAggregatedActions();
+		newsMetricsFlushService.flush();
 		// 同步到数据库
 		this.baseMapper.syncCommentsCount();
 		log.info("评论数已同步到新闻表中");
-		// 删除redis缓存
-		Long deleted = redisUtil.deleteByPrefix(RedisConstant.NEWS_DETAIL_PREFIX + "*");
-		log.info("已删除redis缓存中的新闻详情，删除数量：{}", deleted);
+		// 旧格式的缓存中评论数保存在新闻详情中，先拆分为新格式
+		hotNewsService.migrateAllNewsCache();
+		// 只覆盖redis新闻指标中的评论数（不删除整个指标Hash，其他未写回的指标不受影响）
+		long updated = newsMetricsFlushService.syncCommentsFromDatabase();
+		log.info("已更新redis缓存中的新闻评论数，更新数量：{}", updated);
+		// 失效所有节点的近端缓存
+		newsNearCache.invalidateAll();
 	}
 
 	@Override
@@ -78,6 +78,34 @@ public class NewsCategoryRelationServiceImpl
 		log.debug("缓存新闻ID为{}的新闻分类成功", newsId);
 	}
 
+	// 批量缓存多个新闻的新闻-分类关系（一次数据库查询 + 一次pipeline）
+	@Override
+	public void cacheNewsCategoryRelationsToRedis(List<Long> newsIds) {
+		if (CollectionUtils.isEmpty(newsIds)) return;
+
+		List<NewsCategoryRelation> newsCategoryRelationList = this.lambdaQuery()
+				.select(NewsCategoryRelation::getNewsId, NewsCategoryRelation::getCategoryId)
+				.in(NewsCategoryRelation::getNewsId, newsIds)
+				.list();
+		if (CollectionUtils.isEmpty(newsCategoryRelationList)) {
+			log.warn("新闻ID为{}的新闻分类为空", newsIds);
+			return;
+		}
+
+		redisTemplate.executePipelined(new SessionCallback<>() {
+			@Override
+			public Object execute(RedisOperations operations) throws DataAccessException {
+				SetOperations<String, Object> setOps = operations.opsForSet();
+				for (NewsCategoryRelation newsCategoryRelation : newsCategoryRelationList) {
+					String categoryKey = RedisConstant.NEWS_CATEGORY_SET_PREFIX + newsCategoryRelation.getCategoryId();
+					setOps.add(categoryKey, newsCategoryRelation.getNewsId());
+				}
+				return null;
+			}
+		});
+		log.debug("批量缓存{}个新闻的新闻分类成功", newsIds.size());
+	}
+
 	@Override
 	public void cacheAllNewsCategoryRelationToRedis() {
 		this.list().forEach(newsCategoryRelation -> {
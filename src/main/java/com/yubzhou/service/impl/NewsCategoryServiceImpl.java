@@ -9,6 +9,7 @@ import com.yubzhou.model.po.NewsCategory;
 import com.yubzhou.service.NewsCategoryService;
 import com.yubzhou.util.RedisLockUtil;
 import com.yubzhou.util.RedisUtil;
+import com.yubzhou.util.SingleFlight;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -29,6 +30,8 @@ public class NewsCategoryServiceImpl
 	private final RedisTemplate<String, Object> redisTemplate;
 	private final RedisUtil redisUtil;
 	private final RedisLockUtil redisLockUtil;
+	// 同一分类的并发缓存未命中共享一次加载
+	private final SingleFlight<Long, NewsCategory> categoryLoads = new SingleFlight<>();
 
 	@Autowired
 	public NewsCategoryServiceImpl(RedisTemplate<String, Object> redisTemplate, RedisUtil redisUtil, RedisLockUtil redisLockUtil) {
@@ -60,8 +63,8 @@ public class NewsCategoryServiceImpl
 		if (newsCategory != null) {
 			return newsCategory;
 		}
-		// 如果Java内存获取不到，从Redis或数据库中获取
-		return getNewsCategoryFromRedisOrDB(categoryId);
+		// 如果Java内存获取不到，从Redis或数据库中获取（同一JVM内的并发未命中只有领头线程加载）
+		return categoryLoads.execute(categoryId, () -> getNewsCategoryFromRedisOrDB(categoryId));
 	}
 
 	@Override
@@ -172,8 +175,8 @@ public class NewsCategoryServiceImpl
 				}
 			}
 		}
-		// 达到最大重试次数后降级
-		return null;
+		// 达到最大重试次数后降级：其他节点仍在加载，直接查询数据库（由持有锁的节点回填缓存）
+		return loadOneFromMySQL(categoryId);
 	}
 
 	// 在系统启动时缓存新闻分类到Redis中
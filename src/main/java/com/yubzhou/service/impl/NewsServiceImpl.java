@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.yubzhou.common.MinAndMaxId;
 import com.yubzhou.common.RedisConstant;
 import com.yubzhou.consumer.HotNewsCacheService;
+import com.yubzhou.consumer.NewsIdBloomFilter;
 import com.yubzhou.mapper.NewsMapper;
 import com.yubzhou.model.po.News;
 import com.yubzhou.service.NewsService;
@@ -27,11 +28,14 @@ public class NewsServiceImpl extends ServiceImpl<NewsMapper, News> implements Ne
 
 	private final RedisUtil redisUtil;
 	private final HotNewsCacheService hotNewsCacheService;
+	private final NewsIdBloomFilter newsIdBloomFilter;
 
 	public NewsServiceImpl(RedisUtil redisUtil,
-						   @Lazy HotNewsCacheService hotNewsCacheService) {
+						   @Lazy HotNewsCacheService hotNewsCacheService,
+						   NewsIdBloomFilter newsIdBloomFilter) {
 		this.redisUtil = redisUtil;
 		this.hotNewsCacheService = hotNewsCacheService;
+		this.newsIdBloomFilter = newsIdBloomFilter;
 	}
 
 	public static final Random RANDOM = new Random();
@@ -44,6 +48,21 @@ public class NewsServiceImpl extends ServiceImpl<NewsMapper, News> implements Ne
 		return minMax;
 	}
 
+	// 新增新闻后同时更新新闻ID布隆过滤器
+	@Override
+	public boolean save(News news) {
+		boolean saved = super.save(news);
+		if (saved) newsIdBloomFilter.add(List.of(news.getId()));
+		return saved;
+	}
+
+	@Override
+	public boolean saveBatch(Collection<News> newsList, int batchSize) {
+		boolean saved = super.saveBatch(newsList, batchSize);
+		newsIdBloomFilter.add(newsList.stream().map(News::getId).filter(Objects::nonNull).toList());
+		return saved;
+	}
+
 	@Override
 	public News findNewsById(@NonNull Long newsId) {
 		return this.lambdaQuery()
@@ -89,6 +108,13 @@ public class NewsServiceImpl extends ServiceImpl<NewsMapper, News> implements Ne
 		return this.update(wrapper);
 	}
 
+	// 批量更新新闻指标（write-behind：以redis中的最新指标为准直接覆盖，不再做版本号比较）
+	@Override
+	public int batchUpdateMetrics(List<News> newsList) {
+		if (newsList == null || newsList.isEmpty()) return 0;
+		return this.baseMapper.batchUpdateMetrics(newsList);
+	}
+
 	// 从数据库中获取推荐新闻（按发布时间获取最新新闻）
 	@Override
 	public List<News> getRecommends(int size, long userId, long categoryId) {
@@ -199,10 +225,11 @@ public class NewsServiceImpl extends ServiceImpl<NewsMapper, News> implements Ne
 		Set<Long> candidateIds = new HashSet<>(limit);
 		// 如果分类ID为0（代表未指定新闻分类），则从数据库中随机选择
 		if (categoryId == 0L) {
-			// 如果数量未达到limit，则继续生成随机ID
-			while (candidateIds.size() < limit) { // 确保生成的ID数量足够
+			// 如果数量未达到limit，则继续生成随机ID（ID不连续时限制尝试次数，避免布隆过滤器过滤掉大部分ID时长时间循环）
+			for (int attempts = 0; candidateIds.size() < limit && attempts < limit * 20; attempts++) { // 确保生成的ID数量足够
 				long randomId = RANDOM.nextLong(minMax.getMinId(), minMax.getMaxId() + 1);
 				if (excludeIds.contains(randomId)) continue; // 排除已推荐的新闻
+				if (!newsIdBloomFilter.mightContain(randomId)) continue; // 排除一定不存在的新闻
 				candidateIds.add(randomId);
 			}
 		} else {
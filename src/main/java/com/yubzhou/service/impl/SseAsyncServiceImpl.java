@@ -1,13 +1,26 @@
 package com.yubzhou.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yubzhou.common.HotNewsDiff;
+import com.yubzhou.common.HotNewsSnapshot;
+import com.yubzhou.common.Result;
+import com.yubzhou.properties.HotNewsProperties;
 import com.yubzhou.service.SseAsyncService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 @Slf4j
@@ -15,6 +28,56 @@ public class SseAsyncServiceImpl implements SseAsyncService {
 
 	private final ConcurrentMap<String, SseEmitter> emitters = new ConcurrentHashMap<>();
 
+	private final ObjectMapper objectMapper;
+	private final HotNewsProperties.Stream streamConfig;
+	// 热点列表订阅者：窗口名称 → （订阅ID → 订阅者）
+	private final ConcurrentMap<String, ConcurrentMap<String, HotNewsSubscriber>> hotNewsSubscribers = new ConcurrentHashMap<>();
+	// 每个窗口最近一次发布的快照（用于计算差异）
+	private final Map<String, HotNewsSnapshot> lastPublished = new ConcurrentHashMap<>();
+	// 写出线程池启动前有待写出事件的订阅者（由pending的锁保护）
+	private final Queue<HotNewsSubscriber> pending = new ArrayDeque<>();
+	// 正在写出的订阅者（由看门狗线程检查写出是否超时）
+	private final Set<HotNewsSubscriber> writing = ConcurrentHashMap.newKeySet();
+	private final LongAdder diffs = new LongAdder(); // 发布的差异数
+	private final LongAdder pushed = new LongAdder(); // 写出的事件数
+	private final LongAdder evicted = new LongAdder(); // 因积压被断开的连接数
+	private final LongAdder timedOut = new LongAdder(); // 因写出超时被断开的连接数
+	private volatile ExecutorService writers;
+	private Thread watchdogThread;
+
+	@Autowired
+	public SseAsyncServiceImpl(ObjectMapper objectMapper, HotNewsProperties hotNewsProperties) {
+		this.objectMapper = objectMapper;
+		this.streamConfig = hotNewsProperties.getStream();
+	}
+
+	// 热点列表事件（data为预先序列化的JSON，每个订阅者共用）
+	private record HotNewsEvent(String name, String id, String data) {
+	}
+
+	// 热点列表订阅者：每个连接一个有界缓冲区，缓冲区已满（客户端消费过慢）时断开连接
+	// 同一订阅者同时只有一个写出任务，上一次写出未完成时新的事件留在缓冲区中
+	private static final class HotNewsSubscriber {
+		private final String id;
+		private final String window;
+		private final SseEmitter emitter;
+		private final BlockingQueue<HotNewsEvent> buffer;
+		private final AtomicBoolean scheduled = new AtomicBoolean(); // 是否已有写出任务（排队中或正在写出）
+		private volatile String etag; // 已入队的事件全部应用后，客户端列表的ETag
+		private volatile boolean closed;
+		// 当前一次写出的开始时间（0表示没有在写出）和写出线程，由订阅者的锁保护
+		private long writeStartedAt;
+		private Thread writer;
+
+		private HotNewsSubscriber(String window, SseEmitter emitter, int bufferSize, String etag) {
+			this.id = UUID.randomUUID().toString();
+			this.window = window;
+			this.emitter = emitter;
+			this.buffer = new ArrayBlockingQueue<>(bufferSize);
+			this.etag = etag;
+		}
+	}
+
 	// 订阅 SSE 事件
 	public void subscribe(String requestId, SseEmitter emitter) {
 		emitters.put(requestId, emitter);
@@ -58,6 +121,219 @@ public class SseAsyncServiceImpl implements SseAsyncService {
 		}
 	}
 
+	// 订阅热点列表：先推送当前的完整列表（snapshot事件），之后只推送差异（diff事件）
+	public void subscribeHotNews(String window, SseEmitter emitter, HotNewsSnapshot snapshot) {
+		HotNewsSubscriber subscriber = new HotNewsSubscriber(window, emitter, streamConfig.getBufferSize(), snapshot.getEtag());
+		emitter.onCompletion(() -> removeSubscriber(subscriber));
+		emitter.onTimeout(() -> {
+			emitter.complete();
+			removeSubscriber(subscriber);
+		});
+		emitter.onError((e) -> {
+			removeSubscriber(subscriber);
+			log.debug("热点列表SSE连接异常（{}）: {}", window, e.getMessage());
+		});
+		enqueue(subscriber, new HotNewsEvent("snapshot", snapshot.getEtag(), new String(snapshot.getJson(), StandardCharsets.UTF_8)));
+		hotNewsSubscribers.computeIfAbsent(window, w -> new ConcurrentHashMap<>()).put(subscriber.id, subscriber);
+	}
+
+	// 发布热点列表（同一窗口的发布串行执行，保证订阅者按顺序收到差异）
+	public synchronized void publishHotNews(String window, HotNewsSnapshot snapshot) {
+		HotNewsSnapshot previous = lastPublished.put(window, snapshot);
+		if (previous == null || previous == snapshot) return; // 内容不变时快照对象不变
+
+		Map<String, HotNewsSubscriber> subscribers = hotNewsSubscribers.get(window);
+		if (subscribers == null || subscribers.isEmpty()) return;
+
+		HotNewsDiff diff = HotNewsDiff.between(window, previous, snapshot);
+		if (diff != null) diffs.increment();
+		HotNewsEvent diffEvent = null;
+		HotNewsEvent snapshotEvent = null;
+		for (HotNewsSubscriber subscriber : subscribers.values()) {
+			String etag = subscriber.etag;
+			if (etag.equals(snapshot.getEtag())) continue; // 订阅时已是最新列表
+			if (!etag.equals(previous.getEtag())) {
+				// 订阅者的列表不是上一次发布的列表（订阅与发布交错），推送完整列表
+				if (snapshotEvent == null) {
+					snapshotEvent = new HotNewsEvent("snapshot", snapshot.getEtag(), new String(snapshot.getJson(), StandardCharsets.UTF_8));
+				}
+				enqueue(subscriber, snapshotEvent);
+			} else if (diff == null) {
+				// 只有热度变化：不推送，客户端的列表视为最新
+				subscriber.etag = snapshot.getEtag();
+			} else {
+				if (diffEvent == null) diffEvent = new HotNewsEvent("diff", diff.etag(), serialize(diff));
+				enqueue(subscriber, diffEvent);
+			}
+		}
+	}
+
+	// 获取热点列表推送统计信息
+	public Map<String, Object> getHotNewsStreamStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		Map<String, Integer> subscribers = new LinkedHashMap<>();
+		hotNewsSubscribers.forEach((window, map) -> subscribers.put(window, map.size()));
+		stats.put("subscribers", subscribers);
+		stats.put("bufferSize", streamConfig.getBufferSize());
+		stats.put("diffs", diffs.sum());
+		stats.put("pushed", pushed.sum());
+		stats.put("evicted", evicted.sum());
+		stats.put("timedOut", timedOut.sum());
+		stats.put("writing", writing.size());
+		stats.put("writerThreads", streamConfig.getWriterThreads());
+		return stats;
+	}
+
+	// 启动写出线程池和写出超时的看门狗线程（写出线程池启动前已入队的订阅者随后开始写出）
+	@PostConstruct
+	public void startFanOut() {
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(streamConfig.getWriterThreads(), runnable -> {
+			Thread thread = new Thread(runnable, "hot-news-sse-writer-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		synchronized (pending) {
+			writers = executor;
+			HotNewsSubscriber subscriber;
+			while ((subscriber = pending.poll()) != null) schedule(subscriber);
+		}
+		watchdogThread = new Thread(this::watchWrites, "hot-news-sse-write-watchdog");
+		watchdogThread.setDaemon(true);
+		watchdogThread.start();
+	}
+
+	// 停止写出线程池和看门狗线程，关闭所有热点列表连接
+	@PreDestroy
+	public void stopFanOut() {
+		if (watchdogThread != null) watchdogThread.interrupt();
+		if (writers != null) writers.shutdownNow();
+		hotNewsSubscribers.values().forEach(map -> map.values().forEach(subscriber -> {
+			subscriber.closed = true;
+			completeQuietly(subscriber.emitter);
+		}));
+		hotNewsSubscribers.clear();
+	}
+
+	// 将订阅者交给写出线程池（写出线程池启动前暂存在待写出队列中）
+	private void schedule(HotNewsSubscriber subscriber) {
+		ExecutorService executor = writers;
+		if (executor == null) {
+			synchronized (pending) {
+				executor = writers;
+				if (executor == null) {
+					pending.offer(subscriber);
+					return;
+				}
+			}
+		}
+		try {
+			executor.execute(() -> drain(subscriber));
+		} catch (RejectedExecutionException e) {
+			// 写出线程池已停止
+			subscriber.scheduled.set(false);
+		}
+	}
+
+	// 写出订阅者缓冲区中的全部事件（写出期间新入队的事件由本次写出一并写出，或在结束后重新调度）
+	private void drain(HotNewsSubscriber subscriber) {
+		synchronized (subscriber) {
+			subscriber.writer = Thread.currentThread();
+		}
+		writing.add(subscriber);
+		try {
+			HotNewsEvent event;
+			while (!subscriber.closed && (event = subscriber.buffer.poll()) != null) {
+				synchronized (subscriber) {
+					subscriber.writeStartedAt = System.currentTimeMillis();
+				}
+				subscriber.emitter.send(SseEmitter.event().name(event.name()).id(event.id()).data(event.data()));
+				synchronized (subscriber) {
+					subscriber.writeStartedAt = 0;
+				}
+				pushed.increment();
+			}
+			// 因积压或写出超时被断开
+			if (subscriber.closed) completeQuietly(subscriber.emitter);
+		} catch (Exception e) {
+			// 客户端已断开或写出超时被中断：关闭连接并移除订阅者
+			removeSubscriber(subscriber);
+			subscriber.emitter.completeWithError(e);
+		} finally {
+			writing.remove(subscriber);
+			synchronized (subscriber) {
+				subscriber.writeStartedAt = 0;
+				subscriber.writer = null;
+			}
+			// 清除写出超时的中断标记，线程继续写出其他订阅者
+			Thread.interrupted();
+			subscriber.scheduled.set(false);
+			if (!subscriber.closed && !subscriber.buffer.isEmpty() && subscriber.scheduled.compareAndSet(false, true)) {
+				schedule(subscriber);
+			}
+		}
+	}
+
+	// 看门狗：写出超过 write-timeout-millis 未完成的订阅者（客户端不读取，写出阻塞）被断开，并中断其写出线程
+	private void watchWrites() {
+		long timeout = streamConfig.getWriteTimeoutMillis();
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				Thread.sleep(Math.max(10, timeout / 2));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			long now = System.currentTimeMillis();
+			for (HotNewsSubscriber subscriber : writing) {
+				synchronized (subscriber) {
+					if (subscriber.writeStartedAt == 0 || now - subscriber.writeStartedAt < timeout) continue;
+					subscriber.writeStartedAt = 0;
+					removeSubscriber(subscriber);
+					timedOut.increment();
+					if (subscriber.writer != null) subscriber.writer.interrupt();
+				}
+				log.warn("热点列表SSE连接写出超过{}ms未完成，断开连接（{}）", timeout, subscriber.window);
+			}
+		}
+		log.info("热点列表SSE写出看门狗线程已停止");
+	}
+
+	// 将事件放入订阅者的缓冲区（缓冲区已满时断开该订阅者，由推送线程关闭连接）
+	private void enqueue(HotNewsSubscriber subscriber, HotNewsEvent event) {
+		if (subscriber.closed) return;
+		if (subscriber.buffer.offer(event)) {
+			subscriber.etag = event.id();
+		} else {
+			removeSubscriber(subscriber);
+			evicted.increment();
+			log.warn("热点列表SSE连接积压超过{}个事件，断开连接（{}）", streamConfig.getBufferSize(), subscriber.window);
+		}
+		if (subscriber.scheduled.compareAndSet(false, true)) schedule(subscriber);
+	}
+
+	private void removeSubscriber(HotNewsSubscriber subscriber) {
+		subscriber.closed = true;
+		Map<String, HotNewsSubscriber> subscribers = hotNewsSubscribers.get(subscriber.window);
+		if (subscribers != null) subscribers.remove(subscriber.id);
+	}
+
+	private String serialize(HotNewsDiff diff) {
+		try {
+			return objectMapper.writeValueAsString(Result.success(diff));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("热点列表差异序列化失败", e);
+		}
+	}
+
+	private static void completeQuietly(SseEmitter emitter) {
+		try {
+			emitter.complete();
+		} catch (Exception ignored) {
+			// 连接已关闭
+		}
+	}
+
 	private void sendEndEvent(SseEmitter emitter) {
 		try {
 			emitter.send(SseEmitter.event().name("end").data("结束"));
@@ -74,4 +350,4 @@ public class SseAsyncServiceImpl implements SseAsyncService {
 		emitters.remove(requestId);
 		log.info("SseEmitter清理完成: {}", requestId);
 	}
-}
\ No newline at end of file
+}
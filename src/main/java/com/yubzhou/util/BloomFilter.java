@@ -0,0 +1,140 @@
+package com.yubzhou.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * long类型键（如新闻ID）的布隆过滤器（线程安全，只能添加不能删除）
+ * 位数组大小 m = −n·ln(p) / (ln2)²，哈希函数个数 k = m/n·ln2（n为预期元素数，p为误判率），
+ * 第i个哈希值为 h1 + i·h2（由键的64位混淆哈希派生，Kirsch-Mitzenmacher方法）。
+ * 位的编号与redis位图一致（SETBIT/GETBIT的offset），可通过toRedisBitmap、mergeRedisBitmap与redis位图互相转换
+ */
+public class BloomFilter {
+	private final long bitSize;
+	private final int hashCount;
+	private final AtomicLongArray words;
+
+	public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+		if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("expectedInsertions must be positive and falsePositiveRate must be in (0, 1)");
+		}
+		this.bitSize = optimalBitSize(expectedInsertions, falsePositiveRate);
+		this.hashCount = optimalHashCount(expectedInsertions, bitSize);
+		this.words = new AtomicLongArray((int) ((bitSize + 63) >>> 6));
+	}
+
+	// 位数组大小（向上取整到8的倍数，便于与redis位图按字节转换；redis位图最大为2^32位）
+	static long optimalBitSize(long n, double p) {
+		long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+		return Math.min(1L << 32, Math.max(64, (bits + 7) & ~7L));
+	}
+
+	static int optimalHashCount(long n, long m) {
+		return Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+	}
+
+	// 添加键（返回是否有位由0变为1，即该键之前一定不存在）
+	public boolean put(long key) {
+		boolean changed = false;
+		for (long index : indexes(key)) changed |= setBit(index);
+		return changed;
+	}
+
+	// 判断键是否可能存在（返回false时一定不存在）
+	public boolean mightContain(long key) {
+		for (long index : indexes(key)) {
+			if (!getBit(index)) return false;
+		}
+		return true;
+	}
+
+	// 键对应的k个位的编号
+	public long[] indexes(long key) {
+		long h1 = mix(key);
+		long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1; // 奇数，避免h2为0时所有位相同
+		long[] indexes = new long[hashCount];
+		long combined = h1;
+		for (int i = 0; i < hashCount; i++) {
+			indexes[i] = Math.floorMod(combined, bitSize);
+			combined += h2;
+		}
+		return indexes;
+	}
+
+	// 设置指定的位（返回该位是否由0变为1）
+	public boolean setBit(long index) {
+		int word = (int) (index >>> 6);
+		long mask = 1L << (index & 63);
+		long current;
+		while (((current = words.get(word)) & mask) == 0) {
+			if (words.compareAndSet(word, current, current | mask)) return true;
+		}
+		return false;
+	}
+
+	public boolean getBit(long index) {
+		return (words.get((int) (index >>> 6)) & (1L << (index & 63))) != 0;
+	}
+
+	/**
+	 * 转换为redis位图（redis位图中offset为i的位是第i/8个字节的从高到低第i%8位）
+	 */
+	public byte[] toRedisBitmap() {
+		byte[] bytes = new byte[(int) (bitSize >>> 3)];
+		for (int i = 0; i < bytes.length; i++) {
+			long word = words.get(i >>> 3);
+			int bits = (int) (word >>> ((i & 7) << 3)) & 0xFF;
+			bytes[i] = (byte) (Integer.reverse(bits) >>> 24);
+		}
+		return bytes;
+	}
+
+	/**
+	 * 合并redis位图（按位或，只会增加位；位图长度不足时只合并已有的部分）
+	 */
+	public void mergeRedisBitmap(byte[] bitmap) {
+		if (bitmap == null) return;
+		int length = (int) Math.min(bitmap.length, bitSize >>> 3);
+		for (int word = 0; word << 3 < length; word++) {
+			long value = 0;
+			for (int j = 0; j < 8 && (word << 3) + j < length; j++) {
+				long bits = (Integer.reverse(bitmap[(word << 3) + j] & 0xFF) >>> 24) & 0xFF;
+				value |= bits << (j << 3);
+			}
+			if (value == 0) continue;
+			long current;
+			do {
+				current = words.get(word);
+			} while ((current | value) != current && !words.compareAndSet(word, current, current | value));
+		}
+	}
+
+	// 已设置的位数
+	public long bitCount() {
+		long count = 0;
+		for (int i = 0; i < words.length(); i++) count += Long.bitCount(words.get(i));
+		return count;
+	}
+
+	// 按已设置的位数估算当前的误判率（(已设置的位数 / m)^k）
+	public double expectedFalsePositiveRate() {
+		return Math.pow((double) bitCount() / bitSize, hashCount);
+	}
+
+	public long getBitSize() {
+		return bitSize;
+	}
+
+	public int getHashCount() {
+		return hashCount;
+	}
+
+	// 64位混淆哈希（MurmurHash3的fmix64）
+	private static long mix(long key) {
+		key ^= key >>> 33;
+		key *= 0xFF51AFD7ED558CCDL;
+		key ^= key >>> 33;
+		key *= 0xC4CEB9FE1A85EC53L;
+		key ^= key >>> 33;
+		return key;
+	}
+}
@@ -1,6 +1,9 @@
 package com.yubzhou.util;
 
 import com.yubzhou.common.UserActionEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.zset.Aggregate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -14,7 +17,26 @@ public class HotNewsUtil {
 	public static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
 
 	// 基础热度的最小保留比例（建议 0.05~0.2）
-	private static final double MIN_RATE = 0.05;
+	public static final double MIN_RATE = 0.05;
+
+	// 对数时间热度的时间起点（本地时间，热度中的时间项为新闻创建时间距该时间点的秒数）
+	public static final LocalDateTime LOG_TIME_EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0, 0);
+
+	/**
+	 * 热度计算模式
+	 * DECAY：衰减热度（默认），热度随时间衰减，但只在有新事件时才会重新计算，已有的热度不会随时间更新
+	 * LOG_TIME：对数时间热度，热度 = ln(基础热度) + 创建时间 / τ，热度与计算时间无关，
+	 * 任意时刻的排序都等价于按 基础热度 × e^(−(当前时间−创建时间)/τ) 排序，因此不需要定时重新计算
+	 */
+	@Getter
+	@RequiredArgsConstructor
+	public enum ScoreMode {
+		DECAY(Aggregate.SUM),
+		LOG_TIME(Aggregate.MAX); // 对数热度不可相加，合并多个窗口时取最大值（即最新的热度）
+
+		// 合并多个时间窗口时的聚合方式
+		private final Aggregate mergeAggregate;
+	}
 
 	public static String getCurrentHour() {
 		return HOUR_FORMATTER.format(LocalDateTime.now());
@@ -33,7 +55,7 @@ public class HotNewsUtil {
 	}
 
 	/**
-	 * 基于分段线性插值的平滑函数实现，提供连续的热度衰减率，避免阶梯式跳跃
+	 * 基于分段线性插值的平滑函数实现（scripts/hot_news_action.lua 中有相同的实现），提供连续的热度衰减率，避免阶梯式跳跃
 	 *
 	 * @param deltaDays 时间差，单位：天
 	 * @return 返回热度衰减率
@@ -79,10 +101,16 @@ public class HotNewsUtil {
 	 * 计算公式举例：热度 = [1.5 × log(浏览量+1) + 0.25 × 点赞数 + 0.35 × 评论数 + 0.25 × 收藏数] × (minRate + (1−minRate) × e^(−λt))
 	 * Hotness = Base × (minRate + (1−minRate) × e^(−λt))
 	 * 其中λ为衰减速率，t为时间间隔（单位：天）
+	 * 注意：scripts/hot_news_action.lua 中有相同的计算逻辑（在redis中计算热度），修改时需同步修改
 	 */
 	public static double calculateDecayedHotness(double base, LocalDateTime createdAt) {
+		return calculateDecayedHotness(base, createdAt, LocalDateTime.now());
+	}
+
+	// 按指定的计算时间计算时间衰减（重建热度时按新闻指标最近一次更新的时间计算）
+	public static double calculateDecayedHotness(double base, LocalDateTime createdAt, LocalDateTime at) {
 		// ChronoUnit.HOURS.between 方法参数1为起始时间点，参数2为结束时间点，其返回值为 参数2-参数1，即时间差（单位：小时）
-		long deltaHours = ChronoUnit.HOURS.between(createdAt, LocalDateTime.now());
+		long deltaHours = ChronoUnit.HOURS.between(createdAt, at);
 		double deltaDays = Math.abs(deltaHours) / 24.0;
 		// System.out.println(deltaDays);
 		// 获取衰减速率λ（使用平滑函数）
@@ -92,6 +120,35 @@ public class HotNewsUtil {
 		return base * (MIN_RATE + (1 - MIN_RATE) * Math.exp(-lambda * deltaDays));
 	}
 
+	/**
+	 * 对数时间热度计算（O(1)，与计算时间无关）
+	 * Hotness = ln(max(Base, 1)) + (createdAt − LOG_TIME_EPOCH) / τ
+	 * 两条新闻的热度之差在任意时刻都保持不变，所以已写入ZSet的热度不需要随时间重新计算
+	 *
+	 * @param base       基础热度
+	 * @param createdAt  新闻创建时间
+	 * @param tauSeconds 时间常数τ（秒），即新闻每晚发布τ秒，基础热度需要达到e倍才能排在同一位置
+	 */
+	public static double calculateLogTimeHotness(double base, LocalDateTime createdAt, long tauSeconds) {
+		long offsetSeconds = ChronoUnit.SECONDS.between(LOG_TIME_EPOCH, createdAt);
+		return Math.log(Math.max(base, 1.0)) + (double) offsetSeconds / tauSeconds;
+	}
+
+	/**
+	 * 按照热度计算模式计算热度
+	 * 注意：scripts/hot_news_action.lua 中有相同的计算逻辑（在redis中计算热度），修改时需同步修改
+	 */
+	public static double calculateHotness(ScoreMode mode, double base, LocalDateTime createdAt, long tauSeconds) {
+		return calculateHotness(mode, base, createdAt, tauSeconds, LocalDateTime.now());
+	}
+
+	// 按指定的计算时间计算热度（对数时间热度与计算时间无关）
+	public static double calculateHotness(ScoreMode mode, double base, LocalDateTime createdAt, long tauSeconds, LocalDateTime at) {
+		return mode == ScoreMode.LOG_TIME
+				? calculateLogTimeHotness(base, createdAt, tauSeconds)
+				: calculateDecayedHotness(base, createdAt, at);
+	}
+
 	public static void main(String[] args) {
 		System.out.println(calculateDecayedHotness(170.36, LocalDateTime.now().minusDays(3)));
 	}
@@ -0,0 +1,281 @@
+package com.yubzhou.util;
+
+import com.yubzhou.properties.AsyncProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 按键有序的分道执行器
+ * 任务按键（如新闻ID）的哈希值分配到固定的执行道，每个执行道只有一个消费线程和一个有界队列，
+ * 因此同一个键的任务严格按提交顺序执行，不同键的任务在多个执行道上并行执行
+ */
+@Slf4j
+public class OrderedLaneExecutor {
+	private final Lane[] lanes;
+	private final int queueCapacity;
+	private final long offerTimeoutMillis;
+	private final int awaitTerminationSeconds;
+	private volatile boolean shutdown = false;
+
+	public OrderedLaneExecutor(AsyncProperties.LaneConfig config) {
+		int laneCount = Math.max(1, config.getLaneCount());
+		this.lanes = new Lane[laneCount];
+		this.queueCapacity = Math.max(1, config.getQueueCapacity());
+		this.offerTimeoutMillis = config.getOfferTimeoutMillis();
+		this.awaitTerminationSeconds = config.getAwaitTerminationSeconds();
+		for (int i = 0; i < laneCount; i++) {
+			lanes[i] = new Lane(config.getThreadNamePrefix() + i, queueCapacity);
+		}
+		log.info("有序分道执行器启动完成，执行道数：{}，每道队列容量：{}", laneCount, config.getQueueCapacity());
+	}
+
+	// 获取键所在的执行道序号
+	public int laneOf(Object key) {
+		int h = key == null ? 0 : key.hashCode();
+		h ^= (h >>> 16);
+		return Math.floorMod(h, lanes.length);
+	}
+
+	public int getLaneCount() {
+		return lanes.length;
+	}
+
+	/**
+	 * 获取最繁忙的执行道的使用率（已提交但尚未处理完成的元素数 / 队列容量）
+	 * 按元素数而不是任务数计算：executeGrouped每批只向每个执行道提交一个任务，但该任务可能包含数百个元素
+	 */
+	public double getMaxUtilization() {
+		int maxPending = 0;
+		for (Lane lane : lanes) maxPending = Math.max(maxPending, lane.pendingItems.get());
+		return (double) maxPending / queueCapacity;
+	}
+
+	/**
+	 * 提交任务到键所在的执行道（队列已满时最多阻塞offerTimeoutMillis毫秒）
+	 *
+	 * @param key  任务的键（同一个键的任务按提交顺序执行）
+	 * @param task 任务
+	 * @throws RejectedExecutionException 执行器已关闭，或等待超时后队列仍然已满
+	 */
+	public void execute(Object key, Runnable task) {
+		lanes[laneOf(key)].submit(false, 1, task);
+	}
+
+	/**
+	 * 将一批元素按键分组后提交到各自的执行道（每个执行道只提交一个任务，元素在组内保持原有顺序）
+	 * 队列已满时一直阻塞到有空位为止（不拒绝任务），由调用方（如暂停拉取事件）控制提交速度
+	 *
+	 * @param items     元素列表
+	 * @param keyMapper 获取元素的键
+	 * @param handler   处理同一执行道中的一组元素
+	 * @return 所有执行道处理完成后完成（任一执行道处理失败则异常完成）
+	 */
+	public <T> CompletableFuture<Void> executeGrouped(List<T> items, Function<T, ?> keyMapper, Consumer<List<T>> handler) {
+		Map<Integer, List<T>> groups = new LinkedHashMap<>();
+		for (T item : items) {
+			groups.computeIfAbsent(laneOf(keyMapper.apply(item)), k -> new ArrayList<>()).add(item);
+		}
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>(groups.size());
+		groups.forEach((laneIndex, group) -> {
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			try {
+				lanes[laneIndex].submit(true, group.size(), () -> {
+					try {
+						handler.accept(group);
+						future.complete(null);
+					} catch (Throwable e) {
+						future.completeExceptionally(e);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				future.completeExceptionally(e);
+			}
+			futures.add(future);
+		});
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+	}
+
+	/**
+	 * 等待所有执行道的队列清空且没有正在执行的任务（不拒绝新任务，用于停机前处理剩余任务）
+	 *
+	 * @return 是否在超时前全部处理完成
+	 */
+	public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (System.nanoTime() < deadline) {
+			boolean idle = true;
+			for (Lane lane : lanes) {
+				if (lane.depth() > 0) {
+					idle = false;
+					break;
+				}
+			}
+			if (idle) return true;
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+		return false;
+	}
+
+	// 关闭执行器：拒绝新任务，等待已提交的任务执行完成（超时后中断执行道线程）
+	public void shutdown() {
+		shutdown = true;
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(awaitTerminationSeconds);
+		for (Lane lane : lanes) {
+			try {
+				long remainingMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+				lane.thread.join(remainingMillis);
+				if (lane.thread.isAlive()) {
+					log.warn("执行道{}未能在超时前处理完剩余任务，剩余{}个，强制中断", lane.thread.getName(), lane.queue.size());
+					lane.thread.interrupt();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		log.info("有序分道执行器已关闭");
+	}
+
+	// 获取执行器统计信息（包括每个执行道的队列深度）
+	public Map<String, Object> getStats() {
+		List<Map<String, Object>> laneStats = new ArrayList<>(lanes.length);
+		long submitted = 0, completed = 0, failed = 0, rejected = 0;
+		int totalDepth = 0, maxDepth = 0, totalPendingItems = 0;
+		for (int i = 0; i < lanes.length; i++) {
+			Lane lane = lanes[i];
+			int depth = lane.depth();
+			Map<String, Object> stats = new LinkedHashMap<>();
+			stats.put("lane", i);
+			stats.put("depth", depth);
+			stats.put("pendingItems", lane.pendingItems.get());
+			stats.put("peakDepth", lane.peakDepth.get());
+			stats.put("submitted", lane.submitted.sum());
+			stats.put("completed", lane.completed.sum());
+			stats.put("failed", lane.failed.sum());
+			stats.put("rejected", lane.rejected.sum());
+			laneStats.add(stats);
+
+			submitted += lane.submitted.sum();
+			completed += lane.completed.sum();
+			failed += lane.failed.sum();
+			rejected += lane.rejected.sum();
+			totalDepth += depth;
+			totalPendingItems += lane.pendingItems.get();
+			maxDepth = Math.max(maxDepth, depth);
+		}
+
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("laneCount", lanes.length);
+		stats.put("queueCapacity", queueCapacity);
+		stats.put("totalDepth", totalDepth);
+		stats.put("maxDepth", maxDepth);
+		stats.put("totalPendingItems", totalPendingItems);
+		stats.put("submitted", submitted);
+		stats.put("completed", completed);
+		stats.put("failed", failed);
+		stats.put("rejected", rejected);
+		stats.put("lanes", laneStats);
+		return stats;
+	}
+
+	// 执行道：一个有界队列 + 一个消费线程
+	private final class Lane implements Runnable {
+		private final BlockingQueue<LaneTask> queue;
+		private final Thread thread;
+		private final AtomicInteger inFlight = new AtomicInteger(); // 已提交但尚未执行完成的任务数
+		private final AtomicInteger pendingItems = new AtomicInteger(); // 已提交但尚未执行完成的元素数（execute提交的任务计为1个）
+		private final AtomicInteger peakDepth = new AtomicInteger();
+		private final LongAdder submitted = new LongAdder();
+		private final LongAdder completed = new LongAdder();
+		private final LongAdder failed = new LongAdder();
+		private final LongAdder rejected = new LongAdder();
+
+		Lane(String threadName, int queueCapacity) {
+			this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+			this.thread = new Thread(this, threadName);
+			this.thread.setDaemon(false);
+			this.thread.start();
+		}
+
+		int depth() {
+			return inFlight.get();
+		}
+
+		// blocking为true时一直等待到队列有空位，否则最多等待offerTimeoutMillis毫秒；items为任务包含的元素数
+		void submit(boolean blocking, int items, Runnable task) {
+			if (shutdown) {
+				rejected.increment();
+				throw new RejectedExecutionException("有序分道执行器已关闭");
+			}
+			LaneTask laneTask = new LaneTask(task, items);
+			int depth = inFlight.incrementAndGet();
+			pendingItems.addAndGet(items);
+			try {
+				if (blocking) {
+					queue.put(laneTask);
+				} else if (!queue.offer(laneTask, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+					release(laneTask);
+					rejected.increment();
+					throw new RejectedExecutionException("执行道" + thread.getName() + "队列已满");
+				}
+			} catch (InterruptedException e) {
+				release(laneTask);
+				rejected.increment();
+				Thread.currentThread().interrupt();
+				throw new RejectedExecutionException("提交任务被中断", e);
+			}
+			submitted.increment();
+			peakDepth.accumulateAndGet(depth, Math::max);
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				LaneTask task;
+				try {
+					task = queue.poll(100, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				if (task == null) {
+					// 已关闭且队列已清空，退出执行道线程
+					if (shutdown && queue.isEmpty()) return;
+					continue;
+				}
+				try {
+					task.runnable().run();
+					completed.increment();
+				} catch (Throwable e) {
+					failed.increment();
+					log.error("执行道{}任务执行异常", thread.getName(), e);
+				} finally {
+					release(task);
+				}
+			}
+		}
+
+		// 任务执行完成（或提交失败）后减少未完成的任务数和元素数
+		private void release(LaneTask task) {
+			inFlight.decrementAndGet();
+			pendingItems.addAndGet(-task.items());
+		}
+	}
+
+	private record LaneTask(Runnable runnable, int items) {
+	}
+}
@@ -184,13 +184,19 @@ package com.yubzhou.util;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
-import java.util.UUID;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -321,6 +327,52 @@ public class RedisLockUtil {
 		return result != null && result == 1L;
 	}
 
+	/**
+	 * 批量尝试获取多个锁，立即返回结果（所有SET NX在同一个pipeline中执行）
+	 *
+	 * @param lockKeys  锁名称集合
+	 * @param leaseTime 锁持有时间（毫秒）
+	 * @return 获取成功的锁：锁名称 → 锁标识（全部失败返回空Map）
+	 */
+	public Map<String, String> tryLockAll(Collection<String> lockKeys, long leaseTime) {
+		validateLeaseTime(leaseTime);
+		if (lockKeys.isEmpty()) return Collections.emptyMap();
+		List<String> keys = new ArrayList<>(lockKeys);
+		List<String> values = keys.stream().map(key -> UUID.randomUUID().toString()).toList();
+		List<Object> results = redisTemplate.executePipelined(new SessionCallback<>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public Object execute(RedisOperations operations) throws DataAccessException {
+				for (int i = 0; i < keys.size(); i++) {
+					operations.opsForValue().setIfAbsent(LOCK_PREFIX + keys.get(i), values.get(i), leaseTime, TimeUnit.MILLISECONDS);
+				}
+				return null;
+			}
+		});
+		Map<String, String> acquired = new HashMap<>();
+		for (int i = 0; i < keys.size(); i++) {
+			if (Boolean.TRUE.equals(results.get(i))) acquired.put(keys.get(i), values.get(i));
+		}
+		return acquired;
+	}
+
+	/**
+	 * 批量释放锁（所有解锁脚本在同一个pipeline中执行）
+	 *
+	 * @param locks 锁名称 → 锁标识（即tryLockAll的返回值）
+	 */
+	@SuppressWarnings("unchecked")
+	public void unlockAll(Map<String, String> locks) {
+		if (locks.isEmpty()) return;
+		byte[] script = UNLOCK_SCRIPT.getBytes(StandardCharsets.UTF_8);
+		RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+		redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			locks.forEach((lockKey, lockValue) -> connection.scriptingCommands().eval(script, ReturnType.INTEGER, 1,
+					(LOCK_PREFIX + lockKey).getBytes(StandardCharsets.UTF_8), valueSerializer.serialize(lockValue)));
+			return null;
+		});
+	}
+
 	/**
 	 * 自动续期（需在获取锁后调用）
 	 *
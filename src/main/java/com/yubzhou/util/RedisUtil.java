@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.zset.Aggregate;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
@@ -727,6 +728,24 @@ public class RedisUtil {
 		}
 	}
 
+	/**
+	 * 将key存在的集合与otherKeys指定的集合合并，并存储到destKey指定的集合中（指定分数的聚合方式）
+	 *
+	 * @param key       键名
+	 * @param otherKeys 其他集合的键名列表
+	 * @param destKey   目标集合的键名
+	 * @param aggregate 分数的聚合方式（SUM、MIN、MAX）
+	 * @return 合并后的集合元素数量
+	 */
+	public Long zUnionAndStore(String key, List<String> otherKeys, String destKey, Aggregate aggregate) {
+		try {
+			return redisTemplate.opsForZSet().unionAndStore(key, otherKeys, destKey, aggregate);
+		} catch (Exception e) {
+			log.error("Redis zUnionStore error, key: {}", key, e);
+			return 0L;
+		}
+	}
+
 
 // ============================= List ============================
 
@@ -0,0 +1,75 @@
+package com.yubzhou.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 进程内的单飞加载（同一个键的并发加载共享一次执行）
+ * 第一个调用者（领头线程）执行加载，加载期间到达的其他调用者等待同一个CompletableFuture并得到相同的结果（或异常），
+ * 加载完成后立即移除该键，之后的调用重新加载（不缓存结果，结果的缓存由调用方负责）
+ * 注意：加载函数中不能再以同一个键调用execute（同一线程会等待自己，造成死锁）
+ */
+public class SingleFlight<K, V> {
+	private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final LongAdder leaders = new LongAdder(); // 执行加载的次数
+	private final LongAdder shared = new LongAdder(); // 等待其他线程加载结果的次数
+
+	/**
+	 * 加载键对应的值
+	 *
+	 * @param key    键（不能为null）
+	 * @param loader 加载函数（可以返回null）
+	 * @return 加载结果（等待的调用者与领头线程得到同一个结果）
+	 */
+	public V execute(K key, Supplier<V> loader) {
+		CompletableFuture<V> future = new CompletableFuture<>();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			shared.increment();
+			return await(existing);
+		}
+
+		leaders.increment();
+		try {
+			V value = loader.get();
+			future.complete(value);
+			return value;
+		} catch (Throwable e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, future);
+		}
+	}
+
+	// 正在加载的键的数量
+	public int inFlightCount() {
+		return inFlight.size();
+	}
+
+	// 获取统计信息
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("leaders", leaders.sum());
+		stats.put("shared", shared.sum());
+		stats.put("inFlight", inFlightCount());
+		return stats;
+	}
+
+	// 等待领头线程的加载结果（领头线程抛出的异常原样抛出）
+	private static <V> V await(CompletableFuture<V> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+			if (cause instanceof Error error) throw error;
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.yubzhou.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 基于环形缓冲区的滑动窗口计数器（记录和查询都不分配对象）
+ * 时间按bucketMillis划分为时间桶，slots个槽位循环复用，每个槽位包含lanes个计数器（如每种行为类型一个）；
+ * 写入时若槽位中是过期的时间桶，先将槽位切换到当前时间桶并清零。
+ * 查询最近n个已结束的时间桶（不包括当前时间桶，避免当前桶只统计了一部分造成速率偏低），n不能超过slots − 1
+ * 注意：切换槽位与并发写入之间存在极小的竞争窗口，可能丢失少量计数（统计指标可以容忍）
+ */
+public class SlidingWindowCounter {
+	private final int slots;
+	private final long bucketMillis;
+	private final int lanes;
+	private final AtomicLongArray buckets; // 每个槽位当前对应的时间桶序号
+	private final AtomicLongArray values; // 槽位 × 计数器
+
+	public SlidingWindowCounter(int slots, long bucketMillis, int lanes) {
+		if (slots < 2 || bucketMillis <= 0 || lanes <= 0) {
+			throw new IllegalArgumentException("slots must be >= 2, bucketMillis and lanes must be positive");
+		}
+		this.slots = slots;
+		this.bucketMillis = bucketMillis;
+		this.lanes = lanes;
+		this.buckets = new AtomicLongArray(slots);
+		for (int i = 0; i < slots; i++) buckets.set(i, -1);
+		this.values = new AtomicLongArray(slots * lanes);
+	}
+
+	// 累加计数
+	public void add(int lane, long delta, long nowMillis) {
+		int index = index(lane, nowMillis);
+		if (index >= 0) values.addAndGet(index, delta);
+	}
+
+	// 更新时间桶内的最大值
+	public void updateMax(int lane, long value, long nowMillis) {
+		int index = index(lane, nowMillis);
+		if (index < 0) return;
+		long current;
+		while (value > (current = values.get(index))) {
+			if (values.compareAndSet(index, current, value)) return;
+		}
+	}
+
+	// 最近n个已结束的时间桶的计数之和
+	public long sum(int lane, int n, long nowMillis) {
+		long current = nowMillis / bucketMillis;
+		long sum = 0;
+		for (long bucket = current - Math.min(n, slots - 1); bucket < current; bucket++) {
+			int slot = (int) Math.floorMod(bucket, (long) slots);
+			long value = values.get(slot * lanes + lane);
+			if (buckets.get(slot) == bucket) sum += value;
+		}
+		return sum;
+	}
+
+	// 当前时间桶（尚未结束）的计数
+	public long current(int lane, long nowMillis) {
+		long bucket = nowMillis / bucketMillis;
+		int slot = (int) Math.floorMod(bucket, (long) slots);
+		long value = values.get(slot * lanes + lane);
+		return buckets.get(slot) == bucket ? value : 0;
+	}
+
+	// 最近n个已结束的时间桶中的最大值
+	public long max(int lane, int n, long nowMillis) {
+		long current = nowMillis / bucketMillis;
+		long max = 0;
+		for (long bucket = current - Math.min(n, slots - 1); bucket < current; bucket++) {
+			int slot = (int) Math.floorMod(bucket, (long) slots);
+			long value = values.get(slot * lanes + lane);
+			if (buckets.get(slot) == bucket) max = Math.max(max, value);
+		}
+		return max;
+	}
+
+	public long getBucketMillis() {
+		return bucketMillis;
+	}
+
+	// 获取当前时间桶中计数器的下标（槽位中是过期的时间桶时切换到当前时间桶；写入已被复用的过期时间桶时返回-1）
+	private int index(int lane, long nowMillis) {
+		long bucket = nowMillis / bucketMillis;
+		int slot = (int) Math.floorMod(bucket, (long) slots);
+		long seen = buckets.get(slot);
+		while (seen != bucket) {
+			if (seen > bucket) return -1;
+			if (buckets.compareAndSet(slot, seen, bucket)) {
+				for (int i = 0; i < lanes; i++) values.set(slot * lanes + i, 0);
+				break;
+			}
+			seen = buckets.get(slot);
+		}
+		return slot * lanes + lane;
+	}
+}
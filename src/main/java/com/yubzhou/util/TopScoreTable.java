@@ -0,0 +1,168 @@
+package com.yubzhou.util;
+
+import org.springframework.data.redis.connection.zset.Aggregate;
+
+import java.util.*;
+import java.util.function.BinaryOperator;
+
+/**
+ * 有界的热度表（近似Top-K），写入方式与redis中的热点ZSet相同：按键设置最新的热度（ZADD），或累加热度增量（ZINCRBY）
+ * 最多只保留capacity个键（内存有界）：表已满时，新键的热度大于最小热度才替换热度最小的键（被替换的键的热度丢失），
+ * 因此只有一直处于末尾的键会被低估，排名靠前的键的热度与ZSet中的相同
+ * 键用最小堆组织（按热度排序），每次更新的时间复杂度为O(log capacity)
+ */
+public class TopScoreTable {
+	private final int capacity;
+	// 最小堆（按热度排序）：键、热度
+	private final long[] keys;
+	private final double[] scores;
+	// 键：在堆中的下标
+	private final Map<Long, Integer> index;
+	private int size = 0;
+
+	public TopScoreTable(int capacity) {
+		this.capacity = Math.max(1, capacity);
+		this.keys = new long[this.capacity];
+		this.scores = new double[this.capacity];
+		this.index = new HashMap<>(this.capacity * 2);
+	}
+
+	/**
+	 * 设置键的热度（ZADD）
+	 *
+	 * @return 之前的热度（键不在表中时返回null）
+	 */
+	public synchronized Double put(long key, double score) {
+		Integer i = index.get(key);
+		if (i == null) {
+			insert(key, score);
+			return null;
+		}
+		double previous = scores[i];
+		update(i, score);
+		return previous;
+	}
+
+	// 键不在表中时才设置热度（ZADD NX）
+	public synchronized void putIfAbsent(long key, double score) {
+		if (!index.containsKey(key)) insert(key, score);
+	}
+
+	// 累加键的热度（ZINCRBY），键不在表中时按增量插入
+	public synchronized void add(long key, double delta) {
+		Integer i = index.get(key);
+		if (i == null) insert(key, delta);
+		else update(i, scores[i] + delta);
+	}
+
+	// 热度大于当前热度时才更新（ZADD GT），键不在表中时直接插入
+	public synchronized void max(long key, double score) {
+		Integer i = index.get(key);
+		if (i == null) insert(key, score);
+		else if (score > scores[i]) update(i, score);
+	}
+
+	// 按聚合方式写入：SUM累加，MAX取最大值（与ZUNIONSTORE的AGGREGATE一致）
+	public void merge(long key, double score, Aggregate aggregate) {
+		if (aggregate == Aggregate.MAX) max(key, score);
+		else add(key, score);
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	// 获取所有键的热度（无序）
+	public synchronized List<Entry> entries() {
+		List<Entry> entries = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			entries.add(new Entry(keys[i], scores[i]));
+		}
+		return entries;
+	}
+
+	/**
+	 * 合并多个热度表（如多个时间桶）后获取热度最大的k个键（与ZUNIONSTORE后ZREVRANGE 0 k-1的结果一致）
+	 *
+	 * @param aggregate 同一个键在多个表中的热度的聚合方式（SUM或MAX）
+	 * @return 按热度降序排列的前k个键
+	 */
+	public static List<Entry> mergeTopK(Collection<TopScoreTable> tables, Aggregate aggregate, int k) {
+		BinaryOperator<Double> combiner = aggregate == Aggregate.MAX ? Math::max : Double::sum;
+		Map<Long, Double> merged = new HashMap<>();
+		for (TopScoreTable table : tables) {
+			for (Entry entry : table.entries()) {
+				merged.merge(entry.key(), entry.score(), combiner);
+			}
+		}
+		return merged.entrySet().stream()
+				.map(e -> new Entry(e.getKey(), e.getValue()))
+				// 热度相同时按成员的字符串形式逆序（与ZREVRANGE一致）
+				.sorted(Comparator.comparingDouble(Entry::score).reversed()
+						.thenComparing(e -> String.valueOf(e.key()), Comparator.reverseOrder()))
+				.limit(k)
+				.toList();
+	}
+
+	// 插入新键（表已满时只有热度大于最小热度才替换堆顶的键）
+	private void insert(long key, double score) {
+		if (size < capacity) {
+			keys[size] = key;
+			scores[size] = score;
+			index.put(key, size);
+			siftUp(size++);
+		} else if (score > scores[0]) {
+			index.remove(keys[0]);
+			keys[0] = key;
+			scores[0] = score;
+			index.put(key, 0);
+			siftDown(0);
+		}
+	}
+
+	private void update(int i, double score) {
+		double previous = scores[i];
+		scores[i] = score;
+		if (score > previous) siftDown(i);
+		else siftUp(i);
+	}
+
+	private void siftUp(int i) {
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (scores[parent] <= scores[i]) break;
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	private void siftDown(int i) {
+		while (true) {
+			int left = 2 * i + 1;
+			if (left >= size) break;
+			int right = left + 1;
+			int smallest = right < size && scores[right] < scores[left] ? right : left;
+			if (scores[i] <= scores[smallest]) break;
+			swap(i, smallest);
+			i = smallest;
+		}
+	}
+
+	private void swap(int i, int j) {
+		long key = keys[i];
+		keys[i] = keys[j];
+		keys[j] = key;
+		double score = scores[i];
+		scores[i] = scores[j];
+		scores[j] = score;
+		index.put(keys[i], i);
+		index.put(keys[j], j);
+	}
+
+	/**
+	 * @param key   键
+	 * @param score 热度
+	 */
+	public record Entry(long key, double score) {
+	}
+}
@@ -0,0 +1,125 @@
+--[[
+核心目标：在一次服务端调用中原子地完成一个用户行为事件对新闻的全部更新
+1. 支持、反对互斥处理（移除相反操作，并将相反操作的指标减一）
+2. 更新用户新闻行为记录（支持、反对、收藏及其取消操作）
+3. HINCRBY 更新新闻指标
+4. 重新计算衰减热度，并 ZADD 到当前小时窗口（同时设置过期时间）
+
+参数说明：
+KEYS[1] = 新闻指标Hash键名（news:metrics:{newsId}，包括计算热度所需的createdAt）
+KEYS[2] = 当前小时窗口ZSet键名（news:hot:1h:{yyyyMMddHH}）
+KEYS[3] = 用户该操作的行为记录Set键名（不需要记录时传空字符串）
+KEYS[4] = 用户互斥操作的行为记录Set键名（无互斥操作时传空字符串）
+ARGV[1] = 新闻ID（Set、ZSet的成员）
+ARGV[2] = 指标字段名（如views、supports）
+ARGV[3] = 互斥操作的指标字段名（无互斥操作时传空字符串）
+ARGV[4] = 是否为取消操作（1：是，0：否）
+ARGV[5] = 当前小时窗口的过期时间（秒）
+ARGV[6] = 当前时间（yyyy-MM-dd'T'HH:mm:ss，与createdAt同为本地时间）
+ARGV[7] = 浏览权重
+ARGV[8] = 支持、反对权重
+ARGV[9] = 评论权重
+ARGV[10] = 收藏权重
+ARGV[11] = 基础热度的最小保留比例
+ARGV[12] = 增量（可选，默认为1；只对不需要记录用户行为的操作生效，用于写入进程内聚合后的增量）
+ARGV[13] = 热度计算模式（可选，DECAY：衰减热度（默认），LOG_TIME：对数时间热度）
+ARGV[14] = 对数时间热度的时间常数τ（秒）
+ARGV[15] = 对数时间热度的时间起点（yyyy-MM-dd'T'HH:mm:ss）
+
+返回值：
+更新后的热度（字符串）；新闻指标缓存不存在时返回nil，且不做任何修改
+--]]
+
+-- 新闻指标缓存不存在时直接返回，避免HINCRBY产生残缺的Hash
+local createdAt = redis.call('HGET', KEYS[1], 'createdAt')
+if not createdAt then
+    return false
+end
+
+local newsId = ARGV[1]
+local field = ARGV[2]
+local exclusiveField = ARGV[3]
+local isCancel = ARGV[4] == '1'
+
+-- 1. 支持、反对互斥处理：相反操作存在时才将其指标减一
+if KEYS[4] ~= '' and redis.call('SREM', KEYS[4], newsId) == 1 then
+    redis.call('HINCRBY', KEYS[1], exclusiveField, -1)
+end
+
+-- 2、3. 更新用户行为记录及指标（重复的操作或取消不存在的操作不会改变指标）
+local delta
+if KEYS[3] == '' then
+    local count = tonumber(ARGV[12]) or 1
+    delta = isCancel and -count or count
+elseif isCancel then
+    delta = -redis.call('SREM', KEYS[3], newsId)
+else
+    delta = redis.call('SADD', KEYS[3], newsId)
+end
+if delta ~= 0 then
+    redis.call('HINCRBY', KEYS[1], field, delta)
+end
+
+-- 4. 计算热度（与 HotNewsUtil.calculateHotness 保持一致）
+local metrics = redis.call('HMGET', KEYS[1], 'views', 'supports', 'opposes', 'comments', 'favorites')
+local views = tonumber(metrics[1]) or 0
+local supports = tonumber(metrics[2]) or 0
+local opposes = tonumber(metrics[3]) or 0
+local comments = tonumber(metrics[4]) or 0
+local favorites = tonumber(metrics[5]) or 0
+local base = math.log(views + 1) * tonumber(ARGV[7])
+        + (supports + opposes) * tonumber(ARGV[8])
+        + comments * tonumber(ARGV[9])
+        + favorites * tonumber(ARGV[10])
+
+-- 将本地时间转换为秒数（基于公历日期到天数的换算，只用于计算时间差）
+local function toSeconds(text)
+    local y, mo, d, h, mi, s = string.match(text, '(%d+)%-(%d+)%-(%d+)[T ](%d+):(%d+):(%d+)')
+    y, mo, d = tonumber(y), tonumber(mo), tonumber(d)
+    if mo <= 2 then
+        y = y - 1
+    end
+    local era = math.floor(y / 400)
+    local yoe = y - era * 400
+    local doy = math.floor((153 * ((mo + 9) % 12) + 2) / 5) + d - 1
+    local doe = yoe * 365 + math.floor(yoe / 4) - math.floor(yoe / 100) + doy
+    local days = era * 146097 + doe
+    return ((days * 24 + tonumber(h)) * 60 + tonumber(mi)) * 60 + tonumber(s)
+end
+
+-- 基于分段线性插值的衰减率（与 HotNewsUtil.calculateDecayRate 保持一致）
+local function decayRate(deltaDays)
+    local thresholds = { 1.0, 3.0, 5.0, 7.0 }
+    local rates = { 0.005, 0.015, 0.03, 0.05 }
+    if deltaDays < 1.0 then
+        return 0.0
+    elseif deltaDays >= 7.0 then
+        return rates[4]
+    end
+    local segment = 1
+    while segment <= #thresholds and deltaDays >= thresholds[segment] do
+        segment = segment + 1
+    end
+    local prevThreshold = thresholds[segment - 1]
+    local ratio = (deltaDays - prevThreshold) / (thresholds[segment] - prevThreshold)
+    return rates[segment - 1] + ratio * (rates[segment] - rates[segment - 1])
+end
+
+local score
+if ARGV[13] == 'LOG_TIME' then
+    -- 对数时间热度：ln(max(基础热度, 1)) + (创建时间 − 时间起点) / τ
+    local offsetSeconds = toSeconds(createdAt) - toSeconds(ARGV[15])
+    score = math.log(math.max(base, 1.0)) + offsetSeconds / tonumber(ARGV[14])
+else
+    -- 衰减热度
+    local deltaHours = math.floor(math.abs(toSeconds(ARGV[6]) - toSeconds(createdAt)) / 3600)
+    local deltaDays = deltaHours / 24.0
+    local minRate = tonumber(ARGV[11])
+    score = base * (minRate + (1 - minRate) * math.exp(-decayRate(deltaDays) * deltaDays))
+end
+
+redis.call('ZADD', KEYS[2], score, newsId)
+redis.call('EXPIRE', KEYS[2], tonumber(ARGV[5]))
+
+-- 浮点数需转换为字符串返回（否则会被截断为整数）
+return string.format('%.17g', score)
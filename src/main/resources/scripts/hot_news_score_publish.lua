@@ -0,0 +1,30 @@
+--[[
+核心目标：读取一批新闻在当前小时桶中的热度并广播给其他节点（进程内的热点新闻Top-K统计）
+与热点新闻行为脚本在同一个pipeline中执行（位于所有行为脚本之后），不额外往返；
+热度在服务端读取，因此与ZSet中的热度完全相同
+
+参数说明：
+KEYS[1] = 当前小时桶键名
+ARGV[1] = 发布订阅频道
+ARGV[2] = 发布节点的标识（接收方忽略自己发布的消息）
+ARGV[3] = 小时序号
+ARGV[4...] = 新闻ID
+
+返回值：收到消息的订阅者数（没有需要广播的热度时返回0）
+]]
+
+local entries = {}
+for i = 4, #ARGV do
+    local score = redis.call('ZSCORE', KEYS[1], ARGV[i])
+    if score then
+        -- ZSCORE返回分数的字符串形式（不损失精度），直接作为JSON数字
+        entries[#entries + 1] = '"' .. ARGV[i] .. '":' .. score
+    end
+end
+if #entries == 0 then
+    return 0
+end
+
+-- 消息格式与HotNewsScoreMessage一致：{"source":...,"hour":...,"scores":{"新闻ID":热度,...}}
+local message = '{"source":"' .. ARGV[2] .. '","hour":' .. ARGV[3] .. ',"scores":{' .. table.concat(entries, ',') .. '}}'
+return redis.call('PUBLISH', ARGV[1], message)
@@ -0,0 +1,34 @@
+--[[
+核心目标：对热点窗口（或汇总桶）原子地执行一次增量更新，且同一个时间刻度只执行一次（多实例、重复调度时幂等）
+目标ZSet = 目标ZSet + 新增桶 − 过期桶（ZUNIONSTORE WEIGHTS 1 1 -1），再移除分数不大于0的成员
+
+参数说明：
+KEYS[1] = 目标ZSet键名（热点窗口或天、周汇总桶）
+KEYS[2] = 窗口元数据Hash键名（记录每个目标最近一次执行的时间刻度）
+KEYS[3] = 新增桶键名
+KEYS[4] = 过期桶键名（无过期桶时传空字符串）
+ARGV[1] = 元数据字段名
+ARGV[2] = 时间刻度（小时序号）
+ARGV[3] = 分数聚合方式（SUM、MAX；有过期桶时只能为SUM）
+ARGV[4] = 目标ZSet的过期时间（秒）
+
+返回值：
+'1'：已执行；'0'：该时间刻度已执行过，跳过
+--]]
+
+local last = tonumber(redis.call('HGET', KEYS[2], ARGV[1]))
+local tick = tonumber(ARGV[2])
+if last and last >= tick then
+    return '0'
+end
+
+if KEYS[4] ~= '' then
+    redis.call('ZUNIONSTORE', KEYS[1], 3, KEYS[1], KEYS[3], KEYS[4], 'WEIGHTS', 1, 1, -1, 'AGGREGATE', 'SUM')
+    -- 过期桶中的新闻在窗口内已没有热度（浮点误差可能留下极小的正数）
+    redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '1e-9')
+else
+    redis.call('ZUNIONSTORE', KEYS[1], 2, KEYS[1], KEYS[3], 'AGGREGATE', ARGV[3])
+end
+redis.call('EXPIRE', KEYS[1], tonumber(ARGV[4]))
+redis.call('HSET', KEYS[2], ARGV[1], tick)
+return '1'
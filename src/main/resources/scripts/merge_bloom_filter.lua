@@ -0,0 +1,16 @@
+--[[
+核心目标：将Java内存中的新闻ID布隆过滤器位图原子地按位或合并到redis位图，并返回合并后的位图
+脚本执行期间不会插入其他命令（其他节点的SETBIT、合并），因此不会覆盖其他节点设置的位
+
+参数说明：
+KEYS[1] = redis位图键名（news:bloom:{位数}:{哈希函数个数}）
+KEYS[2] = 临时键名（脚本结束前删除）
+ARGV[1] = Java内存中的位图（redis位图格式）
+
+返回值：合并后的redis位图
+--]]
+
+redis.call('SET', KEYS[2], ARGV[1])
+redis.call('BITOP', 'OR', KEYS[1], KEYS[1], KEYS[2])
+redis.call('DEL', KEYS[2])
+return redis.call('GET', KEYS[1])
@@ -0,0 +1,45 @@
+--[[
+核心目标：将旧格式的新闻缓存（详情、指标、内容都在同一个Hash中）拆分为新格式
+新格式：news:detail:{id}（详情）、news:metrics:{id}（指标）、news:content:{id}（内容）
+脚本是原子且幂等的，迁移期间不会与用户行为脚本产生竞争
+
+参数说明：
+KEYS[1] = 新闻详情Hash键名（news:detail:{newsId}）
+KEYS[2] = 新闻指标Hash键名（news:metrics:{newsId}）
+KEYS[3] = 新闻内容键名（news:content:{newsId}）
+
+返回值：1表示已迁移，0表示不是旧格式（无需迁移）
+--]]
+
+-- 旧格式的详情Hash中包含指标字段
+if redis.call('HEXISTS', KEYS[1], 'views') == 0 then
+    return 0
+end
+
+local metricFields = { 'views', 'supports', 'opposes', 'comments', 'favorites', 'version' }
+
+-- 指标Hash已存在时以其为准（可能已经有新的指标更新），否则从旧格式中复制
+if redis.call('EXISTS', KEYS[2]) == 0 then
+    local values = redis.call('HMGET', KEYS[1], unpack(metricFields))
+    for i, field in ipairs(metricFields) do
+        if values[i] then
+            redis.call('HSET', KEYS[2], field, values[i])
+        end
+    end
+    redis.call('HSET', KEYS[2], 'createdAt', redis.call('HGET', KEYS[1], 'createdAt'))
+end
+
+local content = redis.call('HGET', KEYS[1], 'content')
+if content then
+    redis.call('SET', KEYS[3], content)
+end
+
+-- 新格式的键与原键保持相同的过期时间
+local ttl = redis.call('PTTL', KEYS[1])
+if ttl > 0 then
+    redis.call('PEXPIRE', KEYS[2], ttl)
+    redis.call('PEXPIRE', KEYS[3], ttl)
+end
+
+redis.call('HDEL', KEYS[1], 'content', unpack(metricFields))
+return 1
@@ -0,0 +1,19 @@
+--[[
+核心目标：用数据库中的评论数覆盖redis中新闻指标的comments字段
+只更新已存在的指标Hash（不存在时不创建，避免产生缺少其他指标字段的不完整缓存）
+
+参数说明：
+KEYS[i] = 新闻指标Hash键名（news:metrics:{newsId}）
+ARGV[i] = 对应新闻在数据库中的评论数
+
+返回值：更新的新闻数
+--]]
+
+local updated = 0
+for i, key in ipairs(KEYS) do
+    if redis.call('EXISTS', key) == 1 then
+        redis.call('HSET', key, 'comments', ARGV[i])
+        updated = updated + 1
+    end
+end
+return updated
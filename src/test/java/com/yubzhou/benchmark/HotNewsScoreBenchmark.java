@@ -0,0 +1,79 @@
+package com.yubzhou.benchmark;
+
+import com.yubzhou.util.HotNewsUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 衰减热度（DECAY）与对数时间热度（LOG_TIME）的基准测试
+ * 1. 单个事件的热度计算开销
+ * 2. 衰减热度要保持排序正确需要定时对窗口内所有新闻重新计算，对数时间热度不需要（排序与时间无关）
+ * 运行方式：直接运行main方法（需先执行 mvn test-compile 生成JMH代码）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HotNewsScoreBenchmark {
+
+	private static final long TAU_SECONDS = TimeUnit.HOURS.toSeconds(24);
+
+	@Param({"10000"})
+	private int newsCount;
+
+	private double[] bases;
+	private LocalDateTime[] createdAts;
+	private int index;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		bases = new double[newsCount];
+		createdAts = new LocalDateTime[newsCount];
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < newsCount; i++) {
+			bases[i] = random.nextDouble() * 1000;
+			createdAts[i] = now.minusMinutes(random.nextInt(30 * 24 * 60));
+		}
+	}
+
+	// 单个事件：衰减热度
+	@Benchmark
+	public double decayPerEvent() {
+		int i = index++ % newsCount;
+		return HotNewsUtil.calculateDecayedHotness(bases[i], createdAts[i]);
+	}
+
+	// 单个事件：对数时间热度
+	@Benchmark
+	public double logTimePerEvent() {
+		int i = index++ % newsCount;
+		return HotNewsUtil.calculateLogTimeHotness(bases[i], createdAts[i], TAU_SECONDS);
+	}
+
+	// 衰减热度保持排序正确所需的全量重新计算（对数时间热度不需要该步骤）
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void decayRescoreAll(Blackhole blackhole) {
+		for (int i = 0; i < newsCount; i++) {
+			blackhole.consume(HotNewsUtil.calculateDecayedHotness(bases[i], createdAts[i]));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(HotNewsScoreBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,121 @@
+package com.yubzhou.benchmark;
+
+import com.yubzhou.config.JacksonConfig;
+import com.yubzhou.model.po.News;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.serializer.NewsBinaryCodec;
+import com.yubzhou.serializer.NewsContentCompressor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 新闻缓存编码基准测试：二进制blob（news:blob:{id}，内容不压缩/Deflate压缩） vs 当前的新闻详情Hash + 新闻内容字符串
+ * Hash格式使用与生产环境相同的Jackson2JsonRedisSerializer逐字段序列化（只比较编解码，不包括网络往返）
+ * 运行方式：直接运行main方法（先打印每条新闻的字节数，再执行JMH）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NewsCacheCodecBenchmark {
+	@Param({"200", "5000"})
+	public int contentLength;
+
+	private News news;
+	private Jackson2JsonRedisSerializer<Object> jsonSerializer;
+	private NewsContentCompressor compressor;
+	private byte[] binaryBytes;
+	private byte[] deflatedBytes;
+	private Map<byte[], byte[]> hashBytes;
+	private byte[] contentBytes;
+
+	@Setup
+	public void setup() {
+		news = new News();
+		news.setId(1_234_567L);
+		news.setTitle("数据侦探：某地发布新规，网传消息真假待核实");
+		news.setCoverUrl("https://example.com/upload/news/cover/2025/03/01/1234567.jpg");
+		news.setContent("新闻内容".repeat(contentLength / 4));
+		news.setCreatedAt(LocalDateTime.of(2025, 3, 1, 12, 30, 15));
+		jsonSerializer = new Jackson2JsonRedisSerializer<>(new JacksonConfig().businessObjectMapper(), Object.class);
+
+		HotNewsProperties properties = new HotNewsProperties();
+		properties.getNewsCache().setCompressionEnabled(true);
+		properties.getNewsCache().setCompressThresholdBytes(0);
+		compressor = new NewsContentCompressor(properties);
+
+		binaryBytes = NewsBinaryCodec.encode(news);
+		deflatedBytes = NewsBinaryCodec.encode(news, compressor);
+		hashBytes = hashSerialize();
+		contentBytes = jsonSerializer.serialize(news.getContent());
+	}
+
+	@Benchmark
+	public byte[] binaryEncode() {
+		return NewsBinaryCodec.encode(news);
+	}
+
+	@Benchmark
+	public News binaryDecode() {
+		return NewsBinaryCodec.decode(binaryBytes);
+	}
+
+	@Benchmark
+	public byte[] deflatedEncode() {
+		return NewsBinaryCodec.encode(news, compressor);
+	}
+
+	@Benchmark
+	public News deflatedDecode() {
+		return NewsBinaryCodec.decode(deflatedBytes, compressor);
+	}
+
+	@Benchmark
+	public Object hashEncode() {
+		Map<byte[], byte[]> hash = hashSerialize();
+		return new Object[]{hash, jsonSerializer.serialize(news.getContent())};
+	}
+
+	@Benchmark
+	public News hashDecode() {
+		Map<Object, Object> detail = new HashMap<>();
+		hashBytes.forEach((field, value) -> detail.put(new String(field, StandardCharsets.UTF_8), jsonSerializer.deserialize(value)));
+		return News.fromRedisMap(detail, Map.of(), (String) jsonSerializer.deserialize(contentBytes));
+	}
+
+	// 与HashOperations.putAll相同：字段名为UTF-8字节，字段值为JSON
+	private Map<byte[], byte[]> hashSerialize() {
+		Map<byte[], byte[]> hash = new HashMap<>();
+		news.toRedisMap().forEach((field, value) -> hash.put(field.getBytes(StandardCharsets.UTF_8), jsonSerializer.serialize(value)));
+		return hash;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		for (int contentLength : new int[]{200, 5000}) {
+			NewsCacheCodecBenchmark benchmark = new NewsCacheCodecBenchmark();
+			benchmark.contentLength = contentLength;
+			benchmark.setup();
+			int hashBytes = benchmark.contentBytes.length;
+			for (var entry : benchmark.hashBytes.entrySet()) hashBytes += entry.getKey().length + entry.getValue().length;
+			System.out.printf("内容%d字时每条新闻的字节数：二进制=%d，二进制（压缩）=%d，Hash+内容=%d（另有2个键）%n",
+					contentLength, benchmark.binaryBytes.length, benchmark.deflatedBytes.length, hashBytes);
+		}
+
+		Options options = new OptionsBuilder()
+				.include(NewsCacheCodecBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,91 @@
+package com.yubzhou.benchmark;
+
+import com.yubzhou.common.UserActionEvent;
+import com.yubzhou.common.UserActionEvent.ActionType;
+import com.yubzhou.serializer.UserActionEventDeserializer;
+import com.yubzhou.serializer.UserActionEventSerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户行为事件序列化基准测试：二进制格式 vs 当前的JsonSerializer/JsonDeserializer
+ * JSON格式使用与生产环境相同的类型头（__TypeId__），反序列化时按类型头还原
+ * 运行方式：直接运行main方法（先打印每个事件的字节数，再执行JMH）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UserActionEventSerdeBenchmark {
+	private static final String TOPIC = "user_actions";
+
+	private UserActionEvent event;
+	private UserActionEventSerializer binarySerializer;
+	private UserActionEventDeserializer binaryDeserializer;
+	private JsonSerializer<Object> jsonSerializer;
+	private JsonDeserializer<Object> jsonDeserializer;
+	private byte[] binaryBytes;
+	private byte[] jsonBytes;
+	private RecordHeaders jsonHeaders;
+
+	@Setup
+	public void setup() {
+		event = new UserActionEvent(1_234_567L, 7_654_321L, ActionType.SUPPORT, System.currentTimeMillis());
+		binarySerializer = new UserActionEventSerializer();
+		binaryDeserializer = new UserActionEventDeserializer();
+		jsonSerializer = new JsonSerializer<>();
+		jsonDeserializer = new JsonDeserializer<>();
+		// 保留类型头，使每次反序列化都能读取到类型信息
+		jsonDeserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.yubzhou.*",
+				JsonDeserializer.REMOVE_TYPE_INFO_HEADERS, false), false);
+
+		binaryBytes = binarySerializer.serialize(TOPIC, event);
+		jsonHeaders = new RecordHeaders();
+		jsonBytes = jsonSerializer.serialize(TOPIC, jsonHeaders, event);
+	}
+
+	@Benchmark
+	public byte[] binarySerialize() {
+		return binarySerializer.serialize(TOPIC, event);
+	}
+
+	@Benchmark
+	public Object binaryDeserialize() {
+		return binaryDeserializer.deserialize(TOPIC, binaryBytes);
+	}
+
+	@Benchmark
+	public byte[] jsonSerialize() {
+		return jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+	}
+
+	@Benchmark
+	public Object jsonDeserialize() {
+		return jsonDeserializer.deserialize(TOPIC, jsonHeaders, jsonBytes);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		UserActionEventSerdeBenchmark benchmark = new UserActionEventSerdeBenchmark();
+		benchmark.setup();
+		int headerBytes = 0;
+		for (var header : benchmark.jsonHeaders) headerBytes += header.key().length() + header.value().length;
+		System.out.printf("每个事件的字节数：二进制=%d，JSON=%d（另有类型头%d字节）%n",
+				benchmark.binaryBytes.length, benchmark.jsonBytes.length, headerBytes);
+
+		Options options = new OptionsBuilder()
+				.include(UserActionEventSerdeBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+}
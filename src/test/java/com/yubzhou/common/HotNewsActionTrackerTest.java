@@ -0,0 +1,48 @@
+package com.yubzhou.common;
+
+import com.yubzhou.common.UserActionEvent.ActionType;
+import com.yubzhou.properties.HotNewsProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotNewsActionTrackerTest {
+	private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+	private final HotNewsActionTracker tracker = new HotNewsActionTracker(new HotNewsProperties(), now::get);
+
+	@Test
+	void reportsRatesAndLatencyPerActionType() {
+		for (int second = 0; second < 60; second++) {
+			tracker.record(List.of(
+					new UserActionEvent(1L, 1L, ActionType.VIEW, now.get() - 100),
+					new UserActionEvent(1L, 1L, ActionType.VIEW, now.get() - 300),
+					new UserActionEvent(2L, 1L, ActionType.FAVORITE, null)));
+			now.addAndGet(1000);
+		}
+
+		assertEquals(2.0, tracker.rate(ActionType.VIEW, 1));
+		assertEquals(2.0, tracker.rate(ActionType.VIEW, 60));
+		assertEquals(1.0, tracker.rate(ActionType.FAVORITE, 60));
+		assertEquals(3.0 * 60 / 300, tracker.rate(null, 300));
+		assertEquals(200.0, tracker.averageLatencyMillis()); // 没有时间戳的事件不计入延迟
+		assertEquals(300, tracker.maxLatencyMillis());
+	}
+
+	@Test
+	void gatesRefreshOnEventsWithinWindow() {
+		assertFalse(tracker.shouldRefresh(false, 270_000));
+		assertTrue(tracker.shouldRefresh(true, 270_000));
+
+		tracker.record(List.of(new UserActionEvent(1L, 1L, ActionType.VIEW, now.get())));
+		assertTrue(tracker.shouldRefresh(false, 270_000)); // 当前分钟内的事件
+
+		now.addAndGet(4 * 60_000);
+		assertTrue(tracker.shouldRefresh(false, 270_000));
+		now.addAndGet(2 * 60_000);
+		assertFalse(tracker.shouldRefresh(false, 270_000));
+		assertTrue(tracker.shouldRefresh(false, 750_000));
+	}
+}
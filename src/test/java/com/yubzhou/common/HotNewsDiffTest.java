@@ -0,0 +1,46 @@
+package com.yubzhou.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.yubzhou.model.vo.HotNews;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotNewsDiffTest {
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	@Test
+	void reportsMovedEnteredAndLeft() {
+		HotNewsSnapshot previous = snapshot(hotNews(1, 9.0), hotNews(2, 8.0), hotNews(3, 7.0));
+		HotNewsSnapshot current = snapshot(hotNews(2, 9.5), hotNews(1, 9.0), hotNews(4, 7.5));
+
+		HotNewsDiff diff = HotNewsDiff.between("1h", previous, current);
+
+		assertNotNull(diff);
+		assertEquals(current.getEtag(), diff.etag());
+		assertEquals(List.of(new HotNewsDiff.Moved(2, 2, 1), new HotNewsDiff.Moved(1, 1, 2)), diff.moved());
+		assertEquals(List.of(4L), diff.entered().stream().map(HotNews::getNewsId).toList());
+		assertEquals(List.of(3L), diff.left());
+	}
+
+	@Test
+	void ignoresHotnessOnlyChanges() {
+		HotNewsSnapshot previous = snapshot(hotNews(1, 9.0), hotNews(2, 8.0));
+		HotNewsSnapshot current = snapshot(hotNews(1, 9.9), hotNews(2, 8.8));
+
+		assertNotEquals(previous.getEtag(), current.getEtag());
+		assertNull(HotNewsDiff.between("1h", previous, current));
+	}
+
+	private HotNewsSnapshot snapshot(HotNews... hotNews) {
+		return HotNewsSnapshot.of(Stream.of(hotNews).toList(), null, objectMapper);
+	}
+
+	private static HotNews hotNews(long newsId, double hotness) {
+		return new HotNews(newsId, hotness);
+	}
+}
@@ -0,0 +1,45 @@
+package com.yubzhou.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.yubzhou.model.vo.HotNews;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotNewsSnapshotTest {
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	@Test
+	void rendersResultJsonAndGzip() throws IOException {
+		HotNewsSnapshot snapshot = HotNewsSnapshot.of(List.of(new HotNews(1L, 2, 3.5, null)), null, objectMapper);
+
+		JsonNode json = objectMapper.readTree(snapshot.getJson());
+		assertEquals(200, json.get("code").asInt());
+		assertEquals(1L, json.get("data").get(0).get("newsId").asLong());
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzip()))) {
+			assertArrayEquals(snapshot.getJson(), in.readAllBytes());
+		}
+		assertThrows(UnsupportedOperationException.class, () -> snapshot.getHotNews().clear());
+	}
+
+	@Test
+	void keepsPreviousSnapshotWhenContentIsUnchanged() {
+		HotNewsSnapshot first = HotNewsSnapshot.of(List.of(new HotNews(1L, 1, 3.5, null)), null, objectMapper);
+		HotNewsSnapshot same = HotNewsSnapshot.of(List.of(new HotNews(1L, 1, 3.5, null)), first, objectMapper);
+		HotNewsSnapshot changed = HotNewsSnapshot.of(List.of(new HotNews(1L, 1, 4.0, null)), first, objectMapper);
+
+		assertSame(first, same);
+		assertNotEquals(first.getEtag(), changed.getEtag());
+		assertTrue(first.getEtag().startsWith("\"") && first.getEtag().endsWith("\""));
+		// gzip版本的响应体字节不同，使用不同的强ETag
+		assertEquals(first.getEtag().replaceAll("\"$", "-gzip\""), first.getGzipEtag());
+		assertNotEquals(first.getEtag(), first.getGzipEtag());
+	}
+}
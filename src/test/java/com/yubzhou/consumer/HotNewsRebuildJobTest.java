@@ -0,0 +1,55 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.model.po.News;
+import com.yubzhou.util.HotNewsUtil;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotNewsRebuildJobTest {
+	private static final long HOUR_TTL = TimeUnit.HOURS.toSeconds(49);
+	private static final long DAY_TTL = TimeUnit.DAYS.toSeconds(15);
+	private static final long WEEK_TTL = TimeUnit.DAYS.toSeconds(21);
+
+	// 2025-04-09 10:00（周三）
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 4, 9, 10, 0);
+
+	@Test
+	void assignsNewsToBucketsOfItsLastUpdate() {
+		List<HotNewsRebuildJob.BucketEntry> entries = entries(news(NOW.minusHours(3)));
+
+		assertEquals(List.of("news:hot:1h:2025040907", "news:hot:1d:20250409", "news:hot:1w:20250407"),
+				entries.stream().map(HotNewsRebuildJob.BucketEntry::key).toList());
+		double expected = HotNewsUtil.calculateDecayedHotness(
+				Math.log(101) * 1.5, NOW.minusDays(2), NOW.minusHours(3));
+		entries.forEach(entry -> assertEquals(expected, entry.hotness(), 1e-9));
+	}
+
+	@Test
+	void skipsBucketsOutsideRetention() {
+		// 3天前更新：小时桶已过期，只写入天级桶和周级桶
+		assertEquals(List.of("news:hot:1d:20250406", "news:hot:1w:20250331"),
+				entries(news(NOW.minusDays(3))).stream().map(HotNewsRebuildJob.BucketEntry::key).toList());
+		// 16天前更新：只写入周级桶
+		assertEquals(1, entries(news(NOW.minusDays(16))).size());
+		// 超过周级桶的保留时长：不写入
+		assertTrue(entries(news(NOW.minusDays(30))).isEmpty());
+	}
+
+	private static List<HotNewsRebuildJob.BucketEntry> entries(News news) {
+		return HotNewsRebuildJob.bucketEntries(news, HotNewsUtil.ScoreMode.DECAY, 0,
+				HotNewsWindowService.hourOf(NOW), HOUR_TTL, DAY_TTL, WEEK_TTL);
+	}
+
+	private static News news(LocalDateTime updatedAt) {
+		News news = new News(1L);
+		news.setViews(100);
+		news.setCreatedAt(NOW.minusDays(2));
+		news.setUpdatedAt(updatedAt);
+		return news;
+	}
+}
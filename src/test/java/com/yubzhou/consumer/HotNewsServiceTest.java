@@ -0,0 +1,193 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.common.HotNewsActionTracker;
+import com.yubzhou.common.UserActionEvent;
+import com.yubzhou.common.UserActionEvent.ActionType;
+import com.yubzhou.model.po.News;
+import com.yubzhou.producer.UserActionDeadLetterPublisher;
+import com.yubzhou.properties.AsyncProperties;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.serializer.NewsContentCompressor;
+import com.yubzhou.service.NewsCategoryRelationService;
+import com.yubzhou.service.NewsService;
+import com.yubzhou.util.OrderedLaneExecutor;
+import com.yubzhou.util.RedisLockUtil;
+import com.yubzhou.util.RedisUtil;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class HotNewsServiceTest {
+
+	private final HotNewsProperties properties = new HotNewsProperties();
+	private final NewsActionAggregator aggregator = new NewsActionAggregator(properties);
+	@SuppressWarnings("unchecked")
+	private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+	private final NewsMetricsFlushService flushService = mock(NewsMetricsFlushService.class);
+	private final NewsNearCache nearCache = mock(NewsNearCache.class);
+	private final HotNewsActionTracker actionTracker = mock(HotNewsActionTracker.class);
+	private final HotNewsTopKTracker topKTracker = mock(HotNewsTopKTracker.class);
+	private final NewsIdBloomFilter bloomFilter = mock(NewsIdBloomFilter.class);
+	private final UserActionDeadLetterPublisher deadLetterPublisher = mock(UserActionDeadLetterPublisher.class);
+	private final OrderedLaneExecutor laneExecutor = newLaneExecutor();
+	@SuppressWarnings("unchecked")
+	private final DefaultRedisScript<String> actionScript = mock(DefaultRedisScript.class);
+	private final HotNewsService service;
+
+	@SuppressWarnings("unchecked")
+	HotNewsServiceTest() {
+		when(bloomFilter.mightContain(anyLong())).thenReturn(true);
+		properties.getConsumer().setRetryIntervalMillis(0);
+		service = new HotNewsService(redisTemplate, mock(RedisUtil.class), mock(RedisLockUtil.class),
+				mock(NewsService.class), mock(NewsCategoryRelationService.class), actionTracker,
+				flushService, aggregator, mock(UserActionBackpressure.class), deadLetterPublisher, topKTracker,
+				mock(HotNewsTrendingTracker.class), mock(HotNewsWindowService.class), nearCache,
+				bloomFilter, new NewsContentCompressor(properties), properties, mock(ThreadPoolTaskExecutor.class),
+				laneExecutor, actionScript, mock(DefaultRedisScript.class));
+		when(actionScript.getSha1()).thenReturn("sha1");
+	}
+
+	// 两个执行道：新闻1和新闻2分配到不同的执行道
+	private static OrderedLaneExecutor newLaneExecutor() {
+		AsyncProperties.LaneConfig config = new AsyncProperties.LaneConfig();
+		config.setLaneCount(2);
+		config.setAwaitTerminationSeconds(5);
+		return new OrderedLaneExecutor(config);
+	}
+
+	@AfterEach
+	void shutdownLanes() {
+		laneExecutor.shutdown();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void restoresDrainedDeltasWhenRedisWriteFails() {
+		for (int i = 0; i < 3; i++) aggregator.offer(new UserActionEvent(1L, 1L, ActionType.VIEW, 0L));
+		aggregator.offer(new UserActionEvent(2L, 1L, ActionType.COMMENT, 0L));
+
+		// redis超时：取出的增量放回聚合器，异常继续抛给调度器
+		when(redisTemplate.executePipelined(any(SessionCallback.class))).thenThrow(new QueryTimeoutException("redis超时"));
+		assertThrows(QueryTimeoutException.class, service::flushAggregatedActions);
+		verifyNoInteractions(flushService);
+		assertEquals(2L, aggregator.getStats().get("restoredDeltas"));
+
+		// 下次取出时得到完整的增量（与失败期间新到达的事件合并）
+		aggregator.offer(new UserActionEvent(1L, 1L, ActionType.VIEW, 0L));
+		Map<Long, Map<ActionType, Long>> deltas = aggregator.drain();
+		assertEquals(4L, deltas.get(1L).get(ActionType.VIEW));
+		assertEquals(1L, deltas.get(2L).get(ActionType.COMMENT));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void writesMergedViewsBeforeReturningAndRecordsOnlyOnSuccess() {
+		List<UserActionEvent> events = List.of(new UserActionEvent(1L, 1L, ActionType.VIEW, 0L),
+				new UserActionEvent(1L, 2L, ActionType.VIEW, 0L), new UserActionEvent(1L, 3L, ActionType.VIEW, 0L));
+		when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of("title", true));
+		// 第一次写入超时，重试时成功（3个浏览事件合并为1次脚本调用）
+		when(redisTemplate.executePipelined(any(RedisCallback.class), any(RedisSerializer.class)))
+				.thenThrow(new QueryTimeoutException("redis超时"))
+				.thenReturn(List.of("1.0"));
+
+		assertThrows(QueryTimeoutException.class, () -> service.applyEventsDurably(events));
+		verifyNoInteractions(actionTracker, topKTracker, flushService);
+
+		service.applyEventsDurably(events);
+		verify(actionTracker, times(1)).record(events);
+		// Top-K统计记录脚本写入小时桶的热度（而不是按事件累加）
+		verify(topKTracker, times(1)).record(eq(Map.of(1L, 1.0)), any(LocalDateTime.class));
+		verify(flushService).markDirty(Set.of(1L));
+		// 没有交给进程内聚合（不依赖定时任务写入redis）
+		assertEquals(0L, aggregator.getStats().get("absorbedEvents"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void retriesOnlyTheFailedLaneGroup() {
+		UserActionEvent first = new UserActionEvent(1L, 1L, ActionType.SUPPORT, 0L);
+		UserActionEvent second = new UserActionEvent(2L, 1L, ActionType.SUPPORT, 0L);
+		assertNotEquals(laneExecutor.laneOf(1L), laneExecutor.laneOf(2L));
+		when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of("title", true));
+		when(redisTemplate.executePipelined(any(RedisCallback.class), any(RedisSerializer.class))).thenReturn(List.of("1.0"));
+		// 新闻2所在的执行道第一次处理失败
+		when(bloomFilter.mightContain(2L)).thenThrow(new QueryTimeoutException("redis超时")).thenReturn(true);
+
+		service.processEvents(List.of(first, second), mock(Consumer.class));
+		// 新闻1的脚本只执行一次，新闻2重试一次
+		verify(redisTemplate, times(2)).executePipelined(any(RedisCallback.class), any(RedisSerializer.class));
+		verify(actionTracker).record(List.of(first));
+		verify(actionTracker).record(List.of(second));
+		verifyNoInteractions(deadLetterPublisher);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void deadLettersEventsThatStillFailAfterRetries() {
+		UserActionEvent first = new UserActionEvent(1L, 1L, ActionType.SUPPORT, 0L);
+		UserActionEvent second = new UserActionEvent(2L, 1L, ActionType.SUPPORT, 0L);
+		when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of("title", true));
+		when(redisTemplate.executePipelined(any(RedisCallback.class), any(RedisSerializer.class))).thenReturn(List.of("1.0"));
+		when(bloomFilter.mightContain(2L)).thenThrow(new QueryTimeoutException("redis超时"));
+
+		service.processEvents(List.of(first, second), mock(Consumer.class));
+		// 首次处理 + 2次重试后，只有新闻2的事件写入死信主题
+		verify(bloomFilter, times(3)).mightContain(2L);
+		verify(deadLetterPublisher).publish(List.of(second));
+		verify(actionTracker, never()).record(List.of(second));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void overlaysRedisMetricsOnNearCacheHits() {
+		News cached = new News(1L);
+		cached.setTitle("title");
+		cached.setContent("content");
+		when(nearCache.get(1L)).thenReturn(cached);
+		RedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(Object.class);
+		doReturn(serializer).when(redisTemplate).getHashValueSerializer();
+		Map<byte[], byte[]> metrics = Map.of("views".getBytes(), serializer.serialize(7),
+				"comments".getBytes(), serializer.serialize(2));
+		when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(metrics);
+
+		News news = service.getNews(1L);
+		assertEquals("title", news.getTitle());
+		assertEquals(7, news.getViews());
+		assertEquals(2, news.getComments());
+		// 近端缓存中的新闻不被修改
+		assertNull(cached.getViews());
+
+		// 指标已过期：按未命中处理（从redis或数据库重新加载）
+		when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(Map.of()).thenThrow(new QueryTimeoutException("redis超时"));
+		assertThrows(QueryTimeoutException.class, () -> service.getNews(1L));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void countsClusterEventsOfEveryMinuteInTheWindow() {
+		// 4.5分钟的窗口：前5个分钟 + 当前分钟，没有事件的分钟为null
+		when(redisTemplate.execute(any(RedisCallback.class)))
+				.thenReturn(Arrays.asList("3".getBytes(), null, "2".getBytes(), null, null, "1".getBytes()));
+		assertEquals(6L, service.countClusterEvents(270_000));
+	}
+}
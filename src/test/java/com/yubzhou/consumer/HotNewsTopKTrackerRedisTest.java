@@ -0,0 +1,108 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.util.HotNewsUtil;
+import com.yubzhou.util.TopScoreTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 将相同的热度写入进程内的Top-K统计和redis中的测试小时桶，比较统计结果与合并ZSet（ZUNIONSTORE + ZREVRANGE）的结果
+ */
+@SpringBootTest
+class HotNewsTopKTrackerRedisTest {
+	private static final String PREFIX = "test:topk:";
+
+	@Autowired
+	private RedisTemplate<String, Object> redisTemplate;
+	@Autowired
+	@Qualifier("hotNewsScorePublishScript")
+	private DefaultRedisScript<Long> hotNewsScorePublishScript;
+
+	private final Set<String> keys = new HashSet<>();
+
+	@AfterEach
+	void cleanup() {
+		redisTemplate.delete(keys);
+	}
+
+	@ParameterizedTest
+	@EnumSource(HotNewsUtil.ScoreMode.class)
+	void matchesMergedRedisZSets(HotNewsUtil.ScoreMode mode) {
+		HotNewsProperties properties = new HotNewsProperties();
+		properties.getScoring().setMode(mode);
+		Aggregate aggregate = mode.getMergeAggregate();
+		HotNewsTopKTracker tracker = new HotNewsTopKTracker(properties, redisTemplate, hotNewsScorePublishScript);
+		ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+
+		// 8天多的时间内每小时随机写入热度（同一新闻在一个小时内可能被写入多次，取最后一次，与脚本的ZADD一致）
+		Random random = new Random(42);
+		long startHour = HotNewsWindowService.hourOf(LocalDateTime.of(2025, 4, 1, 0, 0));
+		long currentHour = startHour + 24 * 8 + 13;
+		for (long h = startHour; h <= currentHour; h++) {
+			for (int i = 0; i < 40; i++) {
+				long newsId = random.nextInt(1, 60);
+				double score = random.nextDouble(0, 1000);
+				tracker.record(h, Map.of(newsId, score));
+				zSetOps.add(hourKey(h), newsId, score);
+			}
+		}
+
+		// 天级桶：由当天的小时桶汇总
+		long today = HotNewsWindowService.dayOf(currentHour);
+		for (long d = today - 7; d < today; d++) {
+			union(LongStream.range(d * 24, d * 24 + 24).mapToObj(this::hourKey).toList(), dayKey(d), aggregate);
+		}
+
+		LocalDateTime now = HotNewsWindowService.hourStart(currentHour).plusMinutes(30);
+		List<String> dayWindow = LongStream.rangeClosed(currentHour - 24, currentHour).mapToObj(this::hourKey).toList();
+		assertTopKEquals(union(dayWindow, PREFIX + "24h", aggregate), tracker.topK(HotNewsTopKTracker.Window.DAY, 10, now));
+
+		List<String> weekWindow = new ArrayList<>();
+		LongStream.range(today - 7, today).mapToObj(this::dayKey).forEach(weekWindow::add);
+		LongStream.rangeClosed(today * 24, currentHour).mapToObj(this::hourKey).forEach(weekWindow::add);
+		assertTopKEquals(union(weekWindow, PREFIX + "7d", aggregate), tracker.topK(HotNewsTopKTracker.Window.WEEK, 10, now));
+	}
+
+	private List<TopScoreTable.Entry> union(List<String> sourceKeys, String destKey, Aggregate aggregate) {
+		keys.add(destKey);
+		redisTemplate.opsForZSet().unionAndStore(sourceKeys.get(0), sourceKeys.subList(1, sourceKeys.size()), destKey, aggregate);
+		Set<ZSetOperations.TypedTuple<Object>> tuples = redisTemplate.opsForZSet().reverseRangeWithScores(destKey, 0, 9);
+		return Objects.requireNonNull(tuples).stream()
+				.map(t -> new TopScoreTable.Entry(Long.parseLong(String.valueOf(t.getValue())), Objects.requireNonNull(t.getScore())))
+				.toList();
+	}
+
+	private static void assertTopKEquals(List<TopScoreTable.Entry> expected, List<TopScoreTable.Entry> actual) {
+		assertEquals(expected.stream().map(TopScoreTable.Entry::key).toList(), actual.stream().map(TopScoreTable.Entry::key).toList());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).score(), actual.get(i).score(), 1e-6);
+		}
+	}
+
+	private String hourKey(long h) {
+		String key = PREFIX + "hour:" + h;
+		keys.add(key);
+		return key;
+	}
+
+	private String dayKey(long d) {
+		String key = PREFIX + "day:" + d;
+		keys.add(key);
+		return key;
+	}
+}
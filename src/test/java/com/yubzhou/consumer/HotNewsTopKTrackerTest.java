@@ -0,0 +1,133 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.common.HotNewsScoreMessage;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.util.HotNewsUtil;
+import com.yubzhou.util.TopScoreTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HotNewsTopKTrackerTest {
+
+	private static HotNewsTopKTracker newTracker(HotNewsUtil.ScoreMode mode) {
+		HotNewsProperties properties = new HotNewsProperties();
+		properties.getScoring().setMode(mode);
+		return newTracker(properties);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static HotNewsTopKTracker newTracker(HotNewsProperties properties) {
+		return new HotNewsTopKTracker(properties, mock(RedisTemplate.class), new DefaultRedisScript<>("return 0", Long.class));
+	}
+
+	private static List<Long> keys(List<TopScoreTable.Entry> entries) {
+		return entries.stream().map(TopScoreTable.Entry::key).toList();
+	}
+
+	@Test
+	void expiresBucketsOutsideTheWindow() {
+		HotNewsTopKTracker tracker = newTracker(HotNewsUtil.ScoreMode.DECAY);
+		LocalDateTime start = LocalDateTime.of(2025, 4, 1, 10, 30);
+		tracker.record(Map.of(1L, 10.0), start);
+		tracker.record(Map.of(2L, 5.0), start.plusHours(23));
+		tracker.record(Map.of(2L, 6.0), start.plusHours(23)); // 同一小时内取最后写入的热度（与ZADD一致）
+
+		// 24小时后新闻1所在的小时仍在窗口内（前24个小时 + 当前小时）
+		List<TopScoreTable.Entry> day = tracker.topK(HotNewsTopKTracker.Window.DAY, 10, start.plusHours(24));
+		assertEquals(List.of(1L, 2L), keys(day));
+		assertEquals(6.0, day.get(1).score());
+
+		// 25小时后新闻1所在的小时桶已过期
+		day = tracker.topK(HotNewsTopKTracker.Window.DAY, 10, start.plusHours(25));
+		assertEquals(List.of(2L), keys(day));
+
+		// 7天窗口仍包含新闻1（前一天的小时桶已汇总为天级桶）
+		List<TopScoreTable.Entry> week = tracker.topK(HotNewsTopKTracker.Window.WEEK, 10, start.plusHours(25));
+		assertEquals(List.of(1L, 2L), keys(week));
+		assertTrue(tracker.topK(HotNewsTopKTracker.Window.WEEK, 10, start.plusDays(8)).isEmpty());
+	}
+
+	@Test
+	void togglingSupportDoesNotInflateTheRanking() {
+		HotNewsTopKTracker tracker = newTracker(HotNewsUtil.ScoreMode.DECAY);
+		LocalDateTime now = LocalDateTime.of(2025, 4, 1, 10, 30);
+		tracker.record(Map.of(2L, 11.0), now);
+		// 反复支持、取消支持：脚本写入的热度在10和12之间来回，最后为10
+		for (int i = 0; i < 50; i++) {
+			tracker.record(Map.of(1L, 12.0), now);
+			tracker.record(Map.of(1L, 10.0), now);
+		}
+
+		List<TopScoreTable.Entry> day = tracker.topK(HotNewsTopKTracker.Window.DAY, 10, now);
+		assertEquals(List.of(new TopScoreTable.Entry(2, 11), new TopScoreTable.Entry(1, 10)), day);
+	}
+
+	@Test
+	void mergesHoursWithTheScoringModeAggregate() {
+		LocalDateTime now = LocalDateTime.of(2025, 4, 1, 10, 30);
+		HotNewsTopKTracker decay = newTracker(HotNewsUtil.ScoreMode.DECAY);
+		HotNewsTopKTracker logTime = newTracker(HotNewsUtil.ScoreMode.LOG_TIME);
+		for (HotNewsTopKTracker tracker : List.of(decay, logTime)) {
+			tracker.record(Map.of(1L, 5.0), now.minusHours(1));
+			tracker.record(Map.of(1L, 7.0), now);
+		}
+
+		assertEquals(12.0, decay.topK(HotNewsTopKTracker.Window.DAY, 1, now).get(0).score()); // SUM
+		assertEquals(7.0, logTime.topK(HotNewsTopKTracker.Window.DAY, 1, now).get(0).score()); // MAX
+	}
+
+	@Test
+	void appliesRemoteScoresIncludingLateOnesForARolledUpDay() {
+		HotNewsTopKTracker tracker = newTracker(HotNewsUtil.ScoreMode.DECAY);
+		LocalDateTime lastHour = LocalDateTime.of(2025, 4, 1, 23, 30);
+		long hour = HotNewsWindowService.hourOf(lastHour);
+		tracker.applyRemoteScores(new HotNewsScoreMessage("other", hour, Map.of(1L, 4.0)));
+
+		// 第二天首次查询时汇总前一天
+		LocalDateTime nextDay = lastHour.plusHours(1);
+		assertEquals(4.0, tracker.topK(HotNewsTopKTracker.Window.WEEK, 1, nextDay).get(0).score());
+
+		// 汇总后才收到的前一个小时的热度同步更新天级桶
+		tracker.applyRemoteScores(new HotNewsScoreMessage("other", hour, Map.of(1L, 9.0)));
+		assertEquals(9.0, tracker.topK(HotNewsTopKTracker.Window.WEEK, 1, nextDay).get(0).score());
+		assertEquals(2L, tracker.getStats().get("received"));
+	}
+
+	@Test
+	void broadcastsInThePipelineOnlyWithLeaderElection() {
+		RedisConnection connection = mock(RedisConnection.class);
+		RedisScriptingCommands scriptingCommands = mock(RedisScriptingCommands.class);
+		when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+		LocalDateTime now = LocalDateTime.of(2025, 4, 1, 10, 30);
+		byte[] hourKey = "news:hot:hour:2025040110".getBytes();
+
+		HotNewsTopKTracker tracker = newTracker(new HotNewsProperties());
+		tracker.appendBroadcast(connection, hourKey, now, Set.of(1L));
+		tracker.record(Map.of(1L, 1.0), now);
+		verify(scriptingCommands).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(1), any(byte[][].class));
+		assertEquals(1L, tracker.getStats().get("published"));
+
+		// 单实例部署（关闭主节点选举）不广播
+		HotNewsProperties single = new HotNewsProperties();
+		single.getLeader().setEnabled(false);
+		HotNewsTopKTracker local = newTracker(single);
+		clearInvocations(scriptingCommands);
+		local.appendBroadcast(connection, hourKey, now, Set.of(1L));
+		local.record(Map.of(1L, 1.0), now);
+		verifyNoInteractions(scriptingCommands);
+		assertEquals(0L, local.getStats().get("published"));
+	}
+}
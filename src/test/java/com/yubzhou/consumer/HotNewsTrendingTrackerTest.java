@@ -0,0 +1,81 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.properties.HotNewsProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotNewsTrendingTrackerTest {
+
+	@Test
+	void burstRanksAboveSteadilyPopularNews() {
+		AtomicLong clock = new AtomicLong(0);
+		HotNewsTrendingTracker tracker = new HotNewsTrendingTracker(new HotNewsProperties(), clock::get);
+		// 90分钟内：新闻1每分钟10次，新闻2每分钟1次
+		for (int minute = 0; minute < 90; minute++) {
+			clock.set(minute * 60_000L);
+			tracker.record(1, 10);
+			tracker.record(2, 1);
+		}
+		// 之后3分钟：新闻1保持不变，新闻2突增到每分钟30次
+		for (int minute = 90; minute < 93; minute++) {
+			clock.set(minute * 60_000L);
+			tracker.record(1, 10);
+			tracker.record(2, 30);
+		}
+
+		List<HotNewsTrendingTracker.Trend> trends = tracker.topK(10);
+		assertEquals(List.of(2L, 1L), trends.stream().map(HotNewsTrendingTracker.Trend::newsId).toList());
+		assertTrue(trends.get(0).zScore() > 1);
+		assertTrue(trends.get(0).acceleration() > 0);
+		// 累计热度更高的新闻1没有加速，z分数接近0
+		assertEquals(0, trends.get(1).zScore(), 0.5);
+	}
+
+	@Test
+	void ignoresLowVolumeAndEvictsIdleNews() {
+		AtomicLong clock = new AtomicLong(0);
+		HotNewsTrendingTracker tracker = new HotNewsTrendingTracker(new HotNewsProperties(), clock::get);
+		tracker.record(1, 2); // 近期加权事件数不足min-recent-weight
+		tracker.record(2, 20);
+		assertEquals(List.of(2L), tracker.topK(10).stream().map(HotNewsTrendingTracker.Trend::newsId).toList());
+
+		// 超过idle-minutes后淘汰
+		clock.set(61 * 60_000L);
+		tracker.evictIdle();
+		assertEquals(0, tracker.getStats().get("tracked"));
+		assertEquals(2L, tracker.getStats().get("evicted"));
+		assertEquals(0, tracker.getStats().get("candidates"));
+		assertTrue(tracker.topK(10).isEmpty());
+	}
+
+	@Test
+	void evictsColdestSampledNewsWhenFull() {
+		AtomicLong clock = new AtomicLong(0);
+		HotNewsProperties properties = new HotNewsProperties();
+		properties.getTrending().setMaxTracked(3);
+		properties.getTrending().setEvictionSamples(3);
+		HotNewsTrendingTracker tracker = new HotNewsTrendingTracker(properties, clock::get);
+		tracker.record(1, 10); // 进入候选榜，不参与淘汰
+		tracker.record(2, 4);
+		clock.set(60_000L);
+		tracker.record(3, 4);
+
+		// 已满：新闻2、3的近期加权事件数相同，淘汰最久没有事件的新闻2
+		clock.set(2 * 60_000L);
+		tracker.record(4, 4);
+		assertEquals(3, tracker.getStats().get("tracked"));
+		assertEquals(1L, tracker.getStats().get("coldEvicted"));
+
+		// 新闻3仍在跟踪（累计达到min-recent-weight），新闻2重新开始计数（未达到）
+		tracker.record(3, 4);
+		tracker.record(2, 4);
+		assertEquals(2L, tracker.getStats().get("coldEvicted"));
+		assertEquals(Set.of(1L, 3L), tracker.topK(10).stream().map(HotNewsTrendingTracker.Trend::newsId).collect(Collectors.toSet()));
+	}
+}
@@ -0,0 +1,74 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.properties.HotNewsProperties.HotWindow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotNewsWindowServiceTest {
+
+	// 2025-04-07 为周一
+	private static final long MONDAY_START = LocalDateTime.of(2025, 4, 7, 0, 0).toEpochSecond(ZoneOffset.UTC) / 3600;
+
+	@Test
+	void alignsBucketsToLocalDaysAndMondays() {
+		assertEquals("news:hot:1h:2025040700", HotNewsWindowService.hourKey(MONDAY_START));
+		assertEquals("news:hot:1d:20250407", HotNewsWindowService.dayKey(HotNewsWindowService.dayOf(MONDAY_START)));
+		assertEquals("news:hot:1w:20250407", HotNewsWindowService.weekKey(
+				HotNewsWindowService.weekOf(HotNewsWindowService.dayOf(MONDAY_START + 24 * 6 + 23))));
+		assertTrue(HotNewsWindowService.isLastHourOfWeek(MONDAY_START - 1));
+		assertFalse(HotNewsWindowService.isLastHourOfWeek(MONDAY_START + 23));
+		assertTrue(HotNewsWindowService.isLastHourOfDay(MONDAY_START + 23));
+	}
+
+	@Test
+	void choosesExpiryUnitFromWindowLength() {
+		assertEquals(HotNewsWindowService.BucketUnit.HOUR, HotNewsWindowService.BucketUnit.of(24));
+		assertEquals(HotNewsWindowService.BucketUnit.HOUR, HotNewsWindowService.BucketUnit.of(36));
+		assertEquals(HotNewsWindowService.BucketUnit.DAY, HotNewsWindowService.BucketUnit.of(72));
+		assertEquals(HotNewsWindowService.BucketUnit.DAY, HotNewsWindowService.BucketUnit.of(168));
+		assertEquals(HotNewsWindowService.BucketUnit.WEEK, HotNewsWindowService.BucketUnit.of(336));
+	}
+
+	// 从全量重建开始逐小时增量更新，每个小时的窗口内容都应与该时刻全量重建的结果一致
+	@Test
+	void incrementalTicksMatchRebuild() {
+		for (HotWindow window : List.of(new HotWindow("6h", 6), new HotWindow("3d", 72), new HotWindow("2w", 336))) {
+			long start = MONDAY_START - 5 * 24 + 7; // 从周三 07:00 开始
+			Set<Long> content = expand(HotNewsWindowService.closedBucketKeys(window, start), start);
+			for (long h = start; h < start + 24 * 30; h++) {
+				// 小时h结束：加上小时h，减去过期的桶
+				content.add(h);
+				String expiring = HotNewsWindowService.expiringKey(window, h);
+				if (expiring != null) content.removeAll(expand(List.of(expiring), h + 1));
+
+				Set<Long> rebuilt = expand(HotNewsWindowService.closedBucketKeys(window, h + 1), h + 1);
+				assertEquals(rebuilt, content, window.getName() + " 在小时 " + HotNewsWindowService.hourKey(h) + " 结束后不一致");
+			}
+		}
+	}
+
+	// 桶Key包含的已结束小时（当前小时为currentHour）
+	private static Set<Long> expand(List<String> keys, long currentHour) {
+		Map<String, long[]> ranges = new HashMap<>();
+		for (long h = currentHour - 24 * 60; h < currentHour; h++) {
+			long day = HotNewsWindowService.dayOf(h);
+			long week = HotNewsWindowService.weekOf(day);
+			ranges.put(HotNewsWindowService.hourKey(h), new long[]{h, h + 1});
+			ranges.put(HotNewsWindowService.dayKey(day), new long[]{day * 24, day * 24 + 24});
+			ranges.put(HotNewsWindowService.weekKey(week), new long[]{(week * 7 - 3) * 24, (week * 7 + 4) * 24});
+		}
+		Set<Long> hours = new HashSet<>();
+		for (String key : keys) {
+			long[] range = ranges.get(key);
+			if (range == null) continue; // 当前小时之后的桶为空
+			LongStream.range(range[0], Math.min(range[1], currentHour)).forEach(hours::add);
+		}
+		return hours;
+	}
+}
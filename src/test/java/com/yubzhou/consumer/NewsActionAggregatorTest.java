@@ -0,0 +1,111 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.common.UserActionEvent;
+import com.yubzhou.common.UserActionEvent.ActionType;
+import com.yubzhou.properties.HotNewsProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsActionAggregatorTest {
+
+	private static NewsActionAggregator newAggregator(int maxKeys) {
+		HotNewsProperties properties = new HotNewsProperties();
+		properties.getAggregation().setMaxKeys(maxKeys);
+		return new NewsActionAggregator(properties);
+	}
+
+	private static UserActionEvent event(long newsId, ActionType action) {
+		return new UserActionEvent(newsId, 1L, action, System.currentTimeMillis());
+	}
+
+	@Test
+	void aggregatesViewsAndComments() {
+		NewsActionAggregator aggregator = newAggregator(100);
+		for (int i = 0; i < 5; i++) assertTrue(aggregator.offer(event(1, ActionType.VIEW)));
+		assertTrue(aggregator.offer(event(1, ActionType.COMMENT)));
+		assertTrue(aggregator.offer(event(1, ActionType.COMMENT)));
+		assertTrue(aggregator.offer(event(1, ActionType.UNCOMMENT)));
+		// 支持、反对、收藏需要记录用户行为，不能聚合
+		assertFalse(aggregator.offer(event(1, ActionType.SUPPORT)));
+
+		Map<Long, Map<ActionType, Long>> deltas = aggregator.drain();
+		assertEquals(5L, deltas.get(1L).get(ActionType.VIEW));
+		assertEquals(1L, deltas.get(1L).get(ActionType.COMMENT));
+		assertEquals(8L, aggregator.getStats().get("lastFlushEvents"));
+		assertEquals(2L, aggregator.getStats().get("lastFlushDeltas"));
+
+		// 取出后增量清零，再次取出时空闲的计数单元被回收
+		assertTrue(aggregator.drain().isEmpty());
+		assertEquals(0, aggregator.getStats().get("activeCells"));
+	}
+
+	@Test
+	void rejectsNewKeysBeyondLimit() {
+		NewsActionAggregator aggregator = newAggregator(2);
+		assertTrue(aggregator.offer(event(1, ActionType.VIEW)));
+		assertTrue(aggregator.offer(event(2, ActionType.VIEW)));
+		assertFalse(aggregator.offer(event(3, ActionType.VIEW)));
+		// 已存在的计数单元仍然可以累加
+		assertTrue(aggregator.offer(event(1, ActionType.VIEW)));
+		assertEquals(1L, aggregator.getStats().get("rejectedEvents"));
+	}
+
+	@Test
+	void restoresDeltasBeyondLimit() {
+		NewsActionAggregator aggregator = newAggregator(2);
+		assertTrue(aggregator.offer(event(1, ActionType.VIEW)));
+		assertTrue(aggregator.offer(event(1, ActionType.UNCOMMENT)));
+		Map<Long, Map<ActionType, Long>> deltas = aggregator.drain();
+		// 回收空闲的计数单元后，由其他新闻占满上限
+		assertTrue(aggregator.drain().isEmpty());
+		assertTrue(aggregator.offer(event(2, ActionType.VIEW)));
+		assertTrue(aggregator.offer(event(3, ActionType.VIEW)));
+		assertFalse(aggregator.offer(event(1, ActionType.VIEW)));
+
+		// 放回的增量不受计数单元数上限的限制，与新增量合并
+		aggregator.restore(deltas);
+		assertTrue(aggregator.offer(event(1, ActionType.VIEW)));
+		Map<Long, Map<ActionType, Long>> restored = aggregator.drain();
+		assertEquals(2L, restored.get(1L).get(ActionType.VIEW));
+		assertEquals(-1L, restored.get(1L).get(ActionType.COMMENT));
+		assertEquals(1L, restored.get(2L).get(ActionType.VIEW));
+		assertEquals(2L, aggregator.getStats().get("restoredDeltas"));
+	}
+
+	@Test
+	void concurrentOffersAreNotLostWhileDraining() throws Exception {
+		NewsActionAggregator aggregator = newAggregator(1000);
+		int threads = 8;
+		int perThread = 50_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch done = new CountDownLatch(threads);
+		for (int t = 0; t < threads; t++) {
+			executor.execute(() -> {
+				for (int i = 0; i < perThread; i++) {
+					aggregator.offer(event(i % 4, ActionType.VIEW));
+				}
+				done.countDown();
+			});
+		}
+
+		long total = 0;
+		while (done.getCount() > 0) {
+			total += sum(aggregator.drain());
+		}
+		total += sum(aggregator.drain());
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals((long) threads * perThread, total);
+	}
+
+	private static long sum(Map<Long, Map<ActionType, Long>> deltas) {
+		return deltas.values().stream().flatMap(m -> m.values().stream()).mapToLong(Long::longValue).sum();
+	}
+}
@@ -0,0 +1,77 @@
+package com.yubzhou.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yubzhou.common.NewsIdBloomAddMessage;
+import com.yubzhou.mapper.NewsMapper;
+import com.yubzhou.properties.HotNewsProperties;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NewsIdBloomFilterTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void answersFromLocalFilterWithoutTouchingRedis() {
+		RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+		NewsIdBloomFilter filter = filter(redisTemplate, List.of(1L, 2L, 3L));
+
+		// 构建完成前视为可能存在
+		assertTrue(filter.mightContain(42L));
+
+		filter.rebuild();
+		assertEquals(3L, filter.getStats().get("loadedIds"));
+		clearInvocations(redisTemplate);
+
+		assertTrue(filter.mightContain(1L));
+		for (long newsId = 1_000; newsId < 1_100; newsId++) filter.mightContain(newsId);
+		assertFalse(filter.mightContain(42L));
+		assertTrue((Long) filter.getStats().get("rejected") > 90);
+		verifyNoInteractions(redisTemplate);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void propagatesAddedIdsToOtherNodes() throws Exception {
+		RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+		NewsIdBloomFilter local = filter(redisTemplate, List.of(1L));
+		NewsIdBloomFilter remote = filter(redisTemplate, List.of(1L));
+		local.rebuild();
+		remote.rebuild();
+		assertFalse(remote.mightContain(42L));
+
+		// 新增新闻：设置redis位图并广播（同一个pipeline）
+		local.add(List.of(42L));
+		assertTrue(local.mightContain(42L));
+		verify(redisTemplate).executePipelined(any(RedisCallback.class));
+
+		// 其他节点收到广播后添加到本地过滤器
+		byte[] body = objectMapper.writeValueAsBytes(new NewsIdBloomAddMessage("other-node", List.of(42L)));
+		remote.onMessage(new DefaultMessage(new byte[0], body), null);
+		assertTrue(remote.mightContain(42L));
+		assertEquals(1L, remote.getStats().get("remoteAdds"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private NewsIdBloomFilter filter(RedisTemplate<String, Object> redisTemplate, List<Long> ids) {
+		NewsMapper newsMapper = mock(NewsMapper.class);
+		Cursor<Long> cursor = mock(Cursor.class);
+		when(cursor.iterator()).thenReturn(ids.iterator());
+		when(newsMapper.streamIds()).thenReturn(cursor);
+		return new NewsIdBloomFilter(newsMapper, redisTemplate, mock(RedisMessageListenerContainer.class), objectMapper,
+				mock(DefaultRedisScript.class), new HotNewsProperties(), mock(PlatformTransactionManager.class));
+	}
+}
@@ -0,0 +1,89 @@
+package com.yubzhou.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yubzhou.common.NewsInvalidationMessage;
+import com.yubzhou.model.po.News;
+import com.yubzhou.properties.HotNewsProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NewsNearCacheTest {
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@SuppressWarnings("unchecked")
+	private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+
+	private final NewsNearCache cache = new NewsNearCache(redisTemplate, mock(RedisMessageListenerContainer.class),
+			objectMapper, new HotNewsProperties());
+
+	@Test
+	void dropsBackfillWhenInvalidatedDuringRead() {
+		News news = news(1L);
+		long stamp = cache.stamp(1L);
+		// 读取redis期间其他写入失效了该新闻
+		cache.invalidate(List.of(1L));
+		cache.put(1L, news, stamp);
+		assertNull(cache.get(1L));
+
+		news.setViews(10);
+		cache.put(1L, news, cache.stamp(1L));
+		// 只缓存新闻详情和内容，指标由调用方从redis读取
+		assertEquals("title-1", cache.get(1L).getTitle());
+		assertEquals("content", cache.get(1L).getContent());
+		assertNull(cache.get(1L).getViews());
+		verify(redisTemplate).execute(any(RedisCallback.class));
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> invalidations = (Map<String, Object>) cache.getStats().get("invalidations");
+		assertEquals(1L, invalidations.get("staleDropped"));
+		assertEquals(1L, invalidations.get("local"));
+	}
+
+	@Test
+	void appliesRemoteInvalidationsAndIgnoresOwnMessages() throws Exception {
+		cache.put(1L, news(1L), cache.stamp(1L));
+		cache.put(2L, news(2L), cache.stamp(2L));
+
+		cache.onMessage(message(new NewsInvalidationMessage("other-node", List.of(1L), false)), null);
+		assertNull(cache.get(1L));
+		assertNotNull(cache.get(2L));
+
+		cache.onMessage(message(new NewsInvalidationMessage("other-node", null, true)), null);
+		assertNull(cache.get(2L));
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> near = (Map<String, Object>) cache.getStats().get("near");
+		assertEquals(1L, near.get("hits"));
+		assertEquals(2L, near.get("misses"));
+	}
+
+	@Test
+	void weighsNewsByContentSize() {
+		News small = news(1L);
+		News large = news(2L);
+		large.setContent("x".repeat(10_000));
+		assertTrue(NewsNearCache.weigh(large) > NewsNearCache.weigh(small) + 19_000);
+	}
+
+	private DefaultMessage message(NewsInvalidationMessage invalidation) throws Exception {
+		return new DefaultMessage("news:detail:invalidate".getBytes(), objectMapper.writeValueAsBytes(invalidation));
+	}
+
+	private static News news(Long id) {
+		News news = new News();
+		news.setId(id);
+		news.setTitle("title-" + id);
+		news.setContent("content");
+		return news;
+	}
+}
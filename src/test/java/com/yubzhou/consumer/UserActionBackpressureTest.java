@@ -0,0 +1,99 @@
+package com.yubzhou.consumer;
+
+import com.yubzhou.common.KafkaConstant;
+import com.yubzhou.properties.AsyncProperties;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.util.OrderedLaneExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserActionBackpressureTest {
+
+	@Test
+	void pausesAboveHighWaterMarkAndResumesBelowLowWaterMark() throws Exception {
+		AsyncProperties.LaneConfig laneConfig = new AsyncProperties.LaneConfig();
+		laneConfig.setLaneCount(1);
+		laneConfig.setQueueCapacity(10);
+		OrderedLaneExecutor executor = new OrderedLaneExecutor(laneConfig);
+
+		MessageListenerContainer container = mock(MessageListenerContainer.class);
+		when(container.isRunning()).thenReturn(true);
+		KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+		when(registry.getListenerContainer(KafkaConstant.USER_ACTION_LISTENER_ID)).thenReturn(container);
+		UserActionBackpressure backpressure = new UserActionBackpressure(registry, executor, new HotNewsProperties());
+
+		// 阻塞执行道，使队列积压到高水位（10 × 0.8）
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(1L, () -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		for (int i = 0; i < 7; i++) executor.execute(1L, () -> {
+		});
+		backpressure.check();
+		verify(container, times(1)).pause();
+		assertEquals(true, backpressure.getStats().get("paused"));
+
+		// 重复检查不会重复暂停
+		backpressure.check();
+		verify(container, times(1)).pause();
+
+		release.countDown();
+		assertTrue(executor.awaitIdle(5, TimeUnit.SECONDS));
+		backpressure.check();
+		verify(container, times(1)).resume();
+		assertEquals(false, backpressure.getStats().get("paused"));
+		assertEquals(1L, backpressure.getStats().get("pauseCount"));
+		executor.shutdown();
+	}
+
+	@Test
+	void countsEventsOfGroupedBatches() throws Exception {
+		AsyncProperties.LaneConfig laneConfig = new AsyncProperties.LaneConfig();
+		laneConfig.setLaneCount(2);
+		laneConfig.setQueueCapacity(100);
+		OrderedLaneExecutor executor = new OrderedLaneExecutor(laneConfig);
+
+		MessageListenerContainer container = mock(MessageListenerContainer.class);
+		when(container.isRunning()).thenReturn(true);
+		KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+		when(registry.getListenerContainer(KafkaConstant.USER_ACTION_LISTENER_ID)).thenReturn(container);
+		UserActionBackpressure backpressure = new UserActionBackpressure(registry, executor, new HotNewsProperties());
+
+		// 与监听方法相同：一批事件按键分组后每个执行道只提交一个任务，该任务阻塞直到放行
+		CountDownLatch release = new CountDownLatch(1);
+		List<Long> batch = LongStream.range(0, 200).boxed().toList();
+		CompletableFuture<Void> done = executor.executeGrouped(batch, id -> id, group -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertTrue(executor.getMaxUtilization() >= 0.8);
+		backpressure.check();
+		verify(container, times(1)).pause();
+		assertEquals(200, backpressure.getStats().get("pendingEvents"));
+
+		release.countDown();
+		done.get(5, TimeUnit.SECONDS);
+		assertTrue(executor.awaitIdle(5, TimeUnit.SECONDS));
+		assertEquals(0.0, executor.getMaxUtilization());
+		backpressure.check();
+		verify(container, times(1)).resume();
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,91 @@
+package com.yubzhou.producer;
+
+import com.yubzhou.common.UserActionEvent;
+import com.yubzhou.common.UserActionEvent.ActionType;
+import com.yubzhou.consumer.HotNewsService;
+import com.yubzhou.properties.HotNewsProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class LocalActionEventBusTest {
+
+	@Test
+	void deliversEventsInOrderPerNewsAndDrainsOnShutdown() throws Exception {
+		Map<Long, List<Long>> received = new ConcurrentHashMap<>();
+		HotNewsService hotNewsService = mock(HotNewsService.class);
+		doAnswer(invocation -> {
+			List<UserActionEvent> batch = invocation.getArgument(0);
+			for (UserActionEvent event : batch) {
+				received.computeIfAbsent(event.getNewsId(), k -> Collections.synchronizedList(new ArrayList<>()))
+						.add(event.getTimestamp());
+			}
+			return null;
+		}).when(hotNewsService).applyEvents(anyList());
+
+		HotNewsProperties properties = new HotNewsProperties();
+		properties.getTransport().setLocalChannels(4);
+		properties.getTransport().setLocalBufferSize(100_000);
+		LocalActionEventBus bus = new LocalActionEventBus(hotNewsService, properties);
+		// 首次发布事件前不启动消费线程
+		assertEquals(0, bus.getStats().get("startedChannels"));
+
+		int newsCount = 20;
+		int perNews = 500;
+		for (long seq = 0; seq < perNews; seq++) {
+			for (long newsId = 0; newsId < newsCount; newsId++) {
+				assertTrue(bus.publish(new UserActionEvent(newsId, 1L, ActionType.SUPPORT, seq)));
+			}
+		}
+		assertTrue(bus.awaitDrained(10, TimeUnit.SECONDS));
+		bus.shutdown();
+
+		for (long newsId = 0; newsId < newsCount; newsId++) {
+			List<Long> seqs = received.get(newsId);
+			assertEquals(perNews, seqs.size());
+			for (int i = 0; i < perNews; i++) assertEquals(i, seqs.get(i));
+		}
+		Map<String, Object> stats = bus.getStats();
+		assertEquals((long) newsCount * perNews, stats.get("consumed"));
+		assertTrue((long) stats.get("batches") > 0);
+		assertEquals(4, stats.get("startedChannels"));
+		// 关闭后拒绝新事件
+		assertFalse(bus.publish(new UserActionEvent(1L, 1L, ActionType.VIEW, 0L)));
+		assertEquals(1L, bus.getStats().get("dropped"));
+	}
+
+	@Test
+	void tryPublishDropsWithoutWaitingWhenTheChannelIsFull() throws Exception {
+		HotNewsService hotNewsService = mock(HotNewsService.class);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> release.await(10, TimeUnit.SECONDS)).when(hotNewsService).applyEvents(anyList());
+
+		HotNewsProperties properties = new HotNewsProperties();
+		properties.getTransport().setLocalChannels(1);
+		properties.getTransport().setLocalBufferSize(1);
+		properties.getTransport().setLocalPublishTimeoutMillis(10_000);
+		LocalActionEventBus bus = new LocalActionEventBus(hotNewsService, properties);
+
+		// 消费线程阻塞在第一批事件上，通道中最多再放入1个事件
+		int accepted = 0;
+		long start = System.nanoTime();
+		for (long seq = 0; seq < 5; seq++) {
+			if (bus.tryPublish(new UserActionEvent(1L, 1L, ActionType.VIEW, seq))) accepted++;
+		}
+		// 不等待publish的超时时间
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+		assertTrue(accepted < 5);
+		assertEquals(5L - accepted, bus.getStats().get("dropped"));
+
+		release.countDown();
+		bus.shutdown();
+	}
+}
@@ -0,0 +1,54 @@
+package com.yubzhou.scheduler;
+
+import com.yubzhou.common.RedisConstant;
+import com.yubzhou.properties.HotNewsProperties;
+import com.yubzhou.util.RedisLockUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class HotNewsRefreshLeaderTest {
+
+	@Test
+	void acquiresRenewsAndReelectsAfterLosingLease() {
+		RedisLockUtil lockUtil = mock(RedisLockUtil.class);
+		when(lockUtil.tryLock(eq(RedisConstant.HOT_NEWS_REFRESH_LEADER), anyLong())).thenReturn(null, "lease-1", "lease-2");
+		when(lockUtil.renewLease(eq(RedisConstant.HOT_NEWS_REFRESH_LEADER), eq("lease-1"), anyLong())).thenReturn(true, false);
+		HotNewsRefreshLeader leader = new HotNewsRefreshLeader(lockUtil, new HotNewsProperties());
+
+		// 其他节点持有租约
+		leader.heartbeat();
+		assertFalse(leader.isLeader());
+
+		// 竞选成功后续约
+		leader.heartbeat();
+		assertTrue(leader.isLeader());
+		leader.heartbeat();
+		assertTrue(leader.isLeader());
+		verify(lockUtil, times(2)).tryLock(eq(RedisConstant.HOT_NEWS_REFRESH_LEADER), anyLong());
+
+		// 续约失败（租约已被其他节点接管或已过期）后立即重新竞选
+		leader.heartbeat();
+		assertTrue(leader.isLeader());
+		assertEquals(1L, leader.getStats().get("lost"));
+
+		leader.release();
+		assertFalse(leader.isLeader());
+		verify(lockUtil).unlock(RedisConstant.HOT_NEWS_REFRESH_LEADER, "lease-2");
+	}
+
+	@Test
+	void everyNodeIsLeaderWhenElectionDisabled() {
+		RedisLockUtil lockUtil = mock(RedisLockUtil.class);
+		HotNewsProperties properties = new HotNewsProperties();
+		properties.getLeader().setEnabled(false);
+		HotNewsRefreshLeader leader = new HotNewsRefreshLeader(lockUtil, properties);
+
+		leader.heartbeat();
+		assertTrue(leader.isLeader());
+		verifyNoInteractions(lockUtil);
+	}
+}
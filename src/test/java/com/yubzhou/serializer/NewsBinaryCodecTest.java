@@ -0,0 +1,109 @@
+package com.yubzhou.serializer;
+
+import com.yubzhou.config.JacksonConfig;
+import com.yubzhou.model.po.News;
+import com.yubzhou.properties.HotNewsProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsBinaryCodecTest {
+
+	@Test
+	void roundTripsDetailAndContent() {
+		News news = news("数据侦探：一条新闻的标题", "正文".repeat(200));
+		News decoded = NewsBinaryCodec.decode(NewsBinaryCodec.encode(news));
+		assertEquals(news.getId(), decoded.getId());
+		assertEquals(news.getTitle(), decoded.getTitle());
+		assertEquals(news.getCoverUrl(), decoded.getCoverUrl());
+		assertEquals(news.getContent(), decoded.getContent());
+		assertEquals(news.getCreatedAt(), decoded.getCreatedAt());
+		// 指标不在编码中
+		assertNull(decoded.getViews());
+		assertNull(decoded.getVersion());
+	}
+
+	@Test
+	void preservesNullAndEmptyFields() {
+		News news = new News();
+		news.setId(42L);
+		news.setTitle("");
+		News decoded = NewsBinaryCodec.decode(NewsBinaryCodec.encode(news));
+		assertEquals(42L, decoded.getId());
+		assertEquals("", decoded.getTitle());
+		assertNull(decoded.getCoverUrl());
+		assertNull(decoded.getContent());
+		assertNull(decoded.getCreatedAt());
+
+		News empty = NewsBinaryCodec.decode(NewsBinaryCodec.encode(new News()));
+		assertNull(empty.getId());
+		assertNull(empty.getTitle());
+	}
+
+	@Test
+	void writesVersionedHeader() {
+		byte[] data = NewsBinaryCodec.encode(news("t", "c"));
+		assertEquals(NewsBinaryCodec.MAGIC, data[0]);
+		assertEquals(NewsBinaryCodec.VERSION_1, data[1]);
+		assertEquals(NewsBinaryCodec.NULL_COVER_URL, data[2]);
+		assertEquals(NewsBinaryCodec.VERSION_1_HEADER_LENGTH + 2 + 2, data.length);
+		assertTrue(NewsBinaryCodec.isBinary(data));
+		assertFalse(NewsBinaryCodec.isBinary("{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	void rejectsUnknownVersionAndTruncatedData() {
+		byte[] data = NewsBinaryCodec.encode(news("标题", "内容"));
+		byte[] unknownVersion = data.clone();
+		unknownVersion[1] = 99;
+		assertThrows(IllegalArgumentException.class, () -> NewsBinaryCodec.decode(unknownVersion));
+		assertThrows(IllegalArgumentException.class, () -> NewsBinaryCodec.decode(Arrays.copyOf(data, data.length - 1)));
+		assertThrows(IllegalArgumentException.class, () -> NewsBinaryCodec.decode(Arrays.copyOf(data, 10)));
+		assertThrows(IllegalArgumentException.class, () -> NewsBinaryCodec.decode("\"NULL\"".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	void compressesLargeContentAsVersion2() {
+		HotNewsProperties properties = new HotNewsProperties();
+		properties.getNewsCache().setCompressionEnabled(true);
+		properties.getNewsCache().setCompressThresholdBytes(256);
+		NewsContentCompressor compressor = new NewsContentCompressor(properties);
+		News news = news("标题", "正文".repeat(1000));
+		byte[] data = NewsBinaryCodec.encode(news, compressor);
+		assertEquals(NewsBinaryCodec.VERSION_2, data[1]);
+		assertEquals(NewsBinaryCodec.NULL_COVER_URL | NewsBinaryCodec.CONTENT_DEFLATED, data[2]);
+		assertTrue(data.length < NewsBinaryCodec.encode(news).length / 4);
+		assertEquals(news.getContent(), NewsBinaryCodec.decode(data, compressor).getContent());
+		assertEquals(news.getContent(), NewsBinaryCodec.decode(data).getContent());
+		assertThrows(IllegalArgumentException.class, () -> NewsBinaryCodec.decode(Arrays.copyOf(data, data.length - 2)));
+
+		// 低于阈值时不压缩，仍写入版本1
+		assertEquals(NewsBinaryCodec.VERSION_1, NewsBinaryCodec.encode(news("标题", "短内容"), compressor)[1]);
+	}
+
+	@Test
+	void isSmallerThanHashLayout() {
+		News news = news("数据侦探：一条新闻的标题", "正文".repeat(200));
+		Jackson2JsonRedisSerializer<Object> serializer =
+				new Jackson2JsonRedisSerializer<>(new JacksonConfig().businessObjectMapper(), Object.class);
+		int hashBytes = serializer.serialize(news.getContent()).length;
+		for (var entry : news.toRedisMap().entrySet()) {
+			hashBytes += entry.getKey().length() + serializer.serialize(entry.getValue()).length;
+		}
+		assertTrue(NewsBinaryCodec.encode(news).length < hashBytes);
+	}
+
+	private static News news(String title, String content) {
+		News news = new News();
+		news.setId(1_234_567L);
+		news.setTitle(title);
+		news.setContent(content);
+		news.setCreatedAt(LocalDateTime.of(2025, 3, 1, 12, 30, 15));
+		return news;
+	}
+}
@@ -0,0 +1,84 @@
+package com.yubzhou.serializer;
+
+import com.yubzhou.config.JacksonConfig;
+import com.yubzhou.properties.HotNewsProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsContentCompressorTest {
+
+	private final RedisSerializer<Object> serializer =
+			new Jackson2JsonRedisSerializer<>(new JacksonConfig().businessObjectMapper(), Object.class);
+
+	@Test
+	void compressesLargeContentWithMarker() {
+		NewsContentCompressor compressor = compressor(true, 1024);
+		String content = "据网传消息，某地发布新规。经核实，该消息不实。".repeat(100);
+		byte[] value = compressor.toRedisValue(content, serializer);
+		assertEquals(NewsContentCompressor.MARKER, value[0]);
+		assertTrue(value.length < content.getBytes(StandardCharsets.UTF_8).length / 2);
+		assertEquals(content, compressor.fromRedisValue(value, serializer));
+
+		Map<String, Object> stats = compressor.getStats();
+		assertEquals(1L, stats.get("compressed"));
+		assertEquals(1L, stats.get("decompressed"));
+		assertTrue((Long) stats.get("savedBytes") > 0);
+	}
+
+	@Test
+	void keepsSmallContentAsPlainJson() {
+		NewsContentCompressor compressor = compressor(true, 1024);
+		byte[] value = compressor.toRedisValue("短内容", serializer);
+		assertArrayEquals(serializer.serialize("短内容"), value);
+		assertEquals("短内容", compressor.fromRedisValue(value, serializer));
+		assertEquals("", compressor.fromRedisValue(compressor.toRedisValue("", serializer), serializer));
+		assertNull(compressor.fromRedisValue(null, serializer));
+		assertEquals(2L, compressor.getStats().get("skipped"));
+		assertEquals(0L, compressor.getStats().get("compressed"));
+	}
+
+	@Test
+	void readsPlainValuesWhenDisabled() {
+		String content = "正文".repeat(2000);
+		byte[] compressed = compressor(true, 0).toRedisValue(content, serializer);
+		NewsContentCompressor disabled = compressor(false, 0);
+		assertArrayEquals(serializer.serialize(content), disabled.toRedisValue(content, serializer));
+		// 关闭压缩后仍能读取已压缩的内容
+		assertEquals(content, disabled.fromRedisValue(compressed, serializer));
+	}
+
+	@Test
+	void skipsIncompressibleContent() {
+		byte[] random = new byte[4096];
+		new Random(42).nextBytes(random);
+		assertNull(compressor(true, 0).compress(random));
+	}
+
+	@Test
+	void rejectsCorruptData() {
+		NewsContentCompressor compressor = compressor(true, 0);
+		byte[] value = compressor.toRedisValue("正文".repeat(2000), serializer);
+		assertThrows(IllegalArgumentException.class,
+				() -> compressor.fromRedisValue(Arrays.copyOf(value, value.length / 2), serializer));
+		byte[] wrongLength = value.clone();
+		wrongLength[1] ^= 1;
+		assertThrows(IllegalArgumentException.class, () -> compressor.fromRedisValue(wrongLength, serializer));
+		assertThrows(IllegalArgumentException.class,
+				() -> compressor.fromRedisValue(new byte[]{NewsContentCompressor.MARKER}, serializer));
+	}
+
+	private static NewsContentCompressor compressor(boolean enabled, int thresholdBytes) {
+		HotNewsProperties properties = new HotNewsProperties();
+		properties.getNewsCache().setCompressionEnabled(enabled);
+		properties.getNewsCache().setCompressThresholdBytes(thresholdBytes);
+		return new NewsContentCompressor(properties);
+	}
+}
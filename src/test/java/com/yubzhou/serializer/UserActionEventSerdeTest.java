@@ -0,0 +1,50 @@
+package com.yubzhou.serializer;
+
+import com.yubzhou.common.UserActionEvent;
+import com.yubzhou.common.UserActionEvent.ActionType;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserActionEventSerdeTest {
+
+	private final UserActionEventSerializer serializer = new UserActionEventSerializer();
+	private final UserActionEventDeserializer deserializer = new UserActionEventDeserializer();
+
+	@Test
+	void roundTripsEveryActionType() {
+		for (ActionType action : ActionType.values()) {
+			UserActionEvent event = new UserActionEvent(123456789L, 42L, action, 1_700_000_000_000L);
+			byte[] data = serializer.serialize("user_actions", event);
+			assertEquals(UserActionEventSerializer.VERSION_1_LENGTH, data.length);
+			assertEquals(event, deserializer.deserialize("user_actions", data));
+		}
+	}
+
+	@Test
+	void preservesNullFields() {
+		UserActionEvent event = new UserActionEvent(1L, null, ActionType.VIEW, null);
+		assertEquals(event, deserializer.deserialize("user_actions", serializer.serialize("user_actions", event)));
+		assertNull(serializer.serialize("user_actions", null));
+		assertNull(deserializer.deserialize("user_actions", null));
+	}
+
+	@Test
+	void readsLegacyJsonMessages() {
+		UserActionEvent event = new UserActionEvent(7L, 8L, ActionType.UNFAVORITE, 1_700_000_000_000L);
+		try (JsonSerializer<UserActionEvent> jsonSerializer = new JsonSerializer<>()) {
+			byte[] json = jsonSerializer.serialize("user_actions", event);
+			assertEquals(event, deserializer.deserialize("user_actions", json));
+		}
+	}
+
+	@Test
+	void rejectsUnknownVersionAndCorruptData() {
+		byte[] data = serializer.serialize("user_actions", new UserActionEvent(1L, 2L, ActionType.VIEW, 3L));
+		data[0] = 99;
+		assertThrows(SerializationException.class, () -> deserializer.deserialize("user_actions", data));
+		assertThrows(SerializationException.class, () -> deserializer.deserialize("user_actions", new byte[]{1, 0, 0}));
+	}
+}
@@ -0,0 +1,102 @@
+package com.yubzhou.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.yubzhou.common.HotNewsSnapshot;
+import com.yubzhou.model.vo.HotNews;
+import com.yubzhou.properties.HotNewsProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseAsyncServiceImplTest {
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	// 推送线程未启动时事件积压在缓冲区，超过缓冲区大小的订阅者被断开
+	@Test
+	void evictsSubscriberWhoseBufferIsFull() {
+		HotNewsProperties properties = new HotNewsProperties();
+		properties.getStream().setBufferSize(2);
+		SseAsyncServiceImpl service = new SseAsyncServiceImpl(objectMapper, properties);
+
+		HotNewsSnapshot first = snapshot(1L, 2L);
+		service.publishHotNews("1h", first);
+		service.subscribeHotNews("1h", new SseEmitter(), first); // 缓冲区：snapshot
+
+		service.publishHotNews("1h", snapshot(1L, 2L)); // 内容不变，不推送
+		service.publishHotNews("1h", HotNewsSnapshot.of(List.of(new HotNews(1L, 9.0), new HotNews(2L, 1.0)), first, objectMapper)); // 只有热度变化，不推送
+		assertEquals(1, subscribers(service).get("1h"));
+
+		service.publishHotNews("1h", snapshot(2L, 1L)); // 缓冲区：snapshot、diff
+		assertEquals(1, subscribers(service).get("1h"));
+
+		service.publishHotNews("1h", snapshot(3L, 1L)); // 缓冲区已满，断开
+		assertEquals(0, subscribers(service).get("1h"));
+		assertEquals(1L, service.getHotNewsStreamStats().get("evicted"));
+		assertEquals(2L, service.getHotNewsStreamStats().get("diffs"));
+	}
+
+	// 客户端不读取（写出阻塞）：不影响其他订阅者，写出超时后被断开
+	@Test
+	void slowSubscriberDoesNotBlockOthers() throws Exception {
+		HotNewsProperties properties = new HotNewsProperties();
+		properties.getStream().setWriterThreads(1);
+		properties.getStream().setWriteTimeoutMillis(100);
+		SseAsyncServiceImpl service = new SseAsyncServiceImpl(objectMapper, properties);
+		HotNewsSnapshot first = snapshot(1L, 2L);
+		service.publishHotNews("1h", first);
+
+		CountDownLatch blocked = new CountDownLatch(1);
+		service.subscribeHotNews("1h", new SseEmitter() {
+			@Override
+			public void send(SseEventBuilder builder) throws IOException {
+				blocked.countDown();
+				try {
+					new CountDownLatch(1).await(); // 一直阻塞，直到被中断
+				} catch (InterruptedException e) {
+					throw new IOException("写出被中断", e);
+				}
+			}
+		}, first);
+		BlockingQueue<String> received = new LinkedBlockingQueue<>();
+		service.subscribeHotNews("1h", new SseEmitter() {
+			@Override
+			public void send(SseEventBuilder builder) {
+				received.add(builder.build().toString());
+			}
+		}, first);
+
+		service.startFanOut();
+		try {
+			// 唯一的写出线程先被慢订阅者阻塞，写出超时后断开慢订阅者，再写出其他订阅者
+			assertTrue(blocked.await(5, TimeUnit.SECONDS));
+			assertNotNull(received.poll(5, TimeUnit.SECONDS));
+			assertEquals(1L, service.getHotNewsStreamStats().get("timedOut"));
+			assertEquals(1, subscribers(service).get("1h"));
+
+			service.publishHotNews("1h", snapshot(2L, 1L));
+			assertNotNull(received.poll(5, TimeUnit.SECONDS));
+		} finally {
+			service.stopFanOut();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Integer> subscribers(SseAsyncServiceImpl service) {
+		return (Map<String, Integer>) service.getHotNewsStreamStats().get("subscribers");
+	}
+
+	private HotNewsSnapshot snapshot(Long... newsIds) {
+		return HotNewsSnapshot.of(Arrays.stream(newsIds).map(id -> new HotNews(id, 1.0)).toList(), null, objectMapper);
+	}
+}
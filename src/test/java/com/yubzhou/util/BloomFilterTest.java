@@ -0,0 +1,45 @@
+package com.yubzhou.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+	@Test
+	void hasNoFalseNegativesAndBoundedFalsePositiveRate() {
+		BloomFilter filter = new BloomFilter(100_000, 0.01);
+		// 100000个元素、1%误判率：约958506位，7个哈希函数
+		assertEquals(958_512, filter.getBitSize());
+		assertEquals(7, filter.getHashCount());
+
+		for (long id = 1; id <= 100_000; id++) filter.put(id);
+		for (long id = 1; id <= 100_000; id++) assertTrue(filter.mightContain(id));
+
+		int falsePositives = 0;
+		for (long id = 1_000_001; id <= 1_100_000; id++) {
+			if (filter.mightContain(id)) falsePositives++;
+		}
+		assertTrue(falsePositives < 1500, "falsePositives=" + falsePositives);
+		assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+	}
+
+	@Test
+	void convertsToAndFromRedisBitmap() {
+		BloomFilter filter = new BloomFilter(1000, 0.01);
+		filter.setBit(0);
+		filter.setBit(9);
+		byte[] bitmap = filter.toRedisBitmap();
+		// 与redis的SETBIT一致：offset 0是第一个字节的最高位，offset 9是第二个字节的次高位
+		assertEquals((byte) 0x80, bitmap[0]);
+		assertEquals((byte) 0x40, bitmap[1]);
+		assertEquals(filter.getBitSize() / 8, bitmap.length);
+
+		for (long id = 1; id <= 500; id++) filter.put(id);
+		BloomFilter copy = new BloomFilter(1000, 0.01);
+		copy.mergeRedisBitmap(filter.toRedisBitmap());
+		assertEquals(filter.bitCount(), copy.bitCount());
+		for (long id = 1; id <= 500; id++) assertTrue(copy.mightContain(id));
+		assertArrayEquals(filter.toRedisBitmap(), copy.toRedisBitmap());
+	}
+}
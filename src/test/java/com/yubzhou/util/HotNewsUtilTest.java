@@ -0,0 +1,62 @@
+package com.yubzhou.util;
+
+import com.yubzhou.util.HotNewsUtil.ScoreMode;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.zset.Aggregate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotNewsUtilTest {
+
+	private static final long TAU_SECONDS = 24 * 3600;
+
+	@Test
+	void logTimeOrderingMatchesExponentialDecayAtAnyTime() {
+		Random random = new Random(42);
+		LocalDateTime base = LocalDateTime.of(2025, 4, 1, 0, 0);
+		for (int i = 0; i < 1000; i++) {
+			double base1 = 1 + random.nextDouble() * 500;
+			double base2 = 1 + random.nextDouble() * 500;
+			LocalDateTime created1 = base.plusMinutes(random.nextInt(7 * 24 * 60));
+			LocalDateTime created2 = base.plusMinutes(random.nextInt(7 * 24 * 60));
+
+			double score1 = HotNewsUtil.calculateLogTimeHotness(base1, created1, TAU_SECONDS);
+			double score2 = HotNewsUtil.calculateLogTimeHotness(base2, created2, TAU_SECONDS);
+
+			// 不论在哪个时刻比较，排序都与 基础热度 × e^(−(当前时间−创建时间)/τ) 一致
+			for (int days = 7; days <= 30; days += 23) {
+				LocalDateTime now = base.plusDays(days);
+				double decayed1 = base1 * Math.exp(-ChronoUnit.SECONDS.between(created1, now) / (double) TAU_SECONDS);
+				double decayed2 = base2 * Math.exp(-ChronoUnit.SECONDS.between(created2, now) / (double) TAU_SECONDS);
+				assertEquals(Double.compare(decayed1, decayed2), Double.compare(score1, score2));
+			}
+		}
+	}
+
+	@Test
+	void logTimeIsMonotonicInBaseAndCreatedAt() {
+		LocalDateTime createdAt = LocalDateTime.of(2025, 4, 1, 12, 0);
+		assertTrue(HotNewsUtil.calculateLogTimeHotness(20, createdAt, TAU_SECONDS)
+				> HotNewsUtil.calculateLogTimeHotness(10, createdAt, TAU_SECONDS));
+		assertTrue(HotNewsUtil.calculateLogTimeHotness(10, createdAt.plusHours(1), TAU_SECONDS)
+				> HotNewsUtil.calculateLogTimeHotness(10, createdAt, TAU_SECONDS));
+		// 基础热度小于1时按1计算（避免负无穷）
+		assertEquals(HotNewsUtil.calculateLogTimeHotness(1, createdAt, TAU_SECONDS),
+				HotNewsUtil.calculateLogTimeHotness(0, createdAt, TAU_SECONDS));
+	}
+
+	@Test
+	void calculateHotnessDispatchesByMode() {
+		LocalDateTime createdAt = LocalDateTime.now().minusDays(2);
+		assertEquals(HotNewsUtil.calculateDecayedHotness(100, createdAt),
+				HotNewsUtil.calculateHotness(ScoreMode.DECAY, 100, createdAt, TAU_SECONDS));
+		assertEquals(HotNewsUtil.calculateLogTimeHotness(100, createdAt, TAU_SECONDS),
+				HotNewsUtil.calculateHotness(ScoreMode.LOG_TIME, 100, createdAt, TAU_SECONDS));
+		assertEquals(Aggregate.MAX, ScoreMode.LOG_TIME.getMergeAggregate());
+		assertEquals(Aggregate.SUM, ScoreMode.DECAY.getMergeAggregate());
+	}
+}
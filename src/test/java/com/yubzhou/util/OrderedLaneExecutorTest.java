@@ -0,0 +1,89 @@
+package com.yubzhou.util;
+
+import com.yubzhou.properties.AsyncProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedLaneExecutorTest {
+
+	private static OrderedLaneExecutor newExecutor(int laneCount, int queueCapacity, long offerTimeoutMillis) {
+		AsyncProperties.LaneConfig config = new AsyncProperties.LaneConfig();
+		config.setLaneCount(laneCount);
+		config.setQueueCapacity(queueCapacity);
+		config.setOfferTimeoutMillis(offerTimeoutMillis);
+		config.setAwaitTerminationSeconds(5);
+		return new OrderedLaneExecutor(config);
+	}
+
+	@Test
+	void tasksWithSameKeyRunInSubmissionOrder() throws Exception {
+		OrderedLaneExecutor executor = newExecutor(4, 10_000, 1000);
+		Map<Long, List<Integer>> executed = new ConcurrentHashMap<>();
+		int keys = 16;
+		int perKey = 1000;
+		for (int i = 0; i < perKey; i++) {
+			for (long key = 0; key < keys; key++) {
+				int seq = i;
+				long k = key;
+				executor.execute(k, () -> executed.computeIfAbsent(k, x -> Collections.synchronizedList(new ArrayList<>())).add(seq));
+			}
+		}
+		assertTrue(executor.awaitIdle(10, TimeUnit.SECONDS));
+		executor.shutdown();
+
+		for (long key = 0; key < keys; key++) {
+			List<Integer> seqs = executed.get(key);
+			assertEquals(perKey, seqs.size());
+			for (int i = 0; i < perKey; i++) assertEquals(i, seqs.get(i));
+		}
+		assertEquals((long) keys * perKey, executor.getStats().get("completed"));
+	}
+
+	@Test
+	void executeGroupedWaitsForAllLanesAndPropagatesFailure() {
+		OrderedLaneExecutor executor = newExecutor(4, 100, 1000);
+		List<Long> items = new ArrayList<>();
+		for (long i = 0; i < 100; i++) items.add(i);
+
+		Set<Long> handled = ConcurrentHashMap.newKeySet();
+		executor.executeGrouped(items, id -> id, handled::addAll).join();
+		assertEquals(100, handled.size());
+
+		CompletableFuture<Void> failed = executor.executeGrouped(items, id -> id, group -> {
+			if (group.contains(7L)) throw new IllegalStateException("boom");
+		});
+		assertThrows(CompletionException.class, failed::join);
+		executor.shutdown();
+	}
+
+	@Test
+	void rejectsWhenLaneQueueStaysFull() throws Exception {
+		OrderedLaneExecutor executor = newExecutor(1, 1, 10);
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(1L, () -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		// 等待第一个任务被取出执行，然后填满队列
+		while (((Number) executor.getStats().get("submitted")).longValue() < 1) Thread.onSpinWait();
+		TimeUnit.MILLISECONDS.sleep(50);
+		executor.execute(1L, () -> {
+		});
+		assertThrows(RejectedExecutionException.class, () -> executor.execute(1L, () -> {
+		}));
+		assertEquals(1L, executor.getStats().get("rejected"));
+
+		release.countDown();
+		assertTrue(executor.awaitIdle(5, TimeUnit.SECONDS));
+		executor.shutdown();
+		assertThrows(RejectedExecutionException.class, () -> executor.execute(1L, () -> {
+		}));
+	}
+}
@@ -0,0 +1,88 @@
+package com.yubzhou.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+				loads.incrementAndGet();
+				started.countDown();
+				awaitQuietly(release);
+				return "news-1";
+			}));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+
+			List<Future<String>> waiters = new ArrayList<>();
+			for (int i = 0; i < 7; i++) {
+				waiters.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+					loads.incrementAndGet();
+					return "unexpected";
+				})));
+			}
+			// 等待所有调用者加入正在进行的加载
+			while ((Long) singleFlight.getStats().get("shared") < 7) Thread.sleep(1);
+			release.countDown();
+
+			assertEquals("news-1", leader.get(5, TimeUnit.SECONDS));
+			for (Future<String> waiter : waiters) assertEquals("news-1", waiter.get(5, TimeUnit.SECONDS));
+			assertEquals(1, loads.get());
+			assertEquals(0, singleFlight.inFlightCount());
+
+			// 加载完成后再次调用会重新加载
+			assertEquals("reloaded", singleFlight.execute(1L, () -> "reloaded"));
+			assertEquals(2L, singleFlight.getStats().get("leaders"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void propagatesLeaderFailureToWaiters() throws Exception {
+		SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+				started.countDown();
+				awaitQuietly(release);
+				throw new IllegalStateException("redis不可用");
+			}));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			Future<String> waiter = executor.submit(() -> singleFlight.execute(1L, () -> "unexpected"));
+			while ((Long) singleFlight.getStats().get("shared") < 1) Thread.sleep(1);
+			release.countDown();
+
+			ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+			ExecutionException waiterError = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(IllegalStateException.class, waiterError.getCause());
+			assertEquals(0, singleFlight.inFlightCount());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.yubzhou.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+	@Test
+	void sumsCompletedBucketsAndReusesExpiredSlots() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(5, 1000, 2);
+		for (long t = 0; t < 4000; t += 100) counter.add(0, 1, t); // 每秒10次
+		counter.add(1, 7, 3500);
+
+		assertEquals(10, counter.current(0, 3999));
+		assertEquals(10, counter.sum(0, 1, 4000)); // 第3秒
+		assertEquals(40, counter.sum(0, 4, 4000));
+		assertEquals(40, counter.sum(0, 100, 4000)); // 最多读取 slots − 1 个时间桶
+		assertEquals(7, counter.sum(1, 4, 4000));
+
+		// 第5秒复用第0秒的槽位，过期的计数被清零
+		counter.add(0, 3, 5200);
+		assertEquals(3, counter.sum(0, 1, 6000));
+		assertEquals(23, counter.sum(0, 4, 6000)); // 第2、3、5秒（第4秒没有事件）
+		// 写入已被复用的过期时间桶时忽略
+		counter.add(0, 100, 200);
+		assertEquals(3, counter.sum(0, 1, 6000));
+	}
+
+	@Test
+	void tracksMaximumPerBucket() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(10, 1000, 1);
+		counter.updateMax(0, 5, 100);
+		counter.updateMax(0, 3, 200);
+		counter.updateMax(0, 9, 1100);
+
+		assertEquals(5, counter.max(0, 1, 1500));
+		assertEquals(9, counter.max(0, 2, 2000));
+	}
+}
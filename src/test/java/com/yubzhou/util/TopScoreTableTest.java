@@ -0,0 +1,55 @@
+package com.yubzhou.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.zset.Aggregate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopScoreTableTest {
+
+	@Test
+	void putReplacesScoreLikeZAdd() {
+		TopScoreTable table = new TopScoreTable(10);
+		assertNull(table.put(1, 5));
+		assertEquals(5.0, (double) table.put(1, 3)); // 热度可以降低（如取消支持）
+		table.putIfAbsent(1, 100);
+		table.add(2, 2);
+		table.add(2, 2);
+		table.max(3, 1);
+		table.max(3, 0.5);
+
+		List<TopScoreTable.Entry> top = TopScoreTable.mergeTopK(List.of(table), Aggregate.SUM, 10);
+		assertEquals(List.of(new TopScoreTable.Entry(2, 4), new TopScoreTable.Entry(1, 3), new TopScoreTable.Entry(3, 1)), top);
+	}
+
+	@Test
+	void keepsHighestScoresWhenFull() {
+		TopScoreTable table = new TopScoreTable(3);
+		for (int i = 1; i <= 10; i++) table.put(i, i);
+		table.put(1, 0.5); // 不大于最小热度，不替换
+		table.put(8, 20); // 已在表中的新闻直接更新
+
+		assertEquals(3, table.size());
+		List<TopScoreTable.Entry> top = TopScoreTable.mergeTopK(List.of(table), Aggregate.SUM, 10);
+		assertEquals(List.of(8L, 10L, 9L), top.stream().map(TopScoreTable.Entry::key).toList());
+	}
+
+	@Test
+	void mergesTablesWithAggregateAndZRevRangeTieBreak() {
+		TopScoreTable hour1 = new TopScoreTable(10);
+		TopScoreTable hour2 = new TopScoreTable(10);
+		hour1.put(1, 5);
+		hour2.put(1, 7);
+		hour1.put(2, 9);
+		hour2.put(10, 9);
+
+		assertEquals(List.of(new TopScoreTable.Entry(1, 12), new TopScoreTable.Entry(2, 9), new TopScoreTable.Entry(10, 9)),
+				TopScoreTable.mergeTopK(List.of(hour1, hour2), Aggregate.SUM, 10));
+		// 热度相同时按成员的字符串逆序（"2" > "10"），与ZREVRANGE一致
+		assertEquals(List.of(2L, 10L, 1L),
+				TopScoreTable.mergeTopK(List.of(hour1, hour2), Aggregate.MAX, 3).stream().map(TopScoreTable.Entry::key).toList());
+		assertEquals(1, TopScoreTable.mergeTopK(List.of(hour1, hour2), Aggregate.MAX, 1).size());
+	}
+}